@@ -0,0 +1,346 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import com.github.saftsau.xrel4j.cache.CacheEntry;
+import com.github.saftsau.xrel4j.cache.CacheKey;
+import com.github.saftsau.xrel4j.cache.CachePolicy;
+import com.github.saftsau.xrel4j.cache.ResponseCache;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * Interceptor answering read requests from a {@link ResponseCache}. All endpoints share this single
+ * path: a request is cacheable if it is a {@code GET} without authentication and its endpoint has a
+ * time to live in the {@link CachePolicy}. Successful responses of cacheable requests are buffered
+ * and stored as raw JSON. Errors are only stored if they are "not found" errors of an endpoint with
+ * a time to live for them; they are distinguished from transient errors, e.g. the rate limit, by
+ * the error code of the xREL API. Responses answered from the cache carry no
+ * X-RateLimit-* headers, so the rate limit values of the last real request are kept.
+ * <p>
+ * Expired responses of endpoints with a maximum staleness in the {@link CachePolicy} are returned
+ * as hits as well, while a single request per response refreshes it on the
+ * {@link XrelExecutor#getDefault()} executor. No refresh is started while the rate limit is
+ * reached.
+ */
+class CacheInterceptor implements Interceptor {
+
+  // The error code of the xREL API for unknown IDs and dirnames
+  private static final String NOT_FOUND_ERROR = "not_found";
+
+  private final ResponseCache cache;
+  private final CachePolicy policy;
+  private final String basePath;
+  private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+  private final Set<CacheKey> refreshing = ConcurrentHashMap.newKeySet();
+  private volatile Call.Factory callFactory;
+
+  /**
+   * Constructs a new CacheInterceptor.
+   * 
+   * @param cache The {@link ResponseCache} to use
+   * @param policy The {@link CachePolicy} to use, copied
+   * @param basePath The encoded path of the base URL, removed from the endpoint names
+   */
+  CacheInterceptor(ResponseCache cache, CachePolicy policy, String basePath) {
+    this.cache = cache;
+    this.policy = new CachePolicy(policy);
+    this.basePath = basePath;
+  }
+
+  /**
+   * Sets the client used to refresh stale responses. Until it is set, stale responses are not
+   * returned.
+   * 
+   * @param callFactory The client containing this interceptor
+   */
+  void setCallFactory(Call.Factory callFactory) {
+    this.callFactory = callFactory;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    if (!"GET".equals(request.method()) || request.header("Authorization") != null) {
+      return chain.proceed(request);
+    }
+    String path = request.url().encodedPath();
+    String endpoint = path.startsWith(basePath) ? path.substring(basePath.length()) : path;
+    long ttl = policy.getTtl(endpoint, TimeUnit.MILLISECONDS);
+    if (ttl <= 0) {
+      return chain.proceed(request);
+    }
+
+    Counters endpointCounters = counters.computeIfAbsent(endpoint, e -> new Counters());
+    CacheKey key = createKey(endpoint, request.url());
+    long notFoundTtl = policy.getNotFoundTtl(endpoint, TimeUnit.MILLISECONDS);
+    long maxStale = policy.getMaxStale(endpoint, TimeUnit.MILLISECONDS);
+    if (request.tag(Refresh.class) != null) {
+      return fetch(chain, key, ttl, maxStale, notFoundTtl, endpointCounters);
+    }
+    long now = System.currentTimeMillis();
+    CacheEntry entry = cache.get(key);
+    if (entry != null && !entry.isExpired(now)) {
+      endpointCounters.hits.increment();
+      return createResponse(request, entry, now);
+    }
+    if (entry != null) {
+      Call.Factory factory = callFactory;
+      // "Not found" errors are only cached briefly to pick up new releases, so never stale
+      if (factory != null && now - entry.getExpiresAt() < maxStale && !isError(entry)) {
+        endpointCounters.hits.increment();
+        endpointCounters.staleHits.increment();
+        refresh(factory, request, key, endpointCounters, now);
+        return createResponse(request, entry, now);
+      }
+      cache.remove(key);
+    }
+    endpointCounters.misses.increment();
+    return fetch(chain, key, ttl, maxStale, notFoundTtl, endpointCounters);
+  }
+
+  /**
+   * Sends a request to the server and stores its response unless it is an error other than "not
+   * found".
+   */
+  private Response fetch(Chain chain, CacheKey key, long ttl, long maxStale, long notFoundTtl,
+      Counters endpointCounters) throws IOException {
+    Response response = chain.proceed(chain.request());
+    ResponseBody body = response.body();
+    if (body == null) {
+      return response;
+    }
+    int code = response.code();
+    if (code != 200 && (notFoundTtl <= 0
+        || body.source().request(ResponseInterceptor.MAX_ERROR_SIZE + 1))) {
+      // Can't be a "not found" error to cache, so it is left untouched
+      return response;
+    }
+    byte[] bytes = body.bytes();
+    MediaType contentType = body.contentType();
+    Error error = readError(bytes);
+    long entryTtl = 0;
+    long entryMaxStale = 0;
+    if (error == null && code == 200) {
+      entryTtl = ttl;
+      entryMaxStale = maxStale;
+    } else if (error != null && NOT_FOUND_ERROR.equals(error.getError())) {
+      entryTtl = notFoundTtl;
+    }
+    if (entryTtl > 0) {
+      long receivedAt = System.currentTimeMillis();
+      cache.put(key, new CacheEntry(bytes, contentType == null ? null : contentType.toString(),
+          code, receivedAt, receivedAt + entryTtl, receivedAt + entryTtl + entryMaxStale));
+      endpointCounters.stores.increment();
+    }
+    // The body was consumed above, so the caller gets a copy
+    return response.newBuilder().body(ResponseBody.create(contentType, bytes)).build();
+  }
+
+  /**
+   * Starts refreshing a stale response in the background unless it is already being refreshed or
+   * the rate limit is reached. On failure the stale response is kept and used until the next
+   * refresh succeeds or it exceeds its maximum staleness.
+   */
+  private void refresh(Call.Factory factory, Request request, CacheKey key,
+      Counters endpointCounters, long now) {
+    if (ResponseInterceptor.getXRateLimitRemaining() == 0
+        && ResponseInterceptor.getXRateLimitReset() * 1000L > now) {
+      return;
+    }
+    if (!refreshing.add(key)) {
+      return;
+    }
+    Request refreshRequest = request.newBuilder().tag(Refresh.class, Refresh.INSTANCE).build();
+    try {
+      XrelExecutor.getDefault().execute(() -> {
+        try {
+          // Stored by this interceptor on the way back
+          factory.newCall(refreshRequest).execute().close();
+        } catch (IOException | XrelException e) {
+          // Connection problems, API errors and the rate limit all keep the stale response
+          endpointCounters.refreshFailures.increment();
+        } finally {
+          refreshing.remove(key);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      refreshing.remove(key);
+    }
+  }
+
+  /**
+   * Creates the key of a request from its endpoint and query parameters.
+   * 
+   * @param endpoint The endpoint
+   * @param url The URL of the request
+   * @return The {@link CacheKey}
+   */
+  static CacheKey createKey(String endpoint, HttpUrl url) {
+    Map<String, String> parameters = new HashMap<>();
+    for (int i = 0; i < url.querySize(); i++) {
+      parameters.put(url.queryParameterName(i), url.queryParameterValue(i));
+    }
+    return CacheKey.of(endpoint, parameters);
+  }
+
+  private static Response createResponse(Request request, CacheEntry entry, long now) {
+    String contentType = entry.getContentType();
+    Response.Builder builder = new Response.Builder().request(request).protocol(Protocol.HTTP_1_1)
+        .code(entry.getCode()).message(entry.getCode() == 404 ? "Not Found" : "OK")
+        .sentRequestAtMillis(now).receivedResponseAtMillis(now);
+    if (contentType != null) {
+      builder.header("Content-Type", contentType);
+    }
+    // Marks the response as answered from the cache, like the HTTP cache of OkHttp does
+    Response cacheResponse = builder.build();
+    return builder.cacheResponse(cacheResponse)
+        .body(ResponseBody.create(contentType == null ? null : MediaType.parse(contentType),
+            entry.getLength(), Okio.buffer(new ByteBufferSource(entry.getBodyBuffer()))))
+        .build();
+  }
+
+  /**
+   * Reads a cached body directly from its buffer, so bodies stored off the heap are only copied in
+   * small chunks while they are parsed.
+   */
+  private static final class ByteBufferSource implements Source {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferSource(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int length = (int) Math.min(Math.min(byteCount, CHUNK_SIZE), buffer.remaining());
+      ByteBuffer chunk = buffer.duplicate();
+      chunk.limit(chunk.position() + length);
+      sink.write(chunk);
+      buffer.position(buffer.position() + length);
+      return length;
+    }
+
+    @Override
+    public Timeout timeout() {
+      return Timeout.NONE;
+    }
+
+    @Override
+    public void close() {
+      buffer.position(buffer.limit());
+    }
+
+  }
+
+  /**
+   * Reads the xREL API error of a body, as errors are sometimes returned with status {@code 200}.
+   * 
+   * @return The {@link Error}, {@code null} if the body is not an error
+   */
+  private static Error readError(byte[] bytes) {
+    if (bytes.length > ResponseInterceptor.MAX_ERROR_SIZE) {
+      return null;
+    }
+    try (Buffer buffer = new Buffer()) {
+      return ResponseInterceptor.readError(buffer.write(bytes));
+    }
+  }
+
+  /**
+   * Checks whether a cached body is an xREL API error.
+   */
+  private static boolean isError(CacheEntry entry) {
+    if (entry.getCode() != 200) {
+      return true;
+    }
+    if (entry.getLength() > ResponseInterceptor.MAX_ERROR_SIZE) {
+      return false;
+    }
+    try (Buffer buffer = new Buffer()) {
+      buffer.write(entry.getBodyBuffer());
+      return ResponseInterceptor.readError(buffer) != null;
+    } catch (IOException e) {
+      // Can't happen, the buffer is in memory
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Gets the current statistics of all endpoints.
+   * 
+   * @return The {@link CacheStats} by endpoint, sorted by endpoint
+   */
+  Map<String, CacheStats> getCacheStats() {
+    Map<String, CacheStats> stats = new TreeMap<>();
+    counters.forEach((endpoint, endpointCounters) -> stats.put(endpoint,
+        new CacheStats(endpoint, endpointCounters.hits.sum(), endpointCounters.misses.sum(),
+            endpointCounters.stores.sum(), endpointCounters.staleHits.sum(),
+            endpointCounters.refreshFailures.sum())));
+    return stats;
+  }
+
+  /**
+   * The counters of a single endpoint.
+   */
+  private static final class Counters {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+  }
+
+  /**
+   * Tag of the requests refreshing stale responses, which always go to the server.
+   */
+  private static final class Refresh {
+
+    private static final Refresh INSTANCE = new Refresh();
+
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import com.github.saftsau.xrel4j.cache.CachePolicy;
+import com.github.saftsau.xrel4j.cache.ResponseCache;
+
+/**
+ * Snapshot of the {@link ResponseCache} usage of a single endpoint, see
+ * {@link Xrel#getCacheStats()}. Only requests that could be cached are counted, requests with
+ * authentication are not.
+ */
+public class CacheStats {
+
+  private final String endpoint;
+  private final long hits;
+  private final long misses;
+  private final long stores;
+  private final long staleHits;
+  private final long refreshFailures;
+
+  /**
+   * Constructs a new CacheStats.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param hits The number of requests answered from the cache
+   * @param misses The number of requests sent to the server
+   * @param stores The number of responses passed to the cache
+   * @param staleHits The number of requests answered with an expired response
+   * @param refreshFailures The number of failed refreshes of expired responses
+   */
+  CacheStats(String endpoint, long hits, long misses, long stores, long staleHits,
+      long refreshFailures) {
+    this.endpoint = endpoint;
+    this.hits = hits;
+    this.misses = misses;
+    this.stores = stores;
+    this.staleHits = staleHits;
+    this.refreshFailures = refreshFailures;
+  }
+
+  /**
+   * Gets the endpoint, relative to the base URL.
+   * 
+   * @return The endpoint
+   */
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Gets the number of requests answered from the cache.
+   * 
+   * @return The number of hits
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of requests sent to the server because nothing or only an expired response was
+   * cached.
+   * 
+   * @return The number of misses
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of responses passed to the cache to be stored. Lower than the number of misses
+   * if responses were errors. The cache may still drop responses, e.g. if they exceed its capacity.
+   * 
+   * @return The number of stored responses
+   */
+  public long getStores() {
+    return stores;
+  }
+
+  /**
+   * Gets the number of requests answered with an expired response while it was refreshed, see
+   * {@link CachePolicy#setMaxStale(String, long, java.util.concurrent.TimeUnit)}. These are
+   * included in the hits.
+   * 
+   * @return The number of stale hits
+   */
+  public long getStaleHits() {
+    return staleHits;
+  }
+
+  /**
+   * Gets the number of background refreshes of expired responses that failed, e.g. because of an
+   * error or the rate limit. The expired responses were kept in use.
+   * 
+   * @return The number of failed refreshes
+   */
+  public long getRefreshFailures() {
+    return refreshFailures;
+  }
+
+  /**
+   * Gets the share of requests answered from the cache.
+   * 
+   * @return The hit ratio between {@code 0} and {@code 1}, {@code 0} if there were no requests yet
+   */
+  public double getHitRatio() {
+    long requests = hits + misses;
+    if (requests == 0) {
+      return 0;
+    }
+    return hits / (double) requests;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats [getEndpoint()=" + getEndpoint() + ", getHits()=" + getHits()
+        + ", getMisses()=" + getMisses() + ", getStores()=" + getStores() + ", getStaleHits()="
+        + getStaleHits() + ", getRefreshFailures()=" + getRefreshFailures() + ", getHitRatio()="
+        + getHitRatio() + "]";
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Interceptor requesting gzip compressed responses and decompressing them while they are read, so
+ * the JSON parser streams from the decompressed body without an intermediate copy. Setting
+ * {@code Accept-Encoding} explicitly disables the transparent decompression of OkHttp, which hides
+ * the compressed size, so the received and decompressed bytes can be counted per endpoint.
+ */
+class CompressionInterceptor implements Interceptor {
+
+  private final String acceptEncoding;
+  private final String basePath;
+  private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new CompressionInterceptor.
+   * 
+   * @param compression {@code true} to request gzip, {@code false} to request no compression
+   * @param basePath The encoded path of the base URL, removed from the endpoint names
+   */
+  CompressionInterceptor(boolean compression, String basePath) {
+    this.acceptEncoding = compression ? "gzip" : "identity";
+    this.basePath = basePath;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    if (request.header("Accept-Encoding") != null || request.header("Range") != null) {
+      // Somebody else is handling the encoding
+      return chain.proceed(request);
+    }
+    Response response =
+        chain.proceed(request.newBuilder().header("Accept-Encoding", acceptEncoding).build());
+    ResponseBody body = response.body();
+    if (body == null) {
+      return response;
+    }
+
+    String path = request.url().encodedPath();
+    String endpoint = path.startsWith(basePath) ? path.substring(basePath.length()) : path;
+    Counters endpointCounters = counters.computeIfAbsent(endpoint, e -> new Counters());
+    endpointCounters.responses.increment();
+
+    Source source = new CountingSource(body.source(), endpointCounters.compressedBytes);
+    boolean gzip = "gzip".equalsIgnoreCase(response.header("Content-Encoding"));
+    long contentLength = body.contentLength();
+    Response.Builder builder = response.newBuilder();
+    if (gzip) {
+      endpointCounters.compressedResponses.increment();
+      source = new GzipSource(source);
+      contentLength = -1;
+      builder.removeHeader("Content-Encoding").removeHeader("Content-Length");
+    }
+    source = new CountingSource(source, endpointCounters.decompressedBytes);
+    return builder.body(ResponseBody.create(body.contentType(), contentLength, Okio.buffer(source)))
+        .build();
+  }
+
+  /**
+   * Gets the current statistics of all endpoints.
+   * 
+   * @return The {@link CompressionStats} by endpoint, sorted by endpoint
+   */
+  Map<String, CompressionStats> getCompressionStats() {
+    Map<String, CompressionStats> stats = new TreeMap<>();
+    counters.forEach((endpoint, endpointCounters) -> stats.put(endpoint,
+        new CompressionStats(endpoint, endpointCounters.responses.sum(),
+            endpointCounters.compressedResponses.sum(), endpointCounters.compressedBytes.sum(),
+            endpointCounters.decompressedBytes.sum())));
+    return stats;
+  }
+
+  /**
+   * The counters of a single endpoint.
+   */
+  private static final class Counters {
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder decompressedBytes = new LongAdder();
+
+  }
+
+  /**
+   * Source counting the bytes read through it.
+   */
+  private static final class CountingSource extends ForwardingSource {
+
+    private final LongAdder bytes;
+
+    private CountingSource(Source delegate, LongAdder bytes) {
+      super(delegate);
+      this.bytes = bytes;
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long read = super.read(sink, byteCount);
+      if (read > 0) {
+        bytes.add(read);
+      }
+      return read;
+    }
+
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+/**
+ * Snapshot of the response sizes of a single endpoint, see {@link Xrel#getCompressionStats()}.
+ * Bytes are counted while the body is read, so responses that are still being read are only
+ * partially included.
+ */
+public class CompressionStats {
+
+  private final String endpoint;
+  private final long responses;
+  private final long compressedResponses;
+  private final long compressedBytes;
+  private final long decompressedBytes;
+
+  /**
+   * Constructs a new CompressionStats.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/latest.json}
+   * @param responses The number of responses
+   * @param compressedResponses The number of compressed responses
+   * @param compressedBytes The number of body bytes received
+   * @param decompressedBytes The number of body bytes after decompression
+   */
+  CompressionStats(String endpoint, long responses, long compressedResponses,
+      long compressedBytes, long decompressedBytes) {
+    this.endpoint = endpoint;
+    this.responses = responses;
+    this.compressedResponses = compressedResponses;
+    this.compressedBytes = compressedBytes;
+    this.decompressedBytes = decompressedBytes;
+  }
+
+  /**
+   * Gets the endpoint, relative to the base URL.
+   * 
+   * @return The endpoint
+   */
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Gets the number of responses.
+   * 
+   * @return The number of responses
+   */
+  public long getResponses() {
+    return responses;
+  }
+
+  /**
+   * Gets the number of responses sent compressed by the server.
+   * 
+   * @return The number of compressed responses
+   */
+  public long getCompressedResponses() {
+    return compressedResponses;
+  }
+
+  /**
+   * Gets the number of body bytes received, as sent by the server.
+   * 
+   * @return The number of received bytes
+   */
+  public long getCompressedBytes() {
+    return compressedBytes;
+  }
+
+  /**
+   * Gets the number of body bytes after decompression, as read by the JSON parser.
+   * 
+   * @return The number of decompressed bytes
+   */
+  public long getDecompressedBytes() {
+    return decompressedBytes;
+  }
+
+  /**
+   * Gets the compression ratio, the decompressed size divided by the received size.
+   * 
+   * @return The ratio, {@code 1} if nothing was received yet
+   */
+  public double getRatio() {
+    if (compressedBytes == 0) {
+      return 1;
+    }
+    return decompressedBytes / (double) compressedBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "CompressionStats [getEndpoint()=" + getEndpoint() + ", getResponses()="
+        + getResponses() + ", getCompressedResponses()=" + getCompressedResponses()
+        + ", getCompressedBytes()=" + getCompressedBytes() + ", getDecompressedBytes()="
+        + getDecompressedBytes() + ", getRatio()=" + getRatio() + "]";
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * {@link EventListener} counting the connection events used for {@link ConnectionPoolStats}. A
+ * single instance is shared by all calls of a {@link RestClient}.
+ */
+class ConnectionEventListener extends EventListener {
+
+  private final LongAdder connectionsOpened = new LongAdder();
+  private final LongAdder http2ConnectionsOpened = new LongAdder();
+  private final LongAdder connectionsAcquired = new LongAdder();
+  private final LongAdder connectionsReleased = new LongAdder();
+
+  @Override
+  public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+      Protocol protocol) {
+    connectionsOpened.increment();
+    if (protocol == Protocol.HTTP_2 || protocol == Protocol.H2_PRIOR_KNOWLEDGE) {
+      http2ConnectionsOpened.increment();
+    }
+  }
+
+  @Override
+  public void connectionAcquired(Call call, Connection connection) {
+    connectionsAcquired.increment();
+  }
+
+  @Override
+  public void connectionReleased(Call call, Connection connection) {
+    connectionsReleased.increment();
+  }
+
+  long getConnectionsOpened() {
+    return connectionsOpened.sum();
+  }
+
+  long getHttp2ConnectionsOpened() {
+    return http2ConnectionsOpened.sum();
+  }
+
+  long getConnectionsAcquired() {
+    return connectionsAcquired.sum();
+  }
+
+  long getConnectionsInUse() {
+    return Math.max(0, connectionsAcquired.sum() - connectionsReleased.sum());
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+/**
+ * Snapshot of the connections of the HTTP client shared by all {@link Xrel} objects, see
+ * {@link Xrel#getConnectionPoolStats()}. All counters start at {@code 0} whenever a new
+ * {@link RestClientConfiguration} is applied.
+ */
+public class ConnectionPoolStats {
+
+  private final int connectionCount;
+  private final int idleConnectionCount;
+  private final long connectionsOpened;
+  private final long http2ConnectionsOpened;
+  private final long connectionsAcquired;
+  private final long connectionsInUse;
+
+  /**
+   * Constructs a new ConnectionPoolStats.
+   * 
+   * @param connectionCount The number of open connections
+   * @param idleConnectionCount The number of idle connections
+   * @param connectionsOpened The number of connections opened so far
+   * @param http2ConnectionsOpened The number of HTTP/2 connections opened so far
+   * @param connectionsAcquired The number of times a call got a connection
+   * @param connectionsInUse The number of calls currently holding a connection
+   */
+  ConnectionPoolStats(int connectionCount, int idleConnectionCount, long connectionsOpened,
+      long http2ConnectionsOpened, long connectionsAcquired, long connectionsInUse) {
+    this.connectionCount = connectionCount;
+    this.idleConnectionCount = idleConnectionCount;
+    this.connectionsOpened = connectionsOpened;
+    this.http2ConnectionsOpened = http2ConnectionsOpened;
+    this.connectionsAcquired = connectionsAcquired;
+    this.connectionsInUse = connectionsInUse;
+  }
+
+  /**
+   * Gets the number of open connections in the pool.
+   * 
+   * @return The number of connections
+   */
+  public int getConnectionCount() {
+    return connectionCount;
+  }
+
+  /**
+   * Gets the number of open connections not used by any call.
+   * 
+   * @return The number of idle connections
+   */
+  public int getIdleConnectionCount() {
+    return idleConnectionCount;
+  }
+
+  /**
+   * Gets the number of open connections used by at least one call.
+   * 
+   * @return The number of active connections
+   */
+  public int getActiveConnectionCount() {
+    return Math.max(0, connectionCount - idleConnectionCount);
+  }
+
+  /**
+   * Gets the number of connections opened so far, each including a TLS handshake.
+   * 
+   * @return The number of opened connections
+   */
+  public long getConnectionsOpened() {
+    return connectionsOpened;
+  }
+
+  /**
+   * Gets the number of HTTP/2 connections opened so far. A single HTTP/2 connection is shared by
+   * all concurrent calls.
+   * 
+   * @return The number of opened HTTP/2 connections
+   */
+  public long getHttp2ConnectionsOpened() {
+    return http2ConnectionsOpened;
+  }
+
+  /**
+   * Gets the number of times a call got a connection, either a new or a pooled one.
+   * 
+   * @return The number of acquired connections
+   */
+  public long getConnectionsAcquired() {
+    return connectionsAcquired;
+  }
+
+  /**
+   * Gets the number of calls currently holding a connection.
+   * 
+   * @return The number of calls
+   */
+  public long getConnectionsInUse() {
+    return connectionsInUse;
+  }
+
+  /**
+   * Gets the share of calls that reused a pooled connection instead of opening a new one.
+   * 
+   * @return The reuse ratio between {@code 0} and {@code 1}, {@code 0} if there was no call yet
+   */
+  public double getReuseRatio() {
+    if (connectionsAcquired == 0) {
+      return 0;
+    }
+    return Math.max(0, connectionsAcquired - connectionsOpened) / (double) connectionsAcquired;
+  }
+
+  @Override
+  public String toString() {
+    return "ConnectionPoolStats [getConnectionCount()=" + getConnectionCount()
+        + ", getIdleConnectionCount()=" + getIdleConnectionCount()
+        + ", getActiveConnectionCount()=" + getActiveConnectionCount()
+        + ", getConnectionsOpened()=" + getConnectionsOpened() + ", getHttp2ConnectionsOpened()="
+        + getHttp2ConnectionsOpened() + ", getConnectionsAcquired()=" + getConnectionsAcquired()
+        + ", getConnectionsInUse()=" + getConnectionsInUse() + ", getReuseRatio()="
+        + getReuseRatio() + "]";
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable variant of {@link PaginationList}. Instances can be shared by any number of threads and
+ * kept in caches without defensive copies, as long as the elements are immutable as well (e.g.
+ * {@link com.github.saftsau.xrel4j.release.scene.ImmutableRelease}). The list is unmodifiable and
+ * the {@link Pagination} is copied once when it is set and returned directly, its setters throw an
+ * {@link UnsupportedOperationException}.
+ * 
+ * @param <T> The type of the content of this list
+ */
+public final class ImmutablePaginationList<T> {
+
+  @JsonProperty("total_count")
+  private final long totalCount;
+  private final Pagination pagination;
+  private final List<T> list;
+
+  @JsonCreator
+  private ImmutablePaginationList(@JsonProperty("total_count") long totalCount,
+      @JsonProperty("pagination") Pagination pagination, @JsonProperty("list") List<T> list) {
+    this(totalCount, unmodifiable(pagination), list == null ? null : unmodifiableCopy(list), true);
+  }
+
+  /**
+   * Creates a new ImmutablePaginationList without copying, used for values that are already owned.
+   */
+  private ImmutablePaginationList(long totalCount, Pagination pagination, List<T> list,
+      boolean owned) {
+    this.totalCount = totalCount;
+    this.pagination = pagination;
+    this.list = list;
+  }
+
+  /**
+   * Creates a new ImmutablePaginationList. The list is copied.
+   * 
+   * @param <T> The type of the content of the list
+   * @param totalCount The total count of entries that are available
+   * @param pagination The {@link Pagination} that is used
+   * @param list The retrieved list of entries
+   * @return The ImmutablePaginationList
+   */
+  public static <T> ImmutablePaginationList<T> of(long totalCount, Pagination pagination,
+      List<T> list) {
+    return new ImmutablePaginationList<>(totalCount, pagination, list);
+  }
+
+  /**
+   * Creates an immutable copy of a {@link PaginationList}, converting all entries with the given
+   * function, e.g. {@code ImmutablePaginationList.of(releases, ImmutableRelease::of)}.
+   * 
+   * @param <T> The type of the content of the given list
+   * @param <R> The type of the content of the created list
+   * @param paginationList The {@link PaginationList} to copy
+   * @param converter The function used to convert the entries
+   * @return The immutable copy
+   */
+  public static <T, R> ImmutablePaginationList<R> of(PaginationList<T> paginationList,
+      Function<? super T, ? extends R> converter) {
+    Objects.requireNonNull(paginationList, "paginationList missing");
+    Objects.requireNonNull(converter, "converter missing");
+
+    List<R> list = null;
+    if (paginationList.getList() != null) {
+      list = new ArrayList<>(paginationList.getList().size());
+      for (T element : paginationList.getList()) {
+        list.add(element == null ? null : converter.apply(element));
+      }
+      list = Collections.unmodifiableList(list);
+    }
+    return new ImmutablePaginationList<>(paginationList.getTotalCount(),
+        unmodifiable(paginationList.getPagination()), list, true);
+  }
+
+  /**
+   * Gets the total count of entries that are available.
+   * 
+   * @return The total count
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Gets the Pagination that is currently used, which can't be modified.
+   * 
+   * @return The pagination
+   */
+  public Pagination getPagination() {
+    return pagination;
+  }
+
+  /**
+   * Gets the unmodifiable currently retrieved list of entries.
+   * 
+   * @return The list
+   */
+  public List<T> getList() {
+    return list;
+  }
+
+  /**
+   * Returns a copy of this ImmutablePaginationList with the given total count.
+   * 
+   * @param totalCount The total count
+   * @return The copy
+   */
+  public ImmutablePaginationList<T> withTotalCount(long totalCount) {
+    return new ImmutablePaginationList<>(totalCount, pagination, list, true);
+  }
+
+  /**
+   * Returns a copy of this ImmutablePaginationList with the given pagination.
+   * 
+   * @param pagination The pagination
+   * @return The copy
+   */
+  public ImmutablePaginationList<T> withPagination(Pagination pagination) {
+    return new ImmutablePaginationList<>(totalCount, unmodifiable(pagination), list, true);
+  }
+
+  /**
+   * Returns a copy of this ImmutablePaginationList with the given list. The list is copied.
+   * 
+   * @param list The list
+   * @return The copy
+   */
+  public ImmutablePaginationList<T> withList(List<T> list) {
+    return new ImmutablePaginationList<>(totalCount, pagination, list);
+  }
+
+  private static Pagination unmodifiable(Pagination pagination) {
+    return pagination == null || pagination instanceof UnmodifiablePagination ? pagination
+        : new UnmodifiablePagination(pagination);
+  }
+
+  private static <T> List<T> unmodifiableCopy(List<T> list) {
+    return Collections.unmodifiableList(new ArrayList<>(list));
+  }
+
+  @Override
+  public String toString() {
+    return "ImmutablePaginationList [getTotalCount()=" + getTotalCount() + ", getPagination()="
+        + getPagination() + ", getList()=" + getList() + "]";
+  }
+
+  /**
+   * {@link Pagination} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiablePagination extends Pagination {
+
+    private UnmodifiablePagination(Pagination pagination) {
+      super.setCurrentPage(pagination.getCurrentPage());
+      super.setPerPage(pagination.getPerPage());
+      super.setTotalPages(pagination.getTotalPages());
+    }
+
+    @Override
+    public void setCurrentPage(int currentPage) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setPerPage(int perPage) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTotalPages(long totalPages) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
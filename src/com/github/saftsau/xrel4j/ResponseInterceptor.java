@@ -19,9 +19,9 @@ package com.github.saftsau.xrel4j;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import okhttp3.Interceptor;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import okio.Buffer;
 import okio.BufferedSource;
 
@@ -30,16 +30,23 @@ import okio.BufferedSource;
  */
 class ResponseInterceptor implements Interceptor {
 
-  private static int xRateLimitLimit = -1;
-  private static int xRateLimitRemaining = -1;
-  private static int xRateLimitReset = -1;
-  private static int responseCode = -1;
+  // ObjectMapper is thread-safe once configured and expensive to create, so we share it
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  // Larger bodies are never checked for an error
+  static final long MAX_ERROR_SIZE = 4096;
+  // Written by every request thread, so all of these need to be visible across threads
+  private static volatile int xRateLimitLimit = -1;
+  private static volatile int xRateLimitRemaining = -1;
+  private static volatile int xRateLimitReset = -1;
+  private static volatile int responseCode = -1;
 
   @Override
   public Response intercept(Chain chain) throws IOException {
     Response response = chain.proceed(chain.request());
 
-    setResponseCode(response.code());
+    // Other threads may overwrite the shared response code at any time, so we keep our own
+    final int code = response.code();
+    setResponseCode(code);
 
     final String xRateLimitLimit = response.headers().get("X-RateLimit-Limit");
     if (xRateLimitLimit != null) {
@@ -58,28 +65,60 @@ class ResponseInterceptor implements Interceptor {
 
     // Try to handle an error. We have to rely on this method because currently the status codes
     // returned by the xREL API can't be trusted, e.g. returning 2xx responses for errors.
-    // Otherwise we have an error
-    BufferedSource source = response.body().source();
-    source.request(Long.MAX_VALUE); // request the entire body.
-    Buffer buffer = source.buffer();
-    // clone buffer before reading from it
-    String responseString = buffer.clone().readString(StandardCharsets.UTF_8);
-    ObjectMapper objectMapper = new ObjectMapper();
+    // Error bodies are tiny, so only short bodies are buffered and checked. Everything else is
+    // left untouched, so the JSON parser can stream it while it is decompressed.
+    ResponseBody body = response.body();
     Error error = null;
-    try {
-      error = objectMapper.readValue(responseString, Error.class);
-    } catch (Exception e) {
-      // Nothing, either there was no error or it was not an xREL API error
+    if (body != null) {
+      BufferedSource source = body.source();
+      if (!source.request(MAX_ERROR_SIZE + 1)) {
+        error = readError(source.buffer());
+      }
     }
     if (error != null) {
-      throw new XrelException(error.getErrorDescription(), error, getResponseCode());
+      // Answered from the cache, e.g. a cached "not found", the stack trace would only show this
+      // interceptor and is not worth filling in on every hit
+      boolean cached = response.networkResponse() == null && response.cacheResponse() != null;
+      throw new XrelException(error.getErrorDescription(), error, code, !cached);
     } else if (!response.isSuccessful()) {
-      throw new XrelException(getResponseCode());
+      throw new XrelException(code);
     }
 
     return response;
   }
 
+  /**
+   * Reads an xREL API error from a buffered body. Every JSON object is parsed, as the position of
+   * the {@code error} field within the object is not fixed. Does not consume the buffer.
+   * 
+   * @param buffer The buffered body, at most {@link #MAX_ERROR_SIZE} bytes
+   * @return The {@link Error}, {@code null} if the body is not an xREL API error
+   */
+  static Error readError(Buffer buffer) {
+    long index = skipWhitespace(buffer, 0);
+    if (index >= buffer.size() || buffer.getByte(index) != '{') {
+      return null;
+    }
+    try {
+      Error error = objectMapper.readValue(buffer.clone().inputStream(), Error.class);
+      return error.getError() != null ? error : null;
+    } catch (Exception e) {
+      // Nothing, it was not an xREL API error
+      return null;
+    }
+  }
+
+  private static long skipWhitespace(Buffer buffer, long index) {
+    while (index < buffer.size()) {
+      byte b = buffer.getByte(index);
+      if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+        break;
+      }
+      index++;
+    }
+    return index;
+  }
+
   /**
    * Gets the maximum number of requests that the consumer is permitted to make per hour as returned
    * by the last request. -1 if not yet set.
@@ -17,36 +17,199 @@
 
 package com.github.saftsau.xrel4j;
 
+import com.github.saftsau.xrel4j.cache.NoOpResponseCache;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 
 class RestClient {
 
-  private static final class InstanceHolder {
-    static final RestClient INSTANCE = new RestClient();
-  }
+  private static volatile RestClient instance;
 
-  private static Retrofit retrofit;
-  private static XrelService xrelService;
-  private final static String xrelUrl = "https://api.xrel.to/v2/";
+  private final RestClientConfiguration configuration;
+  private final String xrelUrl;
+  private final ConnectionPool connectionPool;
+  private final ConnectionEventListener connectionEventListener;
+  private final CompressionInterceptor compressionInterceptor;
+  private final CacheInterceptor cacheInterceptor;
+  private final OkHttpClient okHttpClient;
+  private final Retrofit retrofit;
+  private final XrelService xrelService;
 
+  /**
+   * Gets the shared instance. The instance is safe to use from any number of threads, including
+   * virtual threads. It is created with the default configuration on first use and replaced by
+   * {@link #configure(RestClientConfiguration)}.
+   * 
+   * @return The shared instance
+   */
   public static RestClient getInstance() {
-    if (retrofit == null) {
-      retrofit = new Retrofit.Builder().baseUrl(xrelUrl)
-          .addConverterFactory(JacksonConverterFactory.create())
-          .client(new OkHttpClient.Builder().addInterceptor(new ResponseInterceptor()).build())
-          .build();
+    RestClient restClient = instance;
+    if (restClient == null) {
+      synchronized (RestClient.class) {
+        restClient = instance;
+        if (restClient == null) {
+          restClient = new RestClient(new RestClientConfiguration());
+          instance = restClient;
+        }
+      }
+    }
+    return restClient;
+  }
+
+  /**
+   * Replaces the shared instance with one using the given configuration. Requests already running
+   * finish on the old instance.
+   * 
+   * @param configuration The configuration to use
+   */
+  static void configure(RestClientConfiguration configuration) {
+    RestClient restClient = new RestClient(new RestClientConfiguration(configuration));
+    RestClient previous;
+    synchronized (RestClient.class) {
+      previous = instance;
+      instance = restClient;
+    }
+    if (previous != null) {
+      // Connections in use are closed once their calls are done
+      previous.connectionPool.evictAll();
+    }
+  }
+
+  private RestClient(RestClientConfiguration configuration) {
+    this.configuration = configuration;
+    this.xrelUrl = configuration.getBaseUrl();
+
+    this.connectionPool = new ConnectionPool(configuration.getMaxIdleConnections(),
+        configuration.getKeepAlive(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+    this.connectionEventListener = new ConnectionEventListener();
+
+    OkHttpClient.Builder clientBuilder =
+        new OkHttpClient.Builder().protocols(configuration.getProtocols())
+            .connectionPool(connectionPool).eventListener(connectionEventListener)
+            .addInterceptor(new ResponseInterceptor());
+    String basePath = HttpUrl.get(xrelUrl).encodedPath();
+    if (configuration.getResponseCache() instanceof NoOpResponseCache) {
+      // Nothing would be stored, so responses are not buffered and keep streaming to the parser
+      this.cacheInterceptor = null;
+    } else {
+      // Inside the error handling, so cached responses are checked like real ones
+      this.cacheInterceptor = new CacheInterceptor(configuration.getResponseCache(),
+          configuration.getCachePolicy(), basePath);
+      clientBuilder.addInterceptor(cacheInterceptor);
+    }
+    for (Interceptor interceptor : configuration.getInterceptors()) {
+      clientBuilder.addInterceptor(interceptor);
+    }
+    // Innermost, so all other interceptors see the decompressed response
+    this.compressionInterceptor =
+        new CompressionInterceptor(configuration.isCompression(), basePath);
+    clientBuilder.addInterceptor(compressionInterceptor);
+    okHttpClient = clientBuilder.build();
+    if (cacheInterceptor != null) {
+      cacheInterceptor.setCallFactory(okHttpClient);
+    }
+    retrofit = new Retrofit.Builder().baseUrl(xrelUrl)
+        .addConverterFactory(JacksonConverterFactory.create()).client(okHttpClient).build();
 
-      xrelService = retrofit.create(XrelService.class);
+    xrelService = retrofit.create(XrelService.class);
+  }
+
+  /**
+   * Gets a copy of the configuration this instance was created with.
+   * 
+   * @return The configuration
+   */
+  public RestClientConfiguration getConfiguration() {
+    return new RestClientConfiguration(configuration);
+  }
+
+  /**
+   * Opens connections to the API server ahead of the first real calls, so these don't have to wait
+   * for DNS, TCP and TLS handshakes. Sends {@code connections} concurrent requests for the base
+   * URL, bypassing all interceptors; with HTTP/2 they all share a single connection. {@code GET} is used
+   * instead of {@code HEAD} as some servers close the connection after a {@code HEAD}. Only
+   * connections kept by the pool (see
+   * {@link RestClientConfiguration#setMaxIdleConnections(int)}) are reused later.
+   * 
+   * @param connections The number of concurrent requests
+   * @throws IOException If a connection could not be opened
+   */
+  void warmUp(int connections) throws IOException {
+    OkHttpClient.Builder warmUpBuilder = okHttpClient.newBuilder();
+    warmUpBuilder.interceptors().clear();
+    OkHttpClient warmUpClient = warmUpBuilder.build();
+    Request request = new Request.Builder().url(xrelUrl).build();
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      futures.add(XrelExecutor.getDefault().submit(() -> {
+        try (Response response = warmUpClient.newCall(request).execute()) {
+          // The status doesn't matter, but the body has to be read to reuse the connection
+          response.body().bytes();
+        }
+        return null;
+      }));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
     }
-    return InstanceHolder.INSTANCE;
   }
 
-  private RestClient() {}
+  /**
+   * Gets the current response size statistics of all endpoints.
+   * 
+   * @return The {@link CompressionStats} by endpoint
+   */
+  Map<String, CompressionStats> getCompressionStats() {
+    return compressionInterceptor.getCompressionStats();
+  }
+
+  /**
+   * Gets the current cache statistics of all endpoints.
+   * 
+   * @return The {@link CacheStats} by endpoint, empty if no cache is used
+   */
+  Map<String, CacheStats> getCacheStats() {
+    if (cacheInterceptor == null) {
+      return Collections.emptyMap();
+    }
+    return cacheInterceptor.getCacheStats();
+  }
+
+  /**
+   * Gets the current statistics of the connection pool.
+   * 
+   * @return The {@link ConnectionPoolStats}
+   */
+  ConnectionPoolStats getConnectionPoolStats() {
+    return new ConnectionPoolStats(connectionPool.connectionCount(),
+        connectionPool.idleConnectionCount(), connectionEventListener.getConnectionsOpened(),
+        connectionEventListener.getHttp2ConnectionsOpened(),
+        connectionEventListener.getConnectionsAcquired(),
+        connectionEventListener.getConnectionsInUse());
+  }
 
   public String getOAuth2Auth(String responseType, String clientId, Optional<String> redirectUri,
       Optional<String> state, Optional<String[]> scope) {
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import com.github.saftsau.xrel4j.cache.CachePolicy;
+import com.github.saftsau.xrel4j.cache.NoOpResponseCache;
+import com.github.saftsau.xrel4j.cache.ResponseCache;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+
+/**
+ * Configuration of the HTTP client shared by all {@link Xrel} objects. Apply it with
+ * {@link Xrel#setRestClientConfiguration(RestClientConfiguration)}; changing a configuration
+ * afterwards has no effect until it is applied again.
+ */
+public class RestClientConfiguration {
+
+  /**
+   * The URL of the xREL API v2.
+   */
+  public static final String DEFAULT_BASE_URL = "https://api.xrel.to/v2/";
+
+  /**
+   * The default number of idle connections kept in the pool.
+   */
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+  /**
+   * The default time in seconds an idle connection is kept in the pool.
+   */
+  public static final long DEFAULT_KEEP_ALIVE_SECONDS = 300;
+
+  private String baseUrl = DEFAULT_BASE_URL;
+  private final List<Interceptor> interceptors = new ArrayList<>();
+  private List<Protocol> protocols = Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+  private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+  private long keepAliveMillis = TimeUnit.SECONDS.toMillis(DEFAULT_KEEP_ALIVE_SECONDS);
+  private boolean compression = true;
+  private ResponseCache responseCache = new NoOpResponseCache();
+  private CachePolicy cachePolicy = new CachePolicy();
+
+  /**
+   * Constructs a new RestClientConfiguration with the default values.
+   */
+  public RestClientConfiguration() {}
+
+  /**
+   * Constructs a new RestClientConfiguration copying all values of another one.
+   * 
+   * @param configuration The RestClientConfiguration to copy
+   */
+  public RestClientConfiguration(RestClientConfiguration configuration) {
+    Objects.requireNonNull(configuration, "configuration missing");
+    this.baseUrl = configuration.baseUrl;
+    this.interceptors.addAll(configuration.interceptors);
+    this.protocols = configuration.protocols;
+    this.maxIdleConnections = configuration.maxIdleConnections;
+    this.keepAliveMillis = configuration.keepAliveMillis;
+    this.compression = configuration.compression;
+    this.responseCache = configuration.responseCache;
+    this.cachePolicy = new CachePolicy(configuration.cachePolicy);
+  }
+
+  /**
+   * Gets the base URL all endpoints are resolved against.
+   * 
+   * @return The base URL
+   */
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  /**
+   * Sets the base URL all endpoints are resolved against, for example a local mock server. Must end
+   * with {@code /}.
+   * 
+   * @param baseUrl The base URL to set
+   */
+  public void setBaseUrl(String baseUrl) {
+    Objects.requireNonNull(baseUrl, "baseUrl missing");
+    if (!baseUrl.endsWith("/")) {
+      throw new IllegalArgumentException("baseUrl must end with /");
+    }
+    this.baseUrl = baseUrl;
+  }
+
+  /**
+   * Gets the additional OkHttp interceptors in the order they are called.
+   * 
+   * @return The interceptors
+   */
+  public List<Interceptor> getInterceptors() {
+    return Collections.unmodifiableList(new ArrayList<>(interceptors));
+  }
+
+  /**
+   * Adds an OkHttp application interceptor. Additional interceptors are called after the internal
+   * interceptor handling rate limits and xREL API errors, so they see the request just before it is
+   * sent and the response exactly as returned by the server. An interceptor may also answer
+   * requests itself without calling the server at all.
+   * 
+   * @param interceptor The interceptor to add
+   */
+  public void addInterceptor(Interceptor interceptor) {
+    interceptors.add(Objects.requireNonNull(interceptor, "interceptor missing"));
+  }
+
+  /**
+   * Removes all additional interceptors.
+   */
+  public void clearInterceptors() {
+    interceptors.clear();
+  }
+
+  /**
+   * Gets the protocols offered to the server, in order of preference.
+   * 
+   * @return The protocols
+   */
+  public List<Protocol> getProtocols() {
+    return protocols;
+  }
+
+  /**
+   * Sets the protocols offered to the server, in order of preference. By default HTTP/2 is
+   * preferred, so all concurrent calls share a single multiplexed connection if the server supports
+   * it. Must contain {@link Protocol#HTTP_1_1}, unless it only contains
+   * {@link Protocol#H2_PRIOR_KNOWLEDGE} for servers known to speak cleartext HTTP/2.
+   * 
+   * @param protocols The protocols to set
+   */
+  public void setProtocols(List<Protocol> protocols) {
+    Objects.requireNonNull(protocols, "protocols missing");
+    this.protocols = Collections.unmodifiableList(new ArrayList<>(protocols));
+  }
+
+  /**
+   * Gets the maximum number of idle connections kept in the pool.
+   * 
+   * @return The maximum number of idle connections
+   */
+  public int getMaxIdleConnections() {
+    return maxIdleConnections;
+  }
+
+  /**
+   * Sets the maximum number of idle connections kept in the pool. Should be at least the number of
+   * concurrent calls if the server only supports HTTP/1.1, otherwise connections are closed after
+   * bursts and have to be opened again.
+   * 
+   * @param maxIdleConnections The maximum number of idle connections to set
+   */
+  public void setMaxIdleConnections(int maxIdleConnections) {
+    if (maxIdleConnections < 0) {
+      throw new IllegalArgumentException("maxIdleConnections < 0");
+    }
+    this.maxIdleConnections = maxIdleConnections;
+  }
+
+  /**
+   * Gets the time an idle connection is kept in the pool.
+   * 
+   * @param unit The unit of the result
+   * @return The keep alive time
+   */
+  public long getKeepAlive(TimeUnit unit) {
+    return unit.convert(keepAliveMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets the time an idle connection is kept in the pool.
+   * 
+   * @param keepAlive The keep alive time to set
+   * @param unit The unit of the keep alive time
+   */
+  public void setKeepAlive(long keepAlive, TimeUnit unit) {
+    if (keepAlive <= 0) {
+      throw new IllegalArgumentException("keepAlive <= 0");
+    }
+    this.keepAliveMillis = unit.toMillis(keepAlive);
+  }
+
+  /**
+   * Gets whether gzip compressed responses are requested.
+   * 
+   * @return {@code true} if compressed responses are requested
+   */
+  public boolean isCompression() {
+    return compression;
+  }
+
+  /**
+   * Sets whether gzip compressed responses are requested. If enabled, the default, responses are
+   * decompressed while they are parsed. If disabled, {@code Accept-Encoding: identity} is sent.
+   * Response sizes are counted either way, see {@link Xrel#getCompressionStats()}.
+   * 
+   * @param compression {@code true} to request compressed responses
+   */
+  public void setCompression(boolean compression) {
+    this.compression = compression;
+  }
+
+  /**
+   * Gets the {@link ResponseCache} used for all read endpoints.
+   * 
+   * @return The {@link ResponseCache}
+   */
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  /**
+   * Sets the {@link ResponseCache} used for all read endpoints. The same cache may be used by
+   * several configurations, e.g. to keep it when the configuration is changed. Defaults to a
+   * {@link NoOpResponseCache}, which caches nothing.
+   * 
+   * @param responseCache The {@link ResponseCache} to set
+   */
+  public void setResponseCache(ResponseCache responseCache) {
+    this.responseCache = Objects.requireNonNull(responseCache, "responseCache missing");
+  }
+
+  /**
+   * Gets a copy of the {@link CachePolicy} deciding which endpoints are cached and for how long.
+   * 
+   * @return The {@link CachePolicy}
+   */
+  public CachePolicy getCachePolicy() {
+    return new CachePolicy(cachePolicy);
+  }
+
+  /**
+   * Sets the {@link CachePolicy} deciding which endpoints are cached and for how long. The policy
+   * is copied, so changing it afterwards has no effect.
+   * 
+   * @param cachePolicy The {@link CachePolicy} to set
+   */
+  public void setCachePolicy(CachePolicy cachePolicy) {
+    Objects.requireNonNull(cachePolicy, "cachePolicy missing");
+    this.cachePolicy = new CachePolicy(cachePolicy);
+  }
+
+  @Override
+  public String toString() {
+    return "RestClientConfiguration [getBaseUrl()=" + getBaseUrl() + ", getInterceptors()="
+        + getInterceptors() + ", getProtocols()=" + getProtocols() + ", getMaxIdleConnections()="
+        + getMaxIdleConnections() + ", getKeepAlive()=" + getKeepAlive(TimeUnit.SECONDS)
+        + "s, isCompression()=" + isCompression() + ", getResponseCache()=" + getResponseCache()
+        + ", getCachePolicy()=" + getCachePolicy() + "]";
+  }
+
+}
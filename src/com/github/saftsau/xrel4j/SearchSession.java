@@ -0,0 +1,557 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ExtInfoSearchResult;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.ReleaseSearchResult;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import retrofit2.Call;
+
+/**
+ * Search helper for typeahead front-ends calling the search methods on every keystroke. Searches
+ * are sent {@code debounceDelay} milliseconds after the last search of this session, every search
+ * supersedes the previous one: a superseded search that was not sent yet is dropped, one that is
+ * in flight is cancelled, and the future of either is cancelled. Results are cached per query and
+ * parameters. If a cached result for a shorter prefix of the query is complete, i.e. the xREL API
+ * returned all of its matches, the query is answered by filtering that result locally without any
+ * request. Every keyword of the query then has to be contained in the dirname of a release or the
+ * title of an Ext Info, ignoring case and separators.
+ *
+ * <p>
+ * A session is meant for a single user typing, use one session per user.
+ *
+ * @see <a href= "https://www.xrel.to/wiki/6320/api-search-releases.html">API: search/releases
+ *      method</a>
+ * @see <a href= "https://www.xrel.to/wiki/6319/api-search-ext-info.html">API: search/ext_info
+ *      method</a>
+ */
+public class SearchSession implements AutoCloseable {
+
+  /**
+   * The default number of milliseconds a search waits for the next one before it is sent.
+   */
+  public static final long DEFAULT_DEBOUNCE_DELAY = 300;
+  /**
+   * The default number of cached search results.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 256;
+
+  private final Xrel xrel;
+  private final long debounceDelay;
+  private final XrelExecutor executor;
+  // Guards cache and pending, never held while sending
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<SearchKey, Object> cache;
+  private Pending<?> pending;
+  private boolean closed;
+  private final LongAdder requestCount = new LongAdder();
+  private final LongAdder cacheHitCount = new LongAdder();
+  private final LongAdder prefixHitCount = new LongAdder();
+  private final LongAdder supersededCount = new LongAdder();
+
+  /**
+   * Constructs a new SearchSession with a debounce delay of {@link #DEFAULT_DEBOUNCE_DELAY}
+   * milliseconds and {@link #DEFAULT_CACHE_SIZE} cached results on
+   * {@link XrelExecutor#getDefault()}.
+   *
+   * @param xrel The {@link Xrel} object used for all requests
+   */
+  public SearchSession(Xrel xrel) {
+    this(xrel, DEFAULT_DEBOUNCE_DELAY, DEFAULT_CACHE_SIZE, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new SearchSession.
+   *
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param debounceDelay The time in milliseconds a search waits for the next one before it is
+   *        sent, {@code 0} to send it right away
+   * @param cacheSize The maximum number of cached search results, the least recently used ones
+   *        are evicted first
+   * @param executor The {@link XrelExecutor} used to send the requests
+   */
+  public SearchSession(Xrel xrel, long debounceDelay, int cacheSize, XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    if (debounceDelay < 0 || cacheSize < 1) {
+      throw new IllegalArgumentException(
+          "debounceDelay must be 0 or greater, cacheSize 1 or greater");
+    }
+    this.debounceDelay = debounceDelay;
+    this.cache = new LinkedHashMap<SearchKey, Object>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SearchKey, Object> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Searches for Scene and P2P releases, see
+   * {@link Xrel#getSearchReleases(String, boolean, boolean)}.
+   *
+   * @param q Search keyword.
+   * @param scene If {@code true}, Scene releases will be included in the search results.
+   * @param p2p If {@code true}, P2P releases will be included in the search results.
+   * @return The {@link CompletableFuture} completed with the {@link ReleaseSearchResult}, with the
+   *         {@link XrelException} if the search failed or cancelled if it was superseded
+   */
+  public CompletableFuture<ReleaseSearchResult> searchReleases(String q, boolean scene,
+      boolean p2p) {
+    return searchReleasesPrivate(q, scene, p2p, null);
+  }
+
+  /**
+   * Searches for Scene and P2P releases, see
+   * {@link Xrel#getSearchReleases(String, boolean, boolean, int)}.
+   *
+   * @param q Search keyword.
+   * @param scene If {@code true}, Scene releases will be included in the search results.
+   * @param p2p If {@code true}, P2P releases will be included in the search results.
+   * @param limit Number of returned search results.
+   * @return The {@link CompletableFuture} completed with the {@link ReleaseSearchResult}, with the
+   *         {@link XrelException} if the search failed or cancelled if it was superseded
+   */
+  public CompletableFuture<ReleaseSearchResult> searchReleases(String q, boolean scene,
+      boolean p2p, int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be 1 or greater");
+    }
+
+    return searchReleasesPrivate(q, scene, p2p, limit);
+  }
+
+  private CompletableFuture<ReleaseSearchResult> searchReleasesPrivate(String q, boolean scene,
+      boolean p2p, Integer limit) {
+    Objects.requireNonNull(q, "q missing");
+    if ((!p2p) && (!scene)) {
+      throw new IllegalArgumentException("either scene or p2p must be set to true");
+    }
+
+    SearchKey key = new SearchKey("releases", q, scene + "," + p2p, limit);
+    return search(key, ReleaseSearchResult.class, () -> xrel.createSearchReleasesCall(q, scene,
+        p2p, limit), SearchSession::isComplete, SearchSession::filter);
+  }
+
+  /**
+   * Searches for Ext Infos, see {@link Xrel#getSearchExtInfo(String, String)}.
+   *
+   * @param q Search keyword.
+   * @param type One of: {@code movie}|{@code tv}|{@code game}|{@code console}|{@code
+   software}|{@code xxx} - or {@code null} to search all types
+   * @return The {@link CompletableFuture} completed with the {@link ExtInfoSearchResult}, with the
+   *         {@link XrelException} if the search failed or cancelled if it was superseded
+   */
+  public CompletableFuture<ExtInfoSearchResult> searchExtInfo(String q, String type) {
+    return searchExtInfoPrivate(q, type, null);
+  }
+
+  /**
+   * Searches for Ext Infos, see {@link Xrel#getSearchExtInfo(String, String, int)}.
+   *
+   * @param q Search keyword.
+   * @param type One of: {@code movie}|{@code tv}|{@code game}|{@code console}|{@code
+   software}|{@code xxx} - or {@code null} to search all types
+   * @param limit Number of returned search results.
+   * @return The {@link CompletableFuture} completed with the {@link ExtInfoSearchResult}, with the
+   *         {@link XrelException} if the search failed or cancelled if it was superseded
+   */
+  public CompletableFuture<ExtInfoSearchResult> searchExtInfo(String q, String type, int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be 1 or greater");
+    }
+
+    return searchExtInfoPrivate(q, type, limit);
+  }
+
+  private CompletableFuture<ExtInfoSearchResult> searchExtInfoPrivate(String q, String type,
+      Integer limit) {
+    Objects.requireNonNull(q, "q missing");
+
+    SearchKey key = new SearchKey("ext_info", q, String.valueOf(type), limit);
+    return search(key, ExtInfoSearchResult.class,
+        () -> xrel.createSearchExtInfoCall(q, type, limit), SearchSession::isComplete,
+        SearchSession::filter);
+  }
+
+  private <T> CompletableFuture<T> search(SearchKey key, Class<T> resultClass,
+      CallFactory<T> callFactory, Predicate<T> complete, Filter<T> filter) {
+    Pending<T> search = new Pending<>(callFactory);
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("SearchSession closed");
+      }
+      supersede();
+
+      T cached = resultClass.cast(cache.get(key));
+      if (cached != null) {
+        cacheHitCount.increment();
+        return CompletableFuture.completedFuture(cached);
+      }
+      T prefix = findPrefix(key, resultClass, complete);
+      if (prefix != null) {
+        prefixHitCount.increment();
+        return CompletableFuture.completedFuture(filter.filter(prefix, key.q, key.limit));
+      }
+
+      pending = search;
+      search.scheduled = executor.schedule(() -> send(key, search), debounceDelay,
+          TimeUnit.MILLISECONDS);
+    } finally {
+      lock.unlock();
+    }
+    return search.future;
+  }
+
+  /**
+   * Finds the complete cached result with the longest query that is a prefix of the given one.
+   * Must be called holding the lock.
+   */
+  private <T> T findPrefix(SearchKey key, Class<T> resultClass, Predicate<T> complete) {
+    T prefix = null;
+    int prefixLength = -1;
+    for (Map.Entry<SearchKey, Object> entry : cache.entrySet()) {
+      SearchKey cachedKey = entry.getKey();
+      if (cachedKey.kind.equals(key.kind) && cachedKey.parameters.equals(key.parameters)
+          && cachedKey.q.length() > prefixLength && key.q.startsWith(cachedKey.q)
+          && !cachedKey.q.trim().isEmpty()) {
+        T result = resultClass.cast(entry.getValue());
+        if (complete.test(result)) {
+          prefix = result;
+          prefixLength = cachedKey.q.length();
+        }
+      }
+    }
+    return prefix;
+  }
+
+  private <T> void send(SearchKey key, Pending<T> search) {
+    Call<T> call;
+    lock.lock();
+    try {
+      if (pending != search) {
+        return;
+      }
+      try {
+        call = search.callFactory.create();
+      } catch (RuntimeException e) {
+        pending = null;
+        search.future.completeExceptionally(e);
+        return;
+      }
+      search.call = call;
+    } finally {
+      lock.unlock();
+    }
+
+    requestCount.increment();
+    T result = null;
+    Throwable failure = null;
+    try {
+      result = Xrel.execute(call);
+      if (result != null) {
+        lock.lock();
+        try {
+          cache.put(key, result);
+        } finally {
+          lock.unlock();
+        }
+      }
+    } catch (Throwable e) {
+      failure = e;
+    } finally {
+      // Cleared before the future completes, so a search started by its callbacks doesn't
+      // supersede this finished one
+      lock.lock();
+      try {
+        if (pending == search) {
+          pending = null;
+        }
+      } finally {
+        lock.unlock();
+      }
+      // Cancelled calls already had their future cancelled, completing it again has no effect
+      if (failure == null) {
+        search.future.complete(result);
+      } else {
+        search.future.completeExceptionally(failure);
+      }
+    }
+  }
+
+  /**
+   * Cancels the pending search. Must be called holding the lock.
+   */
+  private void supersede() {
+    if (pending == null) {
+      return;
+    }
+    Pending<?> superseded = pending;
+    pending = null;
+    supersededCount.increment();
+    superseded.scheduled.cancel(false);
+    if (superseded.call != null) {
+      superseded.call.cancel();
+    }
+    superseded.future.cancel(false);
+  }
+
+  /**
+   * Cancels the pending search, if any, without starting a new one.
+   */
+  public void cancel() {
+    lock.lock();
+    try {
+      supersede();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all cached search results.
+   */
+  public void clearCache() {
+    lock.lock();
+    try {
+      cache.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of searches sent to the xREL API.
+   *
+   * @return The number of requests
+   */
+  public long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  /**
+   * Gets the number of searches answered by a cached result of the same query.
+   *
+   * @return The number of cache hits
+   */
+  public long getCacheHitCount() {
+    return cacheHitCount.sum();
+  }
+
+  /**
+   * Gets the number of searches answered by filtering a complete cached result of a prefix.
+   *
+   * @return The number of prefix hits
+   */
+  public long getPrefixHitCount() {
+    return prefixHitCount.sum();
+  }
+
+  /**
+   * Gets the number of searches that were dropped or cancelled because they were superseded.
+   *
+   * @return The number of superseded searches
+   */
+  public long getSupersededCount() {
+    return supersededCount.sum();
+  }
+
+  /**
+   * Cancels the pending search and removes all cached search results. Further searches are
+   * rejected.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      supersede();
+      cache.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static boolean isComplete(ReleaseSearchResult result) {
+    return size(result.getResults()) + size(result.getP2pResults()) >= result.getTotal();
+  }
+
+  private static boolean isComplete(ExtInfoSearchResult result) {
+    return size(result.getResults()) >= result.getTotal();
+  }
+
+  private static ReleaseSearchResult filter(ReleaseSearchResult prefix, String q, Integer limit) {
+    String[] keywords = keywords(q);
+    List<Release> results = filter(prefix.getResults(), keywords, ReleaseBase::getDirname);
+    List<P2pRelease> p2pResults =
+        filter(prefix.getP2pResults(), keywords, ReleaseBase::getDirname);
+    ReleaseSearchResult result = new ReleaseSearchResult();
+    result.setTotal(results.size() + p2pResults.size());
+    // Like the xREL API, the limit applies to each list on its own
+    result.setResults(limit(results, limit));
+    result.setP2pResults(limit(p2pResults, limit));
+    return result;
+  }
+
+  private static ExtInfoSearchResult filter(ExtInfoSearchResult prefix, String q,
+      Integer limit) {
+    String[] keywords = keywords(q);
+    List<ExtInfo> results = filter(prefix.getResults(), keywords,
+        extInfo -> extInfo.getTitle() + " " + extInfo.getAltTitle());
+    ExtInfoSearchResult result = new ExtInfoSearchResult();
+    result.setTotal(results.size());
+    result.setResults(limit(results, limit));
+    return result;
+  }
+
+  private static <T> List<T> filter(List<T> list, String[] keywords, Function<T, String> text) {
+    if (list == null) {
+      return Collections.emptyList();
+    }
+    List<T> filtered = new ArrayList<>();
+    for (T element : list) {
+      String normalized = normalize(text.apply(element));
+      boolean matches = true;
+      for (String keyword : keywords) {
+        if (!normalized.contains(keyword)) {
+          matches = false;
+          break;
+        }
+      }
+      if (matches) {
+        filtered.add(element);
+      }
+    }
+    return filtered;
+  }
+
+  private static <T> List<T> limit(List<T> list, Integer limit) {
+    if (limit == null || list.size() <= limit) {
+      return list;
+    }
+    return new ArrayList<>(list.subList(0, limit));
+  }
+
+  private static String[] keywords(String q) {
+    String normalized = normalize(q).trim();
+    return normalized.isEmpty() ? new String[0] : normalized.split(" +");
+  }
+
+  private static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ");
+  }
+
+  private static int size(List<?> list) {
+    return list == null ? 0 : list.size();
+  }
+
+  /**
+   * Creates the {@link Call} of a search.
+   */
+  private interface CallFactory<T> {
+
+    Call<T> create() throws XrelException;
+
+  }
+
+  /**
+   * Answers a search by filtering a complete result of a prefix.
+   */
+  private interface Filter<T> {
+
+    T filter(T prefix, String q, Integer limit);
+
+  }
+
+  /**
+   * The query and parameters of a search.
+   */
+  private static final class SearchKey {
+
+    private final String kind;
+    private final String q;
+    private final String parameters;
+    private final Integer limit;
+
+    private SearchKey(String kind, String q, String parameters, Integer limit) {
+      this.kind = kind;
+      this.q = q;
+      this.parameters = parameters;
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SearchKey)) {
+        return false;
+      }
+      SearchKey other = (SearchKey) obj;
+      return kind.equals(other.kind) && q.equals(other.q) && parameters.equals(other.parameters)
+          && Objects.equals(limit, other.limit);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(kind, q, parameters, limit);
+    }
+
+  }
+
+  /**
+   * A search waiting for its debounce delay or in flight.
+   */
+  private static final class Pending<T> {
+
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private final CallFactory<T> callFactory;
+    private ScheduledFuture<?> scheduled;
+    private Call<T> call;
+
+    private Pending(CallFactory<T> callFactory) {
+      this.callFactory = callFactory;
+    }
+
+  }
+
+}
@@ -17,33 +17,51 @@
 
 package com.github.saftsau.xrel4j;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
 
 /**
  * Class represents a Token used by the xREL API to access protected methods or additional user
- * data.
+ * data. Tokens are immutable, so a single Token can be shared by any number of threads. Use
+ * {@link Xrel#postOauth2Token(String, Token)} or a {@link TokenManager} to get a new one.
  */
 public class Token {
 
   @JsonProperty("access_token")
-  private String accessToken;
+  private final String accessToken;
   @JsonProperty("token_type")
-  private String tokenType;
+  private final String tokenType;
   @JsonProperty("expires_in")
-  private int expiresIn;
+  private final int expiresIn;
   @JsonProperty("refresh_token")
-  private String refreshToken;
-  private long creationTime;
+  private final String refreshToken;
+  private final long creationTime;
+  @JsonIgnore
+  private final Instant expiresAt;
+  @JsonIgnore
+  private final String bearerHeader;
 
   /**
-   * Default no argument constructor needed for JSON-B.
+   * Constructs a new Token manually by given all needed information.
+   * 
+   * @param accessToken The access token, with which you may do requests to protected resources. It
+   *        is a JSON Web Token, which you can verify and decode for more information (e.g. scopes
+   *        and lifetime).
+   * @param tokenType This value should always be Bearer
+   * @param expiresIn Lifetime of the access token in seconds
+   * @param refreshToken With the refresh token you may request a new access_token after it has
+   *        expired. Its lifetime is unlimited, however you can only use it once. You will get a new
+   *        refresh_token when renewing the access_token.
    */
-  public Token() {
-    this.creationTime = System.currentTimeMillis() / 1000L;
+  public Token(String accessToken, String tokenType, int expiresIn, String refreshToken) {
+    this(accessToken, tokenType, expiresIn, refreshToken, System.currentTimeMillis() / 1000L);
   }
 
   /**
-   * Constructs a new Token manually by given all needed information.
+   * Constructs a new Token manually by given all needed information, e.g. to restore a persisted
+   * Token.
    * 
    * @param accessToken The access token, with which you may do requests to protected resources. It
    *        is a JSON Web Token, which you can verify and decode for more information (e.g. scopes
@@ -53,22 +71,49 @@ public class Token {
    * @param refreshToken With the refresh token you may request a new access_token after it has
    *        expired. Its lifetime is unlimited, however you can only use it once. You will get a new
    *        refresh_token when renewing the access_token.
+   * @param creationTime The timestamp when this Token was created in UTC epoch seconds
    */
-  public Token(String accessToken, String tokenType, int expiresIn, String refreshToken) {
+  public Token(String accessToken, String tokenType, int expiresIn, String refreshToken,
+      long creationTime) {
     this.accessToken = accessToken;
     this.tokenType = tokenType;
     this.expiresIn = expiresIn;
     this.refreshToken = refreshToken;
-    this.creationTime = System.currentTimeMillis() / 1000L;
+    this.creationTime = creationTime;
+    this.expiresAt = Instant.ofEpochSecond(creationTime + expiresIn);
+    this.bearerHeader = "Bearer " + accessToken;
   }
 
   /**
-   * Creates a String representation to be used in Authorization headers.
+   * Factory used for JSON-B. The creation time is only present if the Token was serialized by this
+   * library before, tokens returned by the xREL API are created now.
+   * 
+   * @param accessToken The access token
+   * @param tokenType The token type
+   * @param expiresIn Lifetime of the access token in seconds
+   * @param refreshToken The refresh token
+   * @param creationTime The creation time or {@code null}
+   * @return The new Token
+   */
+  @JsonCreator
+  private static Token fromJson(@JsonProperty("access_token") String accessToken,
+      @JsonProperty("token_type") String tokenType, @JsonProperty("expires_in") int expiresIn,
+      @JsonProperty("refresh_token") String refreshToken,
+      @JsonProperty("creationTime") Long creationTime) {
+    if (creationTime == null) {
+      return new Token(accessToken, tokenType, expiresIn, refreshToken);
+    }
+    return new Token(accessToken, tokenType, expiresIn, refreshToken, creationTime);
+  }
+
+  /**
+   * Gets the String representation to be used in Authorization headers. The String is created once
+   * when this Token is constructed.
    * 
    * @return The String to be used in Authroization headers
    */
   public String createBearerHeader() {
-    return "Bearer " + getAccessToken();
+    return bearerHeader;
   }
 
   /**
@@ -80,15 +125,6 @@ public class Token {
     return accessToken;
   }
 
-  /**
-   * Sets the access token used to access protected resources.
-   * 
-   * @param accessToken The access token to set
-   */
-  public void setAccessToken(String accessToken) {
-    this.accessToken = accessToken;
-  }
-
   /**
    * Gets the type of this token. Is always {@code Bearer}.
    * 
@@ -98,15 +134,6 @@ public class Token {
     return tokenType;
   }
 
-  /**
-   * Gets the type of this token. Should always be {@code Bearer}.
-   * 
-   * @param tokenType The token type to set
-   */
-  public void setTokenType(String tokenType) {
-    this.tokenType = tokenType;
-  }
-
   /**
    * Gets the lifetime the access token is valid in seconds.
    * 
@@ -116,15 +143,6 @@ public class Token {
     return expiresIn;
   }
 
-  /**
-   * Sets the lifetime the access token is valid in seconds.
-   * 
-   * @param expiresIn The lifetime to set
-   */
-  public void setExpiresIn(int expiresIn) {
-    this.expiresIn = expiresIn;
-  }
-
   /**
    * Gets the refresh token used for refreshing the access token.
    * 
@@ -134,15 +152,6 @@ public class Token {
     return refreshToken;
   }
 
-  /**
-   * Sets the refresh token used for refreshing the access token.
-   * 
-   * @param refreshToken The refresh token to set
-   */
-  public void setRefreshToken(String refreshToken) {
-    this.refreshToken = refreshToken;
-  }
-
   /**
    * Gets the timestamp when this Token was created.
    * 
@@ -153,12 +162,13 @@ public class Token {
   }
 
   /**
-   * Sets the timestamp when this Token was created.
+   * Gets the instant the access token expires.
    * 
-   * @param creationTime The creation time to set
+   * @return The expiry instant
    */
-  public void setCreationTime(long creationTime) {
-    this.creationTime = creationTime;
+  @JsonIgnore
+  public Instant getExpiresAt() {
+    return expiresAt;
   }
 
   /**
@@ -166,8 +176,9 @@ public class Token {
    * 
    * @return The time this token expires in
    */
+  @JsonIgnore
   public long getRemainingTime() {
-    long remaining = (getCreationTime() + getExpiresIn()) - (System.currentTimeMillis() / 1000L);
+    long remaining = expiresAt.getEpochSecond() - (System.currentTimeMillis() / 1000L);
     if (remaining < 0) {
       remaining = 0;
     }
@@ -178,7 +189,7 @@ public class Token {
   public String toString() {
     return "Token [getAccessToken()=" + getAccessToken() + ", getTokenType()=" + getTokenType()
         + ", getExpiresIn()=" + getExpiresIn() + ", getRefreshToken()=" + getRefreshToken()
-        + ", getCreationTime()=" + getCreationTime() + "]";
+        + ", getCreationTime()=" + getCreationTime() + ", getExpiresAt()=" + getExpiresAt() + "]";
   }
 
 }
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a {@link Token} valid by refreshing it in the background shortly before it expires. No
+ * matter how many threads use the {@link Token}, only a single {@code refresh_token} grant runs at
+ * a time. Once registered with {@link Xrel#setTokenManager(TokenManager)}, every {@link Token}
+ * handed out by this TokenManager is transparently replaced by the current one in all
+ * {@link Xrel} calls, so worker threads may keep using whatever {@link Token} they got once.
+ * 
+ * @see <a href="https://www.xrel.to/wiki/6436/api-oauth2.html">API: OAuth 2.0</a>
+ */
+public class TokenManager implements AutoCloseable {
+
+  /**
+   * The default number of seconds a {@link Token} is refreshed before it expires.
+   */
+  public static final long DEFAULT_REFRESH_AHEAD = 60;
+  private static final long RETRY_DELAY = 30;
+
+  private final Xrel xrel;
+  private final XrelExecutor executor;
+  private final long refreshAhead;
+  private final AtomicReference<Token> token;
+  private final AtomicReference<CompletableFuture<Token>> refreshing = new AtomicReference<>();
+  private final Set<Token> issuedTokens =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Token, Boolean>()));
+  private final ReentrantLock scheduleLock = new ReentrantLock();
+  // Guarded by scheduleLock, a scheduled refresh only runs if it is still the latest one
+  private ScheduledFuture<?> scheduledRefresh;
+  private long scheduleGeneration;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new TokenManager refreshing {@link #DEFAULT_REFRESH_AHEAD} seconds before expiry
+   * on {@link XrelExecutor#getDefault()}.
+   * 
+   * @param xrel The {@link Xrel} object used to refresh the {@link Token}
+   * @param token The initial {@link Token}, must contain a refresh token
+   */
+  public TokenManager(Xrel xrel, Token token) {
+    this(xrel, token, DEFAULT_REFRESH_AHEAD, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new TokenManager.
+   * 
+   * @param xrel The {@link Xrel} object used to refresh the {@link Token}
+   * @param token The initial {@link Token}, must contain a refresh token
+   * @param refreshAhead The number of seconds the {@link Token} is refreshed before it expires
+   * @param executor The {@link XrelExecutor} used to run the scheduled refreshs
+   */
+  public TokenManager(Xrel xrel, Token token, long refreshAhead, XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    Objects.requireNonNull(token, "token missing");
+    if (refreshAhead < 0) {
+      throw new IllegalArgumentException("refreshAhead must be 0 or greater");
+    }
+    this.refreshAhead = refreshAhead;
+    this.token = new AtomicReference<>(token);
+    issuedTokens.add(token);
+    scheduleRefresh(token);
+  }
+
+  /**
+   * Gets the current {@link Token}. Only blocks if the current {@link Token} already expired, in
+   * which case it either refreshes the {@link Token} itself or waits for the single running
+   * refresh. The refresh never waits for a task of the {@link XrelExecutor}, so this may be called
+   * from its tasks as well.
+   * 
+   * @return The current {@link Token}
+   * @throws XrelException If the {@link Token} expired and could not be refreshed
+   * @throws IllegalStateException If the {@link Token} expired and this TokenManager is closed
+   */
+  public Token getToken() throws XrelException {
+    Token current = token.get();
+    if (current.getRemainingTime() > 0) {
+      return current;
+    }
+    try {
+      return refresh(true).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new XrelException(e.getCause());
+    }
+  }
+
+  /**
+   * Gets the String to be used in Authorization headers for the current {@link Token}.
+   * 
+   * @return The String to be used in Authorization headers
+   * @throws XrelException If the {@link Token} expired and could not be refreshed
+   */
+  public String getBearerHeader() throws XrelException {
+    return getToken().createBearerHeader();
+  }
+
+  /**
+   * Checks if the given {@link Token} was handed out by this TokenManager, either as the initial
+   * {@link Token} or as a result of a refresh.
+   * 
+   * @param token The {@link Token} to check
+   * @return {@code true} if managed, {@code false} otherwise
+   */
+  public boolean isManaged(Token token) {
+    return token != null && issuedTokens.contains(token);
+  }
+
+  /**
+   * Refreshes the {@link Token} now on a thread of its own. If a refresh is already running, no
+   * additional refresh is started and the running one is returned instead.
+   * 
+   * @return The {@link CompletableFuture} completed with the new {@link Token}, completed
+   *         exceptionally with an {@link IllegalStateException} if this TokenManager is closed
+   */
+  public CompletableFuture<Token> refresh() {
+    return refresh(false);
+  }
+
+  /**
+   * Starts a refresh unless one is already running.
+   * 
+   * @param inline {@code true} to run the refresh on the calling thread, {@code false} to start a
+   *        new thread
+   * @return The {@link CompletableFuture} of the running refresh
+   */
+  private CompletableFuture<Token> refresh(boolean inline) {
+    for (;;) {
+      CompletableFuture<Token> running = refreshing.get();
+      if (running != null) {
+        return running;
+      }
+      if (closed) {
+        CompletableFuture<Token> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("TokenManager closed"));
+        return failed;
+      }
+      CompletableFuture<Token> future = new CompletableFuture<>();
+      if (refreshing.compareAndSet(null, future)) {
+        if (inline) {
+          runRefresh(future);
+        } else {
+          // Not on the executor, its permits may all be held by callers waiting for this refresh
+          Thread thread = new Thread(() -> runRefresh(future), "xrel4j-token-refresh");
+          thread.setDaemon(true);
+          thread.start();
+        }
+        return future;
+      }
+    }
+  }
+
+  /**
+   * Performs the {@code refresh_token} grant and publishes the result.
+   * 
+   * @param future The {@link CompletableFuture} of this refresh
+   */
+  private void runRefresh(CompletableFuture<Token> future) {
+    Token oldToken = token.get();
+    try {
+      Token newToken = xrel.postOauth2Token("refresh_token", oldToken);
+      issuedTokens.add(newToken);
+      token.set(newToken);
+      refreshing.set(null);
+      future.complete(newToken);
+      scheduleRefresh(newToken);
+    } catch (RuntimeException e) {
+      refreshing.set(null);
+      future.completeExceptionally(e);
+      // Try again later, as long as the old token is still valid there is no need to hurry
+      long retryIn = Math.min(RETRY_DELAY, Math.max(1, oldToken.getRemainingTime()));
+      schedule(retryIn);
+    }
+  }
+
+  /**
+   * Schedules the next refresh of the given {@link Token}.
+   * 
+   * @param token The {@link Token} to refresh
+   */
+  private void scheduleRefresh(Token token) {
+    long remainingTime = token.getRemainingTime();
+    // Tokens living shorter than refreshAhead are refreshed halfway instead of back-to-back
+    long delay = Math.max(remainingTime - refreshAhead, Math.min(RETRY_DELAY, remainingTime / 2));
+    schedule(Math.max(1, delay));
+  }
+
+  /**
+   * Schedules a refresh in the given number of seconds.
+   * 
+   * @param delay The delay in seconds
+   */
+  private void schedule(long delay) {
+    scheduleLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      // Replaces the pending refresh, so there is never more than one
+      if (scheduledRefresh != null) {
+        scheduledRefresh.cancel(false);
+      }
+      long generation = ++scheduleGeneration;
+      scheduledRefresh = executor.schedule(() -> runScheduled(generation), delay, TimeUnit.SECONDS);
+    } finally {
+      scheduleLock.unlock();
+    }
+  }
+
+  /**
+   * Runs a scheduled refresh on the current executor task, unless it was replaced in the meantime.
+   * 
+   * @param generation The generation of the scheduled refresh
+   */
+  private void runScheduled(long generation) {
+    scheduleLock.lock();
+    try {
+      if (closed || generation != scheduleGeneration) {
+        return;
+      }
+    } finally {
+      scheduleLock.unlock();
+    }
+    refresh(true);
+  }
+
+  /**
+   * Stops refreshing the {@link Token} in the background. A refresh that is already running still
+   * completes, but no further refresh is started.
+   */
+  @Override
+  public void close() {
+    scheduleLock.lock();
+    try {
+      closed = true;
+      if (scheduledRefresh != null) {
+        scheduledRefresh.cancel(false);
+        scheduledRefresh = null;
+      }
+    } finally {
+      scheduleLock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "TokenManager [getToken()=" + token.get() + ", refreshAhead=" + refreshAhead + "]";
+  }
+
+}
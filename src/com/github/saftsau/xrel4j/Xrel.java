@@ -17,9 +17,11 @@
 
 package com.github.saftsau.xrel4j;
 
+import com.github.saftsau.xrel4j.cache.ResponseCache;
 import com.github.saftsau.xrel4j.comment.Comment;
 import com.github.saftsau.xrel4j.extinfo.ExtInfo;
 import com.github.saftsau.xrel4j.extinfo.ExtInfoMedia;
+import com.github.saftsau.xrel4j.extinfo.ExtInfoMediaCache;
 import com.github.saftsau.xrel4j.extinfo.ExtInfoSearchResult;
 import com.github.saftsau.xrel4j.favorite.Favorite;
 import com.github.saftsau.xrel4j.favorite.FavoriteAddDelEntry;
@@ -58,6 +60,7 @@ public class Xrel {
   private Optional<String> redirectUri;
   private Optional<String> state;
   private Optional<String[]> scope;
+  private volatile TokenManager tokenManager;
 
   /**
    * Constructs a new xREL object without any oAuth information.
@@ -219,6 +222,43 @@ public class Xrel {
     return scope;
   }
 
+  /**
+   * Gets the {@link TokenManager} supplying the current {@link Token} to all calls.
+   * 
+   * @return The {@link TokenManager} or {@code null} if not set
+   */
+  public TokenManager getTokenManager() {
+    return tokenManager;
+  }
+
+  /**
+   * Sets the {@link TokenManager} supplying the current {@link Token} to all calls. Every
+   * {@link Token} handed out by the {@link TokenManager} is replaced by its current one, so
+   * callers never send an expired access token. Other {@link Token}s are used as given.
+   * 
+   * @param tokenManager The {@link TokenManager} to set or {@code null} to unset
+   */
+  public void setTokenManager(TokenManager tokenManager) {
+    this.tokenManager = tokenManager;
+  }
+
+  /**
+   * Creates a String representation of the given {@link Token} to be used in Authorization
+   * headers. Uses the current {@link Token} of the {@link TokenManager} if it manages the given
+   * one.
+   * 
+   * @param token The {@link Token} to use
+   * @return The String to be used in Authorization headers
+   * @throws XrelException If a managed {@link Token} expired and could not be refreshed
+   */
+  private String createBearerHeader(Token token) throws XrelException {
+    TokenManager currentTokenManager = getTokenManager();
+    if (currentTokenManager != null && currentTokenManager.isManaged(token)) {
+      return currentTokenManager.getBearerHeader();
+    }
+    return token.createBearerHeader();
+  }
+
   /**
    * Normalizes the given perPage and page input. perPage is a value between
    * {@link #paginationPerPageMin} and {@link #paginationPerPageMax} and page is a value greater
@@ -244,6 +284,80 @@ public class Xrel {
     return result;
   }
 
+  /**
+   * Gets a copy of the configuration of the HTTP client shared by all Xrel objects.
+   * 
+   * @return The {@link RestClientConfiguration}
+   */
+  public static RestClientConfiguration getRestClientConfiguration() {
+    return RestClient.getInstance().getConfiguration();
+  }
+
+  /**
+   * Sets the configuration of the HTTP client shared by all Xrel objects, e.g. to use another base
+   * URL or to add interceptors. Requests already running are not affected.
+   * 
+   * @param configuration The {@link RestClientConfiguration} to set
+   */
+  public static void setRestClientConfiguration(RestClientConfiguration configuration) {
+    Objects.requireNonNull(configuration, "configuration missing");
+    RestClient.configure(configuration);
+  }
+
+  /**
+   * Opens connections to the xREL API ahead of the first calls, e.g. right after the start of an
+   * application, so the first calls don't have to wait for TLS handshakes. With HTTP/2 all
+   * concurrent calls share a single connection, otherwise up to {@code connections} are opened.
+   * 
+   * @param connections The number of concurrent calls to prepare for
+   * @return The {@link ConnectionPoolStats} after the warm-up
+   * @throws XrelException If a connection could not be opened
+   */
+  public static ConnectionPoolStats warmUp(int connections) throws XrelException {
+    if (connections < 1) {
+      throw new IllegalArgumentException("connections < 1");
+    }
+    RestClient restClient = RestClient.getInstance();
+    try {
+      restClient.warmUp(connections);
+    } catch (Exception e) {
+      throw new XrelException(e);
+    }
+    return restClient.getConnectionPoolStats();
+  }
+
+  /**
+   * Gets the statistics of the connection pool of the HTTP client shared by all Xrel objects.
+   * 
+   * @return The {@link ConnectionPoolStats}
+   */
+  public static ConnectionPoolStats getConnectionPoolStats() {
+    return RestClient.getInstance().getConnectionPoolStats();
+  }
+
+  /**
+   * Gets the number of received and decompressed response bytes of every endpoint called by the
+   * HTTP client shared by all Xrel objects. Compression can be disabled with
+   * {@link RestClientConfiguration#setCompression(boolean)}.
+   * 
+   * @return The {@link CompressionStats} by endpoint, e.g. {@code release/latest.json}
+   */
+  public static Map<String, CompressionStats> getCompressionStats() {
+    return RestClient.getInstance().getCompressionStats();
+  }
+
+  /**
+   * Gets the number of requests answered from the {@link ResponseCache} and sent to the server for
+   * every cacheable endpoint called by the HTTP client shared by all Xrel objects. Set a cache with
+   * {@link RestClientConfiguration#setResponseCache(ResponseCache)}.
+   * 
+   * @return The {@link CacheStats} by endpoint, e.g. {@code release/info.json}, empty if no cache
+   *         is used
+   */
+  public static Map<String, CacheStats> getCacheStats() {
+    return RestClient.getInstance().getCacheStats();
+  }
+
   /**
    * Gets the maximum number of requests that the consumer is permitted to make per hour as returned
    * by the last request. -1 if not yet set.
@@ -382,7 +496,7 @@ public class Xrel {
     }
     String bearerToken = null;
     if (token != null) {
-      bearerToken = token.createBearerHeader();
+      bearerToken = createBearerHeader(token);
     }
     Call<PaginationList<Release>> call = RestClient.getInstance().getXrelService().releaseLatest(
         bearerToken, normalizedPageValues[0], normalizedPageValues[1], archive, filterParam);
@@ -722,7 +836,7 @@ public class Xrel {
     }
 
     Call<ReleaseAddProof> call = RestClient.getInstance().getXrelService()
-        .releaseAddproof(token.createBearerHeader(), ids, image);
+        .releaseAddproof(createBearerHeader(token), ids, image);
     Response<ReleaseAddProof> response = null;
     try {
       response = call.execute();
@@ -1013,7 +1127,7 @@ public class Xrel {
     }
 
     Call<ResponseBody> call = RestClient.getInstance().getXrelService()
-        .nfoRelease(token.createBearerHeader(), release.getId());
+        .nfoRelease(createBearerHeader(token), release.getId());
     byte[] nfo = null;
     try {
       Response<ResponseBody> response = call.execute();
@@ -1043,7 +1157,7 @@ public class Xrel {
     }
 
     Call<ResponseBody> call = RestClient.getInstance().getXrelService()
-        .nfoP2pRelease(token.createBearerHeader(), p2pRelease.getId());
+        .nfoP2pRelease(createBearerHeader(token), p2pRelease.getId());
     byte[] nfo = null;
     try {
       Response<ResponseBody> response = call.execute();
@@ -1099,7 +1213,7 @@ public class Xrel {
 
     String authorization = null;
     if (token != null) {
-      authorization = token.createBearerHeader();
+      authorization = createBearerHeader(token);
     }
     Call<ExtInfo> call =
         RestClient.getInstance().getXrelService().extInfoInfo(authorization, extInfo.getId());
@@ -1155,19 +1269,12 @@ public class Xrel {
    * @throws XrelException If there is an error returned by the xREL API
    * @see <a href= "https://www.xrel.to/wiki/6314/api-ext-info-media.html">API: ext_info/media
    *      method</a>
+   * @see ExtInfoMediaCache
    */
   public void getExtInfoMedia(ExtInfo extInfo) throws XrelException {
     Objects.requireNonNull(extInfo, "extInfo missing");
 
-    Call<List<ExtInfoMedia>> call =
-        RestClient.getInstance().getXrelService().extInfoMedia(extInfo.getId());
-    Response<List<ExtInfoMedia>> response = null;
-    try {
-      response = call.execute();
-    } catch (Exception e) {
-      throw new XrelException(e);
-    }
-    List<ExtInfoMedia> extInfoMediaList = response.body();
+    List<ExtInfoMedia> extInfoMediaList = getExtInfoMedia(extInfo.getId());
 
     if (extInfo.getExtInfoMedia() != null) {
       extInfo.getExtInfoMedia().clear();
@@ -1177,6 +1284,22 @@ public class Xrel {
     }
   }
 
+  /**
+   * Returns media associated with an Ext Info without modifying any {@link ExtInfo}.
+   *
+   * @param id The ID of the Ext Info which media you want to retrieve.
+   * @return The list of {@link ExtInfoMedia}
+   * @throws XrelException If there is an error returned by the xREL API
+   * @see <a href= "https://www.xrel.to/wiki/6314/api-ext-info-media.html">API: ext_info/media
+   *      method</a>
+   * @see ExtInfoMediaCache
+   */
+  public List<ExtInfoMedia> getExtInfoMedia(String id) throws XrelException {
+    Objects.requireNonNull(id, "id missing");
+
+    return execute(RestClient.getInstance().getXrelService().extInfoMedia(id));
+  }
+
   /**
    * Rate an Ext Info. Also updates the given {@link ExtInfo} object.
    *
@@ -1197,7 +1320,7 @@ public class Xrel {
     }
 
     Call<ExtInfo> call = RestClient.getInstance().getXrelService()
-        .extInfoRate(token.createBearerHeader(), extInfo.getId(), rating);
+        .extInfoRate(createBearerHeader(token), extInfo.getId(), rating);
     Response<ExtInfo> response = null;
     try {
       response = call.execute();
@@ -1225,6 +1348,22 @@ public class Xrel {
    */
   private ReleaseSearchResult getSearchReleasesPrivate(String q, boolean scene, boolean p2p,
       Integer limit) throws XrelException {
+    return execute(createSearchReleasesCall(q, scene, p2p, limit));
+  }
+
+  /**
+   * Creates the {@link Call} of a release search, so it can be cancelled, see
+   * {@link SearchSession}.
+   *
+   * @param q Search keyword.
+   * @param scene If {@code true}, Scene releases will be included in the search results.
+   * @param p2p If {@code true}, P2P releases will be included in the search results.
+   * @param limit Number of returned search results. {@code null} to disable.
+   * @return The {@link Call}
+   * @throws XrelException If the parameters are invalid
+   */
+  Call<ReleaseSearchResult> createSearchReleasesCall(String q, boolean scene, boolean p2p,
+      Integer limit) throws XrelException {
     Objects.requireNonNull(q, "q missing");
 
     if ((!p2p) && (!scene)) {
@@ -1234,17 +1373,7 @@ public class Xrel {
       throw new XrelException("limit must be either null or greater than 1");
     }
 
-    Call<ReleaseSearchResult> call =
-        RestClient.getInstance().getXrelService().searchReleases(q, scene, p2p, limit);
-    Response<ReleaseSearchResult> response = null;
-    try {
-      response = call.execute();
-    } catch (Exception e) {
-      throw new XrelException(e);
-    }
-    ReleaseSearchResult releaseSearchResult = response.body();
-
-    return releaseSearchResult;
+    return RestClient.getInstance().getXrelService().searchReleases(q, scene, p2p, limit);
   }
 
   /**
@@ -1316,23 +1445,47 @@ public class Xrel {
    */
   private ExtInfoSearchResult getSearchExtInfoPrivate(String q, String type, Integer limit)
       throws XrelException {
+    return execute(createSearchExtInfoCall(q, type, limit));
+  }
+
+  /**
+   * Creates the {@link Call} of an Ext Info search, so it can be cancelled, see
+   * {@link SearchSession}.
+   *
+   * @param q Search keyword.
+   * @param type One of: {@code movie}|{@code tv}|{@code game}|{@code console}|{@code
+   software}|{@code xxx} - or {@code null} to browse releases of all types
+   * @param limit Number of returned search results. {@code null} to disable.
+   * @return The {@link Call}
+   * @throws XrelException If the parameters are invalid
+   */
+  Call<ExtInfoSearchResult> createSearchExtInfoCall(String q, String type, Integer limit)
+      throws XrelException {
     Objects.requireNonNull(q, "q missing");
 
     if (limit != null && limit < 1) {
       throw new XrelException("limit must be either -1 or greater than 1");
     }
 
-    Call<ExtInfoSearchResult> call =
-        RestClient.getInstance().getXrelService().searchExtInfo(q, type, limit);
-    Response<ExtInfoSearchResult> response = null;
+    return RestClient.getInstance().getXrelService().searchExtInfo(q, type, limit);
+  }
+
+  /**
+   * Executes a {@link Call} and returns its body.
+   *
+   * @param <T> The type of the body
+   * @param call The {@link Call} to execute
+   * @return The body
+   * @throws XrelException If there is an error returned by the xREL API or the call failed
+   */
+  static <T> T execute(Call<T> call) throws XrelException {
+    Response<T> response = null;
     try {
       response = call.execute();
     } catch (Exception e) {
       throw new XrelException(e);
     }
-    ExtInfoSearchResult extInfoSearchResult = response.body();
-
-    return extInfoSearchResult;
+    return response.body();
   }
 
   /**
@@ -1432,7 +1585,7 @@ public class Xrel {
     Objects.requireNonNull(token, "token missing");
 
     Call<List<Favorite>> call =
-        RestClient.getInstance().getXrelService().favsLists(token.createBearerHeader());
+        RestClient.getInstance().getXrelService().favsLists(createBearerHeader(token));
     Response<List<Favorite>> response = null;
     try {
       response = call.execute();
@@ -1462,7 +1615,7 @@ public class Xrel {
     Objects.requireNonNull(token, "token missing");
 
     Call<List<ExtInfo>> call = RestClient.getInstance().getXrelService()
-        .favsListEntries(token.createBearerHeader(), favorite.getId(), getReleases);
+        .favsListEntries(createBearerHeader(token), favorite.getId(), getReleases);
     Response<List<ExtInfo>> response = null;
     try {
       response = call.execute();
@@ -1502,10 +1655,10 @@ public class Xrel {
 
     Call<FavoriteAddDelEntry> call = null;
     if (delete) {
-      call = RestClient.getInstance().getXrelService().favsListDelEntry(token.createBearerHeader(),
+      call = RestClient.getInstance().getXrelService().favsListDelEntry(createBearerHeader(token),
           favorite.getId(), extInfo.getId());
     } else {
-      call = RestClient.getInstance().getXrelService().favsListDelEntry(token.createBearerHeader(),
+      call = RestClient.getInstance().getXrelService().favsListAddEntry(createBearerHeader(token),
           favorite.getId(), extInfo.getId());
     }
     Response<FavoriteAddDelEntry> response = null;
@@ -1587,7 +1740,7 @@ public class Xrel {
     }
 
     Call<FavoriteMarkRead> call = RestClient.getInstance().getXrelService()
-        .favsListMarkread(token.createBearerHeader(), favorite.getId(), releaseId, type);
+        .favsListMarkread(createBearerHeader(token), favorite.getId(), releaseId, type);
     Response<FavoriteMarkRead> response = null;
     try {
       response = call.execute();
@@ -1749,7 +1902,7 @@ public class Xrel {
     }
 
     Call<Comment> call = RestClient.getInstance().getXrelService()
-        .commentsAdd(token.createBearerHeader(), id, type, text, videoRating, audioRating);
+        .commentsAdd(createBearerHeader(token), id, type, text, videoRating, audioRating);
     Response<Comment> response = null;
     try {
       response = call.execute();
@@ -1938,7 +2091,7 @@ public class Xrel {
     Objects.requireNonNull(token, "token missing");
 
     Call<User> call =
-        RestClient.getInstance().getXrelService().userInfo(token.createBearerHeader());
+        RestClient.getInstance().getXrelService().userInfo(createBearerHeader(token));
     Response<User> response = null;
     try {
       response = call.execute();
@@ -54,13 +54,20 @@ public class XrelException extends RuntimeException {
   }
 
   /**
-   * Constructs an XrelException based on another Throwable.
+   * Constructs an XrelException based on another Throwable. If the {@link Throwable} is an
+   * XrelException itself, its {@link Error} and response code are kept.
    * 
    * @param throwable The parent {@link Throwable}
    */
   public XrelException(Throwable throwable) {
     super(throwable);
-    this.error = Optional.empty();
+    if (throwable instanceof XrelException) {
+      this.error = ((XrelException) throwable).getError();
+      this.responseCode = ((XrelException) throwable).getResponseCode();
+    } else {
+      this.error = Optional.empty();
+      this.responseCode = -1;
+    }
   }
 
   /**
@@ -90,6 +97,21 @@ public class XrelException extends RuntimeException {
     this.responseCode = responseCode;
   }
 
+  /**
+   * Constructs an XrelException with all extra information the xREL API gives when returning an
+   * error, optionally without a stack trace.
+   * 
+   * @param message The error message
+   * @param error The error from the xREL API
+   * @param responseCode The response code from the xREL API
+   * @param writableStackTrace {@code false} to skip filling in the stack trace
+   */
+  XrelException(String message, Error error, int responseCode, boolean writableStackTrace) {
+    super(message, null, true, writableStackTrace);
+    this.error = Optional.of(error);
+    this.responseCode = responseCode;
+  }
+
   /**
    * Returns the {@link Error} object associated with this Exception..
    * 
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Executor} used to run blocking {@link Xrel} calls concurrently with a bounded number of
+ * calls in flight. On Java 21 and newer every task runs on its own virtual thread, on older Java
+ * versions a fixed pool of daemon platform threads is used instead. Over HTTP/1.1 neither
+ * {@link Xrel} nor the underlying HTTP client hold a monitor while waiting for the network, so
+ * virtual threads are not pinned. Over HTTP/2, which {@link RestClientConfiguration} prefers by
+ * default, the HTTP client waits for response headers inside a {@code synchronized} block, which
+ * pins the carrier thread for the duration of the request; offer only {@code HTTP_1_1} with
+ * {@link RestClientConfiguration#setProtocols(java.util.List)} to run many concurrent calls on
+ * virtual threads.
+ * 
+ * <p>
+ * All helpers of this library that run requests in the background use {@link #getDefault()} unless
+ * told otherwise.
+ */
+public class XrelExecutor implements Executor, AutoCloseable {
+
+  /**
+   * The maximum number of concurrent calls of the {@link #getDefault()} executor.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+  private static final class DefaultHolder {
+    static final XrelExecutor DEFAULT = new XrelExecutor(DEFAULT_MAX_CONCURRENCY);
+  }
+
+  private static final class TimerHolder {
+    static final ScheduledExecutorService TIMER =
+        Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("xrel4j-timer-"));
+  }
+
+  private final ExecutorService executorService;
+  private final Semaphore permits;
+  private final int maxConcurrency;
+  private final boolean virtual;
+
+  /**
+   * Constructs a new XrelExecutor using virtual threads where available and a fixed pool of
+   * platform threads otherwise.
+   * 
+   * @param maxConcurrency The maximum number of tasks running at the same time
+   */
+  public XrelExecutor(int maxConcurrency) {
+    this(newVirtualThreadExecutor(), maxConcurrency, true);
+  }
+
+  /**
+   * Constructs a new XrelExecutor running all tasks on the given {@link ExecutorService}.
+   * 
+   * @param executorService The {@link ExecutorService} to run the tasks on
+   * @param maxConcurrency The maximum number of tasks running at the same time
+   */
+  public XrelExecutor(ExecutorService executorService, int maxConcurrency) {
+    this(Objects.requireNonNull(executorService, "executorService missing"), maxConcurrency,
+        false);
+  }
+
+  /**
+   * Constructs a new XrelExecutor.
+   * 
+   * @param executorService The {@link ExecutorService} to run the tasks on or {@code null} to use a
+   *        fixed pool of platform threads
+   * @param maxConcurrency The maximum number of tasks running at the same time
+   * @param virtual {@code true} if the given {@link ExecutorService} uses virtual threads
+   */
+  private XrelExecutor(ExecutorService executorService, int maxConcurrency, boolean virtual) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be 1 or greater");
+    }
+    this.maxConcurrency = maxConcurrency;
+    this.permits = new Semaphore(maxConcurrency);
+    if (executorService != null) {
+      this.executorService = executorService;
+      this.virtual = virtual;
+    } else {
+      this.executorService =
+          Executors.newFixedThreadPool(maxConcurrency, new DaemonThreadFactory("xrel4j-worker-"));
+      this.virtual = false;
+    }
+  }
+
+  /**
+   * Gets the shared executor with a maximum of {@link #DEFAULT_MAX_CONCURRENCY} concurrent tasks.
+   * 
+   * @return The shared executor
+   */
+  public static XrelExecutor getDefault() {
+    return DefaultHolder.DEFAULT;
+  }
+
+  /**
+   * Creates a virtual thread per task executor by reflection, so this library still runs on Java
+   * 8.
+   * 
+   * @return The {@link ExecutorService} or {@code null} if virtual threads are not available
+   */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Nothing, virtual threads are not available on this Java version
+      return null;
+    }
+  }
+
+  /**
+   * Checks if this executor runs its tasks on virtual threads it created itself.
+   * 
+   * @return {@code true} if virtual threads are used, {@code false} otherwise
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  /**
+   * Gets the maximum number of tasks running at the same time.
+   * 
+   * @return The maximum concurrency
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Gets the number of tasks currently running.
+   * 
+   * @return The number of running tasks
+   */
+  public int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Objects.requireNonNull(command, "command missing");
+
+    executorService.execute(() -> {
+      permits.acquireUninterruptibly();
+      try {
+        command.run();
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  /**
+   * Runs the given task, typically a blocking {@link Xrel} call.
+   * 
+   * @param <T> The type of the result
+   * @param task The task to run
+   * @return The {@link CompletableFuture} completed with the result of the task
+   */
+  public <T> CompletableFuture<T> submit(Callable<T> task) {
+    Objects.requireNonNull(task, "task missing");
+
+    CompletableFuture<T> future = new CompletableFuture<>();
+    execute(() -> {
+      if (future.isDone()) {
+        return;
+      }
+      try {
+        future.complete(task.call());
+      } catch (Throwable e) {
+        future.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Runs the given task on this executor after the given delay. The timing is done by a single
+   * shared timer thread, which never runs the task itself.
+   * 
+   * @param task The task to run
+   * @param delay The delay
+   * @param unit The {@link TimeUnit} of the delay
+   * @return The {@link ScheduledFuture} that can be used to cancel the task before it starts
+   */
+  public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+    Objects.requireNonNull(task, "task missing");
+
+    return TimerHolder.TIMER.schedule(() -> execute(task), delay, unit);
+  }
+
+  /**
+   * Shuts this executor down. Already submitted tasks still run. The {@link #getDefault()} executor
+   * can't be shut down.
+   */
+  @Override
+  public void close() {
+    if (this != DefaultHolder.DEFAULT) {
+      executorService.shutdown();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "XrelExecutor [isVirtual()=" + isVirtual() + ", getMaxConcurrency()="
+        + getMaxConcurrency() + ", getActiveCount()=" + getActiveCount() + "]";
+  }
+
+  /**
+   * {@link ThreadFactory} creating named daemon threads, so pending work never keeps the JVM alive.
+   */
+  private static final class DaemonThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * Constructs a new DaemonThreadFactory.
+     * 
+     * @param prefix The prefix of all thread names
+     */
+    DaemonThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+
+  }
+
+}
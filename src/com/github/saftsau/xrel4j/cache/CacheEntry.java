@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A cached response: the raw JSON body as returned by the xREL API, its status code and content
+ * type and when it was stored, expires and stops being usable as a stale response. Apart from
+ * successful responses only "not found" errors are cached. The body is either an array on the heap
+ * or a buffer, e.g. a part of a memory-mapped file, which is then parsed directly without copying
+ * it to the heap first.
+ */
+public final class CacheEntry {
+
+  private final ByteBuffer body;
+  private final String contentType;
+  private final int code;
+  private final long storedAt;
+  private final long expiresAt;
+  private final long staleUntil;
+
+  /**
+   * Constructs a new CacheEntry. The body is not copied, so it must not be modified afterwards.
+   * 
+   * @param body The raw body
+   * @param contentType The content type of the body, can be {@code null}
+   * @param storedAt The time the response was received in milliseconds since the epoch
+   * @param expiresAt The time the entry expires in milliseconds since the epoch
+   */
+  public CacheEntry(byte[] body, String contentType, long storedAt, long expiresAt) {
+    this(body, contentType, 200, storedAt, expiresAt);
+  }
+
+  /**
+   * Constructs a new CacheEntry with a status code. The body is not copied, so it must not be
+   * modified afterwards.
+   * 
+   * @param body The raw body
+   * @param contentType The content type of the body, can be {@code null}
+   * @param code The HTTP status code of the response
+   * @param storedAt The time the response was received in milliseconds since the epoch
+   * @param expiresAt The time the entry expires in milliseconds since the epoch
+   */
+  public CacheEntry(byte[] body, String contentType, int code, long storedAt, long expiresAt) {
+    this(body, contentType, code, storedAt, expiresAt, expiresAt);
+  }
+
+  /**
+   * Constructs a new CacheEntry with a status code which may still be returned as a stale response
+   * after it expired. The body is not copied, so it must not be modified afterwards.
+   * 
+   * @param body The raw body
+   * @param contentType The content type of the body, can be {@code null}
+   * @param code The HTTP status code of the response
+   * @param storedAt The time the response was received in milliseconds since the epoch
+   * @param expiresAt The time the entry expires in milliseconds since the epoch
+   * @param staleUntil The time the entry can't be used as a stale response anymore in milliseconds
+   *        since the epoch, not before {@code expiresAt}
+   */
+  public CacheEntry(byte[] body, String contentType, int code, long storedAt, long expiresAt,
+      long staleUntil) {
+    this(ByteBuffer.wrap(Objects.requireNonNull(body, "body missing")), contentType, code,
+        storedAt, expiresAt, staleUntil);
+  }
+
+  /**
+   * Constructs a new CacheEntry with the remaining bytes of a buffer as body. The buffer is not
+   * copied, so its content must not change as long as the entry is used. Its position and limit may
+   * change, they are not used afterwards.
+   * 
+   * @param body The raw body
+   * @param contentType The content type of the body, can be {@code null}
+   * @param storedAt The time the response was received in milliseconds since the epoch
+   * @param expiresAt The time the entry expires in milliseconds since the epoch
+   */
+  public CacheEntry(ByteBuffer body, String contentType, long storedAt, long expiresAt) {
+    this(body, contentType, 200, storedAt, expiresAt);
+  }
+
+  /**
+   * Constructs a new CacheEntry with the remaining bytes of a buffer as body and a status code. The
+   * buffer is not copied, so its content must not change as long as the entry is used. Its position
+   * and limit may change, they are not used afterwards.
+   * 
+   * @param body The raw body
+   * @param contentType The content type of the body, can be {@code null}
+   * @param code The HTTP status code of the response
+   * @param storedAt The time the response was received in milliseconds since the epoch
+   * @param expiresAt The time the entry expires in milliseconds since the epoch
+   */
+  public CacheEntry(ByteBuffer body, String contentType, int code, long storedAt,
+      long expiresAt) {
+    this(body, contentType, code, storedAt, expiresAt, expiresAt);
+  }
+
+  /**
+   * Constructs a new CacheEntry with the remaining bytes of a buffer as body and a status code,
+   * which may still be returned as a stale response after it expired. The buffer is not copied, so
+   * its content must not change as long as the entry is used. Its position and limit may change,
+   * they are not used afterwards.
+   * 
+   * @param body The raw body
+   * @param contentType The content type of the body, can be {@code null}
+   * @param code The HTTP status code of the response
+   * @param storedAt The time the response was received in milliseconds since the epoch
+   * @param expiresAt The time the entry expires in milliseconds since the epoch
+   * @param staleUntil The time the entry can't be used as a stale response anymore in milliseconds
+   *        since the epoch, not before {@code expiresAt}
+   */
+  public CacheEntry(ByteBuffer body, String contentType, int code, long storedAt, long expiresAt,
+      long staleUntil) {
+    if (staleUntil < expiresAt) {
+      throw new IllegalArgumentException("staleUntil < expiresAt");
+    }
+    this.body = Objects.requireNonNull(body, "body missing").slice().asReadOnlyBuffer();
+    this.contentType = contentType;
+    this.code = code;
+    this.storedAt = storedAt;
+    this.expiresAt = expiresAt;
+    this.staleUntil = staleUntil;
+  }
+
+  /**
+   * Gets a copy of the raw body on the heap.
+   * 
+   * @return The body
+   */
+  public byte[] getBody() {
+    byte[] bytes = new byte[body.remaining()];
+    body.duplicate().get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Gets the raw body without copying it. Every call returns a new read-only view with its own
+   * position, so it can be read by several threads at once.
+   * 
+   * @return The body
+   */
+  public ByteBuffer getBodyBuffer() {
+    return body.duplicate();
+  }
+
+  /**
+   * Gets the length of the body.
+   * 
+   * @return The length in bytes
+   */
+  public int getLength() {
+    return body.remaining();
+  }
+
+  /**
+   * Gets the content type of the body.
+   * 
+   * @return The content type, {@code null} if unknown
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * Gets the HTTP status code of the response.
+   * 
+   * @return The status code
+   */
+  public int getCode() {
+    return code;
+  }
+
+  /**
+   * Gets the time the response was received.
+   * 
+   * @return The time in milliseconds since the epoch
+   */
+  public long getStoredAt() {
+    return storedAt;
+  }
+
+  /**
+   * Gets the time this entry expires.
+   * 
+   * @return The time in milliseconds since the epoch
+   */
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * Gets the time this entry stops being usable as a stale response, see
+   * {@link CachePolicy#setMaxStale(String, long, java.util.concurrent.TimeUnit)}. Caches keeping
+   * their entries across restarts must keep them until then.
+   * 
+   * @return The time in milliseconds since the epoch, equal to {@link #getExpiresAt()} if the entry
+   *         is never returned once expired
+   */
+  public long getStaleUntil() {
+    return staleUntil;
+  }
+
+  /**
+   * Checks whether this entry is expired.
+   * 
+   * @param now The current time in milliseconds since the epoch
+   * @return {@code true} if the entry must not be used anymore
+   */
+  public boolean isExpired(long now) {
+    return now >= expiresAt;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheEntry [getLength()=" + getLength() + ", getContentType()=" + getContentType()
+        + ", getCode()=" + getCode() + ", getStoredAt()=" + getStoredAt() + ", getExpiresAt()="
+        + getExpiresAt() + ", getStaleUntil()=" + getStaleUntil() + "]";
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Key of a cached response: the endpoint, which corresponds to a single method of the xREL API, and
+ * its normalized parameters. Parameters without a value are dropped and the rest are sorted by
+ * name, so the same request always results in the same key regardless of how its URL was built.
+ */
+public final class CacheKey {
+
+  private final String endpoint;
+  private final SortedMap<String, String> parameters;
+  private final String key;
+
+  private CacheKey(String endpoint, SortedMap<String, String> parameters) {
+    this.endpoint = endpoint;
+    this.parameters = Collections.unmodifiableSortedMap(parameters);
+    StringBuilder builder = new StringBuilder(endpoint);
+    char separator = '?';
+    for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+      builder.append(separator).append(encode(parameter.getKey())).append('=')
+          .append(encode(parameter.getValue()));
+      separator = '&';
+    }
+    this.key = builder.toString();
+  }
+
+  /**
+   * Creates a new CacheKey.
+   * 
+   * @param endpoint The endpoint relative to the base URL, e.g. {@code release/info.json}
+   * @param parameters The parameters of the request, {@code null} values are dropped
+   * @return The CacheKey
+   */
+  public static CacheKey of(String endpoint, Map<String, String> parameters) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    Objects.requireNonNull(parameters, "parameters missing");
+
+    SortedMap<String, String> normalized = new TreeMap<>();
+    parameters.forEach((name, value) -> {
+      if (name != null && value != null) {
+        normalized.put(name, value);
+      }
+    });
+    return new CacheKey(endpoint, normalized);
+  }
+
+  /**
+   * Parses the normalized form of a key as returned by {@link #toString()}.
+   * 
+   * @param key The normalized form of a key
+   * @return The CacheKey
+   */
+  public static CacheKey parse(String key) {
+    Objects.requireNonNull(key, "key missing");
+
+    int separator = key.indexOf('?');
+    SortedMap<String, String> parameters = new TreeMap<>();
+    if (separator >= 0) {
+      for (String parameter : key.substring(separator + 1).split("&")) {
+        int equals = parameter.indexOf('=');
+        if (equals < 0) {
+          throw new IllegalArgumentException("Malformed key: " + key);
+        }
+        parameters.put(decode(parameter.substring(0, equals)),
+            decode(parameter.substring(equals + 1)));
+      }
+    }
+    return new CacheKey(separator < 0 ? key : key.substring(0, separator), parameters);
+  }
+
+  private static String encode(String value) {
+    try {
+      return URLEncoder.encode(value, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      // Can't happen, every JVM supports UTF-8
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      // Can't happen, every JVM supports UTF-8
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Gets the endpoint relative to the base URL.
+   * 
+   * @return The endpoint
+   */
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Gets the unmodifiable normalized parameters, sorted by name.
+   * 
+   * @return The parameters
+   */
+  public SortedMap<String, String> getParameters() {
+    return parameters;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CacheKey)) {
+      return false;
+    }
+    return key.equals(((CacheKey) obj).key);
+  }
+
+  @Override
+  public int hashCode() {
+    return key.hashCode();
+  }
+
+  /**
+   * Returns the normalized form of this key, e.g. {@code release/info.json?id=f638d1cfec8d}. Equal
+   * keys always return the same value.
+   */
+  @Override
+  public String toString() {
+    return key;
+  }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which endpoints are cached by a {@link ResponseCache} and for how long. Endpoints are
+ * named relative to the base URL, e.g. {@code release/info.json}. Endpoints without a time to live,
+ * or with a time to live of {@code 0}, are never cached.
+ * <p>
+ * By default lists of categories and filters are kept for a day, Ext Info, its media and the
+ * calendar for an hour, single releases and the releases of an Ext Info for 10 minutes, searches,
+ * browsing and comments for 5 minutes and the latest releases for a minute. Requests with
+ * authentication are never cached, regardless of the policy.
+ * <p>
+ * An endpoint can additionally allow stale responses with {@link #setMaxStale(String, long,
+ * TimeUnit)}: an expired response is then still returned immediately for up to the given time,
+ * while a single request per response refreshes it in the background. Failed refreshes, e.g.
+ * because the API returned an error or the rate limit was reached, keep the stale response in use.
+ * No endpoint allows stale responses by default.
+ * <p>
+ * Errors are never cached, except for "not found" errors of endpoints with a time to live for them,
+ * see {@link #setNotFoundTtl(String, long, TimeUnit)}. By default the information about single
+ * releases and Ext Infos that are not found is kept for a minute, so looking up unknown dirnames or
+ * IDs again does not use up the rate limit.
+ */
+public class CachePolicy {
+
+  private final Map<String, Long> ttlMillis = new TreeMap<>();
+  private final Map<String, Long> maxStaleMillis = new TreeMap<>();
+  private final Map<String, Long> notFoundTtlMillis = new TreeMap<>();
+  private long defaultTtlMillis;
+
+  /**
+   * Constructs a new CachePolicy with the default time to live of all endpoints.
+   */
+  public CachePolicy() {
+    setTtl("release/categories.json", 1, TimeUnit.DAYS);
+    setTtl("release/filters.json", 1, TimeUnit.DAYS);
+    setTtl("p2p/categories.json", 1, TimeUnit.DAYS);
+    setTtl("ext_info/info.json", 1, TimeUnit.HOURS);
+    setTtl("ext_info/media.json", 1, TimeUnit.HOURS);
+    setTtl("calendar/upcoming.json", 1, TimeUnit.HOURS);
+    setTtl("release/info.json", 10, TimeUnit.MINUTES);
+    setTtl("p2p/rls_info.json", 10, TimeUnit.MINUTES);
+    setTtl("release/ext_info.json", 10, TimeUnit.MINUTES);
+    setTtl("release/browse_category.json", 5, TimeUnit.MINUTES);
+    setTtl("search/releases.json", 5, TimeUnit.MINUTES);
+    setTtl("search/ext_info.json", 5, TimeUnit.MINUTES);
+    setTtl("comments/get.json", 5, TimeUnit.MINUTES);
+    setTtl("release/latest.json", 1, TimeUnit.MINUTES);
+    setTtl("p2p/releases.json", 1, TimeUnit.MINUTES);
+    setNotFoundTtl("release/info.json", 1, TimeUnit.MINUTES);
+    setNotFoundTtl("p2p/rls_info.json", 1, TimeUnit.MINUTES);
+    setNotFoundTtl("ext_info/info.json", 1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Constructs a new CachePolicy copying all values of another one.
+   * 
+   * @param policy The CachePolicy to copy
+   */
+  public CachePolicy(CachePolicy policy) {
+    Objects.requireNonNull(policy, "policy missing");
+    this.ttlMillis.putAll(policy.ttlMillis);
+    this.maxStaleMillis.putAll(policy.maxStaleMillis);
+    this.notFoundTtlMillis.putAll(policy.notFoundTtlMillis);
+    this.defaultTtlMillis = policy.defaultTtlMillis;
+  }
+
+  /**
+   * Gets the time to live of an endpoint.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param unit The unit of the result
+   * @return The time to live, {@code 0} if the endpoint is not cached
+   */
+  public long getTtl(String endpoint, TimeUnit unit) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    return unit.convert(ttlMillis.getOrDefault(endpoint, defaultTtlMillis), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets the time to live of an endpoint.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param ttl The time to live, {@code 0} to never cache the endpoint
+   * @param unit The unit of the time to live
+   */
+  public void setTtl(String endpoint, long ttl, TimeUnit unit) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    if (ttl < 0) {
+      throw new IllegalArgumentException("ttl < 0");
+    }
+    ttlMillis.put(endpoint, unit.toMillis(ttl));
+  }
+
+  /**
+   * Gets the time to live of all endpoints without their own time to live.
+   * 
+   * @param unit The unit of the result
+   * @return The time to live, {@code 0} if these endpoints are not cached
+   */
+  public long getDefaultTtl(TimeUnit unit) {
+    return unit.convert(defaultTtlMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets the time to live of all endpoints without their own time to live. Defaults to {@code 0}.
+   * 
+   * @param ttl The time to live, {@code 0} to not cache these endpoints
+   * @param unit The unit of the time to live
+   */
+  public void setDefaultTtl(long ttl, TimeUnit unit) {
+    if (ttl < 0) {
+      throw new IllegalArgumentException("ttl < 0");
+    }
+    this.defaultTtlMillis = unit.toMillis(ttl);
+  }
+
+  /**
+   * Gets the time to live of all endpoints with their own time to live.
+   * 
+   * @return The time to live in milliseconds by endpoint, sorted by endpoint
+   */
+  public Map<String, Long> getTtls() {
+    return Collections.unmodifiableMap(new TreeMap<>(ttlMillis));
+  }
+
+  /**
+   * Gets how long an expired response of an endpoint is still returned while it is refreshed.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param unit The unit of the result
+   * @return The maximum staleness, {@code 0} if expired responses are never returned
+   */
+  public long getMaxStale(String endpoint, TimeUnit unit) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    return unit.convert(maxStaleMillis.getOrDefault(endpoint, 0L), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets how long an expired response of an endpoint is still returned while it is refreshed in
+   * the background, counted from the end of its time to live.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param maxStale The maximum staleness, {@code 0} to never return expired responses
+   * @param unit The unit of the maximum staleness
+   */
+  public void setMaxStale(String endpoint, long maxStale, TimeUnit unit) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    if (maxStale < 0) {
+      throw new IllegalArgumentException("maxStale < 0");
+    }
+    maxStaleMillis.put(endpoint, unit.toMillis(maxStale));
+  }
+
+  /**
+   * Gets the maximum staleness of all endpoints with their own maximum staleness.
+   * 
+   * @return The maximum staleness in milliseconds by endpoint, sorted by endpoint
+   */
+  public Map<String, Long> getMaxStales() {
+    return Collections.unmodifiableMap(new TreeMap<>(maxStaleMillis));
+  }
+
+  /**
+   * Gets how long a "not found" error of an endpoint is cached.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param unit The unit of the result
+   * @return The time to live, {@code 0} if "not found" errors are not cached
+   */
+  public long getNotFoundTtl(String endpoint, TimeUnit unit) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    return unit.convert(notFoundTtlMillis.getOrDefault(endpoint, 0L), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets how long a "not found" error of an endpoint is cached. Only used if the endpoint has a
+   * time to live as well. Other errors, e.g. rate limit errors, are never cached.
+   * 
+   * @param endpoint The endpoint, e.g. {@code release/info.json}
+   * @param ttl The time to live, {@code 0} to never cache "not found" errors of the endpoint
+   * @param unit The unit of the time to live
+   */
+  public void setNotFoundTtl(String endpoint, long ttl, TimeUnit unit) {
+    Objects.requireNonNull(endpoint, "endpoint missing");
+    if (ttl < 0) {
+      throw new IllegalArgumentException("ttl < 0");
+    }
+    notFoundTtlMillis.put(endpoint, unit.toMillis(ttl));
+  }
+
+  /**
+   * Gets the time to live of "not found" errors of all endpoints with their own value.
+   * 
+   * @return The time to live in milliseconds by endpoint, sorted by endpoint
+   */
+  public Map<String, Long> getNotFoundTtls() {
+    return Collections.unmodifiableMap(new TreeMap<>(notFoundTtlMillis));
+  }
+
+  @Override
+  public String toString() {
+    return "CachePolicy [getTtls()=" + getTtls() + ", getDefaultTtl()="
+        + getDefaultTtl(TimeUnit.MILLISECONDS) + "ms, getMaxStales()=" + getMaxStales()
+        + ", getNotFoundTtls()=" + getNotFoundTtls() + "]";
+  }
+
+}
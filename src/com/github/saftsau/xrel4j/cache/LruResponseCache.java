@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ResponseCache} keeping the bodies on the heap. Entries are spread over segments by the
+ * hash of their key, each with its own lock and least recently used order, so concurrent calls
+ * rarely wait for each other. Each segment may use an equal share of the maximum size; when it is
+ * exceeded, the least recently used entries of that segment are evicted.
+ */
+public class LruResponseCache implements ResponseCache {
+
+  /**
+   * The default number of segments.
+   */
+  public static final int DEFAULT_SEGMENTS = 16;
+
+  private final long maxBytes;
+  private final Segment[] segments;
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * Constructs a new LruResponseCache with {@link #DEFAULT_SEGMENTS} segments.
+   * 
+   * @param maxBytes The maximum number of body bytes kept
+   */
+  public LruResponseCache(long maxBytes) {
+    this(maxBytes, DEFAULT_SEGMENTS);
+  }
+
+  /**
+   * Constructs a new LruResponseCache.
+   * 
+   * @param maxBytes The maximum number of body bytes kept
+   * @param segments The number of segments, more segments allow more concurrent calls
+   */
+  public LruResponseCache(long maxBytes, int segments) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes <= 0");
+    }
+    if (segments <= 0) {
+      throw new IllegalArgumentException("segments <= 0");
+    }
+    this.maxBytes = maxBytes;
+    this.segments = new Segment[segments];
+    for (int i = 0; i < segments; i++) {
+      this.segments[i] = new Segment(maxBytes / segments);
+    }
+  }
+
+  private Segment segment(CacheKey key) {
+    int hash = key.hashCode();
+    // Spread the high bits, keys often only differ in their last characters
+    hash ^= hash >>> 16;
+    return segments[(hash & Integer.MAX_VALUE) % segments.length];
+  }
+
+  @Override
+  public CacheEntry get(CacheKey key) {
+    return segment(key).get(key);
+  }
+
+  @Override
+  public void put(CacheKey key, CacheEntry entry) {
+    segment(key).put(key, entry);
+  }
+
+  @Override
+  public void remove(CacheKey key) {
+    segment(key).remove(key);
+  }
+
+  @Override
+  public void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  @Override
+  public long getByteSize() {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      bytes += segment.bytes();
+    }
+    return bytes;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * Gets the maximum number of body bytes kept.
+   * 
+   * @return The maximum number of bytes
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "LruResponseCache [size()=" + size() + ", getByteSize()=" + getByteSize()
+        + ", getMaxBytes()=" + getMaxBytes() + ", getEvictionCount()=" + getEvictionCount() + "]";
+  }
+
+  /**
+   * A part of the cache with its own lock and least recently used order.
+   */
+  private final class Segment {
+
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<CacheKey, CacheEntry> entries =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private Segment(long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    private CacheEntry get(CacheKey key) {
+      lock.lock();
+      try {
+        return entries.get(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void put(CacheKey key, CacheEntry entry) {
+      long length = entry.getLength();
+      lock.lock();
+      try {
+        CacheEntry previous = entries.remove(key);
+        if (previous != null) {
+          bytes -= previous.getLength();
+        }
+        if (length > maxBytes) {
+          // Would evict everything else and still not fit
+          return;
+        }
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (bytes + length > maxBytes && iterator.hasNext()) {
+          bytes -= iterator.next().getValue().getLength();
+          iterator.remove();
+          evictionCount.increment();
+        }
+        entries.put(key, entry);
+        bytes += length;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(CacheKey key) {
+      lock.lock();
+      try {
+        CacheEntry previous = entries.remove(key);
+        if (previous != null) {
+          bytes -= previous.getLength();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void clear() {
+      lock.lock();
+      try {
+        entries.clear();
+        bytes = 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int size() {
+      lock.lock();
+      try {
+        return entries.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private long bytes() {
+      lock.lock();
+      try {
+        return bytes;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+  }
+
+}
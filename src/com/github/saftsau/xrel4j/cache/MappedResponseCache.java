@@ -0,0 +1,543 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ResponseCache} keeping the raw JSON bodies in memory-mapped files inside a directory, so
+ * the cache survives restarts and its content is paged in by the operating system as needed
+ * instead of living on the Java heap. Entries are appended to segment files of a fixed size; a new
+ * segment is started once the current one is full. When the segments would exceed the maximum
+ * size, the oldest segment is deleted together with all entries still stored in it.
+ * <p>
+ * Cached bodies are not copied on a hit, the response is parsed directly from the mapped file. Only
+ * the keys and the positions of the entries are kept on the heap, they are rebuilt from the
+ * segments when a cache is opened again. Entries are kept as long as they can be returned as stale
+ * responses, see {@link CacheEntry#getStaleUntil()}; older ones are skipped.
+ * <p>
+ * Entries which can't be written, e.g. because the disk is full, are dropped and counted by
+ * {@link #getWriteErrorCount()}; an older entry of the same key is then kept, as it is still
+ * stored in its segment. A directory must only be opened by a single MappedResponseCache
+ * at a time.
+ */
+public class MappedResponseCache implements ResponseCache, AutoCloseable {
+
+  /**
+   * The default size of a segment file in bytes.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final int MAGIC = 0x78524343;
+  private static final int VERSION = 3;
+  private static final int HEADER_SIZE = 8;
+  private static final byte TYPE_ENTRY = 1;
+  private static final byte TYPE_REMOVED = 2;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".xrc";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+  private final Map<CacheKey, Location> index = new HashMap<>();
+  private long nextSegmentNumber;
+  private long bytes;
+  private long evictionCount;
+  private long writeErrorCount;
+  private boolean closed;
+
+  /**
+   * Opens the MappedResponseCache in the given directory with segments of
+   * {@link #DEFAULT_SEGMENT_SIZE}. The directory is created if it does not exist.
+   * 
+   * @param directory The directory containing the segment files
+   * @param maxBytes The maximum size of all segment files together
+   * @throws IOException If the segments could not be read or created
+   */
+  public MappedResponseCache(Path directory, long maxBytes) throws IOException {
+    this(directory, maxBytes, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Opens the MappedResponseCache in the given directory. The directory is created if it does not
+   * exist. Smaller segments release space in smaller steps, but limit the size of a single body.
+   * 
+   * @param directory The directory containing the segment files
+   * @param maxBytes The maximum size of all segment files together
+   * @param segmentSize The size of a segment file in bytes
+   * @throws IOException If the segments could not be read or created
+   */
+  public MappedResponseCache(Path directory, long maxBytes, int segmentSize) throws IOException {
+    this.directory = Objects.requireNonNull(directory, "directory missing");
+    if (segmentSize <= HEADER_SIZE + 4) {
+      throw new IllegalArgumentException("segmentSize too small");
+    }
+    if (maxBytes < segmentSize) {
+      throw new IllegalArgumentException("maxBytes < segmentSize");
+    }
+    this.segmentSize = segmentSize;
+    this.maxSegments = (int) Math.min(Integer.MAX_VALUE, maxBytes / segmentSize);
+
+    Files.createDirectories(directory);
+    TreeSet<Path> paths = new TreeSet<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        paths.add(path);
+      }
+    }
+    long now = System.currentTimeMillis();
+    for (Path path : paths) {
+      openSegment(path, now);
+    }
+    while (segments.size() > maxSegments) {
+      evictOldestSegment();
+    }
+    if (segments.isEmpty()) {
+      createSegment();
+    }
+  }
+
+  /**
+   * Gets the directory containing the segment files.
+   * 
+   * @return The directory
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Gets the number of segment files.
+   * 
+   * @return The number of segments
+   */
+  public int getSegmentCount() {
+    lock.lock();
+    try {
+      return segments.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of entries dropped so far because they could not be written.
+   * 
+   * @return The number of write errors
+   */
+  public long getWriteErrorCount() {
+    lock.lock();
+    try {
+      return writeErrorCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public CacheEntry get(CacheKey key) {
+    lock.lock();
+    try {
+      checkOpen();
+      Location location = index.get(key);
+      if (location == null) {
+        return null;
+      }
+      ByteBuffer body = location.segment.buffer.duplicate();
+      body.limit(location.offset + location.length);
+      body.position(location.offset);
+      return new CacheEntry(body, location.contentType, location.code, location.storedAt,
+          location.expiresAt, location.staleUntil);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(CacheKey key, CacheEntry entry) {
+    byte[] keyBytes = key.toString().getBytes(StandardCharsets.UTF_8);
+    String contentType = entry.getContentType();
+    byte[] contentTypeBytes =
+        contentType == null ? null : contentType.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer body = entry.getBodyBuffer();
+    int bodyLength = body.remaining();
+    long length = 1L + 4 + keyBytes.length + 4
+        + (contentTypeBytes == null ? 0 : contentTypeBytes.length) + 4 + 8 + 8 + 8 + bodyLength;
+    lock.lock();
+    try {
+      checkOpen();
+      if (HEADER_SIZE + 4 + length > segmentSize) {
+        // Would never fit into a segment
+        remove(key);
+        return;
+      }
+      // The old entry stays indexed until the new record is written, it is still on disk otherwise
+      MappedByteBuffer segment = reserve((int) length);
+      if (segment == null) {
+        return;
+      }
+      int offset = segment.position();
+      segment.position(offset + 4);
+      segment.put(TYPE_ENTRY);
+      putBytes(segment, keyBytes);
+      putBytes(segment, contentTypeBytes);
+      segment.putInt(entry.getCode());
+      segment.putLong(entry.getStoredAt());
+      segment.putLong(entry.getExpiresAt());
+      segment.putLong(entry.getStaleUntil());
+      int bodyOffset = segment.position();
+      segment.put(body);
+      // The length is written last, a torn record is therefore never read back
+      segment.putInt(offset, (int) length);
+      index(key, new Location(segments.getLast(), bodyOffset, bodyLength, contentType,
+          entry.getCode(), entry.getStoredAt(), entry.getExpiresAt(), entry.getStaleUntil()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void remove(CacheKey key) {
+    lock.lock();
+    try {
+      checkOpen();
+      Location location = index.remove(key);
+      if (location == null) {
+        return;
+      }
+      unindex(location);
+      // Without a tombstone the entry would come back when the cache is opened again
+      byte[] keyBytes = key.toString().getBytes(StandardCharsets.UTF_8);
+      int length = 1 + 4 + keyBytes.length;
+      MappedByteBuffer segment = reserve(length);
+      if (segment == null) {
+        return;
+      }
+      int offset = segment.position();
+      segment.position(offset + 4);
+      segment.put(TYPE_REMOVED);
+      putBytes(segment, keyBytes);
+      segment.putInt(offset, length);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      checkOpen();
+      while (!segments.isEmpty()) {
+        deleteSegment(segments.removeFirst());
+      }
+      index.clear();
+      bytes = 0;
+      try {
+        createSegment();
+      } catch (IOException e) {
+        writeErrorCount++;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getByteSize() {
+    lock.lock();
+    try {
+      return bytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getEvictionCount() {
+    lock.lock();
+    try {
+      return evictionCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes all changes of the memory-mapped segments to disk.
+   */
+  public void flush() {
+    lock.lock();
+    try {
+      for (Segment segment : segments) {
+        segment.buffer.force();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Flushes and closes this MappedResponseCache. Any further use throws an
+   * {@link IllegalStateException}. Entries returned before stay readable.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      flush();
+      closed = true;
+      segments.clear();
+      index.clear();
+      bytes = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the segment to append a record of the given length to, starting a new segment and evicting
+   * the oldest ones if necessary.
+   * 
+   * @return The segment, {@code null} if a new segment could not be created
+   */
+  private MappedByteBuffer reserve(int length) {
+    MappedByteBuffer segment = segments.isEmpty() ? null : segments.getLast().buffer;
+    if (segment != null && segment.remaining() >= 4 + length) {
+      return segment;
+    }
+    while (segments.size() >= maxSegments) {
+      evictOldestSegment();
+    }
+    try {
+      return createSegment();
+    } catch (IOException e) {
+      writeErrorCount++;
+      return null;
+    }
+  }
+
+  private void evictOldestSegment() {
+    Segment oldest = segments.removeFirst();
+    Iterator<Location> iterator = index.values().iterator();
+    while (iterator.hasNext()) {
+      Location location = iterator.next();
+      if (location.segment == oldest) {
+        bytes -= location.length;
+        iterator.remove();
+        evictionCount++;
+      }
+    }
+    deleteSegment(oldest);
+  }
+
+  private void index(CacheKey key, Location location) {
+    unindex(index.put(key, location));
+    bytes += location.length;
+  }
+
+  private void unindex(Location location) {
+    if (location != null) {
+      bytes -= location.length;
+    }
+  }
+
+  private void openSegment(Path path, long now) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    }
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a response cache segment: " + path);
+    }
+    if (buffer.getInt(4) != VERSION) {
+      // Written by another version, the responses can simply be fetched again
+      Files.deleteIfExists(path);
+      return;
+    }
+    String fileName = path.getFileName().toString();
+    long number = Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(),
+        fileName.length() - SEGMENT_SUFFIX.length()));
+    Segment segment = new Segment(path, buffer);
+    segments.addLast(segment);
+    nextSegmentNumber = Math.max(nextSegmentNumber, number + 1);
+
+    int offset = HEADER_SIZE;
+    while (offset + 4 <= buffer.limit()) {
+      int length = buffer.getInt(offset);
+      if (length <= 0 || offset + 4 + length > buffer.limit()) {
+        break;
+      }
+      ByteBuffer record = buffer.duplicate();
+      record.limit(offset + 4 + length);
+      record.position(offset + 4);
+      byte type = record.get();
+      CacheKey key = CacheKey.parse(getString(record));
+      if (type == TYPE_ENTRY) {
+        String contentType = getString(record);
+        int code = record.getInt();
+        long storedAt = record.getLong();
+        long expiresAt = record.getLong();
+        long staleUntil = record.getLong();
+        if (staleUntil > now) {
+          index(key, new Location(segment, record.position(), record.remaining(), contentType, code,
+              storedAt, expiresAt, staleUntil));
+        } else {
+          unindex(index.remove(key));
+        }
+      } else {
+        unindex(index.remove(key));
+      }
+      offset += 4 + length;
+    }
+    buffer.position(offset);
+  }
+
+  private MappedByteBuffer createSegment() throws IOException {
+    Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, nextSegmentNumber,
+        SEGMENT_SUFFIX));
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    nextSegmentNumber++;
+    segments.addLast(new Segment(path, buffer));
+    return buffer;
+  }
+
+  private static void deleteSegment(Segment segment) {
+    try {
+      // Entries returned before keep their mapping, which stays valid after the file is deleted
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      // Some platforms don't allow deleting mapped files, the segment is replaced on the next start
+      // as its entries are older than all others
+    }
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("MappedResponseCache closed");
+    }
+  }
+
+  private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+    if (bytes == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String toString() {
+    return "MappedResponseCache [getDirectory()=" + getDirectory() + ", size()=" + size()
+        + ", getByteSize()=" + getByteSize() + ", getSegmentCount()=" + getSegmentCount()
+        + ", getEvictionCount()=" + getEvictionCount() + "]";
+  }
+
+  /**
+   * A segment file and its mapping.
+   */
+  private static final class Segment {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    private Segment(Path path, MappedByteBuffer buffer) {
+      this.path = path;
+      this.buffer = buffer;
+    }
+
+  }
+
+  /**
+   * Position and metadata of the body of an entry.
+   */
+  private static final class Location {
+
+    private final Segment segment;
+    private final int offset;
+    private final int length;
+    private final String contentType;
+    private final int code;
+    private final long storedAt;
+    private final long expiresAt;
+    private final long staleUntil;
+
+    private Location(Segment segment, int offset, int length, String contentType, int code,
+        long storedAt, long expiresAt, long staleUntil) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.contentType = contentType;
+      this.code = code;
+      this.storedAt = storedAt;
+      this.expiresAt = expiresAt;
+      this.staleUntil = staleUntil;
+    }
+
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+/**
+ * {@link ResponseCache} that never stores anything, the default. If it is set, responses are not
+ * even buffered for caching, so the JSON parser keeps streaming them from the network.
+ */
+public class NoOpResponseCache implements ResponseCache {
+
+  @Override
+  public CacheEntry get(CacheKey key) {
+    return null;
+  }
+
+  @Override
+  public void put(CacheKey key, CacheEntry entry) {
+    // Nothing is stored
+  }
+
+  @Override
+  public void remove(CacheKey key) {
+    // Nothing is stored
+  }
+
+  @Override
+  public void clear() {
+    // Nothing is stored
+  }
+
+  @Override
+  public long size() {
+    return 0;
+  }
+
+  @Override
+  public long getByteSize() {
+    return 0;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return "NoOpResponseCache []";
+  }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ResponseCache} keeping the raw JSON bodies outside of the Java heap, so even large caches
+ * add nothing to the work of the garbage collector. The memory is allocated once as a direct buffer
+ * and split into blocks of equal size; a body uses as many blocks as it needs, which don't have to
+ * be adjacent, so freed memory can always be reused. Only the keys and block numbers are kept on
+ * the heap. When no blocks are free, the least recently used entries are evicted.
+ * <p>
+ * Bodies are copied into the buffer when they are stored and copied back when they are read.
+ */
+public class OffHeapResponseCache implements ResponseCache {
+
+  /**
+   * The default size of a block in bytes.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+  private final ByteBuffer buffer;
+  private final int blockSize;
+  private final int blockCount;
+  // Stack of the numbers of all free blocks, the top is at freeCount - 1
+  private final int[] freeBlocks;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<CacheKey, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+  private int freeCount;
+  private long bytes;
+  private long evictionCount;
+
+  /**
+   * Constructs a new OffHeapResponseCache with blocks of {@link #DEFAULT_BLOCK_SIZE} bytes.
+   * 
+   * @param capacity The number of bytes to allocate, at most {@link Integer#MAX_VALUE}
+   */
+  public OffHeapResponseCache(long capacity) {
+    this(capacity, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Constructs a new OffHeapResponseCache. Smaller blocks waste less memory at the end of each
+   * body, larger blocks need fewer copies.
+   * 
+   * @param capacity The number of bytes to allocate, at most {@link Integer#MAX_VALUE}
+   * @param blockSize The size of a block in bytes
+   */
+  public OffHeapResponseCache(long capacity, int blockSize) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("blockSize <= 0");
+    }
+    if (capacity < blockSize) {
+      throw new IllegalArgumentException("capacity < blockSize");
+    }
+    if (capacity > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("capacity > Integer.MAX_VALUE");
+    }
+    this.blockSize = blockSize;
+    this.blockCount = (int) (capacity / blockSize);
+    this.buffer = ByteBuffer.allocateDirect(blockCount * blockSize);
+    this.freeBlocks = new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      // Lowest block on top, so an empty cache fills the buffer from the start
+      freeBlocks[i] = blockCount - 1 - i;
+    }
+    this.freeCount = blockCount;
+  }
+
+  @Override
+  public CacheEntry get(CacheKey key) {
+    lock.lock();
+    try {
+      Slot slot = slots.get(key);
+      if (slot == null) {
+        return null;
+      }
+      byte[] body = new byte[slot.length];
+      int offset = 0;
+      for (int block : slot.blocks) {
+        int length = Math.min(blockSize, slot.length - offset);
+        buffer.position(block * blockSize);
+        buffer.get(body, offset, length);
+        offset += length;
+      }
+      return new CacheEntry(body, slot.contentType, slot.code, slot.storedAt, slot.expiresAt,
+          slot.staleUntil);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void put(CacheKey key, CacheEntry entry) {
+    ByteBuffer body = entry.getBodyBuffer();
+    int bodyLength = body.remaining();
+    int needed = (bodyLength + blockSize - 1) / blockSize;
+    lock.lock();
+    try {
+      free(slots.remove(key));
+      if (needed > blockCount) {
+        return;
+      }
+      Iterator<Slot> iterator = slots.values().iterator();
+      while (freeCount < needed) {
+        free(iterator.next());
+        iterator.remove();
+        evictionCount++;
+      }
+      int[] blocks = new int[needed];
+      for (int i = 0; i < needed; i++) {
+        blocks[i] = freeBlocks[--freeCount];
+        body.limit(Math.min(body.position() + blockSize, bodyLength));
+        buffer.position(blocks[i] * blockSize);
+        buffer.put(body);
+      }
+      slots.put(key, new Slot(blocks, bodyLength, entry));
+      bytes += bodyLength;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the blocks of a removed slot to the free blocks. Must be called with the lock held.
+   */
+  private void free(Slot slot) {
+    if (slot == null) {
+      return;
+    }
+    for (int block : slot.blocks) {
+      freeBlocks[freeCount++] = block;
+    }
+    bytes -= slot.length;
+  }
+
+  @Override
+  public void remove(CacheKey key) {
+    lock.lock();
+    try {
+      free(slots.remove(key));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      for (Map.Entry<CacheKey, Slot> entry : slots.entrySet()) {
+        free(entry.getValue());
+      }
+      slots.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    lock.lock();
+    try {
+      return slots.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getByteSize() {
+    lock.lock();
+    try {
+      return bytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getEvictionCount() {
+    lock.lock();
+    try {
+      return evictionCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of bytes allocated outside of the heap.
+   * 
+   * @return The capacity in bytes
+   */
+  public long getCapacity() {
+    return (long) blockCount * blockSize;
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapResponseCache [size()=" + size() + ", getByteSize()=" + getByteSize()
+        + ", getCapacity()=" + getCapacity() + ", getEvictionCount()=" + getEvictionCount() + "]";
+  }
+
+  /**
+   * The blocks and metadata of a stored body.
+   */
+  private static final class Slot {
+
+    private final int[] blocks;
+    private final int length;
+    private final String contentType;
+    private final int code;
+    private final long storedAt;
+    private final long expiresAt;
+    private final long staleUntil;
+
+    private Slot(int[] blocks, int length, CacheEntry entry) {
+      this.blocks = blocks;
+      this.length = length;
+      this.contentType = entry.getContentType();
+      this.code = entry.getCode();
+      this.storedAt = entry.getStoredAt();
+      this.expiresAt = entry.getExpiresAt();
+      this.staleUntil = entry.getStaleUntil();
+    }
+
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+
+/**
+ * Cache of raw xREL API responses, shared by all read endpoints. Set it with
+ * {@link RestClientConfiguration#setResponseCache(ResponseCache)}; which endpoints are cached and
+ * for how long is decided by the {@link CachePolicy}. Only successful responses of requests without
+ * authentication are cached, so the cached JSON never contains user specific values.
+ * <p>
+ * Implementations must be safe to use from any number of threads. They are free to drop entries at
+ * any time, e.g. to stay within their capacity.
+ * 
+ * @see LruResponseCache
+ * @see OffHeapResponseCache
+ * @see NoOpResponseCache
+ */
+public interface ResponseCache {
+
+  /**
+   * Gets the entry stored for a key. Expired entries may be returned, they are removed by the
+   * caller.
+   * 
+   * @param key The {@link CacheKey} of the request
+   * @return The {@link CacheEntry}, {@code null} if there is none
+   */
+  CacheEntry get(CacheKey key);
+
+  /**
+   * Stores an entry, replacing any entry stored for the same key.
+   * 
+   * @param key The {@link CacheKey} of the request
+   * @param entry The {@link CacheEntry} to store
+   */
+  void put(CacheKey key, CacheEntry entry);
+
+  /**
+   * Removes the entry stored for a key, if any.
+   * 
+   * @param key The {@link CacheKey} to remove
+   */
+  void remove(CacheKey key);
+
+  /**
+   * Removes all entries.
+   */
+  void clear();
+
+  /**
+   * Gets the number of entries currently stored.
+   * 
+   * @return The number of entries
+   */
+  long size();
+
+  /**
+   * Gets the number of bytes currently used by the stored bodies.
+   * 
+   * @return The number of bytes
+   */
+  long getByteSize();
+
+  /**
+   * Gets the number of entries dropped so far to make room for new ones.
+   * 
+   * @return The number of evictions
+   */
+  long getEvictionCount();
+
+}
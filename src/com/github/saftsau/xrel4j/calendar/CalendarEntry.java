@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.calendar;
+
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ReleaseDate;
+import java.time.LocalDate;
+
+/**
+ * A single release date of an upcoming {@link ExtInfo}, as indexed by {@link CalendarService}. An
+ * {@link ExtInfo} with several release dates, e.g. in cinemas and on disc, has one entry per date.
+ */
+public class CalendarEntry {
+
+  private final ExtInfo extInfo;
+  private final ReleaseDate releaseDate;
+
+  /**
+   * Constructs a new CalendarEntry.
+   * 
+   * @param extInfo The upcoming {@link ExtInfo}
+   * @param releaseDate The {@link ReleaseDate} of this entry
+   */
+  CalendarEntry(ExtInfo extInfo, ReleaseDate releaseDate) {
+    this.extInfo = extInfo;
+    this.releaseDate = releaseDate;
+  }
+
+  /**
+   * Gets the upcoming {@link ExtInfo}.
+   * 
+   * @return The {@link ExtInfo}
+   */
+  public ExtInfo getExtInfo() {
+    return extInfo;
+  }
+
+  /**
+   * Gets the {@link ReleaseDate} of this entry.
+   * 
+   * @return The {@link ReleaseDate}
+   */
+  public ReleaseDate getReleaseDate() {
+    return releaseDate;
+  }
+
+  /**
+   * Gets the date of this entry.
+   * 
+   * @return The date
+   */
+  public LocalDate getDate() {
+    return releaseDate.getDate();
+  }
+
+  @Override
+  public String toString() {
+    return "CalendarEntry [getDate()=" + getDate() + ", getReleaseDate()=" + getReleaseDate()
+        + ", getExtInfo()=" + getExtInfo() + "]";
+  }
+
+}
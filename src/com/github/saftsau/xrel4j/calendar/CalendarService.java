@@ -0,0 +1,310 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.calendar;
+
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ReleaseDate;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the upcoming calendars of all countries in memory and refreshes them in the background.
+ * Lookups never cause a request, they are answered from an index sorted by release date that is
+ * replaced as a whole on every refresh. Each country is refreshed on its own schedule, every delay
+ * is varied randomly by up to 10 % so several instances don't refresh at the same time. A failed
+ * refresh keeps the previous calendar and is retried after a minute.
+ *
+ * @see <a href= "https://www.xrel.to/wiki/1827/api-calendar-upcoming.html">API: calendar/upcoming
+ *      method</a>
+ */
+public class CalendarService implements AutoCloseable {
+
+  /**
+   * The countries of the calendars, {@code de} for upcoming movies in germany, {@code us} for
+   * upcoming movies in the US/international.
+   */
+  public static final List<String> COUNTRIES =
+      Collections.unmodifiableList(Arrays.asList("de", "us"));
+  /**
+   * The default number of minutes between two refreshes of a calendar.
+   */
+  public static final long DEFAULT_REFRESH_INTERVAL = 60;
+  private static final long RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+  private static final double JITTER = 0.1;
+
+  private final Xrel xrel;
+  private final long refreshInterval;
+  private final XrelExecutor executor;
+  private final Map<String, CalendarIndex> calendars = new ConcurrentHashMap<>();
+  private final Map<String, ScheduledFuture<?>> scheduledRefreshes = new ConcurrentHashMap<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new CalendarService refreshing every {@link #DEFAULT_REFRESH_INTERVAL} minutes on
+   * {@link XrelExecutor#getDefault()}.
+   *
+   * @param xrel The {@link Xrel} object used for all requests
+   */
+  public CalendarService(Xrel xrel) {
+    this(xrel, DEFAULT_REFRESH_INTERVAL, TimeUnit.MINUTES, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new CalendarService.
+   *
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param refreshInterval The time between two refreshes of a calendar
+   * @param unit The {@link TimeUnit} of the refresh interval
+   * @param executor The {@link XrelExecutor} used to run the refreshes
+   */
+  public CalendarService(Xrel xrel, long refreshInterval, TimeUnit unit, XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    Objects.requireNonNull(unit, "unit missing");
+    if (refreshInterval < 1) {
+      throw new IllegalArgumentException("refreshInterval must be 1 or greater");
+    }
+    this.refreshInterval = unit.toMillis(refreshInterval);
+  }
+
+  /**
+   * Starts refreshing all calendars in the background, the first refresh runs right away. Calling
+   * this method again has no effect.
+   */
+  public void start() {
+    if (closed) {
+      throw new IllegalStateException("CalendarService closed");
+    }
+    if (!started.compareAndSet(false, true)) {
+      return;
+    }
+    for (String country : COUNTRIES) {
+      schedule(country, 0);
+    }
+  }
+
+  /**
+   * Refreshes all calendars now, blocking until they are loaded. Useful to fill the calendars
+   * before serving lookups.
+   *
+   * @throws XrelException If the refresh of any calendar failed, the other ones are refreshed
+   *         anyway
+   */
+  public void refresh() throws XrelException {
+    XrelException failure = null;
+    for (String country : COUNTRIES) {
+      try {
+        refresh(country);
+      } catch (XrelException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Refreshes the calendar of a country now, blocking until it is loaded.
+   *
+   * @param country {@code de} or {@code us}
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  public void refresh(String country) throws XrelException {
+    checkCountry(country);
+
+    List<ExtInfo> upcoming = xrel.getCalendarUpcoming(country);
+    calendars.put(country, new CalendarIndex(upcoming, Instant.now()));
+  }
+
+  private void schedule(String country, long delay) {
+    if (closed) {
+      return;
+    }
+    long jitter = (long) (delay * JITTER * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+    ScheduledFuture<?> scheduledRefresh = executor.schedule(() -> {
+      long nextDelay = Math.min(RETRY_DELAY, refreshInterval);
+      try {
+        refresh(country);
+        nextDelay = refreshInterval;
+      } catch (RuntimeException e) {
+        // API errors as well as bugs keep serving the previous calendar
+      } finally {
+        // Rescheduled no matter what, the country would never be refreshed again otherwise
+        schedule(country, nextDelay);
+      }
+    }, delay + jitter, TimeUnit.MILLISECONDS);
+    scheduledRefreshes.put(country, scheduledRefresh);
+    if (closed) {
+      // Closed while scheduling
+      scheduledRefresh.cancel(false);
+    }
+  }
+
+  /**
+   * Gets the upcoming {@link ExtInfo}s of a country as returned by the last refresh.
+   *
+   * @param country {@code de} or {@code us}
+   * @return The list of {@link ExtInfo}, empty if the calendar was not loaded yet
+   */
+  public List<ExtInfo> getUpcoming(String country) {
+    return getCalendar(country).upcoming;
+  }
+
+  /**
+   * Gets all release dates of a country between two dates.
+   *
+   * @param country {@code de} or {@code us}
+   * @param from The first date, inclusive
+   * @param to The last date, inclusive
+   * @return The list of {@link CalendarEntry}, sorted by date
+   */
+  public List<CalendarEntry> getEntries(String country, LocalDate from, LocalDate to) {
+    return getEntries(country, from, to, null);
+  }
+
+  /**
+   * Gets all release dates of a country between two dates of {@link ExtInfo}s of a type.
+   *
+   * @param country {@code de} or {@code us}
+   * @param from The first date, inclusive
+   * @param to The last date, inclusive
+   * @param type The type of the {@link ExtInfo}s, e.g. {@code movie}, or {@code null} for all
+   *        types
+   * @return The list of {@link CalendarEntry}, sorted by date
+   */
+  public List<CalendarEntry> getEntries(String country, LocalDate from, LocalDate to,
+      String type) {
+    Objects.requireNonNull(from, "from missing");
+    Objects.requireNonNull(to, "to missing");
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException("from is after to");
+    }
+
+    CalendarIndex calendar = getCalendar(country);
+    NavigableMap<LocalDate, List<CalendarEntry>> index =
+        type == null ? calendar.entries : calendar.entriesByType.get(type);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+    List<CalendarEntry> entries = new ArrayList<>();
+    for (List<CalendarEntry> day : index.subMap(from, true, to, true).values()) {
+      entries.addAll(day);
+    }
+    return entries;
+  }
+
+  /**
+   * Gets the time of the last successful refresh of a calendar.
+   *
+   * @param country {@code de} or {@code us}
+   * @return The time of the last refresh, empty if the calendar was not loaded yet
+   */
+  public Optional<Instant> getLastRefresh(String country) {
+    return Optional.ofNullable(getCalendar(country).refreshed);
+  }
+
+  private CalendarIndex getCalendar(String country) {
+    checkCountry(country);
+
+    return calendars.getOrDefault(country, CalendarIndex.EMPTY);
+  }
+
+  private static void checkCountry(String country) {
+    Objects.requireNonNull(country, "country missing");
+    if (!COUNTRIES.contains(country)) {
+      throw new IllegalArgumentException("country must be either de or us");
+    }
+  }
+
+  /**
+   * Stops refreshing the calendars. The calendars loaded so far can still be looked up.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (ScheduledFuture<?> refresh : scheduledRefreshes.values()) {
+      refresh.cancel(false);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CalendarService [getLastRefresh(de)=" + getLastRefresh("de")
+        + ", getLastRefresh(us)=" + getLastRefresh("us") + "]";
+  }
+
+  /**
+   * Immutable calendar of a single country, indexed by date.
+   */
+  private static final class CalendarIndex {
+
+    private static final CalendarIndex EMPTY = new CalendarIndex(Collections.emptyList(), null);
+
+    private final List<ExtInfo> upcoming;
+    private final Instant refreshed;
+    private final NavigableMap<LocalDate, List<CalendarEntry>> entries = new TreeMap<>();
+    private final Map<String, NavigableMap<LocalDate, List<CalendarEntry>>> entriesByType =
+        new HashMap<>();
+
+    private CalendarIndex(List<ExtInfo> upcoming, Instant refreshed) {
+      this.upcoming = upcoming == null ? Collections.emptyList()
+          : Collections.unmodifiableList(new ArrayList<>(upcoming));
+      this.refreshed = refreshed;
+      for (ExtInfo extInfo : this.upcoming) {
+        if (extInfo.getReleaseDates() == null) {
+          continue;
+        }
+        for (ReleaseDate releaseDate : extInfo.getReleaseDates()) {
+          if (releaseDate.getDate() == null) {
+            continue;
+          }
+          CalendarEntry entry = new CalendarEntry(extInfo, releaseDate);
+          entries.computeIfAbsent(entry.getDate(), date -> new ArrayList<>()).add(entry);
+          if (extInfo.getType() != null) {
+            entriesByType.computeIfAbsent(extInfo.getType(), type -> new TreeMap<>())
+                .computeIfAbsent(entry.getDate(), date -> new ArrayList<>()).add(entry);
+          }
+        }
+      }
+    }
+
+  }
+
+}
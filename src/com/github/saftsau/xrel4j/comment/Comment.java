@@ -17,9 +17,11 @@
 
 package com.github.saftsau.xrel4j.comment;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
 import com.github.saftsau.xrel4j.release.scene.Release;
+import java.time.Instant;
 
 /**
  * Class represents a comment on any {@link Release} or {@link P2pRelease}.
@@ -35,6 +37,11 @@ public class Comment {
   private Rating rating;
   private Votes votes;
   private Edits edits;
+  @JsonIgnore
+  private int hash;
+  // Created by getTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant timeInstant;
 
   /**
    * Gets the ID of this Comment.
@@ -52,6 +59,7 @@ public class Comment {
    */
   public void setId(String id) {
     this.id = id;
+    this.hash = 0;
   }
 
   /**
@@ -70,6 +78,23 @@ public class Comment {
    */
   public void setTime(long time) {
     this.time = time;
+    this.timeInstant = null;
+  }
+
+  /**
+   * Gets the time of this Comment as {@link Instant}. It is created on first use and kept until the
+   * time is changed. Use {@link #getTime()} for the primitive UNIX timestamp.
+   * 
+   * @return The time
+   */
+  @JsonIgnore
+  public Instant getTimeInstant() {
+    Instant instant = timeInstant;
+    if (instant == null) {
+      instant = Instant.ofEpochSecond(time);
+      timeInstant = instant;
+    }
+    return instant;
   }
 
   /**
@@ -180,6 +205,35 @@ public class Comment {
     this.edits = edits;
   }
 
+  /**
+   * Compares this Comment with another object. Both are equal if they are of the same class and
+   * have the same API ID, all other values are ignored. Comments without an ID are only equal to
+   * themselves.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id != null && id.equals(((Comment) obj).id);
+  }
+
+  /**
+   * Returns the hash code of the API ID, cached until the ID is changed.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && id != null) {
+      h = id.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
   @Override
   public String toString() {
     return "Comment [getId()=" + getId() + ", getTime()=" + getTime() + ", getAuthor()="
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.comment;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the newest known {@link Comment}s of every crawled {@link ReleaseBase}, so
+ * {@link CommentCrawler} only has to request new comments. As comments only carry their time in
+ * seconds, the IDs of all known comments of the newest second are kept. Can be saved to and loaded
+ * from a JSON file to resume crawling after a restart.
+ */
+public class CommentCheckpoint {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Map<String, Position> positions;
+
+  /**
+   * Constructs a new, empty CommentCheckpoint.
+   */
+  public CommentCheckpoint() {
+    this.positions = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Constructs a new CommentCheckpoint with the given positions.
+   * 
+   * @param positions The positions to start with
+   */
+  private CommentCheckpoint(Map<String, Position> positions) {
+    this.positions = new ConcurrentHashMap<>(positions);
+  }
+
+  /**
+   * Loads a CommentCheckpoint previously saved with {@link #save(Path)}. If the file does not exist
+   * an empty CommentCheckpoint is returned.
+   * 
+   * @param path The path of the file
+   * @return The CommentCheckpoint
+   * @throws IOException If the file could not be read
+   */
+  public static CommentCheckpoint load(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return new CommentCheckpoint();
+    }
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      Map<String, Position> positions =
+          objectMapper.readValue(inputStream, new TypeReference<Map<String, Position>>() {});
+      return new CommentCheckpoint(positions);
+    }
+  }
+
+  /**
+   * Saves this CommentCheckpoint. The file is replaced atomically where supported, so a crash
+   * while saving never leaves a broken file behind.
+   * 
+   * @param path The path of the file
+   * @throws IOException If the file could not be written
+   */
+  public void save(Path path) throws IOException {
+    Path directory = path.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try (OutputStream outputStream = Files.newOutputStream(temp)) {
+      objectMapper.writeValue(outputStream, positions);
+    }
+    try {
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Gets the UNIX timestamp of the newest known {@link Comment} of a release.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @return The timestamp or {@code -1} if unknown
+   */
+  public long getNewestTime(ReleaseBase release) {
+    Position position = positions.get(key(release));
+    return position == null ? -1 : position.time;
+  }
+
+  /**
+   * Gets the ID of the newest known {@link Comment} of a release.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @return The ID or {@code null} if unknown
+   */
+  public String getNewestId(ReleaseBase release) {
+    Position position = positions.get(key(release));
+    return position == null ? null : position.id;
+  }
+
+  /**
+   * Gets the IDs of all known {@link Comment}s of a release posted at its newest time, see
+   * {@link #getNewestTime(ReleaseBase)}, newest first.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @return The unmodifiable set of IDs, empty if unknown
+   */
+  public Set<String> getNewestIds(ReleaseBase release) {
+    Position position = positions.get(key(release));
+    if (position == null) {
+      return Collections.emptySet();
+    }
+    if (position.ids == null) {
+      // Saved before the IDs were recorded
+      return position.id == null ? Collections.emptySet() : Collections.singleton(position.id);
+    }
+    return Collections.unmodifiableSet(position.ids);
+  }
+
+  /**
+   * Gets the number of comments a release had when it was crawled last.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @return The number of comments or {@code -1} if unknown
+   */
+  public int getCommentCount(ReleaseBase release) {
+    Position position = positions.get(key(release));
+    return position == null ? -1 : position.count;
+  }
+
+  /**
+   * Records the newest known {@link Comment} of a release.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @param newest The newest {@link Comment}
+   * @param count The number of comments of the release or {@code -1} if unknown
+   */
+  public void update(ReleaseBase release, Comment newest, int count) {
+    update(release, newest.getId(), newest.getTime(), count);
+  }
+
+  /**
+   * Records the newest known {@link Comment} of a release by its ID and time, e.g. to only update
+   * the number of comments after comments were deleted.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @param newestId The ID of the newest {@link Comment} or {@code null} if unknown
+   * @param newestTime The UNIX timestamp of the newest {@link Comment} or {@code -1} if unknown
+   * @param count The number of comments of the release or {@code -1} if unknown
+   */
+  public void update(ReleaseBase release, String newestId, long newestTime, int count) {
+    update(release, newestTime,
+        newestId == null ? Collections.emptySet() : Collections.singleton(newestId), count);
+  }
+
+  /**
+   * Records all known {@link Comment}s of a release posted at its newest time, so comments posted
+   * in the same second are neither lost nor reported twice, even if one of them is deleted.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @param newestTime The UNIX timestamp of the newest {@link Comment} or {@code -1} if unknown
+   * @param newestIds The IDs of all known {@link Comment}s posted at {@code newestTime}, newest
+   *        first
+   * @param count The number of comments of the release or {@code -1} if unknown
+   */
+  public void update(ReleaseBase release, long newestTime, Collection<String> newestIds,
+      int count) {
+    Position position = new Position();
+    position.ids = new LinkedHashSet<>(newestIds);
+    position.id = position.ids.isEmpty() ? null : position.ids.iterator().next();
+    position.time = newestTime;
+    position.count = count;
+    positions.put(key(release), position);
+  }
+
+  /**
+   * Gets the number of releases in this CommentCheckpoint.
+   * 
+   * @return The number of releases
+   */
+  public int size() {
+    return positions.size();
+  }
+
+  /**
+   * Creates the key of a release, using the same types as the xREL API.
+   * 
+   * @param release The {@link ReleaseBase}
+   * @return The key
+   */
+  private static String key(ReleaseBase release) {
+    return (release instanceof P2pRelease ? "p2p_rls:" : "release:") + release.getId();
+  }
+
+  @Override
+  public String toString() {
+    return "CommentCheckpoint [size()=" + size() + "]";
+  }
+
+  /**
+   * The newest known {@link Comment} of a single release.
+   */
+  private static final class Position {
+
+    @JsonProperty("id")
+    private String id;
+    @JsonProperty("time")
+    private long time;
+    @JsonProperty("count")
+    private int count = -1;
+    @JsonProperty("ids")
+    private Set<String> ids;
+
+  }
+
+}
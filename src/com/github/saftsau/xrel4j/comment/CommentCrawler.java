@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.comment;
+
+import com.github.saftsau.xrel4j.Pagination;
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Crawls the comments of many {@link Release}s and {@link P2pRelease}s incrementally. The newest
+ * known {@link Comment}s of every release are recorded in a {@link CommentCheckpoint}. On the next
+ * crawl paging stops as soon as a {@link Comment} older than the known ones shows up, and releases
+ * whose number of comments did not change are skipped without any request at all. Every comment is
+ * passed on exactly once, also if several were posted in the same second or the newest known one
+ * was deleted.
+ *
+ * @see <a href= "https://www.xrel.to/wiki/6313/api-comments-get.html">API: comments/get
+ *      method</a>
+ */
+public class CommentCrawler {
+
+  private static final int PER_PAGE = 100;
+
+  private final Xrel xrel;
+  private final CommentCheckpoint checkpoint;
+  private final XrelExecutor executor;
+
+  /**
+   * Constructs a new CommentCrawler crawling on {@link XrelExecutor#getDefault()}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param checkpoint The {@link CommentCheckpoint} to resume from and to update
+   */
+  public CommentCrawler(Xrel xrel, CommentCheckpoint checkpoint) {
+    this(xrel, checkpoint, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new CommentCrawler.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param checkpoint The {@link CommentCheckpoint} to resume from and to update
+   * @param executor The {@link XrelExecutor} used to crawl releases concurrently
+   */
+  public CommentCrawler(Xrel xrel, CommentCheckpoint checkpoint, XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.checkpoint = Objects.requireNonNull(checkpoint, "checkpoint missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+  }
+
+  /**
+   * Gets the {@link CommentCheckpoint} updated by this CommentCrawler.
+   * 
+   * @return The {@link CommentCheckpoint}
+   */
+  public CommentCheckpoint getCheckpoint() {
+    return checkpoint;
+  }
+
+  /**
+   * Crawls all comments of a single release that are not known yet. Comments are passed to the
+   * consumer newest first. Once the release was crawled completely, the {@link CommentCheckpoint}
+   * is updated with the newest comments and the current number of comments. Releases without
+   * comments or with an unchanged number of comments are skipped without a request.
+   * 
+   * @param release The {@link Release} or {@link P2pRelease} to crawl
+   * @param consumer The consumer receiving every new {@link Comment}
+   * @return The number of new comments
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  public int crawl(ReleaseBase release, BiConsumer<ReleaseBase, Comment> consumer)
+      throws XrelException {
+    Objects.requireNonNull(release, "release missing");
+    Objects.requireNonNull(consumer, "consumer missing");
+
+    int commentCount = release.getComments();
+    if (commentCount == 0
+        || (commentCount > 0 && commentCount == checkpoint.getCommentCount(release))) {
+      return 0;
+    }
+    long newestTime = checkpoint.getNewestTime(release);
+    Set<String> newestIds = checkpoint.getNewestIds(release);
+
+    // The newest time and the IDs posted then after this crawl
+    long maxTime = newestTime;
+    Set<String> maxTimeIds = new LinkedHashSet<>(newestIds);
+    int found = 0;
+    int page = 1;
+    boolean reachedKnown = false;
+    while (!reachedKnown) {
+      PaginationList<Comment> paginationList = getCommentsGet(release, page);
+      List<Comment> list = paginationList == null ? null : paginationList.getList();
+      if (list == null || list.isEmpty()) {
+        break;
+      }
+      for (Comment comment : list) {
+        long time = comment.getTime();
+        // Comments are listed newest first, so everything from here on is known already
+        if (time < newestTime) {
+          reachedKnown = true;
+          break;
+        }
+        if (time > maxTime) {
+          maxTime = time;
+          maxTimeIds = new LinkedHashSet<>();
+        }
+        if (time == maxTime) {
+          maxTimeIds.add(comment.getId());
+        }
+        // Comments of the newest known second are told apart by their IDs
+        if (time == newestTime && newestIds.contains(comment.getId())) {
+          continue;
+        }
+        consumer.accept(release, comment);
+        found++;
+      }
+      Pagination pagination = paginationList.getPagination();
+      if (pagination == null || page >= pagination.getTotalPages()) {
+        break;
+      }
+      page++;
+    }
+
+    // Also updated without new comments, the count may have changed after a deletion
+    checkpoint.update(release, maxTime, maxTimeIds, commentCount);
+    return found;
+  }
+
+  /**
+   * Crawls many releases concurrently, see {@link #crawl(ReleaseBase, BiConsumer)}. The consumer is
+   * called from multiple threads and needs to be thread-safe. A failing release does not stop the
+   * others.
+   * 
+   * @param releases The {@link Release}s and {@link P2pRelease}s to crawl
+   * @param consumer The consumer receiving every new {@link Comment}
+   * @return The releases that could not be crawled together with the cause, empty if all succeeded
+   */
+  public Map<ReleaseBase, XrelException> crawl(Collection<? extends ReleaseBase> releases,
+      BiConsumer<ReleaseBase, Comment> consumer) {
+    Objects.requireNonNull(releases, "releases missing");
+    Objects.requireNonNull(consumer, "consumer missing");
+
+    List<ReleaseBase> submitted = new ArrayList<>(releases);
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (ReleaseBase release : submitted) {
+      futures.add(executor.submit(() -> crawl(release, consumer)));
+    }
+
+    Map<ReleaseBase, XrelException> failed = new LinkedHashMap<>();
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        failed.put(submitted.get(i),
+            cause instanceof XrelException ? (XrelException) cause : new XrelException(cause));
+      }
+    }
+    return failed;
+  }
+
+  /**
+   * Requests a single page of comments.
+   * 
+   * @param release The {@link Release} or {@link P2pRelease}
+   * @param page Page number (1 to N).
+   * @return The {@link PaginationList} containing the {@link Comment}.
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  private PaginationList<Comment> getCommentsGet(ReleaseBase release, int page)
+      throws XrelException {
+    if (release instanceof P2pRelease) {
+      return xrel.getCommentsGet((P2pRelease) release, PER_PAGE, page);
+    }
+    return xrel.getCommentsGet((Release) release, PER_PAGE, page);
+  }
+
+  @Override
+  public String toString() {
+    return "CommentCrawler [getCheckpoint()=" + getCheckpoint() + "]";
+  }
+
+}
@@ -0,0 +1,600 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.comment;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import java.time.Instant;
+
+/**
+ * Immutable variant of {@link Comment}. Instances can be shared by any number of threads and kept
+ * in caches without defensive copies. The {@link Author}, {@link Rating}, {@link Votes} and
+ * {@link Edits} are copied once when they are set and returned directly, their setters throw an
+ * {@link UnsupportedOperationException}.
+ */
+@JsonDeserialize(builder = ImmutableComment.Builder.class)
+public final class ImmutableComment {
+
+  private final String id;
+  private final long time;
+  private final Author author;
+  private final String text;
+  @JsonProperty("link_href")
+  private final String linkHref;
+  private final Rating rating;
+  private final Votes votes;
+  private final Edits edits;
+  @JsonIgnore
+  private int hash;
+  // Created by getTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant timeInstant;
+
+  private ImmutableComment(Builder builder) {
+    this.id = builder.id;
+    this.time = builder.time;
+    this.author = builder.author;
+    this.text = builder.text;
+    this.linkHref = builder.linkHref;
+    this.rating = builder.rating;
+    this.votes = builder.votes;
+    this.edits = builder.edits;
+  }
+
+  /**
+   * Creates a new empty builder.
+   * 
+   * @return The builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates an immutable copy of a {@link Comment}.
+   * 
+   * @param comment The {@link Comment} to copy
+   * @return The immutable copy
+   */
+  public static ImmutableComment of(Comment comment) {
+    return new Builder(comment).build();
+  }
+
+  /**
+   * Creates a mutable copy of this ImmutableComment.
+   * 
+   * @return The mutable copy
+   */
+  public Comment toComment() {
+    Comment comment = new Comment();
+    comment.setId(id);
+    comment.setTime(time);
+    comment.setAuthor(copy(author));
+    comment.setText(text);
+    comment.setLinkHref(linkHref);
+    comment.setRating(copy(rating));
+    comment.setVotes(copy(votes));
+    comment.setEdits(copy(edits));
+    return comment;
+  }
+
+  /**
+   * Creates a builder initialized with all values of this Comment.
+   * 
+   * @return The builder
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Gets the ID of this Comment.
+   * 
+   * @return The ID
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the time this Comment was posted. Returned as a UNIX timestamp.
+   * 
+   * @return The time
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the time of this Comment as {@link Instant}. It is created on first use and kept until the
+   * time is changed. Use {@link #getTime()} for the primitive UNIX timestamp.
+   * 
+   * @return The time
+   */
+  @JsonIgnore
+  public Instant getTimeInstant() {
+    Instant instant = timeInstant;
+    if (instant == null) {
+      instant = Instant.ofEpochSecond(time);
+      timeInstant = instant;
+    }
+    return instant;
+  }
+
+  /**
+   * Gets the author of this comment, which can't be modified.
+   * 
+   * @return The author
+   */
+  public Author getAuthor() {
+    return author;
+  }
+
+  /**
+   * Gets the text content of this comment.
+   * 
+   * @return The text
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Gets the link of this comment.
+   * 
+   * @return The link
+   */
+  public String getLinkHref() {
+    return linkHref;
+  }
+
+  /**
+   * Gets the rating of this comment, which can't be modified.
+   * 
+   * @return The rating
+   */
+  public Rating getRating() {
+    return rating;
+  }
+
+  /**
+   * Gets the votes of this comment, which can't be modified.
+   * 
+   * @return The votes
+   */
+  public Votes getVotes() {
+    return votes;
+  }
+
+  /**
+   * Gets the edits of this comment, which can't be modified.
+   * 
+   * @return The edits
+   */
+  public Edits getEdits() {
+    return edits;
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given ID.
+   * 
+   * @param id The ID
+   * @return The copy
+   */
+  public ImmutableComment withId(String id) {
+    return toBuilder().id(id).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given time.
+   * 
+   * @param time The time
+   * @return The copy
+   */
+  public ImmutableComment withTime(long time) {
+    return toBuilder().time(time).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given author.
+   * 
+   * @param author The author
+   * @return The copy
+   */
+  public ImmutableComment withAuthor(Author author) {
+    return toBuilder().author(author).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given text.
+   * 
+   * @param text The text
+   * @return The copy
+   */
+  public ImmutableComment withText(String text) {
+    return toBuilder().text(text).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given link.
+   * 
+   * @param linkHref The link
+   * @return The copy
+   */
+  public ImmutableComment withLinkHref(String linkHref) {
+    return toBuilder().linkHref(linkHref).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given rating.
+   * 
+   * @param rating The rating
+   * @return The copy
+   */
+  public ImmutableComment withRating(Rating rating) {
+    return toBuilder().rating(rating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given votes.
+   * 
+   * @param votes The votes
+   * @return The copy
+   */
+  public ImmutableComment withVotes(Votes votes) {
+    return toBuilder().votes(votes).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableComment with the given edits.
+   * 
+   * @param edits The edits
+   * @return The copy
+   */
+  public ImmutableComment withEdits(Edits edits) {
+    return toBuilder().edits(edits).build();
+  }
+
+  private static Author copy(Author author) {
+    if (author == null) {
+      return null;
+    }
+    Author copy = new Author();
+    copy.setId(author.getId());
+    copy.setName(author.getName());
+    return copy;
+  }
+
+  private static Rating copy(Rating rating) {
+    if (rating == null) {
+      return null;
+    }
+    Rating copy = new Rating();
+    copy.setVideo(rating.getVideo());
+    copy.setAudio(rating.getAudio());
+    return copy;
+  }
+
+  private static Votes copy(Votes votes) {
+    if (votes == null) {
+      return null;
+    }
+    Votes copy = new Votes();
+    copy.setPositive(votes.getPositive());
+    copy.setNegative(votes.getNegative());
+    return copy;
+  }
+
+  private static Edits copy(Edits edits) {
+    if (edits == null) {
+      return null;
+    }
+    Edits copy = new Edits();
+    copy.setCount(edits.getCount());
+    copy.setLast(edits.getLast());
+    return copy;
+  }
+
+  private static Author unmodifiable(Author author) {
+    return author == null || author instanceof UnmodifiableAuthor ? author
+        : new UnmodifiableAuthor(author);
+  }
+
+  private static Rating unmodifiable(Rating rating) {
+    return rating == null || rating instanceof UnmodifiableRating ? rating
+        : new UnmodifiableRating(rating);
+  }
+
+  private static Votes unmodifiable(Votes votes) {
+    return votes == null || votes instanceof UnmodifiableVotes ? votes
+        : new UnmodifiableVotes(votes);
+  }
+
+  private static Edits unmodifiable(Edits edits) {
+    return edits == null || edits instanceof UnmodifiableEdits ? edits
+        : new UnmodifiableEdits(edits);
+  }
+
+  /**
+   * Compares this Comment with another object. Both are equal if they are of the same class and
+   * have the same API ID, all other values are ignored. Comments without an ID are only equal to
+   * themselves.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id != null && id.equals(((ImmutableComment) obj).id);
+  }
+
+  /**
+   * Returns the cached hash code of the API ID.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && id != null) {
+      h = id.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "ImmutableComment [getId()=" + getId() + ", getTime()=" + getTime() + ", getAuthor()="
+        + getAuthor() + ", getText()=" + getText() + ", getLinkHref()=" + getLinkHref()
+        + ", getRating()=" + getRating() + ", getVotes()=" + getVotes() + ", getEdits()="
+        + getEdits() + "]";
+  }
+
+  /**
+   * Builder of {@link ImmutableComment}. Also used by Jackson to read the JSON of the xREL API.
+   * Mutable values are copied when they are set.
+   */
+  @JsonPOJOBuilder(withPrefix = "")
+  public static final class Builder {
+
+    private String id;
+    private long time;
+    private Author author;
+    private String text;
+    private String linkHref;
+    private Rating rating;
+    private Votes votes;
+    private Edits edits;
+
+    private Builder() {}
+
+    private Builder(ImmutableComment comment) {
+      this.id = comment.id;
+      this.time = comment.time;
+      this.author = comment.author;
+      this.text = comment.text;
+      this.linkHref = comment.linkHref;
+      this.rating = comment.rating;
+      this.votes = comment.votes;
+      this.edits = comment.edits;
+    }
+
+    private Builder(Comment comment) {
+      id(comment.getId());
+      time(comment.getTime());
+      author(comment.getAuthor());
+      text(comment.getText());
+      linkHref(comment.getLinkHref());
+      rating(comment.getRating());
+      votes(comment.getVotes());
+      edits(comment.getEdits());
+    }
+
+    /**
+     * Sets the ID.
+     * 
+     * @param id The ID to set
+     * @return This builder
+     */
+    public Builder id(String id) {
+      this.id = id;
+      return this;
+    }
+
+    /**
+     * Sets the time. Use a UNIX timestamp.
+     * 
+     * @param time The time to set
+     * @return This builder
+     */
+    public Builder time(long time) {
+      this.time = time;
+      return this;
+    }
+
+    /**
+     * Sets the author. The author is copied unless already unmodifiable.
+     * 
+     * @param author The author to set
+     * @return This builder
+     */
+    public Builder author(Author author) {
+      this.author = unmodifiable(author);
+      return this;
+    }
+
+    /**
+     * Sets the text content.
+     * 
+     * @param text The text to set
+     * @return This builder
+     */
+    public Builder text(String text) {
+      this.text = text;
+      return this;
+    }
+
+    /**
+     * Sets the link.
+     * 
+     * @param linkHref The link to set
+     * @return This builder
+     */
+    @JsonProperty("link_href")
+    public Builder linkHref(String linkHref) {
+      this.linkHref = linkHref;
+      return this;
+    }
+
+    /**
+     * Sets the rating. The rating is copied unless already unmodifiable.
+     * 
+     * @param rating The rating to set
+     * @return This builder
+     */
+    public Builder rating(Rating rating) {
+      this.rating = unmodifiable(rating);
+      return this;
+    }
+
+    /**
+     * Sets the votes. The votes are copied unless already unmodifiable.
+     * 
+     * @param votes The votes to set
+     * @return This builder
+     */
+    public Builder votes(Votes votes) {
+      this.votes = unmodifiable(votes);
+      return this;
+    }
+
+    /**
+     * Sets the edits. The edits are copied unless already unmodifiable.
+     * 
+     * @param edits The edits to set
+     * @return This builder
+     */
+    public Builder edits(Edits edits) {
+      this.edits = unmodifiable(edits);
+      return this;
+    }
+
+    /**
+     * Creates a new {@link ImmutableComment} with the values of this builder.
+     * 
+     * @return The {@link ImmutableComment}
+     */
+    public ImmutableComment build() {
+      return new ImmutableComment(this);
+    }
+
+  }
+
+  /**
+   * {@link Author} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableAuthor extends Author {
+
+    private UnmodifiableAuthor(Author author) {
+      super.setId(author.getId());
+      super.setName(author.getName());
+    }
+
+    @Override
+    public void setId(String id) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setName(String name) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link Rating} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableRating extends Rating {
+
+    private UnmodifiableRating(Rating rating) {
+      super.setVideo(rating.getVideo());
+      super.setAudio(rating.getAudio());
+    }
+
+    @Override
+    public void setVideo(int video) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAudio(int audio) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link Votes} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableVotes extends Votes {
+
+    private UnmodifiableVotes(Votes votes) {
+      super.setPositive(votes.getPositive());
+      super.setNegative(votes.getNegative());
+    }
+
+    @Override
+    public void setPositive(int positive) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNegative(int negative) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link Edits} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableEdits extends Edits {
+
+    private UnmodifiableEdits(Edits edits) {
+      super.setCount(edits.getCount());
+      super.setLast(edits.getLast());
+    }
+
+    @Override
+    public void setCount(int count) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setLast(long last) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
@@ -17,10 +17,13 @@
 
 package com.github.saftsau.xrel4j.extinfo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.saftsau.xrel4j.XrelException;
 import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
 import com.github.saftsau.xrel4j.release.scene.Release;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Class represents an ExtInfo, used for all information xREL has about any product (movie, game,
@@ -52,6 +55,11 @@ public class ExtInfo {
   private List<Release> releases;
   @JsonProperty("p2p_releases")
   private List<P2pRelease> p2pReleases;
+  // Memoized result of getExtInfoMedia(ExtInfoMediaCache), not part of the JSON
+  @JsonIgnore
+  private volatile List<ExtInfoMedia> cachedExtInfoMedia;
+  @JsonIgnore
+  private int hash;
 
   /**
    * Gets the type of this ExtInfo. Possible values are {@code movie}, {@code console},
@@ -89,6 +97,7 @@ public class ExtInfo {
    */
   public void setId(String id) {
     this.id = id;
+    this.hash = 0;
   }
 
   /**
@@ -241,6 +250,29 @@ public class ExtInfo {
     this.extInfoMedia = extInfoMedia;
   }
 
+  /**
+   * Gets the {@link ExtInfoMedia} of this ExtInfo, loading them through the given cache on the
+   * first call. Returns the media set on this ExtInfo instead, if any. Nothing is requested until
+   * this method is called.
+   * 
+   * @param cache The {@link ExtInfoMediaCache} used to load the media
+   * @return The list of media
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  public List<ExtInfoMedia> getExtInfoMedia(ExtInfoMediaCache cache) throws XrelException {
+    Objects.requireNonNull(cache, "cache missing");
+
+    if (extInfoMedia != null) {
+      return extInfoMedia;
+    }
+    List<ExtInfoMedia> media = cachedExtInfoMedia;
+    if (media == null) {
+      media = cache.get(this);
+      cachedExtInfoMedia = media;
+    }
+    return media;
+  }
+
   /**
    * Gets the genre of this ExtInfo. Can be an empty {@link String} if no genre specified or not yet
    * retrieved.
@@ -353,6 +385,35 @@ public class ExtInfo {
     this.ownRating = ownRating;
   }
 
+  /**
+   * Compares this ExtInfo with another object. Both are equal if they are of the same class and
+   * have the same API ID, all other values are ignored. ExtInfos without an ID are only equal to
+   * themselves.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id != null && id.equals(((ExtInfo) obj).id);
+  }
+
+  /**
+   * Returns the hash code of the API ID, cached until the ID is changed.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && id != null) {
+      h = id.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
   @Override
   public String toString() {
     return "ExtInfo [getType()=" + getType() + ", getId()=" + getId() + ", getTitle()=" + getTitle()
@@ -17,7 +17,9 @@
 
 package com.github.saftsau.xrel4j.extinfo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
 
 /**
  * Class represents media an {@link ExtInfo} can contain. Used for adding images (hosted on xREL)
@@ -36,6 +38,9 @@ public class ExtInfoMedia {
   private String youtubeId;
   @JsonProperty("video_url")
   private String videoUrl;
+  // Created by getTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant timeInstant;
 
   /**
    * Gets the type of this ExtInfoMedia. Can be either {@code image} or {@code video}.
@@ -89,6 +94,23 @@ public class ExtInfoMedia {
    */
   public void setTime(long time) {
     this.time = time;
+    this.timeInstant = null;
+  }
+
+  /**
+   * Gets the time of this ExtInfoMedia as {@link Instant}. It is created on first use and kept
+   * until the time is changed. Use {@link #getTime()} for the primitive UNIX timestamp.
+   * 
+   * @return The time
+   */
+  @JsonIgnore
+  public Instant getTimeInstant() {
+    Instant instant = timeInstant;
+    if (instant == null) {
+      instant = Instant.ofEpochSecond(time);
+      timeInstant = instant;
+    }
+    return instant;
   }
 
   /**
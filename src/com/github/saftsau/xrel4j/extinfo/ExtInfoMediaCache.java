@@ -0,0 +1,300 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.extinfo;
+
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared cache of the {@link ExtInfoMedia} of Ext Infos, keyed by Ext Info ID. Media are only
+ * requested when they are asked for, e.g. through
+ * {@link ExtInfo#getExtInfoMedia(ExtInfoMediaCache)}, and every Ext Info is requested at most once
+ * at a time no matter how many threads ask for it.
+ * Pages showing the media of many Ext Infos can {@link #prefetch(Collection)} them in one
+ * concurrent batch. The least recently used entries are evicted first. Cached lists are
+ * unmodifiable.
+ *
+ * @see <a href= "https://www.xrel.to/wiki/6314/api-ext-info-media.html">API: ext_info/media
+ *      method</a>
+ */
+public class ExtInfoMediaCache {
+
+  /**
+   * The default maximum number of cached Ext Infos.
+   */
+  public static final int DEFAULT_MAX_SIZE = 1000;
+
+  private final Xrel xrel;
+  private final XrelExecutor executor;
+  // Guards cache only, never held while loading
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<String, List<ExtInfoMedia>> cache;
+  private final Map<String, CompletableFuture<List<ExtInfoMedia>>> loading =
+      new ConcurrentHashMap<>();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder loadCount = new LongAdder();
+
+  /**
+   * Constructs a new ExtInfoMediaCache holding up to {@link #DEFAULT_MAX_SIZE} Ext Infos and
+   * prefetching on {@link XrelExecutor#getDefault()}.
+   *
+   * @param xrel The {@link Xrel} object used for all requests
+   */
+  public ExtInfoMediaCache(Xrel xrel) {
+    this(xrel, DEFAULT_MAX_SIZE, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new ExtInfoMediaCache.
+   *
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param maxSize The maximum number of cached Ext Infos
+   * @param executor The {@link XrelExecutor} used to prefetch
+   */
+  public ExtInfoMediaCache(Xrel xrel, int maxSize, XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be 1 or greater");
+    }
+    this.cache = new LinkedHashMap<String, List<ExtInfoMedia>>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, List<ExtInfoMedia>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Gets the media of an {@link ExtInfo}, requesting them if they are not cached. The
+   * {@link ExtInfo} is not modified.
+   *
+   * @param extInfo The {@link ExtInfo} which media you want to retrieve
+   * @return The unmodifiable list of {@link ExtInfoMedia}
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  public List<ExtInfoMedia> get(ExtInfo extInfo) throws XrelException {
+    Objects.requireNonNull(extInfo, "extInfo missing");
+
+    return get(extInfo.getId());
+  }
+
+  /**
+   * Gets the media of an Ext Info, requesting them if they are not cached.
+   *
+   * @param id The ID of the Ext Info which media you want to retrieve
+   * @return The unmodifiable list of {@link ExtInfoMedia}
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  public List<ExtInfoMedia> get(String id) throws XrelException {
+    Objects.requireNonNull(id, "id missing");
+
+    List<ExtInfoMedia> cached = getCached(id);
+    if (cached != null) {
+      hitCount.increment();
+      return cached;
+    }
+
+    CompletableFuture<List<ExtInfoMedia>> load = new CompletableFuture<>();
+    CompletableFuture<List<ExtInfoMedia>> running = loading.putIfAbsent(id, load);
+    if (running != null) {
+      // Somebody else is loading it already
+      hitCount.increment();
+      return join(running);
+    }
+    try {
+      cached = getCached(id);
+      if (cached == null) {
+        loadCount.increment();
+        List<ExtInfoMedia> loaded = xrel.getExtInfoMedia(id);
+        cached = loaded == null ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(loaded));
+        lock.lock();
+        try {
+          cache.put(id, cached);
+        } finally {
+          lock.unlock();
+        }
+      }
+      load.complete(cached);
+      return cached;
+    } catch (Throwable e) {
+      // Threads waiting for this load would block forever otherwise
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(id, load);
+    }
+  }
+
+  /**
+   * Gets the media of an Ext Info only if they are cached.
+   *
+   * @param id The ID of the Ext Info
+   * @return The unmodifiable list of {@link ExtInfoMedia}, empty if not cached
+   */
+  public Optional<List<ExtInfoMedia>> getIfPresent(String id) {
+    Objects.requireNonNull(id, "id missing");
+
+    return Optional.ofNullable(getCached(id));
+  }
+
+  private List<ExtInfoMedia> getCached(String id) {
+    lock.lock();
+    try {
+      return cache.get(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static List<ExtInfoMedia> join(CompletableFuture<List<ExtInfoMedia>> future)
+      throws XrelException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new XrelException(cause);
+    }
+  }
+
+  /**
+   * Requests the media of all given {@link ExtInfo}s that are not cached yet concurrently and
+   * waits until all of them are cached.
+   *
+   * @param extInfos The {@link ExtInfo}s which media you want to retrieve
+   * @return The {@link ExtInfo}s that failed with their {@link XrelException}, empty if all
+   *         succeeded
+   */
+  public Map<ExtInfo, XrelException> prefetch(Collection<? extends ExtInfo> extInfos) {
+    Objects.requireNonNull(extInfos, "extInfos missing");
+
+    List<ExtInfo> submitted = new ArrayList<>();
+    List<CompletableFuture<List<ExtInfoMedia>>> futures = new ArrayList<>();
+    Set<ExtInfo> seen = new HashSet<>();
+    for (ExtInfo extInfo : extInfos) {
+      if (seen.add(extInfo) && getCached(extInfo.getId()) == null) {
+        submitted.add(extInfo);
+        futures.add(executor.submit(() -> get(extInfo.getId())));
+      }
+    }
+
+    Map<ExtInfo, XrelException> failed = new LinkedHashMap<>();
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        failed.put(submitted.get(i),
+            cause instanceof XrelException ? (XrelException) cause : new XrelException(cause));
+      }
+    }
+    return failed;
+  }
+
+  /**
+   * Removes the media of an Ext Info from this cache.
+   *
+   * @param id The ID of the Ext Info
+   */
+  public void invalidate(String id) {
+    Objects.requireNonNull(id, "id missing");
+
+    lock.lock();
+    try {
+      cache.remove(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all media from this cache.
+   */
+  public void clear() {
+    lock.lock();
+    try {
+      cache.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of cached Ext Infos.
+   *
+   * @return The number of cached Ext Infos
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return cache.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of lookups answered without a request of their own.
+   *
+   * @return The number of hits
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Gets the number of requests sent to the xREL API.
+   *
+   * @return The number of requests
+   */
+  public long getLoadCount() {
+    return loadCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "ExtInfoMediaCache [size()=" + size() + ", getHitCount()=" + getHitCount()
+        + ", getLoadCount()=" + getLoadCount() + "]";
+  }
+
+}
@@ -0,0 +1,973 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.extinfo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.release.p2p.ImmutableP2pRelease;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.ImmutableRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable variant of {@link ExtInfo}. Instances can be shared by any number of threads and kept
+ * in caches without defensive copies. Create them with {@link #builder()}, {@link #of(ExtInfo)} or
+ * directly with Jackson from the JSON of the xREL API. The with-ers return modified copies that
+ * share all unchanged values with the original. All lists are unmodifiable. The
+ * {@link ReleaseDate}s, {@link External}s and {@link ExtInfoMedia} are copied once when they are
+ * set and returned directly, their setters throw an {@link UnsupportedOperationException}.
+ */
+@JsonDeserialize(builder = ImmutableExtInfo.Builder.class)
+public final class ImmutableExtInfo {
+
+  private final String type;
+  private final String id;
+  private final String title;
+  @JsonProperty("link_href")
+  private final String linkHref;
+  private final String genre;
+  @JsonProperty("alt_title")
+  private final String altTitle;
+  @JsonProperty("cover_url")
+  private final String coverUrl;
+  private final List<String> uris;
+  private final double rating;
+  @JsonProperty("own_rating")
+  private final int ownRating;
+  @JsonProperty("num_ratings")
+  private final long numRatings;
+  @JsonProperty("release_dates")
+  private final List<ReleaseDate> releaseDates;
+  private final List<External> externals;
+  @JsonProperty("ext_info_media")
+  private final List<ExtInfoMedia> extInfoMedia;
+  private final List<ImmutableRelease> releases;
+  @JsonProperty("p2p_releases")
+  private final List<ImmutableP2pRelease> p2pReleases;
+  @JsonIgnore
+  private int hash;
+
+  private ImmutableExtInfo(Builder builder) {
+    this.type = builder.type;
+    this.id = builder.id;
+    this.title = builder.title;
+    this.linkHref = builder.linkHref;
+    this.genre = builder.genre;
+    this.altTitle = builder.altTitle;
+    this.coverUrl = builder.coverUrl;
+    this.uris = builder.uris;
+    this.rating = builder.rating;
+    this.ownRating = builder.ownRating;
+    this.numRatings = builder.numRatings;
+    this.releaseDates = builder.releaseDates;
+    this.externals = builder.externals;
+    this.extInfoMedia = builder.extInfoMedia;
+    this.releases = builder.releases;
+    this.p2pReleases = builder.p2pReleases;
+  }
+
+  /**
+   * Creates a new empty builder.
+   * 
+   * @return The builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates an immutable copy of an {@link ExtInfo}, including its releases.
+   * 
+   * @param extInfo The {@link ExtInfo} to copy
+   * @return The immutable copy
+   */
+  public static ImmutableExtInfo of(ExtInfo extInfo) {
+    return new Builder(extInfo).build();
+  }
+
+  /**
+   * Creates a mutable copy of this ImmutableExtInfo, e.g. to call {@link ExtInfo} based methods.
+   * 
+   * @return The mutable copy
+   */
+  public ExtInfo toExtInfo() {
+    ExtInfo extInfo = new ExtInfo();
+    extInfo.setType(type);
+    extInfo.setId(id);
+    extInfo.setTitle(title);
+    extInfo.setLinkHref(linkHref);
+    extInfo.setGenre(genre);
+    extInfo.setAltTitle(altTitle);
+    extInfo.setCoverUrl(coverUrl);
+    extInfo.setUris(uris == null ? null : new ArrayList<>(uris));
+    extInfo.setRating(rating);
+    extInfo.setOwnRating(ownRating);
+    extInfo.setNumRatings(numRatings);
+    extInfo.setReleaseDates(map(releaseDates, ImmutableExtInfo::copy));
+    extInfo.setExternals(map(externals, ImmutableExtInfo::copy));
+    extInfo.setExtInfoMedia(map(extInfoMedia, ImmutableExtInfo::copy));
+    extInfo.setReleases(map(releases, ImmutableRelease::toRelease));
+    extInfo.setP2pReleases(map(p2pReleases, ImmutableP2pRelease::toP2pRelease));
+    return extInfo;
+  }
+
+  /**
+   * Creates a builder initialized with all values of this ExtInfo. Unchanged values are shared
+   * with this ExtInfo.
+   * 
+   * @return The builder
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Gets the type of this ExtInfo. Possible values are {@code movie}, {@code console},
+   * {@code music}, {@code nfo}, {@code game}, {@code software}, {@code tv} and {@code xxx}.
+   * 
+   * @return The type
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Gets the API ID of this ExtInfo.
+   * 
+   * @return The ID
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the title of this ExtInfo.
+   * 
+   * @return The title
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Gets the link to this ExtInfo.
+   * 
+   * @return The link
+   */
+  public String getLinkHref() {
+    return linkHref;
+  }
+
+  /**
+   * Gets the genre of this ExtInfo. Can be an empty {@link String} if no genre specified or not yet
+   * retrieved.
+   * 
+   * @return The genre
+   */
+  public String getGenre() {
+    return genre;
+  }
+
+  /**
+   * Gets the alternative title of this ExtInfo. Can be an empty {@link String} if no alternative
+   * title specified or not yet retrieved.
+   * 
+   * @return The alternative title
+   */
+  public String getAltTitle() {
+    return altTitle;
+  }
+
+  /**
+   * Gets the link to the cover of this ExtInfo. Can be an empty {@link String} if no cover
+   * specified or not yet retrieved.
+   * 
+   * @return The link to the cover
+   */
+  public String getCoverUrl() {
+    return coverUrl;
+  }
+
+  /**
+   * Gets the unmodifiable URIs of this ExtInfo. Can be empty.
+   * 
+   * @return The URIs
+   */
+  public List<String> getUris() {
+    return uris;
+  }
+
+  /**
+   * Gets the rating of this ExtInfo. {@code 0} if not rated yet.
+   * 
+   * @return The rating
+   */
+  public double getRating() {
+    return rating;
+  }
+
+  /**
+   * Gets the rating of the currently logged in user of this ExtInfo. Returns 0 if no user is logged
+   * in or the user has not rated this ExtInfo yet.
+   * 
+   * @return The rating of the user
+   */
+  public int getOwnRating() {
+    return ownRating;
+  }
+
+  /**
+   * Gets the number of ratings of this ExtInfo.
+   * 
+   * @return The number of ratings
+   */
+  public long getNumRatings() {
+    return numRatings;
+  }
+
+  /**
+   * Gets the unmodifiable release dates of this ExtInfo.
+   * 
+   * @return The release dates
+   */
+  public List<ReleaseDate> getReleaseDates() {
+    return releaseDates;
+  }
+
+  /**
+   * Gets the unmodifiable external info of this ExtInfo. Can be empty if nothing available or not
+   * yet retrieved.
+   * 
+   * @return The external info
+   */
+  public List<External> getExternals() {
+    return externals;
+  }
+
+  /**
+   * Gets the unmodifiable {@link ExtInfoMedia} of this ExtInfo. Can be empty if not yet retrieved
+   * or nothing available.
+   * 
+   * @return The list of media
+   */
+  public List<ExtInfoMedia> getExtInfoMedia() {
+    return extInfoMedia;
+  }
+
+  /**
+   * Gets the {@link ExtInfoMedia} of this ExtInfo from the given cache, which requests them on
+   * first use. Returns the media set on this ExtInfo instead, if any.
+   * 
+   * @param cache The {@link ExtInfoMediaCache} used to load the media
+   * @return The list of media
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  public List<ExtInfoMedia> getExtInfoMedia(ExtInfoMediaCache cache) throws XrelException {
+    Objects.requireNonNull(cache, "cache missing");
+
+    if (extInfoMedia != null) {
+      return getExtInfoMedia();
+    }
+    return cache.get(id);
+  }
+
+  /**
+   * Gets the unmodifiable unread {@link ImmutableRelease}s of this ExtInfo. Only available if this
+   * ExtInfo is part of a favorite list.
+   * 
+   * @return The unread releases
+   */
+  public List<ImmutableRelease> getReleases() {
+    return releases;
+  }
+
+  /**
+   * Gets the unmodifiable unread {@link ImmutableP2pRelease}s of this ExtInfo. Only available if
+   * this ExtInfo is part of a favorite list.
+   * 
+   * @return The unread P2P releases
+   */
+  public List<ImmutableP2pRelease> getP2pReleases() {
+    return p2pReleases;
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given type.
+   * 
+   * @param type The type
+   * @return The copy
+   */
+  public ImmutableExtInfo withType(String type) {
+    return toBuilder().type(type).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given API ID.
+   * 
+   * @param id The API ID
+   * @return The copy
+   */
+  public ImmutableExtInfo withId(String id) {
+    return toBuilder().id(id).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given title.
+   * 
+   * @param title The title
+   * @return The copy
+   */
+  public ImmutableExtInfo withTitle(String title) {
+    return toBuilder().title(title).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given link.
+   * 
+   * @param linkHref The link
+   * @return The copy
+   */
+  public ImmutableExtInfo withLinkHref(String linkHref) {
+    return toBuilder().linkHref(linkHref).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given genre.
+   * 
+   * @param genre The genre
+   * @return The copy
+   */
+  public ImmutableExtInfo withGenre(String genre) {
+    return toBuilder().genre(genre).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given alternative title.
+   * 
+   * @param altTitle The alternative title
+   * @return The copy
+   */
+  public ImmutableExtInfo withAltTitle(String altTitle) {
+    return toBuilder().altTitle(altTitle).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given link to the cover.
+   * 
+   * @param coverUrl The link to the cover
+   * @return The copy
+   */
+  public ImmutableExtInfo withCoverUrl(String coverUrl) {
+    return toBuilder().coverUrl(coverUrl).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given URIs.
+   * 
+   * @param uris The URIs
+   * @return The copy
+   */
+  public ImmutableExtInfo withUris(List<String> uris) {
+    return toBuilder().uris(uris).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given rating.
+   * 
+   * @param rating The rating
+   * @return The copy
+   */
+  public ImmutableExtInfo withRating(double rating) {
+    return toBuilder().rating(rating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given rating of the currently logged in user.
+   * 
+   * @param ownRating The rating of the currently logged in user
+   * @return The copy
+   */
+  public ImmutableExtInfo withOwnRating(int ownRating) {
+    return toBuilder().ownRating(ownRating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given number of ratings.
+   * 
+   * @param numRatings The number of ratings
+   * @return The copy
+   */
+  public ImmutableExtInfo withNumRatings(long numRatings) {
+    return toBuilder().numRatings(numRatings).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given release dates.
+   * 
+   * @param releaseDates The release dates
+   * @return The copy
+   */
+  public ImmutableExtInfo withReleaseDates(List<ReleaseDate> releaseDates) {
+    return toBuilder().releaseDates(releaseDates).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given external info.
+   * 
+   * @param externals The external info
+   * @return The copy
+   */
+  public ImmutableExtInfo withExternals(List<External> externals) {
+    return toBuilder().externals(externals).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given {@link ExtInfoMedia}.
+   * 
+   * @param extInfoMedia The {@link ExtInfoMedia}
+   * @return The copy
+   */
+  public ImmutableExtInfo withExtInfoMedia(List<ExtInfoMedia> extInfoMedia) {
+    return toBuilder().extInfoMedia(extInfoMedia).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given unread releases.
+   * 
+   * @param releases The unread releases
+   * @return The copy
+   */
+  public ImmutableExtInfo withReleases(List<ImmutableRelease> releases) {
+    return toBuilder().releases(releases).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableExtInfo with the given unread P2P releases.
+   * 
+   * @param p2pReleases The unread P2P releases
+   * @return The copy
+   */
+  public ImmutableExtInfo withP2pReleases(List<ImmutableP2pRelease> p2pReleases) {
+    return toBuilder().p2pReleases(p2pReleases).build();
+  }
+
+  private static ReleaseDate copy(ReleaseDate releaseDate) {
+    ReleaseDate copy = new ReleaseDate();
+    copy.setType(releaseDate.getType());
+    copy.setDate(releaseDate.getDate());
+    return copy;
+  }
+
+  private static External copy(External external) {
+    External copy = new External();
+    if (external.getSource() != null) {
+      ExternalSource source = new ExternalSource();
+      source.setId(external.getSource().getId());
+      source.setName(external.getSource().getName());
+      copy.setSource(source);
+    }
+    copy.setLinkUrl(external.getLinkUrl());
+    copy.setPlot(external.getPlot());
+    return copy;
+  }
+
+  private static ExtInfoMedia copy(ExtInfoMedia extInfoMedia) {
+    ExtInfoMedia copy = new ExtInfoMedia();
+    copy.setType(extInfoMedia.getType());
+    copy.setDescription(extInfoMedia.getDescription());
+    copy.setTime(extInfoMedia.getTime());
+    copy.setUrlFull(extInfoMedia.getUrlFull());
+    copy.setUrlThumb(extInfoMedia.getUrlThumb());
+    copy.setYoutubeId(extInfoMedia.getYoutubeId());
+    copy.setVideoUrl(extInfoMedia.getVideoUrl());
+    return copy;
+  }
+
+  private static ReleaseDate unmodifiable(ReleaseDate releaseDate) {
+    return releaseDate instanceof UnmodifiableReleaseDate ? releaseDate
+        : new UnmodifiableReleaseDate(releaseDate);
+  }
+
+  private static External unmodifiable(External external) {
+    return external instanceof UnmodifiableExternal ? external
+        : new UnmodifiableExternal(external);
+  }
+
+  private static ExtInfoMedia unmodifiable(ExtInfoMedia extInfoMedia) {
+    return extInfoMedia instanceof UnmodifiableExtInfoMedia ? extInfoMedia
+        : new UnmodifiableExtInfoMedia(extInfoMedia);
+  }
+
+  /**
+   * Maps all elements of a list to a new modifiable list, keeping {@code null} elements.
+   */
+  private static <T, R> List<R> map(List<T> list, Function<? super T, ? extends R> mapper) {
+    if (list == null) {
+      return null;
+    }
+    List<R> mapped = new ArrayList<>(list.size());
+    for (T element : list) {
+      mapped.add(element == null ? null : mapper.apply(element));
+    }
+    return mapped;
+  }
+
+  private static <T, R> List<R> mapUnmodifiable(List<T> list,
+      Function<? super T, ? extends R> mapper) {
+    List<R> mapped = map(list, mapper);
+    return mapped == null ? null : Collections.unmodifiableList(mapped);
+  }
+
+  /**
+   * Compares this ExtInfo with another object. Both are equal if they are of the same class and
+   * have the same API ID, all other values are ignored. ExtInfos without an ID are only equal to
+   * themselves.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id != null && id.equals(((ImmutableExtInfo) obj).id);
+  }
+
+  /**
+   * Returns the cached hash code of the API ID.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && id != null) {
+      h = id.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "ImmutableExtInfo [getType()=" + getType() + ", getId()=" + getId() + ", getTitle()="
+        + getTitle() + ", getLinkHref()=" + getLinkHref() + ", getRating()=" + getRating()
+        + ", getNumRatings()=" + getNumRatings() + ", getUris()=" + getUris()
+        + ", getUnreadReleases()=" + getReleases() + ", getUnreadP2pReleases()="
+        + getP2pReleases() + ", getExtInfoMedia()=" + getExtInfoMedia() + ", getGenre()="
+        + getGenre() + ", getAltTitle()=" + getAltTitle() + ", getCoverUrl()=" + getCoverUrl()
+        + ", getReleaseDates()=" + getReleaseDates() + ", getExternals()=" + getExternals()
+        + ", getOwnRating()=" + getOwnRating() + "]";
+  }
+
+  /**
+   * Builder of {@link ImmutableExtInfo}. Also used by Jackson to read the JSON of the xREL API.
+   * Lists and mutable values are copied when they are set.
+   */
+  @JsonPOJOBuilder(withPrefix = "")
+  public static final class Builder {
+
+    private String type;
+    private String id;
+    private String title;
+    private String linkHref;
+    private String genre;
+    private String altTitle;
+    private String coverUrl;
+    private List<String> uris;
+    private double rating;
+    private int ownRating;
+    private long numRatings;
+    private List<ReleaseDate> releaseDates;
+    private List<External> externals;
+    private List<ExtInfoMedia> extInfoMedia;
+    private List<ImmutableRelease> releases;
+    private List<ImmutableP2pRelease> p2pReleases;
+
+    private Builder() {}
+
+    private Builder(ImmutableExtInfo extInfo) {
+      this.type = extInfo.type;
+      this.id = extInfo.id;
+      this.title = extInfo.title;
+      this.linkHref = extInfo.linkHref;
+      this.genre = extInfo.genre;
+      this.altTitle = extInfo.altTitle;
+      this.coverUrl = extInfo.coverUrl;
+      this.uris = extInfo.uris;
+      this.rating = extInfo.rating;
+      this.ownRating = extInfo.ownRating;
+      this.numRatings = extInfo.numRatings;
+      this.releaseDates = extInfo.releaseDates;
+      this.externals = extInfo.externals;
+      this.extInfoMedia = extInfo.extInfoMedia;
+      this.releases = extInfo.releases;
+      this.p2pReleases = extInfo.p2pReleases;
+    }
+
+    private Builder(ExtInfo extInfo) {
+      type(extInfo.getType());
+      id(extInfo.getId());
+      title(extInfo.getTitle());
+      linkHref(extInfo.getLinkHref());
+      genre(extInfo.getGenre());
+      altTitle(extInfo.getAltTitle());
+      coverUrl(extInfo.getCoverUrl());
+      uris(extInfo.getUris());
+      rating(extInfo.getRating());
+      ownRating(extInfo.getOwnRating());
+      numRatings(extInfo.getNumRatings());
+      releaseDates(extInfo.getReleaseDates());
+      externals(extInfo.getExternals());
+      extInfoMedia(extInfo.getExtInfoMedia());
+      this.releases = mapUnmodifiable(extInfo.getReleases(), ImmutableRelease::of);
+      this.p2pReleases = mapUnmodifiable(extInfo.getP2pReleases(), ImmutableP2pRelease::of);
+    }
+
+    /**
+     * Sets the type.
+     * 
+     * @param type The type to set
+     * @return This builder
+     */
+    public Builder type(String type) {
+      this.type = type;
+      return this;
+    }
+
+    /**
+     * Sets the API ID.
+     * 
+     * @param id The ID to set
+     * @return This builder
+     */
+    public Builder id(String id) {
+      this.id = id;
+      return this;
+    }
+
+    /**
+     * Sets the title.
+     * 
+     * @param title The title to set
+     * @return This builder
+     */
+    public Builder title(String title) {
+      this.title = title;
+      return this;
+    }
+
+    /**
+     * Sets the link.
+     * 
+     * @param linkHref The link to set
+     * @return This builder
+     */
+    @JsonProperty("link_href")
+    public Builder linkHref(String linkHref) {
+      this.linkHref = linkHref;
+      return this;
+    }
+
+    /**
+     * Sets the genre.
+     * 
+     * @param genre The genre to set
+     * @return This builder
+     */
+    public Builder genre(String genre) {
+      this.genre = genre;
+      return this;
+    }
+
+    /**
+     * Sets the alternative title.
+     * 
+     * @param altTitle The alternative title to set
+     * @return This builder
+     */
+    @JsonProperty("alt_title")
+    public Builder altTitle(String altTitle) {
+      this.altTitle = altTitle;
+      return this;
+    }
+
+    /**
+     * Sets the link to the cover.
+     * 
+     * @param coverUrl The link to the cover to set
+     * @return This builder
+     */
+    @JsonProperty("cover_url")
+    public Builder coverUrl(String coverUrl) {
+      this.coverUrl = coverUrl;
+      return this;
+    }
+
+    /**
+     * Sets the URIs. The list is copied.
+     * 
+     * @param uris The URIs to set
+     * @return This builder
+     */
+    public Builder uris(List<String> uris) {
+      this.uris = mapUnmodifiable(uris, Function.identity());
+      return this;
+    }
+
+    /**
+     * Sets the rating.
+     * 
+     * @param rating The rating to set
+     * @return This builder
+     */
+    public Builder rating(double rating) {
+      this.rating = rating;
+      return this;
+    }
+
+    /**
+     * Sets the rating of the currently logged in user.
+     * 
+     * @param ownRating The rating of the user to set
+     * @return This builder
+     */
+    @JsonProperty("own_rating")
+    public Builder ownRating(int ownRating) {
+      this.ownRating = ownRating;
+      return this;
+    }
+
+    /**
+     * Sets the number of ratings.
+     * 
+     * @param numRatings The number of ratings to set
+     * @return This builder
+     */
+    @JsonProperty("num_ratings")
+    public Builder numRatings(long numRatings) {
+      this.numRatings = numRatings;
+      return this;
+    }
+
+    /**
+     * Sets the release dates. The list and its elements are copied unless already unmodifiable.
+     * 
+     * @param releaseDates The release dates to set
+     * @return This builder
+     */
+    @JsonProperty("release_dates")
+    public Builder releaseDates(List<ReleaseDate> releaseDates) {
+      this.releaseDates = mapUnmodifiable(releaseDates, ImmutableExtInfo::unmodifiable);
+      return this;
+    }
+
+    /**
+     * Sets the external info. The list and its elements are copied unless already unmodifiable.
+     * 
+     * @param externals The external info to set
+     * @return This builder
+     */
+    public Builder externals(List<External> externals) {
+      this.externals = mapUnmodifiable(externals, ImmutableExtInfo::unmodifiable);
+      return this;
+    }
+
+    /**
+     * Sets the {@link ExtInfoMedia}. The list and its elements are copied unless already
+     * unmodifiable.
+     * 
+     * @param extInfoMedia The list of media to set
+     * @return This builder
+     */
+    @JsonProperty("ext_info_media")
+    public Builder extInfoMedia(List<ExtInfoMedia> extInfoMedia) {
+      this.extInfoMedia = mapUnmodifiable(extInfoMedia, ImmutableExtInfo::unmodifiable);
+      return this;
+    }
+
+    /**
+     * Sets the unread {@link ImmutableRelease}s. The list is copied.
+     * 
+     * @param releases The unread releases to set
+     * @return This builder
+     */
+    public Builder releases(List<ImmutableRelease> releases) {
+      this.releases = mapUnmodifiable(releases, Function.identity());
+      return this;
+    }
+
+    /**
+     * Sets the unread {@link ImmutableP2pRelease}s. The list is copied.
+     * 
+     * @param p2pReleases The unread P2P releases to set
+     * @return This builder
+     */
+    @JsonProperty("p2p_releases")
+    public Builder p2pReleases(List<ImmutableP2pRelease> p2pReleases) {
+      this.p2pReleases = mapUnmodifiable(p2pReleases, Function.identity());
+      return this;
+    }
+
+    /**
+     * Creates a new {@link ImmutableExtInfo} with the values of this builder.
+     * 
+     * @return The {@link ImmutableExtInfo}
+     */
+    public ImmutableExtInfo build() {
+      return new ImmutableExtInfo(this);
+    }
+
+  }
+
+  /**
+   * {@link ReleaseDate} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableReleaseDate extends ReleaseDate {
+
+    private UnmodifiableReleaseDate(ReleaseDate releaseDate) {
+      super.setType(releaseDate.getType());
+      super.setDate(releaseDate.getDate());
+    }
+
+    @Override
+    public void setType(String type) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDate(LocalDate date) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link External} whose setters throw an {@link UnsupportedOperationException}, including the
+   * ones of its {@link ExternalSource}.
+   */
+  private static final class UnmodifiableExternal extends External {
+
+    private UnmodifiableExternal(External external) {
+      if (external.getSource() != null) {
+        super.setSource(new UnmodifiableExternalSource(external.getSource()));
+      }
+      super.setLinkUrl(external.getLinkUrl());
+      super.setPlot(external.getPlot());
+    }
+
+    @Override
+    public void setSource(ExternalSource source) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setLinkUrl(String linkUrl) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setPlot(String plot) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link ExternalSource} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableExternalSource extends ExternalSource {
+
+    private UnmodifiableExternalSource(ExternalSource source) {
+      super.setId(source.getId());
+      super.setName(source.getName());
+    }
+
+    @Override
+    public void setId(long id) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setName(String name) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link ExtInfoMedia} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableExtInfoMedia extends ExtInfoMedia {
+
+    private UnmodifiableExtInfoMedia(ExtInfoMedia extInfoMedia) {
+      super.setType(extInfoMedia.getType());
+      super.setDescription(extInfoMedia.getDescription());
+      super.setTime(extInfoMedia.getTime());
+      super.setUrlFull(extInfoMedia.getUrlFull());
+      super.setUrlThumb(extInfoMedia.getUrlThumb());
+      super.setYoutubeId(extInfoMedia.getYoutubeId());
+      super.setVideoUrl(extInfoMedia.getVideoUrl());
+    }
+
+    @Override
+    public void setType(String type) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDescription(String description) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTime(long time) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setUrlFull(String urlFull) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setUrlThumb(String urlThumb) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setYoutubeId(String youtubeId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setVideoUrl(String videoUrl) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
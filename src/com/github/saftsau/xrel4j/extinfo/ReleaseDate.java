@@ -17,6 +17,7 @@
 
 package com.github.saftsau.xrel4j.extinfo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
@@ -28,10 +29,18 @@ import java.time.LocalDate;
  */
 public class ReleaseDate {
 
+  /**
+   * Returned by {@link #getEpochDay()} if no date is set.
+   */
+  public static final long NO_EPOCH_DAY = Long.MIN_VALUE;
+
   private String type;
   @JsonDeserialize(using = LocalDateDeserializer.class)  
   @JsonSerialize(using = LocalDateSerializer.class)  
   private LocalDate date;
+  // Computed by setDate(LocalDate), not part of the JSON
+  @JsonIgnore
+  private long epochDay = NO_EPOCH_DAY;
 
   /**
    * Gets the type of the release date. Possible values are {@code de-cine}, {@code de-retail},
@@ -71,6 +80,19 @@ public class ReleaseDate {
    */
   public void setDate(LocalDate date) {
     this.date = date;
+    this.epochDay = date == null ? NO_EPOCH_DAY : date.toEpochDay();
+  }
+
+  /**
+   * Gets the actual date of the release date as day since 1970-01-01, computed once when the date
+   * is set. Allows comparing dates without creating or comparing {@link LocalDate} objects. {@link
+   * #NO_EPOCH_DAY} if no date is set.
+   * 
+   * @return The epoch day
+   */
+  @JsonIgnore
+  public long getEpochDay() {
+    return epochDay;
   }
 
   @Override
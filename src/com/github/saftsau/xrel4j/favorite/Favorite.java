@@ -17,6 +17,7 @@
 
 package com.github.saftsau.xrel4j.favorite;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.saftsau.xrel4j.extinfo.ExtInfo;
 import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
@@ -44,6 +45,8 @@ public class Favorite {
   @JsonProperty("unread_releases")
   private long unreadReleases;
   private List<ExtInfo> entries;
+  @JsonIgnore
+  private int hash;
 
   /**
    * Gets the API ID of the Favorite list.
@@ -61,6 +64,7 @@ public class Favorite {
    */
   public void setId(long id) {
     this.id = id;
+    this.hash = 0;
   }
 
   /**
@@ -258,6 +262,34 @@ public class Favorite {
     this.entries = entries;
   }
 
+  /**
+   * Compares this Favorite list with another object. Both are equal if they are of the same class
+   * and have the same API ID, all other values are ignored.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id == ((Favorite) obj).id;
+  }
+
+  /**
+   * Returns the hash code of the API ID, cached until the ID is changed.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = Long.hashCode(id);
+      hash = h;
+    }
+    return h;
+  }
+
   @Override
   public String toString() {
     return "Favorite [getId()=" + getId() + ", getName()=" + getName() + ", isPublic_()="
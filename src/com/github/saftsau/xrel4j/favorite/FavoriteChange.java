@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class represents the changes of a single {@link Favorite} list between two runs of
+ * {@link FavoritesSync#sync()}.
+ */
+public class FavoriteChange {
+
+  private final Favorite favorite;
+  private final Favorite previous;
+  private final List<ExtInfo> addedEntries;
+  private final List<ExtInfo> removedEntries;
+
+  /**
+   * Constructs a new FavoriteChange.
+   * 
+   * @param favorite The current {@link Favorite} or {@code null} if the list was deleted
+   * @param previous The previous {@link Favorite} or {@code null} if the list is new
+   * @param addedEntries The entries added since the previous sync
+   * @param removedEntries The entries removed since the previous sync
+   */
+  public FavoriteChange(Favorite favorite, Favorite previous, List<ExtInfo> addedEntries,
+      List<ExtInfo> removedEntries) {
+    this.favorite = favorite;
+    this.previous = previous;
+    this.addedEntries = Collections.unmodifiableList(addedEntries);
+    this.removedEntries = Collections.unmodifiableList(removedEntries);
+  }
+
+  /**
+   * Gets the current state of the {@link Favorite} list.
+   * 
+   * @return The current {@link Favorite} or {@code null} if the list was deleted
+   */
+  public Favorite getFavorite() {
+    return favorite;
+  }
+
+  /**
+   * Gets the state of the {@link Favorite} list as of the previous sync.
+   * 
+   * @return The previous {@link Favorite} or {@code null} if the list is new
+   */
+  public Favorite getPrevious() {
+    return previous;
+  }
+
+  /**
+   * Gets the entries added since the previous sync.
+   * 
+   * @return The added {@link ExtInfo}s
+   */
+  public List<ExtInfo> getAddedEntries() {
+    return addedEntries;
+  }
+
+  /**
+   * Gets the entries removed since the previous sync.
+   * 
+   * @return The removed {@link ExtInfo}s
+   */
+  public List<ExtInfo> getRemovedEntries() {
+    return removedEntries;
+  }
+
+  /**
+   * Checks if the {@link Favorite} list was created since the previous sync.
+   * 
+   * @return {@code true} if created, {@code false} otherwise
+   */
+  public boolean isCreated() {
+    return previous == null;
+  }
+
+  /**
+   * Checks if the {@link Favorite} list was deleted since the previous sync.
+   * 
+   * @return {@code true} if deleted, {@code false} otherwise
+   */
+  public boolean isDeleted() {
+    return favorite == null;
+  }
+
+  /**
+   * Gets the change of the number of unread releases since the previous sync.
+   * 
+   * @return The difference of unread releases
+   */
+  public long getUnreadReleasesDelta() {
+    long current = favorite == null ? 0 : favorite.getUnreadReleases();
+    long before = previous == null ? 0 : previous.getUnreadReleases();
+    return current - before;
+  }
+
+  @Override
+  public String toString() {
+    return "FavoriteChange [getFavorite()=" + getFavorite() + ", getPrevious()=" + getPrevious()
+        + ", getAddedEntries()=" + getAddedEntries() + ", getRemovedEntries()="
+        + getRemovedEntries() + "]";
+  }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class represents the aggregate result of
+ * {@link FavoritesSync#setFavoriteEntries(Favorite, java.util.Set)}.
+ */
+public class FavoriteEntriesResult {
+
+  private final Favorite favorite;
+  private final List<ExtInfo> added;
+  private final List<ExtInfo> removed;
+  private final int unchanged;
+  private final Map<ExtInfo, XrelException> failed;
+
+  /**
+   * Constructs a new FavoriteEntriesResult.
+   * 
+   * @param favorite The {@link Favorite} as returned by the last successful request
+   * @param added The entries that were added
+   * @param removed The entries that were removed
+   * @param unchanged The number of entries that were already in the desired state
+   * @param failed The entries that could not be added or removed
+   */
+  public FavoriteEntriesResult(Favorite favorite, List<ExtInfo> added, List<ExtInfo> removed,
+      int unchanged, Map<ExtInfo, XrelException> failed) {
+    this.favorite = favorite;
+    this.added = Collections.unmodifiableList(added);
+    this.removed = Collections.unmodifiableList(removed);
+    this.unchanged = unchanged;
+    this.failed = Collections.unmodifiableMap(failed);
+  }
+
+  /**
+   * Gets the {@link Favorite} as returned by the last successful request, or the given
+   * {@link Favorite} if no request was needed.
+   * 
+   * @return The {@link Favorite}
+   */
+  public Favorite getFavorite() {
+    return favorite;
+  }
+
+  /**
+   * Gets the entries that were added.
+   * 
+   * @return The added {@link ExtInfo}s
+   */
+  public List<ExtInfo> getAdded() {
+    return added;
+  }
+
+  /**
+   * Gets the entries that were removed.
+   * 
+   * @return The removed {@link ExtInfo}s
+   */
+  public List<ExtInfo> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * Gets the number of entries that were already in the desired state and needed no request.
+   * 
+   * @return The number of unchanged entries
+   */
+  public int getUnchanged() {
+    return unchanged;
+  }
+
+  /**
+   * Gets the entries that could not be added or removed together with the cause.
+   * 
+   * @return The failed {@link ExtInfo}s
+   */
+  public Map<ExtInfo, XrelException> getFailed() {
+    return failed;
+  }
+
+  /**
+   * Checks if all needed requests succeeded.
+   * 
+   * @return {@code true} if successful, {@code false} otherwise
+   */
+  public boolean isSuccessful() {
+    return failed.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "FavoriteEntriesResult [getFavorite()=" + getFavorite() + ", getAdded()=" + getAdded()
+        + ", getRemoved()=" + getRemoved() + ", getUnchanged()=" + getUnchanged()
+        + ", getFailed()=" + getFailed() + "]";
+  }
+
+}
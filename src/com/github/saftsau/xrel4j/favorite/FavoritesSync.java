@@ -0,0 +1,532 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import com.github.saftsau.xrel4j.Token;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a local mirror of all {@link Favorite} lists of a single user. Every {@link #sync()} costs
+ * one request for the lists themselves, the entries of a list are only requested again if its
+ * entry count or its number of unread releases changed since the last sync. The mirror is also used
+ * by {@link #setFavoriteEntries(Favorite, Set)} to avoid redundant add and remove requests.
+ */
+public class FavoritesSync {
+
+  /**
+   * The default maximum number of concurrent requests of
+   * {@link #setFavoriteEntries(Favorite, Set)}.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+  private static final int TOO_MANY_REQUESTS = 429;
+  // Used after a 429 if the last request did not report when the rate limit window resets
+  private static final long RETRY_DELAY = 1000;
+
+  private final Xrel xrel;
+  private final Token token;
+  private final boolean getReleases;
+  private final XrelExecutor executor;
+  private final List<FavoritesSyncListener> listeners = new CopyOnWriteArrayList<>();
+  // Never holds a monitor while waiting for the network, see XrelExecutor
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private volatile Map<Long, Favorite> favorites = Collections.emptyMap();
+
+  /**
+   * Constructs a new FavoritesSync.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param token The {@link Token} of the user
+   * @param getReleases If {@code true}, the unread releases of each entry are mirrored as well
+   */
+  public FavoritesSync(Xrel xrel, Token token, boolean getReleases) {
+    this(xrel, token, getReleases, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new FavoritesSync.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param token The {@link Token} of the user
+   * @param getReleases If {@code true}, the unread releases of each entry are mirrored as well
+   * @param executor The {@link XrelExecutor} used for concurrent requests
+   */
+  public FavoritesSync(Xrel xrel, Token token, boolean getReleases, XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.token = Objects.requireNonNull(token, "token missing");
+    this.getReleases = getReleases;
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+  }
+
+  /**
+   * Adds a {@link FavoritesSyncListener}.
+   * 
+   * @param listener The {@link FavoritesSyncListener} to add
+   */
+  public void addListener(FavoritesSyncListener listener) {
+    listeners.add(Objects.requireNonNull(listener, "listener missing"));
+  }
+
+  /**
+   * Removes a {@link FavoritesSyncListener}.
+   * 
+   * @param listener The {@link FavoritesSyncListener} to remove
+   */
+  public void removeListener(FavoritesSyncListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Gets all mirrored {@link Favorite} lists as of the last sync. The returned objects must not be
+   * modified.
+   * 
+   * @return The mirrored {@link Favorite} lists
+   */
+  public Collection<Favorite> getFavorites() {
+    return favorites.values();
+  }
+
+  /**
+   * Gets a mirrored {@link Favorite} list as of the last sync. The returned object must not be
+   * modified.
+   * 
+   * @param id The API ID of the {@link Favorite} list
+   * @return The {@link Favorite} or {@code null} if not found
+   */
+  public Favorite getFavorite(long id) {
+    return favorites.get(id);
+  }
+
+  /**
+   * Gets the {@link Token} of the user.
+   * 
+   * @return The {@link Token}
+   */
+  public Token getToken() {
+    return token;
+  }
+
+  /**
+   * Updates the mirror and notifies all {@link FavoritesSyncListener}s about the changes. Only one
+   * sync runs at a time, concurrent calls wait for each other.
+   * 
+   * @return The list of {@link FavoriteChange}s, empty if nothing changed
+   * @throws XrelException If there is an error returned by the xREL API. The mirror is left
+   *         unchanged in that case.
+   */
+  public List<FavoriteChange> sync() throws XrelException {
+    syncLock.lock();
+    try {
+      Map<Long, Favorite> previousFavorites = favorites;
+      Map<Long, Favorite> currentFavorites = new LinkedHashMap<>();
+      List<FavoriteChange> changes = new ArrayList<>();
+
+      for (Favorite favorite : xrel.getFavsLists(token)) {
+        Favorite previous = previousFavorites.get(favorite.getId());
+        currentFavorites.put(favorite.getId(), favorite);
+        if (previous != null && previous.getEntryCount() == favorite.getEntryCount()
+            && previous.getUnreadReleases() == favorite.getUnreadReleases()) {
+          favorite.setEntries(previous.getEntries());
+          continue;
+        }
+
+        xrel.getFavsListEntries(favorite, getReleases, token);
+        List<ExtInfo> previousEntries =
+            previous == null ? Collections.<ExtInfo>emptyList() : previous.getEntries();
+        changes.add(new FavoriteChange(favorite, previous,
+            difference(favorite.getEntries(), previousEntries),
+            difference(previousEntries, favorite.getEntries())));
+      }
+      for (Favorite previous : previousFavorites.values()) {
+        if (!currentFavorites.containsKey(previous.getId())) {
+          changes.add(new FavoriteChange(null, previous, Collections.<ExtInfo>emptyList(),
+              previous.getEntries()));
+        }
+      }
+
+      favorites = Collections.unmodifiableMap(currentFavorites);
+      for (FavoriteChange change : changes) {
+        for (FavoritesSyncListener listener : listeners) {
+          listener.onFavoriteChanged(change);
+        }
+      }
+      return changes;
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Makes the entries of a {@link Favorite} list match the given set of {@link ExtInfo}s, using at
+   * most {@link #DEFAULT_MAX_CONCURRENCY} concurrent requests.
+   * 
+   * @param favorite The favorite list, as obtained through {@link Xrel#getFavsLists(Token)}.
+   * @param entries The desired entries
+   * @return The {@link FavoriteEntriesResult}
+   * @throws XrelException If the current entries could not be retrieved
+   * @see #setFavoriteEntries(Favorite, Set, int)
+   */
+  public FavoriteEntriesResult setFavoriteEntries(Favorite favorite, Set<ExtInfo> entries)
+      throws XrelException {
+    return setFavoriteEntries(favorite, entries, DEFAULT_MAX_CONCURRENCY);
+  }
+
+  /**
+   * Makes the entries of a {@link Favorite} list match the given set of {@link ExtInfo}s and waits
+   * for the result, see {@link #setFavoriteEntriesAsync(Favorite, Set, int)}. The calling thread is
+   * blocked until all requests finished, which includes waiting for the rate limit window to reset
+   * if the xREL API reports no remaining requests; use the asynchronous variant on threads which
+   * must not block that long.
+   * 
+   * @param favorite The favorite list, as obtained through {@link Xrel#getFavsLists(Token)}. Its
+   *        entries are requested and set if the list is not mirrored yet.
+   * @param entries The desired entries
+   * @param maxConcurrency The maximum number of concurrent requests
+   * @return The {@link FavoriteEntriesResult}
+   * @throws XrelException If the current entries could not be retrieved
+   */
+  public FavoriteEntriesResult setFavoriteEntries(Favorite favorite, Set<ExtInfo> entries,
+      int maxConcurrency) throws XrelException {
+    try {
+      return setFavoriteEntriesAsync(favorite, entries, maxConcurrency).join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new XrelException(cause);
+    }
+  }
+
+  /**
+   * Makes the entries of a {@link Favorite} list match the given set of {@link ExtInfo}s without
+   * blocking, using at most {@link #DEFAULT_MAX_CONCURRENCY} concurrent requests.
+   * 
+   * @param favorite The favorite list, as obtained through {@link Xrel#getFavsLists(Token)}.
+   * @param entries The desired entries
+   * @return The {@link CompletableFuture} completed with the {@link FavoriteEntriesResult}
+   * @see #setFavoriteEntriesAsync(Favorite, Set, int)
+   */
+  public CompletableFuture<FavoriteEntriesResult> setFavoriteEntriesAsync(Favorite favorite,
+      Set<ExtInfo> entries) {
+    return setFavoriteEntriesAsync(favorite, entries, DEFAULT_MAX_CONCURRENCY);
+  }
+
+  /**
+   * Makes the entries of a {@link Favorite} list match the given set of {@link ExtInfo}s without
+   * blocking. The desired entries are compared with the mirrored entries by their API ID, or with
+   * freshly requested entries if the list is not mirrored yet, and only the missing entries are
+   * added and the superfluous ones removed. Applying the same set twice therefore costs no add or
+   * remove requests the second time. If the xREL API reports no remaining requests, the next
+   * requests are scheduled for when the rate limit window resets instead of waiting on a thread.
+   * Failed requests don't stop the others, they are reported in the {@link FavoriteEntriesResult}.
+   * 
+   * @param favorite The favorite list, as obtained through {@link Xrel#getFavsLists(Token)}. Its
+   *        entries are requested and set if the list is not mirrored yet.
+   * @param entries The desired entries
+   * @param maxConcurrency The maximum number of concurrent requests
+   * @return The {@link CompletableFuture} completed with the {@link FavoriteEntriesResult} or with
+   *         the {@link XrelException} if the current entries could not be retrieved
+   */
+  public CompletableFuture<FavoriteEntriesResult> setFavoriteEntriesAsync(Favorite favorite,
+      Set<ExtInfo> entries, int maxConcurrency) {
+    Objects.requireNonNull(favorite, "favorite missing");
+    Objects.requireNonNull(entries, "entries missing");
+    if (maxConcurrency < 1) {
+      throw new XrelException("maxConcurrency must be 1 or greater");
+    }
+
+    List<ExtInfo> desiredEntries = new ArrayList<>(entries);
+    Favorite mirrored = getFavorite(favorite.getId());
+    if (mirrored != null && mirrored.getEntries() != null) {
+      return applyEntries(favorite, true, mirrored.getEntries(), desiredEntries, maxConcurrency);
+    }
+    return executor.submit(() -> {
+      xrel.getFavsListEntries(favorite, false, token);
+      return favorite.getEntries();
+    }).thenCompose(currentEntries -> applyEntries(favorite, mirrored != null, currentEntries,
+        desiredEntries, maxConcurrency));
+  }
+
+  /**
+   * Sends the add and remove requests needed to get from the current to the desired entries.
+   * 
+   * @param favorite The favorite list
+   * @param isMirrored {@code true} if the list is mirrored and the mirror needs to be updated
+   * @param currentEntries The current entries
+   * @param desiredEntries The desired entries
+   * @param maxConcurrency The maximum number of concurrent requests
+   * @return The {@link CompletableFuture} completed with the {@link FavoriteEntriesResult}
+   */
+  private CompletableFuture<FavoriteEntriesResult> applyEntries(Favorite favorite,
+      boolean isMirrored, List<ExtInfo> currentEntries, List<ExtInfo> desiredEntries,
+      int maxConcurrency) {
+    List<ExtInfo> toAdd = difference(desiredEntries, currentEntries);
+    List<ExtInfo> toRemove = difference(currentEntries, desiredEntries);
+
+    Map<ExtInfo, CompletableFuture<FavoriteAddDelEntry>> futures = new LinkedHashMap<>();
+    Queue<EntryRequest> queue = new ConcurrentLinkedQueue<>();
+    for (ExtInfo extInfo : toAdd) {
+      EntryRequest request = new EntryRequest(favorite, extInfo, false);
+      futures.put(extInfo, request.future);
+      queue.add(request);
+    }
+    for (ExtInfo extInfo : toRemove) {
+      EntryRequest request = new EntryRequest(favorite, extInfo, true);
+      futures.put(extInfo, request.future);
+      queue.add(request);
+    }
+    // Every chain sends one request after the other, so at most maxConcurrency are in flight
+    for (int i = 0; i < maxConcurrency; i++) {
+      sendNext(queue);
+    }
+
+    return CompletableFuture
+        .allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()]))
+        .handle((ignored, throwable) -> {
+          Favorite latest = favorite;
+          List<ExtInfo> added = new ArrayList<>();
+          List<ExtInfo> removed = new ArrayList<>();
+          Map<ExtInfo, XrelException> failed = new LinkedHashMap<>();
+          int index = 0;
+          for (Map.Entry<ExtInfo, CompletableFuture<FavoriteAddDelEntry>> entry : futures
+              .entrySet()) {
+            // All additions were queued before the removals
+            boolean isAddition = index++ < toAdd.size();
+            try {
+              FavoriteAddDelEntry result = entry.getValue().join();
+              if (result != null && result.getFavList() != null) {
+                latest = result.getFavList();
+              }
+              if (isAddition) {
+                added.add(entry.getKey());
+              } else {
+                removed.add(entry.getKey());
+              }
+            } catch (CompletionException e) {
+              Throwable cause = e.getCause();
+              failed.put(entry.getKey(), cause instanceof XrelException ? (XrelException) cause
+                  : new XrelException(cause));
+            }
+          }
+          if (isMirrored && (!added.isEmpty() || !removed.isEmpty())) {
+            updateMirror(favorite.getId(), added, removed);
+          }
+          return new FavoriteEntriesResult(latest, added, removed,
+              desiredEntries.size() - toAdd.size(), failed);
+        });
+  }
+
+  /**
+   * Applies successful additions and removals to a mirrored {@link Favorite} list, so the next
+   * call with the same entries finds nothing to do. The mirrored object itself is not modified, it
+   * is replaced by an updated copy.
+   * 
+   * @param id The ID of the {@link Favorite} list
+   * @param added The added entries
+   * @param removed The removed entries
+   */
+  private void updateMirror(long id, List<ExtInfo> added, List<ExtInfo> removed) {
+    syncLock.lock();
+    try {
+      Favorite mirrored = favorites.get(id);
+      if (mirrored == null || mirrored.getEntries() == null) {
+        return;
+      }
+      Set<ExtInfo> removedSet = new HashSet<>(removed);
+      Set<ExtInfo> entries = new LinkedHashSet<>();
+      for (ExtInfo extInfo : mirrored.getEntries()) {
+        if (!removedSet.contains(extInfo)) {
+          entries.add(extInfo);
+        }
+      }
+      entries.addAll(added);
+
+      Favorite updated = new Favorite();
+      updated.setId(mirrored.getId());
+      updated.setName(mirrored.getName());
+      updated.setPublic_(mirrored.isPublic_());
+      updated.setNotify(mirrored.isNotify());
+      updated.setAutoRead(mirrored.isAutoRead());
+      updated.setIncludeP2p(mirrored.isIncludeP2p());
+      updated.setDescription(mirrored.getDescription());
+      updated.setPasswordHash(mirrored.getPasswordHash());
+      updated.setUnreadReleases(mirrored.getUnreadReleases());
+      updated.setEntries(new ArrayList<>(entries));
+      updated.setEntryCount(entries.size());
+
+      Map<Long, Favorite> updatedFavorites = new LinkedHashMap<>(favorites);
+      updatedFavorites.put(id, updated);
+      favorites = Collections.unmodifiableMap(updatedFavorites);
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Sends the next queued request, followed by the next one once it completed.
+   * 
+   * @param queue The queued requests
+   */
+  private void sendNext(Queue<EntryRequest> queue) {
+    EntryRequest request = queue.poll();
+    if (request != null) {
+      request.future.whenComplete((result, throwable) -> sendNext(queue));
+      send(request, false);
+    }
+  }
+
+  /**
+   * Sends a single add or remove request on the executor, or schedules it for when the rate limit
+   * window resets if no requests remain. A request rejected with {@code 429} is retried once after
+   * the rate limit window reset.
+   * 
+   * @param request The request to send
+   * @param isRetry {@code true} if the request was rejected with {@code 429} before
+   */
+  private void send(EntryRequest request, boolean isRetry) {
+    try {
+      long wait = getRateLimitWait();
+      if (wait > 0) {
+        executor.schedule(() -> send(request, isRetry), wait, TimeUnit.MILLISECONDS);
+        return;
+      }
+      executor.execute(() -> {
+        try {
+          request.future.complete(
+              postFavsListAddDelEntry(request.favorite, request.extInfo, request.delete));
+        } catch (XrelException e) {
+          if (e.getResponseCode() == TOO_MANY_REQUESTS && !isRetry) {
+            long resetWait = getRateLimitWait();
+            executor.schedule(() -> send(request, true), resetWait > 0 ? resetWait : RETRY_DELAY,
+                TimeUnit.MILLISECONDS);
+          } else {
+            request.future.completeExceptionally(e);
+          }
+        } catch (RuntimeException e) {
+          request.future.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      request.future.completeExceptionally(new XrelException(e));
+    }
+  }
+
+  /**
+   * Adds or removes a single entry.
+   * 
+   * @param favorite The favorite list
+   * @param extInfo The {@link ExtInfo} to add or remove
+   * @param delete {@code true} to remove, {@code false} to add
+   * @return The {@link FavoriteAddDelEntry}
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  private FavoriteAddDelEntry postFavsListAddDelEntry(Favorite favorite, ExtInfo extInfo,
+      boolean delete) throws XrelException {
+    if (delete) {
+      return xrel.postFavsListDelEntry(favorite, extInfo, token);
+    }
+    return xrel.postFavsListAddEntry(favorite, extInfo, token);
+  }
+
+  /**
+   * Gets how long to wait until the current rate limit window resets if the last request reported
+   * no remaining requests.
+   * 
+   * @return The time to wait in milliseconds, {@code 0} or less if requests can be sent now
+   */
+  private long getRateLimitWait() {
+    if (xrel.getXRateLimitRemaining() != 0) {
+      return 0;
+    }
+    return xrel.getXRateLimitReset() * 1000L - System.currentTimeMillis();
+  }
+
+  /**
+   * Returns all entries of the first list that are not part of the second list, compared by their
+   * API ID.
+   * 
+   * @param entries The entries to filter
+   * @param others The entries to remove
+   * @return The difference of both lists
+   */
+  private static List<ExtInfo> difference(List<ExtInfo> entries, List<ExtInfo> others) {
+    List<ExtInfo> result = new ArrayList<>();
+    if (entries == null) {
+      return result;
+    }
+    Set<ExtInfo> otherSet = others == null ? Collections.emptySet() : new HashSet<>(others);
+    for (ExtInfo entry : entries) {
+      if (!otherSet.contains(entry)) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "FavoritesSync [getFavorites()=" + getFavorites() + "]";
+  }
+
+  /**
+   * A single add or remove request of {@link #setFavoriteEntriesAsync(Favorite, Set, int)}.
+   */
+  private static final class EntryRequest {
+
+    private final Favorite favorite;
+    private final ExtInfo extInfo;
+    private final boolean delete;
+    private final CompletableFuture<FavoriteAddDelEntry> future = new CompletableFuture<>();
+
+    /**
+     * Constructs a new EntryRequest.
+     * 
+     * @param favorite The favorite list
+     * @param extInfo The {@link ExtInfo} to add or remove
+     * @param delete {@code true} to remove, {@code false} to add
+     */
+    EntryRequest(Favorite favorite, ExtInfo extInfo, boolean delete) {
+      this.favorite = favorite;
+      this.extInfo = extInfo;
+      this.delete = delete;
+    }
+
+  }
+
+}
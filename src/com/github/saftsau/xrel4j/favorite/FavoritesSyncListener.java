@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+/**
+ * Listener notified by {@link FavoritesSync} about every changed {@link Favorite} list.
+ */
+@FunctionalInterface
+public interface FavoritesSyncListener {
+
+  /**
+   * Called once per changed {@link Favorite} list and sync, on the thread running the sync.
+   * 
+   * @param change The {@link FavoriteChange}
+   */
+  void onFavoriteChanged(FavoriteChange change);
+
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ImmutableExtInfo;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable variant of {@link Favorite}. Instances can be shared by any number of threads and kept
+ * in caches without defensive copies. The with-ers return modified copies that share all unchanged
+ * values, e.g. {@link #withEntries(List)} keeps the {@link ImmutableExtInfo} instances of the
+ * given list.
+ */
+@JsonDeserialize(builder = ImmutableFavorite.Builder.class)
+public final class ImmutableFavorite {
+
+  private final long id;
+  private final String name;
+  @JsonProperty("public")
+  private final boolean public_;
+  private final boolean notify;
+  @JsonProperty("auto_read")
+  private final boolean autoRead;
+  @JsonProperty("include_p2p")
+  private final boolean includeP2p;
+  private final String description;
+  @JsonProperty("password_hash")
+  private final String passwordHash;
+  @JsonProperty("entry_count")
+  private final long entryCount;
+  @JsonProperty("unread_releases")
+  private final long unreadReleases;
+  private final List<ImmutableExtInfo> entries;
+  @JsonIgnore
+  private int hash;
+
+  private ImmutableFavorite(Builder builder) {
+    this.id = builder.id;
+    this.name = builder.name;
+    this.public_ = builder.public_;
+    this.notify = builder.notify;
+    this.autoRead = builder.autoRead;
+    this.includeP2p = builder.includeP2p;
+    this.description = builder.description;
+    this.passwordHash = builder.passwordHash;
+    this.entryCount = builder.entryCount;
+    this.unreadReleases = builder.unreadReleases;
+    this.entries = builder.entries;
+  }
+
+  /**
+   * Creates a new empty builder.
+   * 
+   * @return The builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates an immutable copy of a {@link Favorite}, including its entries.
+   * 
+   * @param favorite The {@link Favorite} to copy
+   * @return The immutable copy
+   */
+  public static ImmutableFavorite of(Favorite favorite) {
+    return new Builder(favorite).build();
+  }
+
+  /**
+   * Creates a mutable copy of this ImmutableFavorite, e.g. to call {@link Favorite} based methods.
+   * 
+   * @return The mutable copy
+   */
+  public Favorite toFavorite() {
+    Favorite favorite = new Favorite();
+    favorite.setId(id);
+    favorite.setName(name);
+    favorite.setPublic_(public_);
+    favorite.setNotify(notify);
+    favorite.setAutoRead(autoRead);
+    favorite.setIncludeP2p(includeP2p);
+    favorite.setDescription(description);
+    favorite.setPasswordHash(passwordHash);
+    favorite.setEntryCount(entryCount);
+    favorite.setUnreadReleases(unreadReleases);
+    if (entries != null) {
+      List<ExtInfo> extInfos = new ArrayList<>(entries.size());
+      for (ImmutableExtInfo entry : entries) {
+        extInfos.add(entry == null ? null : entry.toExtInfo());
+      }
+      favorite.setEntries(extInfos);
+    }
+    return favorite;
+  }
+
+  /**
+   * Creates a builder initialized with all values of this Favorite list. Unchanged values are
+   * shared with this Favorite list.
+   * 
+   * @return The builder
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Gets the API ID of the Favorite list.
+   * 
+   * @return The ID
+   */
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Gets the name of this Favorite list.
+   * 
+   * @return The name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the public status of this Favorite list. {@code true} if public, {@code false} if private.
+   * Default is {@code false}.
+   * 
+   * @return The public status
+   */
+  public boolean isPublic_() {
+    return public_;
+  }
+
+  /**
+   * Gets the notify status of this Favorite list. {@code true} if user wants notifications,
+   * {@code false} otherwise. Defaults to {@code false}.
+   * 
+   * @return The notify status
+   */
+  public boolean isNotify() {
+    return notify;
+  }
+
+  /**
+   * Gets the mark automatically as read status of this Favorite list. {@code true} if new releases
+   * are marked as read once the user opened them, {@code false} otherwise. Defaults to
+   * {@code false}.
+   * 
+   * @return The automatically read status
+   */
+  public boolean isAutoRead() {
+    return autoRead;
+  }
+
+  /**
+   * Gets whether the user wants {@link P2pRelease} to be included in this Favorite list. Defaults
+   * to {@code false}.
+   * 
+   * @return The inclusion of {@link P2pRelease} status
+   */
+  public boolean isIncludeP2p() {
+    return includeP2p;
+  }
+
+  /**
+   * Gets the description of this Favorite list. Can be an empty {@link String} if not set.
+   * 
+   * @return The description
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Gets the password hash of this Favorite list. See {@link Favorite#getPasswordHash()} for how
+   * the hash is composed.
+   * 
+   * @return The password hash
+   */
+  public String getPasswordHash() {
+    return passwordHash;
+  }
+
+  /**
+   * Gets the number of entries this Favorite list has.
+   * 
+   * @return The number of entries
+   */
+  public long getEntryCount() {
+    return entryCount;
+  }
+
+  /**
+   * Gets the number of unread releases this Favorite list has.
+   * 
+   * @return The number of unread releases
+   */
+  public long getUnreadReleases() {
+    return unreadReleases;
+  }
+
+  /**
+   * Gets the unmodifiable {@link ImmutableExtInfo} entries of this Favorite list. Can be
+   * {@code null} if not yet retrieved.
+   * 
+   * @return The entries
+   */
+  public List<ImmutableExtInfo> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given API ID.
+   * 
+   * @param id The API ID
+   * @return The copy
+   */
+  public ImmutableFavorite withId(long id) {
+    return toBuilder().id(id).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given name.
+   * 
+   * @param name The name
+   * @return The copy
+   */
+  public ImmutableFavorite withName(String name) {
+    return toBuilder().name(name).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given public status.
+   * 
+   * @param public_ The public status
+   * @return The copy
+   */
+  public ImmutableFavorite withPublic_(boolean public_) {
+    return toBuilder().public_(public_).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given notify status.
+   * 
+   * @param notify The notify status
+   * @return The copy
+   */
+  public ImmutableFavorite withNotify(boolean notify) {
+    return toBuilder().notify(notify).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given automatically read status.
+   * 
+   * @param autoRead The automatically read status
+   * @return The copy
+   */
+  public ImmutableFavorite withAutoRead(boolean autoRead) {
+    return toBuilder().autoRead(autoRead).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given inclusion of P2P releases status.
+   * 
+   * @param includeP2p The inclusion of P2P releases status
+   * @return The copy
+   */
+  public ImmutableFavorite withIncludeP2p(boolean includeP2p) {
+    return toBuilder().includeP2p(includeP2p).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given description.
+   * 
+   * @param description The description
+   * @return The copy
+   */
+  public ImmutableFavorite withDescription(String description) {
+    return toBuilder().description(description).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given password hash.
+   * 
+   * @param passwordHash The password hash
+   * @return The copy
+   */
+  public ImmutableFavorite withPasswordHash(String passwordHash) {
+    return toBuilder().passwordHash(passwordHash).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given number of entries.
+   * 
+   * @param entryCount The number of entries
+   * @return The copy
+   */
+  public ImmutableFavorite withEntryCount(long entryCount) {
+    return toBuilder().entryCount(entryCount).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given number of unread releases.
+   * 
+   * @param unreadReleases The number of unread releases
+   * @return The copy
+   */
+  public ImmutableFavorite withUnreadReleases(long unreadReleases) {
+    return toBuilder().unreadReleases(unreadReleases).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableFavorite with the given entries.
+   * 
+   * @param entries The entries
+   * @return The copy
+   */
+  public ImmutableFavorite withEntries(List<ImmutableExtInfo> entries) {
+    return toBuilder().entries(entries).build();
+  }
+
+  /**
+   * Compares this Favorite list with another object. Both are equal if they are of the same class
+   * and have the same API ID, all other values are ignored.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id == ((ImmutableFavorite) obj).id;
+  }
+
+  /**
+   * Returns the cached hash code of the API ID.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = Long.hashCode(id);
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "ImmutableFavorite [getId()=" + getId() + ", getName()=" + getName() + ", isPublic_()="
+        + isPublic_() + ", isNotify()=" + isNotify() + ", isAutoRead()=" + isAutoRead()
+        + ", isIncludeP2p()=" + isIncludeP2p() + ", getDescription()=" + getDescription()
+        + ", getPasswordHash()=" + getPasswordHash() + ", getEntryCount()=" + getEntryCount()
+        + ", getUnreadReleases()=" + getUnreadReleases() + ", getEntries()=" + getEntries() + "]";
+  }
+
+  /**
+   * Builder of {@link ImmutableFavorite}. Also used by Jackson to read the JSON of the xREL API.
+   */
+  @JsonPOJOBuilder(withPrefix = "")
+  public static final class Builder {
+
+    private long id;
+    private String name;
+    private boolean public_;
+    private boolean notify;
+    private boolean autoRead;
+    private boolean includeP2p;
+    private String description;
+    private String passwordHash;
+    private long entryCount;
+    private long unreadReleases;
+    private List<ImmutableExtInfo> entries;
+
+    private Builder() {}
+
+    private Builder(ImmutableFavorite favorite) {
+      this.id = favorite.id;
+      this.name = favorite.name;
+      this.public_ = favorite.public_;
+      this.notify = favorite.notify;
+      this.autoRead = favorite.autoRead;
+      this.includeP2p = favorite.includeP2p;
+      this.description = favorite.description;
+      this.passwordHash = favorite.passwordHash;
+      this.entryCount = favorite.entryCount;
+      this.unreadReleases = favorite.unreadReleases;
+      this.entries = favorite.entries;
+    }
+
+    private Builder(Favorite favorite) {
+      id(favorite.getId());
+      name(favorite.getName());
+      public_(favorite.isPublic_());
+      notify(favorite.isNotify());
+      autoRead(favorite.isAutoRead());
+      includeP2p(favorite.isIncludeP2p());
+      description(favorite.getDescription());
+      passwordHash(favorite.getPasswordHash());
+      entryCount(favorite.getEntryCount());
+      unreadReleases(favorite.getUnreadReleases());
+      if (favorite.getEntries() != null) {
+        List<ImmutableExtInfo> extInfos = new ArrayList<>(favorite.getEntries().size());
+        for (ExtInfo entry : favorite.getEntries()) {
+          extInfos.add(entry == null ? null : ImmutableExtInfo.of(entry));
+        }
+        this.entries = Collections.unmodifiableList(extInfos);
+      }
+    }
+
+    /**
+     * Sets the API ID.
+     * 
+     * @param id The ID to set
+     * @return This builder
+     */
+    public Builder id(long id) {
+      this.id = id;
+      return this;
+    }
+
+    /**
+     * Sets the name.
+     * 
+     * @param name The name to set
+     * @return This builder
+     */
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    /**
+     * Sets the public status.
+     * 
+     * @param public_ The public status to set
+     * @return This builder
+     */
+    @JsonProperty("public")
+    public Builder public_(boolean public_) {
+      this.public_ = public_;
+      return this;
+    }
+
+    /**
+     * Sets the notify status.
+     * 
+     * @param notify The notify status to set
+     * @return This builder
+     */
+    public Builder notify(boolean notify) {
+      this.notify = notify;
+      return this;
+    }
+
+    /**
+     * Sets the mark automatically as read status.
+     * 
+     * @param autoRead The automatically read status to set
+     * @return This builder
+     */
+    @JsonProperty("auto_read")
+    public Builder autoRead(boolean autoRead) {
+      this.autoRead = autoRead;
+      return this;
+    }
+
+    /**
+     * Sets whether {@link P2pRelease} are included.
+     * 
+     * @param includeP2p The inclusion of {@link P2pRelease} status to set
+     * @return This builder
+     */
+    @JsonProperty("include_p2p")
+    public Builder includeP2p(boolean includeP2p) {
+      this.includeP2p = includeP2p;
+      return this;
+    }
+
+    /**
+     * Sets the description.
+     * 
+     * @param description The description to set
+     * @return This builder
+     */
+    public Builder description(String description) {
+      this.description = description;
+      return this;
+    }
+
+    /**
+     * Sets the password hash.
+     * 
+     * @param passwordHash The password hash to set
+     * @return This builder
+     */
+    @JsonProperty("password_hash")
+    public Builder passwordHash(String passwordHash) {
+      this.passwordHash = passwordHash;
+      return this;
+    }
+
+    /**
+     * Sets the number of entries.
+     * 
+     * @param entryCount The number of entries to set
+     * @return This builder
+     */
+    @JsonProperty("entry_count")
+    public Builder entryCount(long entryCount) {
+      this.entryCount = entryCount;
+      return this;
+    }
+
+    /**
+     * Sets the number of unread releases.
+     * 
+     * @param unreadReleases The number of unread releases to set
+     * @return This builder
+     */
+    @JsonProperty("unread_releases")
+    public Builder unreadReleases(long unreadReleases) {
+      this.unreadReleases = unreadReleases;
+      return this;
+    }
+
+    /**
+     * Sets the {@link ImmutableExtInfo} entries. The list is copied, the entries are shared.
+     * 
+     * @param entries The entries to set
+     * @return This builder
+     */
+    public Builder entries(List<ImmutableExtInfo> entries) {
+      this.entries =
+          entries == null ? null : Collections.unmodifiableList(new ArrayList<>(entries));
+      return this;
+    }
+
+    /**
+     * Creates a new {@link ImmutableFavorite} with the values of this builder.
+     * 
+     * @return The {@link ImmutableFavorite}
+     */
+    public ImmutableFavorite build() {
+      return new ImmutableFavorite(this);
+    }
+
+  }
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import com.github.saftsau.xrel4j.Token;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects mark-read requests for {@link Favorite} lists and sends them in batches. Marking the
+ * same release on the same list twice before it was sent only costs a single request. A batch is
+ * sent once {@code batchSize} requests are pending or {@code flushDelay} milliseconds after the
+ * first pending request, whatever comes first. Requests are sent with bounded concurrency and pause
+ * until the rate limit window resets if the xREL API reports no remaining requests.
+ *
+ * @see <a href= "https://www.xrel.to/wiki/6344/api-favs-list-markread.html">API:
+ *      favs/list_markread method</a>
+ */
+public class MarkReadQueue implements AutoCloseable {
+
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final Xrel xrel;
+  private final Token token;
+  private final int batchSize;
+  private final long flushDelay;
+  private final int maxConcurrency;
+  private final XrelExecutor executor;
+  // Guards pending, scheduledFlush and scheduledResume only, never held while sending
+  private final ReentrantLock lock = new ReentrantLock();
+  private Map<String, MarkRead> pending = new LinkedHashMap<>();
+  private ScheduledFuture<?> scheduledFlush;
+  private ScheduledFuture<?> scheduledResume;
+  private final Deque<MarkRead> ready = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile long pausedUntil;
+
+  /**
+   * Constructs a new MarkReadQueue sending batches of up to 50 requests at least once a second with
+   * at most 4 concurrent requests on {@link XrelExecutor#getDefault()}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param token The {@link Token} of the user
+   */
+  public MarkReadQueue(Xrel xrel, Token token) {
+    this(xrel, token, 50, 1000, 4, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Constructs a new MarkReadQueue.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param token The {@link Token} of the user
+   * @param batchSize The number of pending requests that triggers sending a batch
+   * @param flushDelay The maximum time in milliseconds a request waits before it is sent
+   * @param maxConcurrency The maximum number of concurrent requests
+   * @param executor The {@link XrelExecutor} used to send the requests
+   */
+  public MarkReadQueue(Xrel xrel, Token token, int batchSize, long flushDelay, int maxConcurrency,
+      XrelExecutor executor) {
+    this.xrel = Objects.requireNonNull(xrel, "xrel missing");
+    this.token = Objects.requireNonNull(token, "token missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    if (batchSize < 1 || maxConcurrency < 1 || flushDelay < 0) {
+      throw new IllegalArgumentException(
+          "batchSize and maxConcurrency must be 1 or greater, flushDelay 0 or greater");
+    }
+    this.batchSize = batchSize;
+    this.flushDelay = flushDelay;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Marks a {@link Release} on a favorite list as read.
+   * 
+   * @param favorite The favorite list, as obtained through {@link Xrel#getFavsLists(Token)}.
+   * @param release The {@link Release} to be marked as read.
+   * @return The {@link CompletableFuture} completed with the {@link FavoriteMarkRead} of this
+   *         request or with the {@link XrelException} if it failed
+   */
+  public CompletableFuture<FavoriteMarkRead> markRead(Favorite favorite, Release release) {
+    Objects.requireNonNull(favorite, "favorite missing");
+    Objects.requireNonNull(release, "release missing");
+
+    return enqueue(new MarkRead(favorite, release, null));
+  }
+
+  /**
+   * Marks a {@link P2pRelease} on a favorite list as read.
+   * 
+   * @param favorite The favorite list, as obtained through {@link Xrel#getFavsLists(Token)}.
+   * @param p2pRelease The {@link P2pRelease} to be marked as read.
+   * @return The {@link CompletableFuture} completed with the {@link FavoriteMarkRead} of this
+   *         request or with the {@link XrelException} if it failed
+   */
+  public CompletableFuture<FavoriteMarkRead> markRead(Favorite favorite, P2pRelease p2pRelease) {
+    Objects.requireNonNull(favorite, "favorite missing");
+    Objects.requireNonNull(p2pRelease, "p2pRelease missing");
+
+    return enqueue(new MarkRead(favorite, null, p2pRelease));
+  }
+
+  /**
+   * Gets the number of requests that were not sent yet.
+   * 
+   * @return The number of pending requests
+   */
+  public int getPendingCount() {
+    lock.lock();
+    try {
+      return pending.size() + ready.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Sends all pending requests now.
+   * 
+   * @return The {@link CompletableFuture} completed once all requests sent by this flush finished,
+   *         no matter if they succeeded or not
+   */
+  public CompletableFuture<Void> flush() {
+    Map<String, MarkRead> batch;
+    lock.lock();
+    try {
+      batch = pending;
+      pending = new LinkedHashMap<>();
+      if (scheduledFlush != null) {
+        scheduledFlush.cancel(false);
+        scheduledFlush = null;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    List<CompletableFuture<FavoriteMarkRead>> futures = new ArrayList<>();
+    for (MarkRead markRead : batch.values()) {
+      futures.add(markRead.future);
+      ready.offer(markRead);
+    }
+    pump();
+    return CompletableFuture
+        .allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+        .handle((result, throwable) -> null);
+  }
+
+  /**
+   * Sends all pending requests.
+   */
+  @Override
+  public void close() {
+    flush();
+  }
+
+  /**
+   * Adds a request unless the same one is already pending.
+   * 
+   * @param markRead The request to add
+   * @return The {@link CompletableFuture} of the request
+   */
+  private CompletableFuture<FavoriteMarkRead> enqueue(MarkRead markRead) {
+    boolean flushNow = false;
+    CompletableFuture<FavoriteMarkRead> future;
+    lock.lock();
+    try {
+      MarkRead existing = pending.putIfAbsent(markRead.key, markRead);
+      future = existing == null ? markRead.future : existing.future;
+      if (pending.size() >= batchSize) {
+        flushNow = true;
+      } else if (scheduledFlush == null) {
+        scheduledFlush = executor.schedule(this::flush, flushDelay, TimeUnit.MILLISECONDS);
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (flushNow) {
+      flush();
+    }
+    return future;
+  }
+
+  /**
+   * Starts sending ready requests until {@code maxConcurrency} requests are in flight.
+   */
+  private void pump() {
+    long pause = pausedUntil - System.currentTimeMillis();
+    if (pause > 0) {
+      lock.lock();
+      try {
+        // A single resume per pause, no matter how many requests are sent or flushed meanwhile
+        if (scheduledResume == null) {
+          scheduledResume = executor.schedule(this::resume, pause, TimeUnit.MILLISECONDS);
+        }
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
+    for (;;) {
+      int current = inFlight.get();
+      if (current >= maxConcurrency || ready.isEmpty()) {
+        return;
+      }
+      if (!inFlight.compareAndSet(current, current + 1)) {
+        continue;
+      }
+      MarkRead markRead = ready.poll();
+      if (markRead == null) {
+        inFlight.decrementAndGet();
+        continue;
+      }
+      try {
+        executor.execute(() -> send(markRead));
+      } catch (RejectedExecutionException e) {
+        // Sent by the next pump instead of being lost
+        inFlight.decrementAndGet();
+        ready.offerFirst(markRead);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Starts sending again once a pause ended.
+   */
+  private void resume() {
+    lock.lock();
+    try {
+      scheduledResume = null;
+    } finally {
+      lock.unlock();
+    }
+    pump();
+  }
+
+  /**
+   * Sends a single request and starts the next one.
+   * 
+   * @param markRead The request to send
+   */
+  private void send(MarkRead markRead) {
+    try {
+      if (rateLimitExhausted()) {
+        ready.offerFirst(markRead);
+        return;
+      }
+      FavoriteMarkRead result;
+      if (markRead.release != null) {
+        result = xrel.postFavsListMarkRead(markRead.favorite, markRead.release, token);
+      } else {
+        result = xrel.postFavsListMarkRead(markRead.favorite, markRead.p2pRelease, token);
+      }
+      markRead.future.complete(result);
+    } catch (XrelException e) {
+      if (e.getResponseCode() == TOO_MANY_REQUESTS) {
+        pauseUntilReset();
+        ready.offerFirst(markRead);
+      } else {
+        markRead.future.completeExceptionally(e);
+      }
+    } catch (RuntimeException e) {
+      markRead.future.completeExceptionally(e);
+    } finally {
+      inFlight.decrementAndGet();
+      pump();
+    }
+  }
+
+  /**
+   * Checks the rate limit headers of the last request and pauses until the rate limit window resets
+   * if there are no remaining requests.
+   * 
+   * @return {@code true} if paused, {@code false} otherwise
+   */
+  private boolean rateLimitExhausted() {
+    if (xrel.getXRateLimitRemaining() == 0
+        && xrel.getXRateLimitReset() * 1000L > System.currentTimeMillis()) {
+      pauseUntilReset();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Pauses sending until the current rate limit window resets, or for a second if the reset time
+   * is unknown.
+   */
+  private void pauseUntilReset() {
+    long reset = xrel.getXRateLimitReset() * 1000L;
+    long now = System.currentTimeMillis();
+    pausedUntil = reset > now ? reset : now + 1000;
+  }
+
+  @Override
+  public String toString() {
+    return "MarkReadQueue [getPendingCount()=" + getPendingCount() + ", batchSize=" + batchSize
+        + ", flushDelay=" + flushDelay + ", maxConcurrency=" + maxConcurrency + "]";
+  }
+
+  /**
+   * A single pending mark-read request.
+   */
+  private static final class MarkRead {
+
+    private final Favorite favorite;
+    private final Release release;
+    private final P2pRelease p2pRelease;
+    private final String key;
+    private final CompletableFuture<FavoriteMarkRead> future = new CompletableFuture<>();
+
+    /**
+     * Constructs a new MarkRead.
+     * 
+     * @param favorite The favorite list
+     * @param release The {@link Release} or {@code null}
+     * @param p2pRelease The {@link P2pRelease} or {@code null}
+     */
+    MarkRead(Favorite favorite, Release release, P2pRelease p2pRelease) {
+      this.favorite = favorite;
+      this.release = release;
+      this.p2pRelease = p2pRelease;
+      this.key = favorite.getId() + (release != null ? ":release:" + release.getId()
+          : ":p2p_rls:" + p2pRelease.getId());
+    }
+
+  }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class of all {@link Subscription}s in this package. Takes care of demand accounting and of
+ * delivering signals serially on the given {@link Executor}. Subclasses only have to fill the
+ * queue once it runs empty while there is still outstanding demand.
+ *
+ * @param <T> The type of the published elements
+ */
+abstract class FeedSubscription<T> implements Subscription, Runnable {
+
+  private final Subscriber<? super T> subscriber;
+  private final Executor executor;
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+  private volatile boolean cancelled;
+  private volatile boolean completed;
+  private volatile Throwable error;
+  private boolean terminated;
+
+  /**
+   * Constructs a new FeedSubscription.
+   * 
+   * @param subscriber The {@link Subscriber} to signal
+   * @param executor The {@link Executor} used to deliver signals and to run blocking fetches
+   */
+  FeedSubscription(Subscriber<? super T> subscriber, Executor executor) {
+    this.subscriber = Objects.requireNonNull(subscriber, "subscriber missing");
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+  }
+
+  /**
+   * Hands this {@link Subscription} to the {@link Subscriber}.
+   */
+  void start() {
+    subscriber.onSubscribe(this);
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      fail(new IllegalArgumentException("n must be greater than 0, was " + n));
+      return;
+    }
+    long current;
+    long next;
+    do {
+      current = requested.get();
+      if (current == Long.MAX_VALUE) {
+        return;
+      }
+      next = current + n;
+      if (next < 0) {
+        next = Long.MAX_VALUE;
+      }
+    } while (!requested.compareAndSet(current, next));
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    onCancel();
+  }
+
+  /**
+   * Checks if this {@link Subscription} was cancelled.
+   * 
+   * @return {@code true} if cancelled, {@code false} otherwise
+   */
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Checks if there is outstanding demand.
+   * 
+   * @return {@code true} if there is demand, {@code false} otherwise
+   */
+  boolean hasDemand() {
+    return requested.get() > 0;
+  }
+
+  /**
+   * Adds a fetched element. Safe to be called from any thread.
+   * 
+   * @param item The element to add
+   */
+  void offer(T item) {
+    queue.offer(item);
+  }
+
+  /**
+   * Marks the source as exhausted. Pending elements are still delivered before completing.
+   */
+  void complete() {
+    completed = true;
+  }
+
+  /**
+   * Marks the source as failed. Pending elements are still delivered before signalling the error.
+   * 
+   * @param throwable The cause of the failure
+   */
+  void fail(Throwable throwable) {
+    error = throwable;
+    drain();
+  }
+
+  /**
+   * Schedules delivery of pending signals. Safe to be called from any thread.
+   */
+  void drain() {
+    if (wip.getAndIncrement() == 0) {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        wip.set(0);
+        cancelled = true;
+        onCancel();
+        subscriber.onError(e);
+      }
+    }
+  }
+
+  /**
+   * Called from the drain loop when the queue is empty but there is outstanding demand. Either adds
+   * elements synchronously or arranges for a later {@link #drain()}.
+   * 
+   * @return {@code true} if the drain loop should check the queue again, {@code false} otherwise
+   */
+  abstract boolean refill();
+
+  /**
+   * Called once the {@link Subscription} is cancelled. Used to release resources.
+   */
+  void onCancel() {}
+
+  @Override
+  public void run() {
+    int missed = 1;
+    do {
+      long r = requested.get();
+      long emitted = 0;
+      while (!terminated && !cancelled) {
+        T item = emitted != r ? queue.poll() : null;
+        if (item != null) {
+          subscriber.onNext(item);
+          emitted++;
+          continue;
+        }
+        if (queue.isEmpty() && checkTerminated()) {
+          break;
+        }
+        if (emitted == r || !refill()) {
+          break;
+        }
+      }
+      if (emitted != 0 && r != Long.MAX_VALUE) {
+        requested.addAndGet(-emitted);
+      }
+      if (cancelled) {
+        queue.clear();
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Signals a pending terminal event, if any.
+   * 
+   * @return {@code true} if terminated, {@code false} otherwise
+   */
+  private boolean checkTerminated() {
+    Throwable throwable = error;
+    if (throwable != null) {
+      terminated = true;
+      onCancel();
+      subscriber.onError(throwable);
+      return true;
+    }
+    if (completed) {
+      terminated = true;
+      onCancel();
+      subscriber.onComplete();
+      return true;
+    }
+    return false;
+  }
+
+}
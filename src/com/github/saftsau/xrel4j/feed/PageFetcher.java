@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.XrelException;
+
+/**
+ * Fetches a single page of a paginated xREL API listing, e.g.
+ * {@code (perPage, page) -> xrel.getReleaseLatest(perPage, page)}.
+ *
+ * @param <T> The type of the listed elements
+ */
+@FunctionalInterface
+public interface PageFetcher<T> {
+
+  /**
+   * Fetches the given page.
+   * 
+   * @param perPage Number of elements per page. Min. 5, max. 100.
+   * @param page Page number (1 to N).
+   * @return The {@link PaginationList} of the page
+   * @throws XrelException If there is an error returned by the xREL API
+   */
+  PaginationList<T> fetch(int perPage, int page) throws XrelException;
+
+}
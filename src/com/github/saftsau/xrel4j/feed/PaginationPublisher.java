@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+import com.github.saftsau.xrel4j.Pagination;
+import com.github.saftsau.xrel4j.PaginationList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Publisher} walking through a paginated xREL API listing page by page. The next page is
+ * only fetched once all elements of the previous page were delivered and the {@link Subscriber}
+ * still has outstanding demand, so a slow {@link Subscriber} never costs additional requests.
+ * Completes after the last page or the first empty page.
+ *
+ * @param <T> The type of the published elements
+ */
+public class PaginationPublisher<T> implements Publisher<T> {
+
+  private final PageFetcher<T> pageFetcher;
+  private final int perPage;
+  private final int firstPage;
+  private final Executor executor;
+
+  /**
+   * Constructs a new PaginationPublisher.
+   * 
+   * @param pageFetcher The {@link PageFetcher} used to fetch every page
+   * @param perPage Number of elements per page. Min. 5, max. 100.
+   * @param firstPage The first page to fetch (1 to N)
+   * @param executor The {@link Executor} used to fetch pages and to deliver signals
+   */
+  public PaginationPublisher(PageFetcher<T> pageFetcher, int perPage, int firstPage,
+      Executor executor) {
+    this.pageFetcher = Objects.requireNonNull(pageFetcher, "pageFetcher missing");
+    this.perPage = perPage;
+    this.firstPage = Math.max(firstPage, 1);
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    new PaginationSubscription<T>(subscriber, executor, pageFetcher, perPage, firstPage).start();
+  }
+
+  /**
+   * {@link Subscription} fetching pages synchronously from within the drain loop.
+   *
+   * @param <T> The type of the published elements
+   */
+  private static final class PaginationSubscription<T> extends FeedSubscription<T> {
+
+    private final PageFetcher<T> pageFetcher;
+    private final int perPage;
+    private int nextPage;
+
+    /**
+     * Constructs a new PaginationSubscription.
+     * 
+     * @param subscriber The {@link Subscriber} to signal
+     * @param executor The {@link Executor} used to deliver signals
+     * @param pageFetcher The {@link PageFetcher} used to fetch every page
+     * @param perPage Number of elements per page
+     * @param firstPage The first page to fetch
+     */
+    PaginationSubscription(Subscriber<? super T> subscriber, Executor executor,
+        PageFetcher<T> pageFetcher, int perPage, int firstPage) {
+      super(subscriber, executor);
+      this.pageFetcher = pageFetcher;
+      this.perPage = perPage;
+      this.nextPage = firstPage;
+    }
+
+    @Override
+    boolean refill() {
+      PaginationList<T> paginationList;
+      try {
+        paginationList = pageFetcher.fetch(perPage, nextPage);
+      } catch (RuntimeException e) {
+        fail(e);
+        return true;
+      }
+      nextPage++;
+
+      List<T> list = paginationList == null ? null : paginationList.getList();
+      if (list == null || list.isEmpty()) {
+        complete();
+        return true;
+      }
+      for (T item : list) {
+        offer(item);
+      }
+      // Listings without an archive don't return a total number of pages, so we only rely on it if
+      // it is set
+      Pagination pagination = paginationList.getPagination();
+      if (pagination != null && pagination.getTotalPages() > 0
+          && pagination.getCurrentPage() >= pagination.getTotalPages()) {
+        complete();
+      }
+      return true;
+    }
+
+  }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link Publisher} polling the first page of an xREL API listing in a fixed interval and
+ * publishing every element that was not seen before, oldest first. The first poll only records the
+ * elements currently listed. Polls only happen while the {@link Subscriber} has outstanding demand,
+ * so a {@link Subscriber} that stops requesting stops consuming the rate limit as well.
+ *
+ * @param <T> The type of the published elements
+ */
+public class PollingPublisher<T> implements Publisher<T> {
+
+  private final PageFetcher<T> pageFetcher;
+  private final Function<? super T, String> idFunction;
+  private final int perPage;
+  private final long intervalMillis;
+  private final Executor executor;
+  // null if the executor is an XrelExecutor, which times the polls itself
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Constructs a new PollingPublisher.
+   * 
+   * @param pageFetcher The {@link PageFetcher} used to poll the first page
+   * @param idFunction Function returning the API ID of an element, used to detect new elements
+   * @param perPage Number of elements per page. Min. 5, max. 100. Should be larger than the number
+   *        of elements that are added between two polls.
+   * @param interval The interval between two polls
+   * @param unit The {@link TimeUnit} of the interval
+   * @param executor The {@link Executor} used to poll and to deliver signals
+   * @param scheduler The {@link ScheduledExecutorService} used to time the polls
+   */
+  public PollingPublisher(PageFetcher<T> pageFetcher, Function<? super T, String> idFunction,
+      int perPage, long interval, TimeUnit unit, Executor executor,
+      ScheduledExecutorService scheduler) {
+    this.pageFetcher = Objects.requireNonNull(pageFetcher, "pageFetcher missing");
+    this.idFunction = Objects.requireNonNull(idFunction, "idFunction missing");
+    this.perPage = perPage;
+    this.intervalMillis = Objects.requireNonNull(unit, "unit missing").toMillis(interval);
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler missing");
+  }
+
+  /**
+   * Constructs a new PollingPublisher.
+   * 
+   * @param pageFetcher The {@link PageFetcher} used to poll the first page
+   * @param idFunction Function returning the API ID of an element, used to detect new elements
+   * @param perPage Number of elements per page. Min. 5, max. 100. Should be larger than the number
+   *        of elements that are added between two polls.
+   * @param interval The interval between two polls
+   * @param unit The {@link TimeUnit} of the interval
+   * @param executor The {@link XrelExecutor} used to time the polls, to poll and to deliver signals
+   */
+  public PollingPublisher(PageFetcher<T> pageFetcher, Function<? super T, String> idFunction,
+      int perPage, long interval, TimeUnit unit, XrelExecutor executor) {
+    this.pageFetcher = Objects.requireNonNull(pageFetcher, "pageFetcher missing");
+    this.idFunction = Objects.requireNonNull(idFunction, "idFunction missing");
+    this.perPage = perPage;
+    this.intervalMillis = Objects.requireNonNull(unit, "unit missing").toMillis(interval);
+    this.executor = Objects.requireNonNull(executor, "executor missing");
+    this.scheduler = null;
+  }
+
+  /**
+   * Runs a task on the executor after the given delay.
+   * 
+   * @param task The task to run
+   * @param delayMillis The delay in milliseconds
+   * @return The {@link Future} of the scheduled task
+   */
+  private Future<?> schedule(Runnable task, long delayMillis) {
+    if (scheduler == null) {
+      return ((XrelExecutor) executor).schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+    return scheduler.schedule(() -> executor.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    new PollingSubscription<T>(subscriber, this).start();
+  }
+
+  /**
+   * {@link Subscription} scheduling a poll whenever its queue runs empty while there is demand.
+   *
+   * @param <T> The type of the published elements
+   */
+  private static final class PollingSubscription<T> extends FeedSubscription<T> {
+
+    private final PollingPublisher<T> parent;
+    // Only accessed by the currently running poll, polls never overlap
+    private final Set<String> seenIds = new LinkedHashSet<>();
+    private boolean primed;
+    private volatile boolean pollPending;
+    private volatile Future<?> scheduledPoll;
+    // Written by the poll, read by refill() on the thread of the subscriber's request
+    private volatile long lastPoll;
+
+    /**
+     * Constructs a new PollingSubscription.
+     * 
+     * @param subscriber The {@link Subscriber} to signal
+     * @param parent The {@link PollingPublisher} holding the configuration
+     */
+    PollingSubscription(Subscriber<? super T> subscriber, PollingPublisher<T> parent) {
+      super(subscriber, parent.executor);
+      this.parent = parent;
+    }
+
+    @Override
+    boolean refill() {
+      if (!pollPending) {
+        pollPending = true;
+        long delay = Math.max(0, lastPoll + parent.intervalMillis - System.currentTimeMillis());
+        scheduledPoll = parent.schedule(this::poll, delay);
+      }
+      return false;
+    }
+
+    /**
+     * Polls the first page once and queues all elements not seen before.
+     */
+    private void poll() {
+      if (isCancelled()) {
+        return;
+      }
+      lastPoll = System.currentTimeMillis();
+      PaginationList<T> paginationList;
+      try {
+        paginationList = parent.pageFetcher.fetch(parent.perPage, 1);
+      } catch (RuntimeException e) {
+        fail(e);
+        return;
+      }
+
+      List<T> fresh = new ArrayList<>();
+      if (paginationList != null && paginationList.getList() != null) {
+        for (T item : paginationList.getList()) {
+          if (seenIds.add(parent.idFunction.apply(item))) {
+            fresh.add(item);
+          }
+        }
+      }
+      // Keep the memory bounded, the oldest IDs can't show up on the first page anymore anyway
+      Iterator<String> iterator = seenIds.iterator();
+      for (int i = seenIds.size() - parent.perPage * 4; i > 0; i--) {
+        iterator.next();
+        iterator.remove();
+      }
+      if (primed) {
+        // The xREL API lists the newest elements first
+        Collections.reverse(fresh);
+        for (T item : fresh) {
+          offer(item);
+        }
+      }
+      primed = true;
+
+      pollPending = false;
+      if (hasDemand()) {
+        drain();
+      }
+    }
+
+    @Override
+    void onCancel() {
+      Future<?> future = scheduledPoll;
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+
+  }
+
+}
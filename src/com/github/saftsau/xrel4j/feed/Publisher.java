@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+/**
+ * A provider of a potentially unbounded number of elements, publishing them according to the
+ * demand received from its {@link Subscriber}s. This mirrors {@code java.util.concurrent.Flow} and
+ * {@code org.reactivestreams} method by method, so it can be bridged to either with a method
+ * reference while xREL4J itself still runs on Java 8.
+ *
+ * @param <T> The type of the published elements
+ */
+@FunctionalInterface
+public interface Publisher<T> {
+
+  /**
+   * Adds the given {@link Subscriber}. Every call starts a new, independent {@link Subscription}.
+   * 
+   * @param subscriber The {@link Subscriber} to add
+   */
+  void subscribe(Subscriber<? super T> subscriber);
+
+}
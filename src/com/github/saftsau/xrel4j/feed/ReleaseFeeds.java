@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory for {@link Publisher}s of the release listings of the xREL API. All {@link Publisher}s
+ * created here fetch and signal on {@link XrelExecutor#getDefault()}. If you need more control,
+ * construct a {@link PaginationPublisher} or {@link PollingPublisher} yourself.
+ */
+public final class ReleaseFeeds {
+
+  private ReleaseFeeds() {}
+
+  /**
+   * Publishes the latest releases page by page, see {@link Xrel#getReleaseLatest(int, int)}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param perPage Number of releases per page. Min. 5, max. 100.
+   * @return The {@link Publisher} of {@link Release}
+   */
+  public static Publisher<Release> latestReleases(Xrel xrel, int perPage) {
+    Objects.requireNonNull(xrel, "xrel missing");
+
+    return new PaginationPublisher<>(xrel::getReleaseLatest, perPage, 1,
+        XrelExecutor.getDefault());
+  }
+
+  /**
+   * Publishes the releases of an archive month page by page, see
+   * {@link Xrel#getReleaseLatest(String, int, int)}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param archive YYYY-MM for archive.
+   * @param perPage Number of releases per page. Min. 5, max. 100.
+   * @return The {@link Publisher} of {@link Release}
+   */
+  public static Publisher<Release> archiveReleases(Xrel xrel, String archive, int perPage) {
+    Objects.requireNonNull(xrel, "xrel missing");
+    Objects.requireNonNull(archive, "archive missing");
+
+    return new PaginationPublisher<>(
+        (pagePerPage, page) -> xrel.getReleaseLatest(archive, pagePerPage, page), perPage, 1,
+        XrelExecutor.getDefault());
+  }
+
+  /**
+   * Publishes the latest P2P releases page by page, see {@link Xrel#getP2pReleases(int, int)}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param perPage Number of releases per page. Min. 5, max. 100.
+   * @return The {@link Publisher} of {@link P2pRelease}
+   */
+  public static Publisher<P2pRelease> p2pReleases(Xrel xrel, int perPage) {
+    Objects.requireNonNull(xrel, "xrel missing");
+
+    return new PaginationPublisher<>(xrel::getP2pReleases, perPage, 1, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Publishes new releases as they show up in {@link Xrel#getReleaseLatest(int, int)}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param perPage Number of releases per poll. Min. 5, max. 100.
+   * @param interval The interval between two polls
+   * @param unit The {@link TimeUnit} of the interval
+   * @return The {@link Publisher} of {@link Release}
+   */
+  public static Publisher<Release> pollLatestReleases(Xrel xrel, int perPage, long interval,
+      TimeUnit unit) {
+    Objects.requireNonNull(xrel, "xrel missing");
+
+    return new PollingPublisher<>(xrel::getReleaseLatest, ReleaseBase::getId, perPage, interval,
+        unit, XrelExecutor.getDefault());
+  }
+
+  /**
+   * Publishes new P2P releases as they show up in {@link Xrel#getP2pReleases(int, int)}.
+   * 
+   * @param xrel The {@link Xrel} object used for all requests
+   * @param perPage Number of releases per poll. Min. 5, max. 100.
+   * @param interval The interval between two polls
+   * @param unit The {@link TimeUnit} of the interval
+   * @return The {@link Publisher} of {@link P2pRelease}
+   */
+  public static Publisher<P2pRelease> pollP2pReleases(Xrel xrel, int perPage, long interval,
+      TimeUnit unit) {
+    Objects.requireNonNull(xrel, "xrel missing");
+
+    return new PollingPublisher<>(xrel::getP2pReleases, ReleaseBase::getId, perPage, interval,
+        unit, XrelExecutor.getDefault());
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+/**
+ * Receiver of elements published by a {@link Publisher}. Signals are always delivered serially.
+ *
+ * @param <T> The type of the received elements
+ */
+public interface Subscriber<T> {
+
+  /**
+   * Called once before any other signal. No elements are published until
+   * {@link Subscription#request(long)} is called.
+   * 
+   * @param subscription The {@link Subscription} of this {@link Subscriber}
+   */
+  void onSubscribe(Subscription subscription);
+
+  /**
+   * Called for every requested element.
+   * 
+   * @param item The element
+   */
+  void onNext(T item);
+
+  /**
+   * Called once if the {@link Publisher} failed. No further signals follow.
+   * 
+   * @param throwable The cause of the failure, usually a
+   *        {@link com.github.saftsau.xrel4j.XrelException}
+   */
+  void onError(Throwable throwable);
+
+  /**
+   * Called once if the {@link Publisher} has no more elements. No further signals follow.
+   */
+  void onComplete();
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.feed;
+
+/**
+ * Link between a {@link Publisher} and a {@link Subscriber} used to signal demand and to cancel.
+ */
+public interface Subscription {
+
+  /**
+   * Requests up to n more elements. Pages are only fetched from the xREL API if there is
+   * outstanding demand.
+   * 
+   * @param n The number of elements to request, must be greater than zero
+   */
+  void request(long n);
+
+  /**
+   * Cancels this {@link Subscription}. Already running requests finish, but their results are
+   * discarded.
+   */
+  void cancel();
+
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.release;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.saftsau.xrel4j.extinfo.ImmutableExtInfo;
+import com.github.saftsau.xrel4j.release.p2p.ImmutableP2pRelease;
+import com.github.saftsau.xrel4j.release.scene.ImmutableRelease;
+import java.time.Instant;
+
+/**
+ * Immutable variant of {@link ReleaseBase}, used as the parent class of {@link ImmutableRelease}
+ * and {@link ImmutableP2pRelease}.
+ */
+public abstract class ImmutableReleaseBase {
+
+  private final String id;
+  private final String dirname;
+  @JsonProperty("link_href")
+  private final String linkHref;
+  @JsonProperty("num_ratings")
+  private final int numRatings;
+  @JsonProperty("video_rating")
+  private final double videoRating;
+  @JsonProperty("audio_rating")
+  private final double audioRating;
+  @JsonProperty("ext_info")
+  private final ImmutableExtInfo extInfo;
+  @JsonProperty("tv_season")
+  private final int tvSeason;
+  @JsonProperty("tv_episode")
+  private final int tvEpisode;
+  private final int comments;
+  @JsonIgnore
+  private int hash;
+
+  /**
+   * Constructs a new ImmutableReleaseBase with the values of a builder.
+   * 
+   * @param builder The builder
+   */
+  protected ImmutableReleaseBase(Builder<?, ?> builder) {
+    this.id = builder.id;
+    this.dirname = builder.dirname;
+    this.linkHref = builder.linkHref;
+    this.numRatings = builder.numRatings;
+    this.videoRating = builder.videoRating;
+    this.audioRating = builder.audioRating;
+    this.extInfo = builder.extInfo;
+    this.tvSeason = builder.tvSeason;
+    this.tvEpisode = builder.tvEpisode;
+    this.comments = builder.comments;
+  }
+
+  /**
+   * Gets the API ID of this Release.
+   * 
+   * @return The ID
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the dirname of this Release.
+   * 
+   * @return The dirname
+   */
+  public String getDirname() {
+    return dirname;
+  }
+
+  /**
+   * Gets the link of this Release.
+   * 
+   * @return The link
+   */
+  public String getLinkHref() {
+    return linkHref;
+  }
+
+  /**
+   * Gets the number of ratings of this Release. {@code -1} if not retrieved.
+   * 
+   * @return The number of ratings
+   */
+  public int getNumRatings() {
+    return numRatings;
+  }
+
+  /**
+   * Gets the video rating of this release. {@code -1} if not retrieved, {@code 0} if not rated.
+   * 
+   * @return The video rating
+   */
+  public double getVideoRating() {
+    return videoRating;
+  }
+
+  /**
+   * Gets the audio rating of this release. {@code -1} if not retrieved, {@code 0} if not rated.
+   * 
+   * @return The audio rating
+   */
+  public double getAudioRating() {
+    return audioRating;
+  }
+
+  /**
+   * Gets the {@link ImmutableExtInfo} of this Release. Can be {@code null}.
+   * 
+   * @return The {@link ImmutableExtInfo}
+   */
+  public ImmutableExtInfo getExtInfo() {
+    return extInfo;
+  }
+
+  /**
+   * Gets the season number of this release. {@code -1} if not retrieved or it has no season.
+   * 
+   * @return The season number
+   */
+  public int getTvSeason() {
+    return tvSeason;
+  }
+
+  /**
+   * Gets the episode number of this release. {@code -1} if not retrieved or it has no episode.
+   * 
+   * @return The episode number
+   */
+  public int getTvEpisode() {
+    return tvEpisode;
+  }
+
+  /**
+   * Gets the number of comments this release has. {@code -1} if not retrieved.
+   * 
+   * @return The number of comments
+   */
+  public int getComments() {
+    return comments;
+  }
+
+  /**
+   * Gets the time of this release as UNIX timestamp, which is the pre time of a scene release and
+   * the publication time of a P2P release. Unlike the {@link Instant} accessors this never creates
+   * an object, so it can be used to filter large lists of releases by time. {@code -1} if not
+   * available.
+   * 
+   * @return The timestamp
+   * @see ReleaseBase#getEpochSecond()
+   */
+  @JsonIgnore
+  public abstract long getEpochSecond();
+
+  /**
+   * Gets the time of this release as {@link Instant}, which is the pre time of a scene release and
+   * the publication time of a P2P release. Created on first use. {@code null} if not available.
+   * 
+   * @return The time
+   * @see ReleaseBase#getInstant()
+   */
+  @JsonIgnore
+  public abstract Instant getInstant();
+
+  /**
+   * Gets the size of this release in bytes. {@code -1} if not available.
+   * 
+   * @return The size in bytes
+   * @see ReleaseBase#getSizeBytes()
+   */
+  @JsonIgnore
+  public abstract long getSizeBytes();
+
+  /**
+   * Creates a builder initialized with all values of this Release. Unchanged values are shared
+   * with this Release.
+   * 
+   * @return The builder
+   */
+  public abstract Builder<?, ?> toBuilder();
+
+  /**
+   * Copies the values of this Release to a mutable {@link ReleaseBase}.
+   * 
+   * @param release The {@link ReleaseBase} to copy the values to
+   */
+  protected void copyTo(ReleaseBase release) {
+    release.setId(id);
+    release.setDirname(dirname);
+    release.setLinkHref(linkHref);
+    release.setNumRatings(numRatings);
+    release.setVideoRating(videoRating);
+    release.setAudioRating(audioRating);
+    release.setExtInfo(extInfo == null ? null : extInfo.toExtInfo());
+    release.setTvSeason(tvSeason);
+    release.setTvEpisode(tvEpisode);
+    release.setComments(comments);
+  }
+
+  /**
+   * Compares this release with another object. Both are equal if they are of the same class and
+   * have the same API ID, all other values are ignored. Releases without an ID are only equal to
+   * themselves.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id != null && id.equals(((ImmutableReleaseBase) obj).id);
+  }
+
+  /**
+   * Returns the cached hash code of the API ID.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && id != null) {
+      h = id.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  /**
+   * Builder of the values shared by all immutable releases.
+   * 
+   * @param <T> The type of the built release
+   * @param <B> The type of the builder itself
+   */
+  public abstract static class Builder<T extends ImmutableReleaseBase, B extends Builder<T, B>> {
+
+    private String id;
+    private String dirname;
+    private String linkHref;
+    private int numRatings;
+    private double videoRating;
+    private double audioRating;
+    private ImmutableExtInfo extInfo;
+    private int tvSeason;
+    private int tvEpisode;
+    private int comments;
+
+    /**
+     * Constructs a new empty Builder.
+     */
+    protected Builder() {}
+
+    /**
+     * Constructs a new Builder initialized with all values of an immutable release.
+     * 
+     * @param release The release to copy
+     */
+    protected Builder(ImmutableReleaseBase release) {
+      this.id = release.id;
+      this.dirname = release.dirname;
+      this.linkHref = release.linkHref;
+      this.numRatings = release.numRatings;
+      this.videoRating = release.videoRating;
+      this.audioRating = release.audioRating;
+      this.extInfo = release.extInfo;
+      this.tvSeason = release.tvSeason;
+      this.tvEpisode = release.tvEpisode;
+      this.comments = release.comments;
+    }
+
+    /**
+     * Constructs a new Builder initialized with all values of a mutable release.
+     * 
+     * @param release The release to copy
+     */
+    protected Builder(ReleaseBase release) {
+      this.id = release.getId();
+      this.dirname = release.getDirname();
+      this.linkHref = release.getLinkHref();
+      this.numRatings = release.getNumRatings();
+      this.videoRating = release.getVideoRating();
+      this.audioRating = release.getAudioRating();
+      this.extInfo =
+          release.getExtInfo() == null ? null : ImmutableExtInfo.of(release.getExtInfo());
+      this.tvSeason = release.getTvSeason();
+      this.tvEpisode = release.getTvEpisode();
+      this.comments = release.getComments();
+    }
+
+    /**
+     * Sets the API ID.
+     * 
+     * @param id The ID to set
+     * @return This builder
+     */
+    public B id(String id) {
+      this.id = id;
+      return self();
+    }
+
+    /**
+     * Sets the dirname.
+     * 
+     * @param dirname The dirname to set
+     * @return This builder
+     */
+    public B dirname(String dirname) {
+      this.dirname = dirname;
+      return self();
+    }
+
+    /**
+     * Sets the link.
+     * 
+     * @param linkHref The link to set
+     * @return This builder
+     */
+    @JsonProperty("link_href")
+    public B linkHref(String linkHref) {
+      this.linkHref = linkHref;
+      return self();
+    }
+
+    /**
+     * Sets the number of ratings.
+     * 
+     * @param numRatings The number of ratings to set
+     * @return This builder
+     */
+    @JsonProperty("num_ratings")
+    public B numRatings(int numRatings) {
+      this.numRatings = numRatings;
+      return self();
+    }
+
+    /**
+     * Sets the video rating.
+     * 
+     * @param videoRating The video rating to set
+     * @return This builder
+     */
+    @JsonProperty("video_rating")
+    public B videoRating(double videoRating) {
+      this.videoRating = videoRating;
+      return self();
+    }
+
+    /**
+     * Sets the audio rating.
+     * 
+     * @param audioRating The audio rating to set
+     * @return This builder
+     */
+    @JsonProperty("audio_rating")
+    public B audioRating(double audioRating) {
+      this.audioRating = audioRating;
+      return self();
+    }
+
+    /**
+     * Sets the {@link ImmutableExtInfo}.
+     * 
+     * @param extInfo The {@link ImmutableExtInfo} to set
+     * @return This builder
+     */
+    @JsonProperty("ext_info")
+    public B extInfo(ImmutableExtInfo extInfo) {
+      this.extInfo = extInfo;
+      return self();
+    }
+
+    /**
+     * Sets the season number.
+     * 
+     * @param tvSeason The season number to set
+     * @return This builder
+     */
+    @JsonProperty("tv_season")
+    public B tvSeason(int tvSeason) {
+      this.tvSeason = tvSeason;
+      return self();
+    }
+
+    /**
+     * Sets the episode number.
+     * 
+     * @param tvEpisode The episode number to set
+     * @return This builder
+     */
+    @JsonProperty("tv_episode")
+    public B tvEpisode(int tvEpisode) {
+      this.tvEpisode = tvEpisode;
+      return self();
+    }
+
+    /**
+     * Sets the number of comments.
+     * 
+     * @param comments The number of comments to set
+     * @return This builder
+     */
+    public B comments(int comments) {
+      this.comments = comments;
+      return self();
+    }
+
+    /**
+     * Returns this builder as its own type.
+     * 
+     * @return This builder
+     */
+    protected abstract B self();
+
+    /**
+     * Creates a new immutable release with the values of this builder.
+     * 
+     * @return The immutable release
+     */
+    public abstract T build();
+
+  }
+
+}
@@ -17,10 +17,12 @@
 
 package com.github.saftsau.xrel4j.release;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.saftsau.xrel4j.extinfo.ExtInfo;
 import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
 import com.github.saftsau.xrel4j.release.scene.Release;
+import java.time.Instant;
 
 /**
  * Class represents a base release which contains information shared by {@link Release} and
@@ -45,6 +47,8 @@ public abstract class ReleaseBase {
   @JsonProperty("tv_episode")
   private int tvEpisode;
   private int comments;
+  @JsonIgnore
+  private int hash;
 
   /**
    * Gets the API ID of this Release.
@@ -62,6 +66,7 @@ public abstract class ReleaseBase {
    */
   public void setId(String id) {
     this.id = id;
+    this.hash = 0;
   }
 
   /**
@@ -226,6 +231,77 @@ public abstract class ReleaseBase {
     this.comments = comments;
   }
 
+  /**
+   * Gets the time of this release as UNIX timestamp, which is the pre time of a scene release and
+   * the publication time of a P2P release. Unlike the {@link Instant} accessors this never creates
+   * an object, so it can be used to filter large lists of releases by time. {@code -1} if not
+   * available, i.e. the time is negative as the xREL API uses {@code -1} for missing times, for
+   * scene and P2P releases alike. Always {@code -1} for subclasses not overriding this method.
+   * 
+   * @return The timestamp
+   */
+  @JsonIgnore
+  public long getEpochSecond() {
+    return -1;
+  }
+
+  /**
+   * Gets the time of this release as {@link Instant}, which is the pre time of a scene release and
+   * the publication time of a P2P release. Created on first use by {@link Release} and
+   * {@link P2pRelease}, other subclasses create it from {@link #getEpochSecond()} on every call
+   * unless they override this method. {@code null} if not available, exactly when
+   * {@link #getEpochSecond()} returns {@code -1}; a placeholder like {@link Instant#EPOCH} is never
+   * returned.
+   * 
+   * @return The time
+   */
+  @JsonIgnore
+  public Instant getInstant() {
+    long epochSecond = getEpochSecond();
+    return epochSecond < 0 ? null : Instant.ofEpochSecond(epochSecond);
+  }
+
+  /**
+   * Gets the size of this release in bytes, normalized from the size values of the xREL API when
+   * they are set, so sorting and filtering by size are simple {@code long} comparisons. {@code -1}
+   * if not available, which is always the case for subclasses not overriding this method.
+   * 
+   * @return The size in bytes
+   */
+  @JsonIgnore
+  public long getSizeBytes() {
+    return -1;
+  }
+
+  /**
+   * Compares this release with another object. Both are equal if they are of the same class and
+   * have the same API ID, all other values are ignored. Releases without an ID are only equal to
+   * themselves.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return id != null && id.equals(((ReleaseBase) obj).id);
+  }
+
+  /**
+   * Returns the hash code of the API ID, cached until the ID is changed.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && id != null) {
+      h = id.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
   @Override
   public String toString() {
     return "ReleaseBase [getId()=" + getId() + ", getDirname()=" + getDirname() + ", getLinkHref()="
@@ -17,7 +17,9 @@
 
 package com.github.saftsau.xrel4j.release;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.Locale;
 
 /**
  * Class represents a size as used in {@link Release} objects.
@@ -26,6 +28,9 @@ public class Size {
 
   private int number;
   private String unit;
+  // Computed by the setters, so reading it never parses the unit
+  @JsonIgnore
+  private long bytes = -1;
 
   /**
    * Gets the number of the size. {@code -1} if not retrieved.
@@ -43,6 +48,7 @@ public class Size {
    */
   public void setNumber(int number) {
     this.number = number;
+    this.bytes = toBytes(number, unit);
   }
 
   /**
@@ -61,6 +67,52 @@ public class Size {
    */
   public void setUnit(String unit) {
     this.unit = unit;
+    this.bytes = toBytes(number, unit);
+  }
+
+  /**
+   * Gets the size in bytes, computed once when the number or unit is set. Units are treated as
+   * binary units, e.g. {@code 1 KB} are {@code 1024} bytes. {@code -1} if not retrieved or the
+   * unit is unknown.
+   * 
+   * @return The size in bytes
+   */
+  @JsonIgnore
+  public long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Converts a number and unit as returned by the xREL API to bytes. Units are matched ignoring
+   * case, so {@code kB}, {@code KB} and {@code KiB} are all {@code 1024} bytes.
+   * 
+   * @param number The size number
+   * @param unit The size's unit
+   * @return The size in bytes, {@code -1} if the number is negative or the unit is missing or
+   *         unknown
+   */
+  public static long toBytes(long number, String unit) {
+    if (number < 0 || unit == null) {
+      return -1;
+    }
+    switch (unit.trim().toUpperCase(Locale.ROOT)) {
+      case "B":
+        return number;
+      case "KB":
+      case "KIB":
+        return number << 10;
+      case "MB":
+      case "MIB":
+        return number << 20;
+      case "GB":
+      case "GIB":
+        return number << 30;
+      case "TB":
+      case "TIB":
+        return number << 40;
+      default:
+        return -1;
+    }
   }
 
   @Override
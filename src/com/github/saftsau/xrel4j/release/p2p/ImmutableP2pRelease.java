@@ -0,0 +1,598 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.release.p2p;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.github.saftsau.xrel4j.extinfo.ImmutableExtInfo;
+import com.github.saftsau.xrel4j.release.ImmutableReleaseBase;
+import java.time.Instant;
+
+/**
+ * Immutable variant of {@link P2pRelease}. Instances can be shared by any number of threads and
+ * kept in caches without defensive copies. Create them with {@link #builder()},
+ * {@link #of(P2pRelease)} or directly with Jackson from the JSON of the xREL API. The with-ers
+ * return modified copies that share all unchanged values with the original. The
+ * {@link P2pCategory} and {@link P2pGroup} are copied once when they are set and returned directly,
+ * their setters throw an {@link UnsupportedOperationException}.
+ */
+@JsonDeserialize(builder = ImmutableP2pRelease.Builder.class)
+public final class ImmutableP2pRelease extends ImmutableReleaseBase {
+
+  private final P2pCategory category;
+  @JsonProperty("main_lang")
+  private final String mainLang;
+  @JsonProperty("pub_time")
+  private final long pubTime;
+  @JsonProperty("post_time")
+  private final long postTime;
+  @JsonProperty("size_mb")
+  private final long sizeMb;
+  private final P2pGroup group;
+  @JsonIgnore
+  private final long sizeBytes;
+  // Created by getPubTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant pubTimeInstant;
+  // Created by getPostTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant postTimeInstant;
+
+  private ImmutableP2pRelease(Builder builder) {
+    super(builder);
+    this.category = builder.category;
+    this.mainLang = builder.mainLang;
+    this.pubTime = builder.pubTime;
+    this.postTime = builder.postTime;
+    this.sizeMb = builder.sizeMb;
+    this.sizeBytes = builder.sizeBytes;
+    this.group = builder.group;
+  }
+
+  /**
+   * Creates a new empty builder.
+   * 
+   * @return The builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates an immutable copy of a {@link P2pRelease}, including its {@link ImmutableExtInfo}.
+   * 
+   * @param p2pRelease The {@link P2pRelease} to copy
+   * @return The immutable copy
+   */
+  public static ImmutableP2pRelease of(P2pRelease p2pRelease) {
+    return new Builder(p2pRelease).build();
+  }
+
+  /**
+   * Creates a mutable copy of this ImmutableP2pRelease, e.g. to call {@link P2pRelease} based
+   * methods.
+   * 
+   * @return The mutable copy
+   */
+  public P2pRelease toP2pRelease() {
+    P2pRelease p2pRelease = new P2pRelease();
+    copyTo(p2pRelease);
+    p2pRelease.setCategory(copy(category));
+    p2pRelease.setMainLang(mainLang);
+    p2pRelease.setPubTime(pubTime);
+    p2pRelease.setPostTime(postTime);
+    if (sizeBytes >= 0) {
+      // Otherwise the size is unknown, which setSizeMb(long) would turn into 0 bytes
+      p2pRelease.setSizeMb(sizeMb);
+    }
+    p2pRelease.setGroup(copy(group));
+    return p2pRelease;
+  }
+
+  @Override
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Gets the category of this P2pRelease, which can't be modified. Can be {@code null}.
+   * 
+   * @return The category
+   */
+  public P2pCategory getCategory() {
+    return category;
+  }
+
+  /**
+   * Gets the main language of this P2pRelease. Can be an empty {@link String}.
+   * 
+   * @return The main language
+   */
+  public String getMainLang() {
+    return mainLang;
+  }
+
+  /**
+   * Gets the publication time of this P2pRelease. {@code -1} if not available.
+   * 
+   * @return The publication time
+   */
+  public long getPubTime() {
+    return pubTime;
+  }
+
+  /**
+   * Gets the publication time of this P2pRelease as {@link Instant}. It is created on first use and
+   * kept until the publication time is changed. Use {@link #getPubTime()} for the primitive UNIX
+   * timestamp. {@code null} if not available.
+   * 
+   * @return The publication time
+   */
+  @JsonIgnore
+  public Instant getPubTimeInstant() {
+    Instant instant = pubTimeInstant;
+    if (instant == null && pubTime >= 0) {
+      instant = Instant.ofEpochSecond(pubTime);
+      pubTimeInstant = instant;
+    }
+    return instant;
+  }
+
+  /**
+   * Gets the post time of this P2pRelease. {@code -1} if not available.
+   * 
+   * @return The post time
+   */
+  public long getPostTime() {
+    return postTime;
+  }
+
+  /**
+   * Gets the post time of this P2pRelease as {@link Instant}. It is created on first use. Use
+   * {@link #getPostTime()} for the primitive UNIX timestamp. {@code null} if not available.
+   * 
+   * @return The post time
+   */
+  @JsonIgnore
+  public Instant getPostTimeInstant() {
+    Instant instant = postTimeInstant;
+    if (instant == null && postTime >= 0) {
+      instant = Instant.ofEpochSecond(postTime);
+      postTimeInstant = instant;
+    }
+    return instant;
+  }
+
+  /**
+   * Gets the size of this P2pRelease in MB. {@code -1} if not available.
+   * 
+   * @return The size in MB
+   */
+  public long getSizeMb() {
+    return sizeMb;
+  }
+
+  @Override
+  public long getEpochSecond() {
+    return pubTime < 0 ? -1 : pubTime;
+  }
+
+  @Override
+  public Instant getInstant() {
+    return getPubTimeInstant();
+  }
+
+  /**
+   * Gets the size of this P2pRelease in bytes. {@code -1} if not available.
+   * 
+   * @return The size in bytes
+   */
+  @Override
+  @JsonIgnore
+  public long getSizeBytes() {
+    return sizeBytes;
+  }
+
+  /**
+   * Gets the group of this P2pRelease, which can't be modified. Can be {@code null}.
+   * 
+   * @return The group
+   */
+  public P2pGroup getGroup() {
+    return group;
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given API ID.
+   * 
+   * @param id The API ID
+   * @return The copy
+   */
+  public ImmutableP2pRelease withId(String id) {
+    return toBuilder().id(id).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given dirname.
+   * 
+   * @param dirname The dirname
+   * @return The copy
+   */
+  public ImmutableP2pRelease withDirname(String dirname) {
+    return toBuilder().dirname(dirname).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given link.
+   * 
+   * @param linkHref The link
+   * @return The copy
+   */
+  public ImmutableP2pRelease withLinkHref(String linkHref) {
+    return toBuilder().linkHref(linkHref).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given number of ratings.
+   * 
+   * @param numRatings The number of ratings
+   * @return The copy
+   */
+  public ImmutableP2pRelease withNumRatings(int numRatings) {
+    return toBuilder().numRatings(numRatings).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given video rating.
+   * 
+   * @param videoRating The video rating
+   * @return The copy
+   */
+  public ImmutableP2pRelease withVideoRating(double videoRating) {
+    return toBuilder().videoRating(videoRating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given audio rating.
+   * 
+   * @param audioRating The audio rating
+   * @return The copy
+   */
+  public ImmutableP2pRelease withAudioRating(double audioRating) {
+    return toBuilder().audioRating(audioRating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given {@link ImmutableExtInfo}.
+   * 
+   * @param extInfo The {@link ImmutableExtInfo}
+   * @return The copy
+   */
+  public ImmutableP2pRelease withExtInfo(ImmutableExtInfo extInfo) {
+    return toBuilder().extInfo(extInfo).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given season number.
+   * 
+   * @param tvSeason The season number
+   * @return The copy
+   */
+  public ImmutableP2pRelease withTvSeason(int tvSeason) {
+    return toBuilder().tvSeason(tvSeason).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given episode number.
+   * 
+   * @param tvEpisode The episode number
+   * @return The copy
+   */
+  public ImmutableP2pRelease withTvEpisode(int tvEpisode) {
+    return toBuilder().tvEpisode(tvEpisode).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given number of comments.
+   * 
+   * @param comments The number of comments
+   * @return The copy
+   */
+  public ImmutableP2pRelease withComments(int comments) {
+    return toBuilder().comments(comments).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given category.
+   * 
+   * @param category The category
+   * @return The copy
+   */
+  public ImmutableP2pRelease withCategory(P2pCategory category) {
+    return toBuilder().category(category).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given main language.
+   * 
+   * @param mainLang The main language
+   * @return The copy
+   */
+  public ImmutableP2pRelease withMainLang(String mainLang) {
+    return toBuilder().mainLang(mainLang).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given publication time.
+   * 
+   * @param pubTime The publication time
+   * @return The copy
+   */
+  public ImmutableP2pRelease withPubTime(long pubTime) {
+    return toBuilder().pubTime(pubTime).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given post time.
+   * 
+   * @param postTime The post time
+   * @return The copy
+   */
+  public ImmutableP2pRelease withPostTime(long postTime) {
+    return toBuilder().postTime(postTime).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given size in MB.
+   * 
+   * @param sizeMb The size in MB
+   * @return The copy
+   */
+  public ImmutableP2pRelease withSizeMb(long sizeMb) {
+    return toBuilder().sizeMb(sizeMb).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableP2pRelease with the given group.
+   * 
+   * @param group The group
+   * @return The copy
+   */
+  public ImmutableP2pRelease withGroup(P2pGroup group) {
+    return toBuilder().group(group).build();
+  }
+
+  private static P2pCategory copy(P2pCategory category) {
+    if (category == null) {
+      return null;
+    }
+    P2pCategory copy = new P2pCategory();
+    copy.setMetaCat(category.getMetaCat());
+    copy.setSubCat(category.getSubCat());
+    copy.setId(category.getId());
+    return copy;
+  }
+
+  private static P2pGroup copy(P2pGroup group) {
+    if (group == null) {
+      return null;
+    }
+    P2pGroup copy = new P2pGroup();
+    copy.setId(group.getId());
+    copy.setName(group.getName());
+    return copy;
+  }
+
+  private static P2pCategory unmodifiable(P2pCategory category) {
+    return category == null || category instanceof UnmodifiableP2pCategory ? category
+        : new UnmodifiableP2pCategory(category);
+  }
+
+  private static P2pGroup unmodifiable(P2pGroup group) {
+    return group == null || group instanceof UnmodifiableP2pGroup ? group
+        : new UnmodifiableP2pGroup(group);
+  }
+
+  @Override
+  public String toString() {
+    return "ImmutableP2pRelease [getCategory()=" + getCategory() + ", getMainLang()="
+        + getMainLang() + ", getPubTime()=" + getPubTime() + ", getPostTime()=" + getPostTime()
+        + ", getSizeMb()=" + getSizeMb() + ", getGroup()=" + getGroup() + ", getId()=" + getId()
+        + ", getDirname()=" + getDirname() + ", getLinkHref()=" + getLinkHref()
+        + ", getNumRatings()=" + getNumRatings() + ", getVideoRating()=" + getVideoRating()
+        + ", getAudioRating()=" + getAudioRating() + ", getExtInfo()=" + getExtInfo()
+        + ", getTvSeason()=" + getTvSeason() + ", getTvEpisode()=" + getTvEpisode()
+        + ", getComments()=" + getComments() + "]";
+  }
+
+  /**
+   * Builder of {@link ImmutableP2pRelease}. Also used by Jackson to read the JSON of the xREL API.
+   */
+  @JsonPOJOBuilder(withPrefix = "")
+  public static final class Builder
+      extends ImmutableReleaseBase.Builder<ImmutableP2pRelease, Builder> {
+
+    private P2pCategory category;
+    private String mainLang;
+    private long pubTime;
+    private long postTime;
+    private long sizeMb;
+    // -1 until a size is set, like P2pRelease
+    private long sizeBytes = -1;
+    private P2pGroup group;
+
+    private Builder() {}
+
+    private Builder(ImmutableP2pRelease p2pRelease) {
+      super(p2pRelease);
+      this.category = p2pRelease.category;
+      this.mainLang = p2pRelease.mainLang;
+      this.pubTime = p2pRelease.pubTime;
+      this.postTime = p2pRelease.postTime;
+      this.sizeMb = p2pRelease.sizeMb;
+      this.sizeBytes = p2pRelease.sizeBytes;
+      this.group = p2pRelease.group;
+    }
+
+    private Builder(P2pRelease p2pRelease) {
+      super(p2pRelease);
+      category(p2pRelease.getCategory());
+      mainLang(p2pRelease.getMainLang());
+      pubTime(p2pRelease.getPubTime());
+      postTime(p2pRelease.getPostTime());
+      sizeMb(p2pRelease.getSizeMb());
+      this.sizeBytes = p2pRelease.getSizeBytes();
+      group(p2pRelease.getGroup());
+    }
+
+    /**
+     * Sets the category. The category is copied unless already unmodifiable.
+     * 
+     * @param category The category to set
+     * @return This builder
+     */
+    public Builder category(P2pCategory category) {
+      this.category = unmodifiable(category);
+      return this;
+    }
+
+    /**
+     * Sets the main language.
+     * 
+     * @param mainLang The main language to set
+     * @return This builder
+     */
+    @JsonProperty("main_lang")
+    public Builder mainLang(String mainLang) {
+      this.mainLang = mainLang;
+      return this;
+    }
+
+    /**
+     * Sets the publication time.
+     * 
+     * @param pubTime The publication time to set
+     * @return This builder
+     */
+    @JsonProperty("pub_time")
+    public Builder pubTime(long pubTime) {
+      this.pubTime = pubTime;
+      return this;
+    }
+
+    /**
+     * Sets the post time.
+     * 
+     * @param postTime The post time to set
+     * @return This builder
+     */
+    @JsonProperty("post_time")
+    public Builder postTime(long postTime) {
+      this.postTime = postTime;
+      return this;
+    }
+
+    /**
+     * Sets the size in MB.
+     * 
+     * @param sizeMb The size in MB to set
+     * @return This builder
+     */
+    @JsonProperty("size_mb")
+    public Builder sizeMb(long sizeMb) {
+      this.sizeMb = sizeMb;
+      this.sizeBytes = sizeMb < 0 ? -1 : sizeMb << 20;
+      return this;
+    }
+
+    /**
+     * Sets the group. The group is copied unless already unmodifiable.
+     * 
+     * @param group The group to set
+     * @return This builder
+     */
+    public Builder group(P2pGroup group) {
+      this.group = unmodifiable(group);
+      return this;
+    }
+
+    @Override
+    protected Builder self() {
+      return this;
+    }
+
+    @Override
+    public ImmutableP2pRelease build() {
+      return new ImmutableP2pRelease(this);
+    }
+
+  }
+
+  /**
+   * {@link P2pCategory} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableP2pCategory extends P2pCategory {
+
+    private UnmodifiableP2pCategory(P2pCategory category) {
+      super.setMetaCat(category.getMetaCat());
+      super.setSubCat(category.getSubCat());
+      super.setId(category.getId());
+    }
+
+    @Override
+    public void setMetaCat(String metaCat) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSubCat(String subCat) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setId(String id) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * {@link P2pGroup} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableP2pGroup extends P2pGroup {
+
+    private UnmodifiableP2pGroup(P2pGroup group) {
+      super.setId(group.getId());
+      super.setName(group.getName());
+    }
+
+    @Override
+    public void setId(String id) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setName(String name) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
@@ -17,8 +17,10 @@
 
 package com.github.saftsau.xrel4j.release.p2p;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.saftsau.xrel4j.release.ReleaseBase;
+import java.time.Instant;
 
 /**
  * Class represents a P2P release with all its information provided by the xREL API.
@@ -35,6 +37,15 @@ public class P2pRelease extends ReleaseBase {
   @JsonProperty("size_mb")
   private long sizeMb;
   private P2pGroup group;
+  // Computed by setSizeMb(long), not part of the JSON, -1 until a size is set
+  @JsonIgnore
+  private long sizeBytes = -1;
+  // Created by getPubTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant pubTimeInstant;
+  // Created by getPostTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant postTimeInstant;
 
   /**
    * Gets the category of this P2pRelease. Can be {@code null}.
@@ -88,6 +99,24 @@ public class P2pRelease extends ReleaseBase {
    */
   public void setPubTime(long pubTime) {
     this.pubTime = pubTime;
+    this.pubTimeInstant = null;
+  }
+
+  /**
+   * Gets the publication time of this P2pRelease as {@link Instant}. It is created on first use and
+   * kept until the publication time is changed. Use {@link #getPubTime()} for the primitive UNIX
+   * timestamp. {@code null} if not available.
+   * 
+   * @return The publication time
+   */
+  @JsonIgnore
+  public Instant getPubTimeInstant() {
+    Instant instant = pubTimeInstant;
+    if (instant == null && pubTime >= 0) {
+      instant = Instant.ofEpochSecond(pubTime);
+      pubTimeInstant = instant;
+    }
+    return instant;
   }
 
   /**
@@ -106,6 +135,24 @@ public class P2pRelease extends ReleaseBase {
    */
   public void setPostTime(long postTime) {
     this.postTime = postTime;
+    this.postTimeInstant = null;
+  }
+
+  /**
+   * Gets the post time of this P2pRelease as {@link Instant}. It is created on first use and kept
+   * until the post time is changed. Use {@link #getPostTime()} for the primitive UNIX timestamp.
+   * {@code null} if not available.
+   * 
+   * @return The post time
+   */
+  @JsonIgnore
+  public Instant getPostTimeInstant() {
+    Instant instant = postTimeInstant;
+    if (instant == null && postTime >= 0) {
+      instant = Instant.ofEpochSecond(postTime);
+      postTimeInstant = instant;
+    }
+    return instant;
   }
 
   /**
@@ -124,6 +171,29 @@ public class P2pRelease extends ReleaseBase {
    */
   public void setSizeMb(long sizeMb) {
     this.sizeMb = sizeMb;
+    this.sizeBytes = sizeMb < 0 ? -1 : sizeMb << 20;
+  }
+
+  @Override
+  public long getEpochSecond() {
+    return pubTime < 0 ? -1 : pubTime;
+  }
+
+  @Override
+  public Instant getInstant() {
+    return getPubTimeInstant();
+  }
+
+  /**
+   * Gets the size of this P2pRelease in bytes, computed once when the size in MB is set.
+   * {@code -1} if not available.
+   * 
+   * @return The size in bytes
+   */
+  @Override
+  @JsonIgnore
+  public long getSizeBytes() {
+    return sizeBytes;
   }
 
   /**
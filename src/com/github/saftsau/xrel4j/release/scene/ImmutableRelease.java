@@ -0,0 +1,604 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.release.scene;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.github.saftsau.xrel4j.extinfo.ImmutableExtInfo;
+import com.github.saftsau.xrel4j.release.ImmutableReleaseBase;
+import com.github.saftsau.xrel4j.release.Size;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable variant of {@link Release}. Instances can be shared by any number of threads and kept
+ * in caches without defensive copies. Create them with {@link #builder()}, {@link #of(Release)} or
+ * directly with Jackson from the JSON of the xREL API. The with-ers return modified copies that
+ * share all unchanged values with the original. The {@link Size} is copied once when it is set
+ * and returned directly, its setters throw an {@link UnsupportedOperationException}.
+ */
+@JsonDeserialize(builder = ImmutableRelease.Builder.class)
+public final class ImmutableRelease extends ImmutableReleaseBase {
+
+  private final long time;
+  @JsonProperty("group_name")
+  private final String groupName;
+  @JsonProperty("nuke_reason")
+  private final String nukeReason;
+  private final Size size;
+  @JsonProperty("video_type")
+  private final String videoType;
+  @JsonProperty("audio_type")
+  private final String audioType;
+  @JsonProperty("proof_url")
+  private final String proofUrl;
+  private final Map<String, Boolean> flags;
+  // Created by getTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant timeInstant;
+
+  private ImmutableRelease(Builder builder) {
+    super(builder);
+    this.time = builder.time;
+    this.groupName = builder.groupName;
+    this.nukeReason = builder.nukeReason;
+    this.size = builder.size;
+    this.videoType = builder.videoType;
+    this.audioType = builder.audioType;
+    this.proofUrl = builder.proofUrl;
+    this.flags = builder.flags;
+  }
+
+  /**
+   * Creates a new empty builder.
+   * 
+   * @return The builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates an immutable copy of a {@link Release}, including its {@link ImmutableExtInfo}.
+   * 
+   * @param release The {@link Release} to copy
+   * @return The immutable copy
+   */
+  public static ImmutableRelease of(Release release) {
+    return new Builder(release).build();
+  }
+
+  /**
+   * Creates a mutable copy of this ImmutableRelease, e.g. to call {@link Release} based methods.
+   * 
+   * @return The mutable copy
+   */
+  public Release toRelease() {
+    Release release = new Release();
+    copyTo(release);
+    release.setTime(time);
+    release.setGroupName(groupName);
+    release.setNukeReason(nukeReason);
+    release.setSize(copy(size));
+    release.setVideoType(videoType);
+    release.setAudioType(audioType);
+    release.setProofUrl(proofUrl);
+    release.setFlags(flags == null ? null : new LinkedHashMap<>(flags));
+    return release;
+  }
+
+  @Override
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * Gets the timestamp of when this Release was pred.
+   * 
+   * @return The timestamp
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the pre time of this Release as {@link Instant}. It is created on first use and kept until
+   * the pre time is changed. Use {@link #getTime()} for the primitive UNIX timestamp. {@code null}
+   * if the pre time is negative, i.e. not available, like all
+   * {@link ImmutableReleaseBase#getInstant()}s.
+   * 
+   * @return The pre time
+   */
+  @JsonIgnore
+  public Instant getTimeInstant() {
+    Instant instant = timeInstant;
+    if (instant == null && time >= 0) {
+      instant = Instant.ofEpochSecond(time);
+      timeInstant = instant;
+    }
+    return instant;
+  }
+
+  /**
+   * Gets the group name of this Release. Can be an empty {@link String} if not retrieved.
+   * 
+   * @return The group name
+   */
+  public String getGroupName() {
+    return groupName;
+  }
+
+  /**
+   * Gets the nuke reason of this Release. Can be an empty {@link String} if not retrieved or not
+   * nuked.
+   * 
+   * @return The nuke reason
+   */
+  public String getNukeReason() {
+    return nukeReason;
+  }
+
+  /**
+   * Gets the size of this Release, which can't be modified.
+   * 
+   * @return The size
+   */
+  public Size getSize() {
+    return size;
+  }
+
+  @Override
+  public long getEpochSecond() {
+    return time < 0 ? -1 : time;
+  }
+
+  @Override
+  public Instant getInstant() {
+    return getTimeInstant();
+  }
+
+  /**
+   * Gets the size of this Release in bytes, as computed by {@link Size#getBytes()}. {@code -1} if
+   * not available.
+   * 
+   * @return The size in bytes
+   */
+  @Override
+  @JsonIgnore
+  public long getSizeBytes() {
+    return size == null ? -1 : size.getBytes();
+  }
+
+  /**
+   * Gets the video type of this release. Can be an empty {@link String} if not retrieved.
+   * 
+   * @return The video type
+   */
+  public String getVideoType() {
+    return videoType;
+  }
+
+  /**
+   * Gets the audio type of this release. Can be an empty {@link String} if not retrieved.
+   * 
+   * @return The audio type
+   */
+  public String getAudioType() {
+    return audioType;
+  }
+
+  /**
+   * Gets the proof url of this release. Can be {@code null} if no proof available.
+   * 
+   * @return The proof url
+   */
+  public String getProofUrl() {
+    return proofUrl;
+  }
+
+  /**
+   * Gets the unmodifiable flags of this release. Possible values are {@code <top_rls, true>},
+   * {@code <fix_rls, true>}, {@code <read_nfo, true>} and {@code <english, true>}.
+   * 
+   * @return The flags
+   */
+  public Map<String, Boolean> getFlags() {
+    return flags;
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given API ID.
+   * 
+   * @param id The API ID
+   * @return The copy
+   */
+  public ImmutableRelease withId(String id) {
+    return toBuilder().id(id).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given dirname.
+   * 
+   * @param dirname The dirname
+   * @return The copy
+   */
+  public ImmutableRelease withDirname(String dirname) {
+    return toBuilder().dirname(dirname).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given link.
+   * 
+   * @param linkHref The link
+   * @return The copy
+   */
+  public ImmutableRelease withLinkHref(String linkHref) {
+    return toBuilder().linkHref(linkHref).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given number of ratings.
+   * 
+   * @param numRatings The number of ratings
+   * @return The copy
+   */
+  public ImmutableRelease withNumRatings(int numRatings) {
+    return toBuilder().numRatings(numRatings).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given video rating.
+   * 
+   * @param videoRating The video rating
+   * @return The copy
+   */
+  public ImmutableRelease withVideoRating(double videoRating) {
+    return toBuilder().videoRating(videoRating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given audio rating.
+   * 
+   * @param audioRating The audio rating
+   * @return The copy
+   */
+  public ImmutableRelease withAudioRating(double audioRating) {
+    return toBuilder().audioRating(audioRating).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given {@link ImmutableExtInfo}.
+   * 
+   * @param extInfo The {@link ImmutableExtInfo}
+   * @return The copy
+   */
+  public ImmutableRelease withExtInfo(ImmutableExtInfo extInfo) {
+    return toBuilder().extInfo(extInfo).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given season number.
+   * 
+   * @param tvSeason The season number
+   * @return The copy
+   */
+  public ImmutableRelease withTvSeason(int tvSeason) {
+    return toBuilder().tvSeason(tvSeason).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given episode number.
+   * 
+   * @param tvEpisode The episode number
+   * @return The copy
+   */
+  public ImmutableRelease withTvEpisode(int tvEpisode) {
+    return toBuilder().tvEpisode(tvEpisode).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given number of comments.
+   * 
+   * @param comments The number of comments
+   * @return The copy
+   */
+  public ImmutableRelease withComments(int comments) {
+    return toBuilder().comments(comments).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given timestamp.
+   * 
+   * @param time The timestamp
+   * @return The copy
+   */
+  public ImmutableRelease withTime(long time) {
+    return toBuilder().time(time).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given group name.
+   * 
+   * @param groupName The group name
+   * @return The copy
+   */
+  public ImmutableRelease withGroupName(String groupName) {
+    return toBuilder().groupName(groupName).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given nuke reason.
+   * 
+   * @param nukeReason The nuke reason
+   * @return The copy
+   */
+  public ImmutableRelease withNukeReason(String nukeReason) {
+    return toBuilder().nukeReason(nukeReason).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given size.
+   * 
+   * @param size The size
+   * @return The copy
+   */
+  public ImmutableRelease withSize(Size size) {
+    return toBuilder().size(size).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given video type.
+   * 
+   * @param videoType The video type
+   * @return The copy
+   */
+  public ImmutableRelease withVideoType(String videoType) {
+    return toBuilder().videoType(videoType).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given audio type.
+   * 
+   * @param audioType The audio type
+   * @return The copy
+   */
+  public ImmutableRelease withAudioType(String audioType) {
+    return toBuilder().audioType(audioType).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given proof url.
+   * 
+   * @param proofUrl The proof url
+   * @return The copy
+   */
+  public ImmutableRelease withProofUrl(String proofUrl) {
+    return toBuilder().proofUrl(proofUrl).build();
+  }
+
+  /**
+   * Returns a copy of this ImmutableRelease with the given flags.
+   * 
+   * @param flags The flags
+   * @return The copy
+   */
+  public ImmutableRelease withFlags(Map<String, Boolean> flags) {
+    return toBuilder().flags(flags).build();
+  }
+
+  private static Size copy(Size size) {
+    if (size == null) {
+      return null;
+    }
+    Size copy = new Size();
+    copy.setNumber(size.getNumber());
+    copy.setUnit(size.getUnit());
+    return copy;
+  }
+
+  private static Size unmodifiable(Size size) {
+    return size == null || size instanceof UnmodifiableSize ? size
+        : new UnmodifiableSize(size);
+  }
+
+  @Override
+  public String toString() {
+    return "ImmutableRelease [getTime()=" + getTime() + ", getGroupName()=" + getGroupName()
+        + ", getNukeReason()=" + getNukeReason() + ", getSize()=" + getSize() + ", getVideoType()="
+        + getVideoType() + ", getAudioType()=" + getAudioType() + ", getProofUrl()=" + getProofUrl()
+        + ", getFlags()=" + getFlags() + ", getId()=" + getId() + ", getDirname()=" + getDirname()
+        + ", getLinkHref()=" + getLinkHref() + ", getNumRatings()=" + getNumRatings()
+        + ", getVideoRating()=" + getVideoRating() + ", getAudioRating()=" + getAudioRating()
+        + ", getExtInfo()=" + getExtInfo() + ", getTvSeason()=" + getTvSeason()
+        + ", getTvEpisode()=" + getTvEpisode() + ", getComments()=" + getComments() + "]";
+  }
+
+  /**
+   * Builder of {@link ImmutableRelease}. Also used by Jackson to read the JSON of the xREL API.
+   */
+  @JsonPOJOBuilder(withPrefix = "")
+  public static final class Builder
+      extends ImmutableReleaseBase.Builder<ImmutableRelease, Builder> {
+
+    private long time;
+    private String groupName;
+    private String nukeReason;
+    private Size size;
+    private String videoType;
+    private String audioType;
+    private String proofUrl;
+    private Map<String, Boolean> flags;
+
+    private Builder() {}
+
+    private Builder(ImmutableRelease release) {
+      super(release);
+      this.time = release.time;
+      this.groupName = release.groupName;
+      this.nukeReason = release.nukeReason;
+      this.size = release.size;
+      this.videoType = release.videoType;
+      this.audioType = release.audioType;
+      this.proofUrl = release.proofUrl;
+      this.flags = release.flags;
+    }
+
+    private Builder(Release release) {
+      super(release);
+      time(release.getTime());
+      groupName(release.getGroupName());
+      nukeReason(release.getNukeReason());
+      size(release.getSize());
+      videoType(release.getVideoType());
+      audioType(release.getAudioType());
+      proofUrl(release.getProofUrl());
+      flags(release.getFlags());
+    }
+
+    /**
+     * Sets the timestamp of when the Release was pred.
+     * 
+     * @param time The timestamp to set
+     * @return This builder
+     */
+    public Builder time(long time) {
+      this.time = time;
+      return this;
+    }
+
+    /**
+     * Sets the group name.
+     * 
+     * @param groupName The group name to set
+     * @return This builder
+     */
+    @JsonProperty("group_name")
+    public Builder groupName(String groupName) {
+      this.groupName = groupName;
+      return this;
+    }
+
+    /**
+     * Sets the nuke reason.
+     * 
+     * @param nukeReason The nuke reason to set
+     * @return This builder
+     */
+    @JsonProperty("nuke_reason")
+    public Builder nukeReason(String nukeReason) {
+      this.nukeReason = nukeReason;
+      return this;
+    }
+
+    /**
+     * Sets the size. The size is copied unless already unmodifiable.
+     * 
+     * @param size The size to set
+     * @return This builder
+     */
+    public Builder size(Size size) {
+      this.size = unmodifiable(size);
+      return this;
+    }
+
+    /**
+     * Sets the video type.
+     * 
+     * @param videoType The video type to set
+     * @return This builder
+     */
+    @JsonProperty("video_type")
+    public Builder videoType(String videoType) {
+      this.videoType = videoType;
+      return this;
+    }
+
+    /**
+     * Sets the audio type.
+     * 
+     * @param audioType The audio type to set
+     * @return This builder
+     */
+    @JsonProperty("audio_type")
+    public Builder audioType(String audioType) {
+      this.audioType = audioType;
+      return this;
+    }
+
+    /**
+     * Sets the proof url.
+     * 
+     * @param proofUrl The proof url to set
+     * @return This builder
+     */
+    @JsonProperty("proof_url")
+    public Builder proofUrl(String proofUrl) {
+      this.proofUrl = proofUrl;
+      return this;
+    }
+
+    /**
+     * Sets the flags. The flags are copied.
+     * 
+     * @param flags The flags to set
+     * @return This builder
+     */
+    public Builder flags(Map<String, Boolean> flags) {
+      this.flags = flags == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(flags));
+      return this;
+    }
+
+    @Override
+    protected Builder self() {
+      return this;
+    }
+
+    @Override
+    public ImmutableRelease build() {
+      return new ImmutableRelease(this);
+    }
+
+  }
+
+  /**
+   * {@link Size} whose setters throw an {@link UnsupportedOperationException}.
+   */
+  private static final class UnmodifiableSize extends Size {
+
+    private UnmodifiableSize(Size size) {
+      super.setNumber(size.getNumber());
+      super.setUnit(size.getUnit());
+    }
+
+    @Override
+    public void setNumber(int number) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setUnit(String unit) {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
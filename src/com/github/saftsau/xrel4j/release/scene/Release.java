@@ -17,9 +17,11 @@
 
 package com.github.saftsau.xrel4j.release.scene;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.saftsau.xrel4j.release.ReleaseBase;
 import com.github.saftsau.xrel4j.release.Size;
+import java.time.Instant;
 import java.util.Map;
 /**
  * Class represents a release with all its information provided by the xREL API.
@@ -39,6 +41,9 @@ public class Release extends ReleaseBase {
   @JsonProperty("proof_url")
   private String proofUrl;
   private Map<String, Boolean> flags;
+  // Created by getTimeInstant(), not part of the JSON
+  @JsonIgnore
+  private Instant timeInstant;
 
   /**
    * Gets the timestamp of when this Release was pred.
@@ -56,6 +61,24 @@ public class Release extends ReleaseBase {
    */
   public void setTime(long time) {
     this.time = time;
+    this.timeInstant = null;
+  }
+
+  /**
+   * Gets the pre time of this Release as {@link Instant}. It is created on first use and kept until
+   * the pre time is changed. Use {@link #getTime()} for the primitive UNIX timestamp. {@code null}
+   * if the pre time is negative, i.e. not available, like all {@link ReleaseBase#getInstant()}s.
+   * 
+   * @return The pre time
+   */
+  @JsonIgnore
+  public Instant getTimeInstant() {
+    Instant instant = timeInstant;
+    if (instant == null && time >= 0) {
+      instant = Instant.ofEpochSecond(time);
+      timeInstant = instant;
+    }
+    return instant;
   }
 
   /**
@@ -113,6 +136,28 @@ public class Release extends ReleaseBase {
     this.size = size;
   }
 
+  @Override
+  public long getEpochSecond() {
+    return time < 0 ? -1 : time;
+  }
+
+  @Override
+  public Instant getInstant() {
+    return getTimeInstant();
+  }
+
+  /**
+   * Gets the size of this Release in bytes, as computed by {@link Size#getBytes()}. {@code -1} if
+   * not available.
+   * 
+   * @return The size in bytes
+   */
+  @Override
+  @JsonIgnore
+  public long getSizeBytes() {
+    return size == null ? -1 : size.getBytes();
+  }
+
   /**
    * Gets the video type of this release. Can be an empty {@link String} if not retrieved.
    * 
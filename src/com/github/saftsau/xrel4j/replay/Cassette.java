@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import okhttp3.Headers;
+
+/**
+ * Recorded {@link Interaction}s written by {@link RecordingInterceptor} and replayed by
+ * {@link ReplayInterceptor}. If a request was recorded multiple times, the responses are replayed
+ * in the order they were recorded and start over after the last one, so a replay is always
+ * deterministic.
+ * <p>
+ * Cassettes are stored as a gzip compressed binary file. Please note that responses of
+ * authenticated requests, e.g. OAuth tokens, are stored as they are.
+ */
+public class Cassette {
+
+  private static final int MAGIC = 0x78524c52;
+  private static final int VERSION = 1;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final List<Interaction> interactions = new ArrayList<>();
+  private final Map<String, List<Interaction>> byKey = new HashMap<>();
+  private final Map<String, Integer> cursors = new HashMap<>();
+
+  /**
+   * Loads a Cassette previously saved with {@link #save(Path)}.
+   * 
+   * @param path The path of the file
+   * @return The Cassette
+   * @throws IOException If the file could not be read
+   */
+  public static Cassette load(Path path) throws IOException {
+    Cassette cassette = new Cassette();
+    try (DataInputStream input = new DataInputStream(
+        new GZIPInputStream(Files.newInputStream(path), 64 * 1024))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        throw new IOException("Not a cassette: " + path);
+      }
+      int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        String key = input.readUTF();
+        int code = input.readInt();
+        String message = input.readUTF();
+        long latencyMillis = input.readLong();
+        Headers.Builder headers = new Headers.Builder();
+        int headerCount = input.readInt();
+        for (int j = 0; j < headerCount; j++) {
+          headers.add(input.readUTF(), input.readUTF());
+        }
+        byte[] body = new byte[input.readInt()];
+        input.readFully(body);
+        cassette.add(new Interaction(key, code, message, headers.build(), body, latencyMillis));
+      }
+    }
+    return cassette;
+  }
+
+  /**
+   * Saves this Cassette. The file is replaced atomically where supported.
+   * 
+   * @param path The path of the file
+   * @throws IOException If the file could not be written
+   */
+  public void save(Path path) throws IOException {
+    List<Interaction> snapshot = getInteractions();
+    Path directory = path.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try (OutputStream fileOutput = Files.newOutputStream(temp);
+        DataOutputStream output =
+            new DataOutputStream(new GZIPOutputStream(fileOutput, 64 * 1024))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(snapshot.size());
+      for (Interaction interaction : snapshot) {
+        output.writeUTF(interaction.getKey());
+        output.writeInt(interaction.getCode());
+        output.writeUTF(interaction.getMessage());
+        output.writeLong(interaction.getLatencyMillis());
+        Headers headers = interaction.getHeaders();
+        output.writeInt(headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+          output.writeUTF(headers.name(i));
+          output.writeUTF(headers.value(i));
+        }
+        output.writeInt(interaction.body().length);
+        output.write(interaction.body());
+      }
+    }
+    try {
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Adds an {@link Interaction}.
+   * 
+   * @param interaction The {@link Interaction} to add
+   */
+  public void add(Interaction interaction) {
+    Objects.requireNonNull(interaction, "interaction missing");
+    lock.lock();
+    try {
+      interactions.add(interaction);
+      byKey.computeIfAbsent(interaction.getKey(), key -> new ArrayList<>()).add(interaction);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets all {@link Interaction}s in the order they were recorded.
+   * 
+   * @return The {@link Interaction}s
+   */
+  public List<Interaction> getInteractions() {
+    lock.lock();
+    try {
+      return Collections.unmodifiableList(new ArrayList<>(interactions));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of recorded {@link Interaction}s.
+   * 
+   * @return The number of {@link Interaction}s
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return interactions.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Starts replaying every request from its first recorded response again.
+   */
+  public void rewind() {
+    lock.lock();
+    try {
+      cursors.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the next {@link Interaction} to replay for a request.
+   * 
+   * @param key The key of the request
+   * @return The {@link Interaction} or {@code null} if the request was never recorded
+   */
+  Interaction next(String key) {
+    lock.lock();
+    try {
+      List<Interaction> recorded = byKey.get(key);
+      if (recorded == null) {
+        return null;
+      }
+      int cursor = cursors.getOrDefault(key, 0);
+      cursors.put(key, (cursor + 1) % recorded.size());
+      return recorded.get(cursor);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Cassette [size()=" + size() + "]";
+  }
+
+}
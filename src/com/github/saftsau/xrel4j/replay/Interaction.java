@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.replay;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okio.Buffer;
+
+/**
+ * A single recorded request and the response the server sent for it.
+ */
+public class Interaction {
+
+  private final String key;
+  private final int code;
+  private final String message;
+  private final Headers headers;
+  private final byte[] body;
+  private final long latencyMillis;
+
+  /**
+   * Constructs a new Interaction.
+   * 
+   * @param key The key of the request, see {@link #key(Request)}
+   * @param code The HTTP status code of the response
+   * @param message The HTTP status message of the response
+   * @param headers The headers of the response
+   * @param body The body of the response
+   * @param latencyMillis The time between sending the request and receiving the response
+   */
+  public Interaction(String key, int code, String message, Headers headers, byte[] body,
+      long latencyMillis) {
+    this.key = Objects.requireNonNull(key, "key missing");
+    this.code = code;
+    this.message = Objects.requireNonNull(message, "message missing");
+    this.headers = Objects.requireNonNull(headers, "headers missing");
+    this.body = Objects.requireNonNull(body, "body missing").clone();
+    this.latencyMillis = latencyMillis;
+  }
+
+  /**
+   * Creates the key identifying a request: method and URL, plus a hash of the body for requests
+   * with a body. Headers are not part of the key, so recordings made with one token can be replayed
+   * with any other token.
+   * 
+   * @param request The request
+   * @return The key
+   */
+  public static String key(Request request) {
+    String key = request.method() + " " + request.url();
+    if (request.body() == null) {
+      return key;
+    }
+    try (Buffer buffer = new Buffer()) {
+      request.body().writeTo(buffer);
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(buffer.readByteArray());
+      StringBuilder hex = new StringBuilder(key).append(" #");
+      for (int i = 0; i < 8; i++) {
+        hex.append(String.format("%02x", hash[i]));
+      }
+      return hex.toString();
+    } catch (IOException | NoSuchAlgorithmException e) {
+      // Both can't happen: Buffer is in memory and SHA-256 is required to be supported
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Gets the key of the request.
+   * 
+   * @return The key
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the HTTP status code of the response.
+   * 
+   * @return The status code
+   */
+  public int getCode() {
+    return code;
+  }
+
+  /**
+   * Gets the HTTP status message of the response.
+   * 
+   * @return The status message
+   */
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * Gets the headers of the response, including the X-RateLimit-* headers.
+   * 
+   * @return The headers
+   */
+  public Headers getHeaders() {
+    return headers;
+  }
+
+  /**
+   * Gets a copy of the body of the response.
+   * 
+   * @return The body
+   */
+  public byte[] getBody() {
+    return body.clone();
+  }
+
+  /**
+   * Gets the time between sending the request and receiving the response when it was recorded.
+   * 
+   * @return The latency in milliseconds
+   */
+  public long getLatencyMillis() {
+    return latencyMillis;
+  }
+
+  byte[] body() {
+    return body;
+  }
+
+  @Override
+  public String toString() {
+    return "Interaction [getKey()=" + getKey() + ", getCode()=" + getCode() + ", getMessage()="
+        + getMessage() + ", getLatencyMillis()=" + getLatencyMillis() + ", body.length="
+        + body.length + "]";
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.replay;
+
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+import java.io.IOException;
+import java.util.Objects;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * OkHttp interceptor recording every response returned by the server into a {@link Cassette}. Add
+ * it with {@link RestClientConfiguration#addInterceptor(Interceptor)}.
+ */
+public class RecordingInterceptor implements Interceptor {
+
+  private final Cassette cassette;
+
+  /**
+   * Constructs a new RecordingInterceptor.
+   * 
+   * @param cassette The {@link Cassette} to record into
+   */
+  public RecordingInterceptor(Cassette cassette) {
+    this.cassette = Objects.requireNonNull(cassette, "cassette missing");
+  }
+
+  /**
+   * Gets the {@link Cassette} recorded into.
+   * 
+   * @return The {@link Cassette}
+   */
+  public Cassette getCassette() {
+    return cassette;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Response response = chain.proceed(chain.request());
+    ResponseBody body = response.body();
+    byte[] bytes = body == null ? new byte[0] : body.bytes();
+    cassette.add(new Interaction(Interaction.key(chain.request()), response.code(),
+        response.message(), response.headers(), bytes,
+        response.receivedResponseAtMillis() - response.sentRequestAtMillis()));
+    // The body was consumed above, so the caller gets a copy
+    return response.newBuilder()
+        .body(ResponseBody.create(body == null ? null : body.contentType(), bytes)).build();
+  }
+
+  @Override
+  public String toString() {
+    return "RecordingInterceptor [getCassette()=" + getCassette() + "]";
+  }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.replay;
+
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * OkHttp interceptor answering every request from a {@link Cassette} without calling the server.
+ * Add it with {@link RestClientConfiguration#addInterceptor(Interceptor)}. Requests that were
+ * never recorded fail with an {@link IOException}.
+ * <p>
+ * Responses can be delayed by a fixed latency and/or the latency measured while recording. A rate
+ * limit can be simulated as well: the X-RateLimit-* headers of replayed responses are then
+ * replaced with the state of the simulated window, and requests exceeding the limit get a
+ * {@code 429} response until the window resets.
+ */
+public class ReplayInterceptor implements Interceptor {
+
+  private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+  private static final String RATE_LIMIT_ERROR = "{\"error\":\"rate_limit_exceeded\","
+      + "\"error_type\":\"api_error\",\"error_description\":\"Rate limit exceeded.\"}";
+
+  private final Cassette cassette;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long latencyMillis;
+  private volatile boolean recordedLatency;
+  private int rateLimit = -1;
+  private long rateLimitWindowMillis;
+  private long windowStart;
+  private int windowCount;
+
+  /**
+   * Constructs a new ReplayInterceptor without any latency and rate limit simulation.
+   * 
+   * @param cassette The {@link Cassette} to replay
+   */
+  public ReplayInterceptor(Cassette cassette) {
+    this.cassette = Objects.requireNonNull(cassette, "cassette missing");
+  }
+
+  /**
+   * Gets the {@link Cassette} replayed.
+   * 
+   * @return The {@link Cassette}
+   */
+  public Cassette getCassette() {
+    return cassette;
+  }
+
+  /**
+   * Sets a fixed latency added to every response.
+   * 
+   * @param latency The latency, {@code 0} for none
+   * @param unit The unit of the latency
+   */
+  public void setLatency(long latency, TimeUnit unit) {
+    if (latency < 0) {
+      throw new IllegalArgumentException("latency < 0");
+    }
+    this.latencyMillis = unit.toMillis(latency);
+  }
+
+  /**
+   * Sets whether every response is additionally delayed by the latency measured while recording.
+   * 
+   * @param recordedLatency {@code true} to replay the recorded latency
+   */
+  public void setRecordedLatency(boolean recordedLatency) {
+    this.recordedLatency = recordedLatency;
+  }
+
+  /**
+   * Simulates a rate limit of {@code limit} requests per window. Use a limit of {@code -1} to
+   * replay the recorded X-RateLimit-* headers again.
+   * 
+   * @param limit The number of requests allowed per window
+   * @param window The length of a window
+   * @param unit The unit of the window
+   */
+  public void setRateLimit(int limit, long window, TimeUnit unit) {
+    lock.lock();
+    try {
+      this.rateLimit = limit;
+      this.rateLimitWindowMillis = unit.toMillis(window);
+      this.windowStart = 0;
+      this.windowCount = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    long sentAt = System.currentTimeMillis();
+
+    Headers rateLimitHeaders = null;
+    boolean limited = false;
+    lock.lock();
+    try {
+      if (rateLimit >= 0) {
+        long now = System.currentTimeMillis();
+        if (windowStart == 0 || now >= windowStart + rateLimitWindowMillis) {
+          windowStart = now;
+          windowCount = 0;
+        }
+        limited = windowCount >= rateLimit;
+        if (!limited) {
+          windowCount++;
+        }
+        rateLimitHeaders = new Headers.Builder()
+            .add("X-RateLimit-Limit", String.valueOf(rateLimit))
+            .add("X-RateLimit-Remaining", String.valueOf(rateLimit - windowCount))
+            .add("X-RateLimit-Reset",
+                String.valueOf((windowStart + rateLimitWindowMillis + 999) / 1000))
+            .build();
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    Response.Builder builder =
+        new Response.Builder().request(request).protocol(Protocol.HTTP_1_1);
+    if (limited) {
+      builder.code(429).message("Too Many Requests").headers(rateLimitHeaders)
+          .body(ResponseBody.create(JSON, RATE_LIMIT_ERROR.getBytes(StandardCharsets.UTF_8)));
+    } else {
+      Interaction interaction = cassette.next(Interaction.key(request));
+      if (interaction == null) {
+        throw new IOException("No recorded response for " + Interaction.key(request));
+      }
+      delay(latencyMillis + (recordedLatency ? interaction.getLatencyMillis() : 0));
+
+      Headers headers = interaction.getHeaders();
+      if (rateLimitHeaders != null) {
+        headers = headers.newBuilder().removeAll("X-RateLimit-Limit")
+            .removeAll("X-RateLimit-Remaining").removeAll("X-RateLimit-Reset")
+            .addAll(rateLimitHeaders).build();
+      }
+      String contentType = headers.get("Content-Type");
+      builder.code(interaction.getCode()).message(interaction.getMessage()).headers(headers)
+          .body(ResponseBody.create(contentType == null ? null : MediaType.parse(contentType),
+              interaction.body()));
+    }
+    return builder.sentRequestAtMillis(sentAt)
+        .receivedResponseAtMillis(System.currentTimeMillis()).build();
+  }
+
+  private static void delay(long millis) throws IOException {
+    if (millis <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while replaying");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ReplayInterceptor [getCassette()=" + getCassette() + "]";
+  }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte array used for the binary formats of this package. Integers are written as
+ * variable length zig-zag numbers, {@link String}s as UTF-8 with a length prefix that also encodes
+ * {@code null}. The matching read methods work on any {@link ByteBuffer}.
+ */
+final class ByteWriter {
+
+  private byte[] bytes = new byte[512];
+  private int length;
+
+  /**
+   * Discards everything written so far.
+   */
+  void reset() {
+    length = 0;
+  }
+
+  /**
+   * Gets the number of bytes written.
+   * 
+   * @return The length
+   */
+  int length() {
+    return length;
+  }
+
+  /**
+   * Gets the internal array, valid up to {@link #length()}.
+   * 
+   * @return The array
+   */
+  byte[] array() {
+    return bytes;
+  }
+
+  /**
+   * Copies everything written into a buffer at its current position.
+   * 
+   * @param buffer The buffer to write to
+   */
+  void writeTo(ByteBuffer buffer) {
+    buffer.put(bytes, 0, length);
+  }
+
+  void writeByte(int value) {
+    ensureCapacity(1);
+    bytes[length++] = (byte) value;
+  }
+
+  void writeBytes(byte[] source, int offset, int count) {
+    ensureCapacity(count);
+    System.arraycopy(source, offset, bytes, length, count);
+    length += count;
+  }
+
+  void writeDouble(double value) {
+    ensureCapacity(8);
+    long bits = Double.doubleToRawLongBits(value);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      bytes[length++] = (byte) (bits >>> shift);
+    }
+  }
+
+  void writeLong(long value) {
+    long zigZag = (value << 1) ^ (value >> 63);
+    ensureCapacity(10);
+    while ((zigZag & ~0x7FL) != 0) {
+      bytes[length++] = (byte) ((zigZag & 0x7F) | 0x80);
+      zigZag >>>= 7;
+    }
+    bytes[length++] = (byte) zigZag;
+  }
+
+  void writeString(String value) {
+    if (value == null) {
+      writeLong(-1);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    writeLong(utf8.length);
+    ensureCapacity(utf8.length);
+    System.arraycopy(utf8, 0, bytes, length, utf8.length);
+    length += utf8.length;
+  }
+
+  static long readLong(ByteBuffer buffer) {
+    long zigZag = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      zigZag |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigZag >>> 1) ^ -(zigZag & 1);
+  }
+
+  static String readString(ByteBuffer buffer) {
+    int utf8Length = (int) readLong(buffer);
+    if (utf8Length < 0) {
+      return null;
+    }
+    String value;
+    if (buffer.hasArray()) {
+      value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), utf8Length,
+          StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + utf8Length);
+    } else {
+      byte[] utf8 = new byte[utf8Length];
+      buffer.get(utf8);
+      value = new String(utf8, StandardCharsets.UTF_8);
+    }
+    return value;
+  }
+
+  private void ensureCapacity(int additional) {
+    if (length + additional > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+    }
+  }
+
+}
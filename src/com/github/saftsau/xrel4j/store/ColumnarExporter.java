@@ -0,0 +1,323 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * Writes {@link Release}s and {@link P2pRelease}s into a columnar file for analytics, which can be
+ * queried with {@link ColumnarScanner}. Rows are collected into chunks, every {@link ReleaseColumn}
+ * of a chunk is encoded on its own and compressed with {@link Deflater}, so a query only has to
+ * read and inflate the columns it uses. Text columns with few distinct values like
+ * {@link ReleaseColumn#GROUP} are dictionary encoded, number columns are delta encoded.
+ * <p>
+ * The file starts with a small header, followed by the column blocks of all chunks and a footer
+ * containing the position, size and minimum/maximum value of every column block. The file is
+ * only complete after {@link #close()}.
+ */
+public class ColumnarExporter implements AutoCloseable {
+
+  /**
+   * The default number of rows per chunk.
+   */
+  public static final int DEFAULT_ROWS_PER_CHUNK = 65536;
+
+  static final int MAGIC = 0x78524c43;
+  static final int VERSION = 1;
+  static final int TRAILER_SIZE = 12;
+
+  private static final ReleaseColumn[] COLUMNS = ReleaseColumn.values();
+
+  private final FileChannel channel;
+  private final int rowsPerChunk;
+  private final long[][] longValues;
+  private final String[][] stringValues;
+  private final ByteWriter block = new ByteWriter();
+  private final ByteWriter footer = new ByteWriter();
+  private final byte[] deflated = new byte[64 * 1024];
+  private final Deflater deflater = new Deflater();
+  private int rows;
+  private int chunkCount;
+  private long rowCount;
+  private boolean closed;
+
+  /**
+   * Creates a new columnar file with {@link #DEFAULT_ROWS_PER_CHUNK} rows per chunk. An existing
+   * file is replaced.
+   * 
+   * @param path The path of the file
+   * @throws IOException If the file could not be created
+   */
+  public ColumnarExporter(Path path) throws IOException {
+    this(path, DEFAULT_ROWS_PER_CHUNK);
+  }
+
+  /**
+   * Creates a new columnar file. An existing file is replaced.
+   * 
+   * @param path The path of the file
+   * @param rowsPerChunk The number of rows per chunk
+   * @throws IOException If the file could not be created
+   */
+  public ColumnarExporter(Path path, int rowsPerChunk) throws IOException {
+    Objects.requireNonNull(path, "path missing");
+    if (rowsPerChunk < 1) {
+      throw new IllegalArgumentException("rowsPerChunk < 1");
+    }
+    this.rowsPerChunk = rowsPerChunk;
+    this.longValues = new long[COLUMNS.length][];
+    this.stringValues = new String[COLUMNS.length][];
+    for (ReleaseColumn column : COLUMNS) {
+      if (column.isNumeric()) {
+        longValues[column.ordinal()] = new long[rowsPerChunk];
+      } else {
+        stringValues[column.ordinal()] = new String[rowsPerChunk];
+      }
+    }
+
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(8);
+    header.putInt(MAGIC).putInt(VERSION).flip();
+    write(header);
+  }
+
+  /**
+   * Writes all releases of a {@link ReleaseStore} ordered by time into a new columnar file.
+   * 
+   * @param store The {@link ReleaseStore} to export
+   * @param path The path of the file
+   * @return The number of exported releases
+   * @throws IOException If the file could not be written
+   */
+  public static long export(ReleaseStore store, Path path) throws IOException {
+    Objects.requireNonNull(store, "store missing");
+    try (ColumnarExporter exporter = new ColumnarExporter(path)) {
+      try {
+        store.scan(release -> {
+          try {
+            exporter.add(release);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      return exporter.getRowCount();
+    }
+  }
+
+  /**
+   * Gets the number of rows added so far.
+   * 
+   * @return The number of rows
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Adds a single release.
+   * 
+   * @param release The {@link Release} or {@link P2pRelease} to add
+   * @throws IOException If a full chunk could not be written
+   */
+  public void add(ReleaseBase release) throws IOException {
+    Objects.requireNonNull(release, "release missing");
+    if (closed) {
+      throw new IllegalStateException("ColumnarExporter closed");
+    }
+    for (ReleaseColumn column : COLUMNS) {
+      if (column.isNumeric()) {
+        longValues[column.ordinal()][rows] = column.getLong(release);
+      } else {
+        stringValues[column.ordinal()][rows] = column.getString(release);
+      }
+    }
+    rows++;
+    rowCount++;
+    if (rows == rowsPerChunk) {
+      writeChunk();
+    }
+  }
+
+  /**
+   * Adds all given releases in order.
+   * 
+   * @param releases The {@link Release}s or {@link P2pRelease}s to add
+   * @throws IOException If a full chunk could not be written
+   */
+  public void addAll(Collection<? extends ReleaseBase> releases) throws IOException {
+    Objects.requireNonNull(releases, "releases missing");
+    for (ReleaseBase release : releases) {
+      add(release);
+    }
+  }
+
+  /**
+   * Adds all releases of a {@link PaginationList} as returned by the listing methods of
+   * {@link com.github.saftsau.xrel4j.Xrel}.
+   * 
+   * @param paginationList The {@link PaginationList} to add
+   * @throws IOException If a full chunk could not be written
+   */
+  public void addAll(PaginationList<? extends ReleaseBase> paginationList) throws IOException {
+    Objects.requireNonNull(paginationList, "paginationList missing");
+    if (paginationList.getList() != null) {
+      addAll(paginationList.getList());
+    }
+  }
+
+  /**
+   * Writes the last chunk and the footer and closes the file.
+   * 
+   * @throws IOException If the file could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (rows > 0) {
+        writeChunk();
+      }
+      long footerOffset = channel.position();
+      ByteWriter columns = new ByteWriter();
+      columns.writeLong(COLUMNS.length);
+      for (ReleaseColumn column : COLUMNS) {
+        columns.writeString(column.name());
+      }
+      columns.writeLong(chunkCount);
+      write(ByteBuffer.wrap(columns.array(), 0, columns.length()));
+      write(ByteBuffer.wrap(footer.array(), 0, footer.length()));
+      ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+      trailer.putLong(footerOffset).putInt(MAGIC).flip();
+      write(trailer);
+    } finally {
+      deflater.end();
+      channel.close();
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    footer.writeLong(rows);
+    for (ReleaseColumn column : COLUMNS) {
+      block.reset();
+      long min = 0;
+      long max = 0;
+      switch (column.getKind()) {
+        case LONG:
+          long[] values = longValues[column.ordinal()];
+          min = Long.MAX_VALUE;
+          max = Long.MIN_VALUE;
+          long previous = 0;
+          for (int i = 0; i < rows; i++) {
+            block.writeLong(values[i] - previous);
+            previous = values[i];
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+          }
+          break;
+        case DICTIONARY:
+          encodeDictionary(stringValues[column.ordinal()]);
+          break;
+        default:
+          String[] strings = stringValues[column.ordinal()];
+          for (int i = 0; i < rows; i++) {
+            block.writeString(strings[i]);
+          }
+          break;
+      }
+      long offset = channel.position();
+      long compressedLength = deflate();
+      footer.writeLong(offset);
+      footer.writeLong(compressedLength);
+      footer.writeLong(block.length());
+      footer.writeLong(min);
+      footer.writeLong(max);
+    }
+    chunkCount++;
+    rows = 0;
+  }
+
+  private void encodeDictionary(String[] strings) {
+    // Code 0 is null, every distinct value gets the next code in order of appearance
+    Map<String, Integer> dictionary = new HashMap<>();
+    int[] codes = new int[rows];
+    ByteWriter entries = new ByteWriter();
+    for (int i = 0; i < rows; i++) {
+      if (strings[i] == null) {
+        continue;
+      }
+      Integer code = dictionary.get(strings[i]);
+      if (code == null) {
+        code = dictionary.size() + 1;
+        dictionary.put(strings[i], code);
+        entries.writeString(strings[i]);
+      }
+      codes[i] = code;
+    }
+    block.writeLong(dictionary.size());
+    block.writeBytes(entries.array(), 0, entries.length());
+    for (int code : codes) {
+      block.writeLong(code);
+    }
+  }
+
+  private long deflate() throws IOException {
+    deflater.reset();
+    deflater.setInput(block.array(), 0, block.length());
+    deflater.finish();
+    long compressedLength = 0;
+    while (!deflater.finished()) {
+      int length = deflater.deflate(deflated);
+      write(ByteBuffer.wrap(deflated, 0, length));
+      compressedLength += length;
+    }
+    return compressedLength;
+  }
+
+  private void write(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarExporter [getRowCount()=" + getRowCount() + "]";
+  }
+
+}
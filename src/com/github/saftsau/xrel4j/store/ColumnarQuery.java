@@ -0,0 +1,306 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import com.github.saftsau.xrel4j.store.ColumnarScanner.ColumnData;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A filtered aggregate query over a file opened with {@link ColumnarScanner}. Filters are combined
+ * with AND. Only the columns used by filters, grouping and aggregation are read, a column is read
+ * only for chunks where all previous filters matched at least one row, and chunks are skipped
+ * entirely if {@link #whereBetween(ReleaseColumn, long, long)} rules them out by their
+ * minimum/maximum values. Text filters on dictionary encoded columns are evaluated once per
+ * distinct value instead of once per row.
+ */
+public class ColumnarQuery {
+
+  private final ColumnarScanner scanner;
+  private final List<Filter> filters = new ArrayList<>();
+
+  /**
+   * Constructs a new ColumnarQuery.
+   * 
+   * @param scanner The {@link ColumnarScanner} to query
+   */
+  ColumnarQuery(ColumnarScanner scanner) {
+    this.scanner = scanner;
+  }
+
+  /**
+   * Only includes rows where a text column equals the given value.
+   * 
+   * @param column The text {@link ReleaseColumn}
+   * @param value The value, can be {@code null}
+   * @return This query
+   */
+  public ColumnarQuery whereEquals(ReleaseColumn column, String value) {
+    return whereText(column, text -> Objects.equals(text, value));
+  }
+
+  /**
+   * Only includes rows where the value of a text column matches the predicate.
+   * 
+   * @param column The text {@link ReleaseColumn}
+   * @param predicate The predicate, called with {@code null} for missing values
+   * @return This query
+   */
+  public ColumnarQuery whereText(ReleaseColumn column, Predicate<String> predicate) {
+    Objects.requireNonNull(predicate, "predicate missing");
+    if (Objects.requireNonNull(column, "column missing").isNumeric()) {
+      throw new IllegalArgumentException(column + " is not a text column");
+    }
+    filters.add(new Filter(column, predicate, null, Long.MIN_VALUE, Long.MAX_VALUE));
+    return this;
+  }
+
+  /**
+   * Only includes rows where the value of a number column matches the predicate.
+   * 
+   * @param column The number {@link ReleaseColumn}
+   * @param predicate The predicate
+   * @return This query
+   */
+  public ColumnarQuery whereNumber(ReleaseColumn column, LongPredicate predicate) {
+    Objects.requireNonNull(predicate, "predicate missing");
+    checkNumeric(column);
+    filters.add(new Filter(column, null, predicate, Long.MIN_VALUE, Long.MAX_VALUE));
+    return this;
+  }
+
+  /**
+   * Only includes rows with {@code from <= value < to} in a number column. Chunks not containing
+   * any such value are skipped without reading them.
+   * 
+   * @param column The number {@link ReleaseColumn}
+   * @param from The first value to include
+   * @param to The first value to exclude
+   * @return This query
+   */
+  public ColumnarQuery whereBetween(ReleaseColumn column, long from, long to) {
+    checkNumeric(column);
+    filters.add(new Filter(column, null, value -> value >= from && value < to, from, to));
+    return this;
+  }
+
+  /**
+   * Counts the matching rows.
+   * 
+   * @return The number of rows
+   * @throws IOException If the file could not be read
+   */
+  public long count() throws IOException {
+    return aggregate(null, null).getOrDefault(null, 0L);
+  }
+
+  /**
+   * Sums a number column over the matching rows.
+   * 
+   * @param column The number {@link ReleaseColumn} to sum
+   * @return The sum
+   * @throws IOException If the file could not be read
+   */
+  public long sum(ReleaseColumn column) throws IOException {
+    checkNumeric(column);
+    return aggregate(null, column).getOrDefault(null, 0L);
+  }
+
+  /**
+   * Counts the matching rows per value of a column.
+   * 
+   * @param groupColumn The {@link ReleaseColumn} to group by
+   * @return The number of rows per value, the key {@code null} contains rows without a value
+   * @throws IOException If the file could not be read
+   */
+  public Map<String, Long> countBy(ReleaseColumn groupColumn) throws IOException {
+    return aggregate(Objects.requireNonNull(groupColumn, "groupColumn missing"), null);
+  }
+
+  /**
+   * Sums a number column over the matching rows per value of a column.
+   * 
+   * @param groupColumn The {@link ReleaseColumn} to group by
+   * @param column The number {@link ReleaseColumn} to sum
+   * @return The sum per value, the key {@code null} contains rows without a value
+   * @throws IOException If the file could not be read
+   */
+  public Map<String, Long> sumBy(ReleaseColumn groupColumn, ReleaseColumn column)
+      throws IOException {
+    checkNumeric(column);
+    return aggregate(Objects.requireNonNull(groupColumn, "groupColumn missing"), column);
+  }
+
+  private Map<String, Long> aggregate(ReleaseColumn groupColumn, ReleaseColumn valueColumn)
+      throws IOException {
+    Map<String, Long> result = new HashMap<>();
+    for (int chunk = 0; chunk < scanner.getChunkCount(); chunk++) {
+      if (isSkipped(chunk)) {
+        continue;
+      }
+      int rows = scanner.getRows(chunk);
+      Map<ReleaseColumn, ColumnData> columns = new EnumMap<>(ReleaseColumn.class);
+      boolean[] selected = select(chunk, rows, columns);
+      if (selected == null) {
+        continue;
+      }
+      long[] values = valueColumn == null ? null : column(chunk, valueColumn, columns).longs;
+
+      if (groupColumn == null) {
+        long total = 0;
+        for (int i = 0; i < rows; i++) {
+          if (selected[i]) {
+            total += values == null ? 1 : values[i];
+          }
+        }
+        result.merge(null, total, Long::sum);
+        continue;
+      }
+
+      ColumnData group = column(chunk, groupColumn, columns);
+      if (group.codes != null) {
+        long[] totals = new long[group.dictionary.length + 1];
+        boolean[] present = new boolean[totals.length];
+        for (int i = 0; i < rows; i++) {
+          if (selected[i]) {
+            totals[group.codes[i]] += values == null ? 1 : values[i];
+            present[group.codes[i]] = true;
+          }
+        }
+        for (int code = 0; code < totals.length; code++) {
+          if (present[code]) {
+            result.merge(code == 0 ? null : group.dictionary[code - 1], totals[code], Long::sum);
+          }
+        }
+      } else {
+        for (int i = 0; i < rows; i++) {
+          if (selected[i]) {
+            String key =
+                group.strings != null ? group.strings[i] : String.valueOf(group.longs[i]);
+            result.merge(key, values == null ? 1 : values[i], Long::sum);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private boolean isSkipped(int chunk) {
+    for (Filter filter : filters) {
+      if (filter.from != Long.MIN_VALUE || filter.to != Long.MAX_VALUE) {
+        if (scanner.getMax(chunk, filter.column) < filter.from
+            || scanner.getMin(chunk, filter.column) >= filter.to) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Applies all filters to a chunk.
+   * 
+   * @return The selected rows or {@code null} if no row was selected
+   */
+  private boolean[] select(int chunk, int rows, Map<ReleaseColumn, ColumnData> columns)
+      throws IOException {
+    boolean[] selected = new boolean[rows];
+    Arrays.fill(selected, true);
+    for (Filter filter : filters) {
+      ColumnData data = column(chunk, filter.column, columns);
+      int remaining = 0;
+      if (data.codes != null) {
+        boolean[] matches = new boolean[data.dictionary.length + 1];
+        matches[0] = filter.textPredicate.test(null);
+        for (int code = 1; code < matches.length; code++) {
+          matches[code] = filter.textPredicate.test(data.dictionary[code - 1]);
+        }
+        for (int i = 0; i < rows; i++) {
+          selected[i] &= matches[data.codes[i]];
+          remaining += selected[i] ? 1 : 0;
+        }
+      } else if (data.strings != null) {
+        for (int i = 0; i < rows; i++) {
+          selected[i] = selected[i] && filter.textPredicate.test(data.strings[i]);
+          remaining += selected[i] ? 1 : 0;
+        }
+      } else {
+        for (int i = 0; i < rows; i++) {
+          selected[i] = selected[i] && filter.numberPredicate.test(data.longs[i]);
+          remaining += selected[i] ? 1 : 0;
+        }
+      }
+      if (remaining == 0) {
+        return null;
+      }
+    }
+    return selected;
+  }
+
+  private ColumnData column(int chunk, ReleaseColumn column,
+      Map<ReleaseColumn, ColumnData> columns) throws IOException {
+    ColumnData data = columns.get(column);
+    if (data == null) {
+      data = scanner.readColumn(chunk, column);
+      columns.put(column, data);
+    }
+    return data;
+  }
+
+  private static void checkNumeric(ReleaseColumn column) {
+    if (!Objects.requireNonNull(column, "column missing").isNumeric()) {
+      throw new IllegalArgumentException(column + " is not a number column");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarQuery [scanner=" + scanner + ", filters=" + filters.size() + "]";
+  }
+
+  /**
+   * A single filter of a query.
+   */
+  private static final class Filter {
+
+    private final ReleaseColumn column;
+    private final Predicate<String> textPredicate;
+    private final LongPredicate numberPredicate;
+    private final long from;
+    private final long to;
+
+    private Filter(ReleaseColumn column, Predicate<String> textPredicate,
+        LongPredicate numberPredicate, long from, long to) {
+      this.column = column;
+      this.textPredicate = textPredicate;
+      this.numberPredicate = numberPredicate;
+      this.from = from;
+      this.to = to;
+    }
+
+  }
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link ColumnarExporter}. Only the footer is read when opening a file,
+ * column blocks are read and inflated on demand by the {@link ColumnarQuery}s created with
+ * {@link #query()}. A ColumnarScanner is safe to be used by multiple threads.
+ */
+public class ColumnarScanner implements AutoCloseable {
+
+  private final FileChannel channel;
+  private final int[] columnIndex;
+  private final Chunk[] chunks;
+  private final long rowCount;
+
+  /**
+   * Opens a columnar file.
+   * 
+   * @param path The path of the file
+   * @throws IOException If the file could not be read or is not a columnar file
+   */
+  public ColumnarScanner(Path path) throws IOException {
+    Objects.requireNonNull(path, "path missing");
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      ByteBuffer header = read(0, 8);
+      if (size < 8 + ColumnarExporter.TRAILER_SIZE || header.getInt() != ColumnarExporter.MAGIC
+          || header.getInt() != ColumnarExporter.VERSION) {
+        throw new IOException("Not a columnar release file: " + path);
+      }
+      ByteBuffer trailer =
+          read(size - ColumnarExporter.TRAILER_SIZE, ColumnarExporter.TRAILER_SIZE);
+      long footerOffset = trailer.getLong();
+      if (trailer.getInt() != ColumnarExporter.MAGIC) {
+        throw new IOException("Incomplete columnar release file: " + path);
+      }
+      ByteBuffer footer = read(footerOffset,
+          (int) (size - ColumnarExporter.TRAILER_SIZE - footerOffset));
+
+      int columnCount = (int) ByteWriter.readLong(footer);
+      this.columnIndex = new int[ReleaseColumn.values().length];
+      Arrays.fill(columnIndex, -1);
+      for (int i = 0; i < columnCount; i++) {
+        String name = ByteWriter.readString(footer);
+        for (ReleaseColumn column : ReleaseColumn.values()) {
+          if (column.name().equals(name)) {
+            columnIndex[column.ordinal()] = i;
+          }
+        }
+      }
+      this.chunks = new Chunk[(int) ByteWriter.readLong(footer)];
+      long rows = 0;
+      for (int i = 0; i < chunks.length; i++) {
+        chunks[i] = new Chunk(footer, columnCount);
+        rows += chunks[i].rows;
+      }
+      this.rowCount = rows;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the number of rows in this file.
+   * 
+   * @return The number of rows
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of chunks in this file.
+   * 
+   * @return The number of chunks
+   */
+  public int getChunkCount() {
+    return chunks.length;
+  }
+
+  /**
+   * Checks whether this file contains a column.
+   * 
+   * @param column The {@link ReleaseColumn}
+   * @return {@code true} if the column is present
+   */
+  public boolean hasColumn(ReleaseColumn column) {
+    return columnIndex[column.ordinal()] >= 0;
+  }
+
+  /**
+   * Starts a new query over all rows of this file.
+   * 
+   * @return The {@link ColumnarQuery}
+   */
+  public ColumnarQuery query() {
+    return new ColumnarQuery(this);
+  }
+
+  /**
+   * Closes the file.
+   * 
+   * @throws IOException If the file could not be closed
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  int getRows(int chunk) {
+    return chunks[chunk].rows;
+  }
+
+  long getMin(int chunk, ReleaseColumn column) {
+    return chunks[chunk].min[checkColumn(column)];
+  }
+
+  long getMax(int chunk, ReleaseColumn column) {
+    return chunks[chunk].max[checkColumn(column)];
+  }
+
+  /**
+   * Reads and decodes a single column block.
+   * 
+   * @param chunk The index of the chunk
+   * @param column The {@link ReleaseColumn}
+   * @return The decoded values
+   * @throws IOException If the block could not be read
+   */
+  ColumnData readColumn(int chunk, ReleaseColumn column) throws IOException {
+    int index = checkColumn(column);
+    Chunk info = chunks[chunk];
+    ByteBuffer compressed = read(info.offset[index], info.compressedLength[index]);
+    byte[] raw = new byte[info.rawLength[index]];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed.array(), 0, compressed.limit());
+      int length = 0;
+      while (length < raw.length && !inflater.finished()) {
+        int inflated = inflater.inflate(raw, length, raw.length - length);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new EOFException("Truncated column block");
+        }
+        length += inflated;
+      }
+    } catch (DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(raw);
+    ColumnData data = new ColumnData();
+    switch (column.getKind()) {
+      case LONG:
+        data.longs = new long[info.rows];
+        long previous = 0;
+        for (int i = 0; i < info.rows; i++) {
+          previous += ByteWriter.readLong(buffer);
+          data.longs[i] = previous;
+        }
+        break;
+      case DICTIONARY:
+        data.dictionary = new String[(int) ByteWriter.readLong(buffer)];
+        for (int i = 0; i < data.dictionary.length; i++) {
+          data.dictionary[i] = ByteWriter.readString(buffer);
+        }
+        data.codes = new int[info.rows];
+        for (int i = 0; i < info.rows; i++) {
+          data.codes[i] = (int) ByteWriter.readLong(buffer);
+        }
+        break;
+      default:
+        data.strings = new String[info.rows];
+        for (int i = 0; i < info.rows; i++) {
+          data.strings[i] = ByteWriter.readString(buffer);
+        }
+        break;
+    }
+    return data;
+  }
+
+  private int checkColumn(ReleaseColumn column) {
+    int index = columnIndex[column.ordinal()];
+    if (index < 0) {
+      throw new IllegalArgumentException("column " + column + " not in file");
+    }
+    return index;
+  }
+
+  private ByteBuffer read(long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarScanner [getRowCount()=" + getRowCount() + ", getChunkCount()="
+        + getChunkCount() + "]";
+  }
+
+  /**
+   * The decoded values of a single column block. Depending on the kind of the column either
+   * {@code longs}, {@code strings} or {@code dictionary} and {@code codes} are set. Code {@code 0}
+   * is {@code null}, code {@code n} is {@code dictionary[n - 1]}.
+   */
+  static final class ColumnData {
+
+    long[] longs;
+    String[] strings;
+    String[] dictionary;
+    int[] codes;
+
+  }
+
+  /**
+   * Footer information of a single chunk.
+   */
+  private static final class Chunk {
+
+    private final int rows;
+    private final long[] offset;
+    private final int[] compressedLength;
+    private final int[] rawLength;
+    private final long[] min;
+    private final long[] max;
+
+    private Chunk(ByteBuffer footer, int columnCount) {
+      this.rows = (int) ByteWriter.readLong(footer);
+      this.offset = new long[columnCount];
+      this.compressedLength = new int[columnCount];
+      this.rawLength = new int[columnCount];
+      this.min = new long[columnCount];
+      this.max = new long[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        offset[i] = ByteWriter.readLong(footer);
+        compressedLength[i] = (int) ByteWriter.readLong(footer);
+        rawLength[i] = (int) ByteWriter.readLong(footer);
+        min[i] = ByteWriter.readLong(footer);
+        max[i] = ByteWriter.readLong(footer);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.Size;
+import com.github.saftsau.xrel4j.release.p2p.P2pCategory;
+import com.github.saftsau.xrel4j.release.p2p.P2pGroup;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link Release} and {@link P2pRelease} used by {@link ReleaseStore}.
+ * Primitives are written by {@link ByteWriter}. Only the fields returned by the release listing
+ * methods are stored, the nested lists of an {@link ExtInfo} except its URIs are not.
+ */
+final class ReleaseCodec {
+
+  static final byte TYPE_RELEASE = 1;
+  static final byte TYPE_P2P_RELEASE = 2;
+
+  private final ByteWriter writer = new ByteWriter();
+
+  /**
+   * Encodes a release, replacing anything encoded before.
+   * 
+   * @param release The {@link Release} or {@link P2pRelease}
+   * @return This codec
+   */
+  ReleaseCodec encode(ReleaseBase release) {
+    writer.reset();
+    if (release instanceof P2pRelease) {
+      writer.writeByte(TYPE_P2P_RELEASE);
+    } else if (release instanceof Release) {
+      writer.writeByte(TYPE_RELEASE);
+    } else {
+      throw new IllegalArgumentException("Unsupported release " + release.getClass().getName());
+    }
+    writer.writeString(release.getId());
+    writer.writeString(release.getDirname());
+    writer.writeString(release.getLinkHref());
+    writer.writeLong(release.getNumRatings());
+    writer.writeDouble(release.getVideoRating());
+    writer.writeDouble(release.getAudioRating());
+    writer.writeLong(release.getTvSeason());
+    writer.writeLong(release.getTvEpisode());
+    writer.writeLong(release.getComments());
+    writeExtInfo(release.getExtInfo());
+
+    if (release instanceof P2pRelease) {
+      P2pRelease p2pRelease = (P2pRelease) release;
+      P2pCategory category = p2pRelease.getCategory();
+      writer.writeByte(category == null ? 0 : 1);
+      if (category != null) {
+        writer.writeString(category.getMetaCat());
+        writer.writeString(category.getSubCat());
+        writer.writeString(category.getId());
+      }
+      writer.writeString(p2pRelease.getMainLang());
+      writer.writeLong(p2pRelease.getPubTime());
+      writer.writeLong(p2pRelease.getPostTime());
+      writer.writeLong(p2pRelease.getSizeMb());
+      P2pGroup group = p2pRelease.getGroup();
+      writer.writeByte(group == null ? 0 : 1);
+      if (group != null) {
+        writer.writeString(group.getId());
+        writer.writeString(group.getName());
+      }
+    } else {
+      Release sceneRelease = (Release) release;
+      writer.writeLong(sceneRelease.getTime());
+      writer.writeString(sceneRelease.getGroupName());
+      writer.writeString(sceneRelease.getNukeReason());
+      Size size = sceneRelease.getSize();
+      writer.writeByte(size == null ? 0 : 1);
+      if (size != null) {
+        writer.writeLong(size.getNumber());
+        writer.writeString(size.getUnit());
+      }
+      writer.writeString(sceneRelease.getVideoType());
+      writer.writeString(sceneRelease.getAudioType());
+      writer.writeString(sceneRelease.getProofUrl());
+      Map<String, Boolean> flags = sceneRelease.getFlags();
+      writer.writeLong(flags == null ? -1 : flags.size());
+      if (flags != null) {
+        for (Map.Entry<String, Boolean> flag : flags.entrySet()) {
+          writer.writeString(flag.getKey());
+          writer.writeByte(Boolean.TRUE.equals(flag.getValue()) ? 1 : 0);
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Gets the number of bytes of the last encoded release.
+   * 
+   * @return The length
+   */
+  int length() {
+    return writer.length();
+  }
+
+  /**
+   * Copies the last encoded release into a buffer at its current position.
+   * 
+   * @param buffer The buffer to write to
+   */
+  void writeTo(ByteBuffer buffer) {
+    writer.writeTo(buffer);
+  }
+
+  /**
+   * Decodes a release written by {@link #encode(ReleaseBase)}.
+   * 
+   * @param buffer The buffer positioned at the start of the encoded release
+   * @return The decoded {@link Release} or {@link P2pRelease}
+   */
+  static ReleaseBase decode(ByteBuffer buffer) {
+    byte type = buffer.get();
+    ReleaseBase release = type == TYPE_P2P_RELEASE ? new P2pRelease() : new Release();
+    release.setId(ByteWriter.readString(buffer));
+    release.setDirname(ByteWriter.readString(buffer));
+    release.setLinkHref(ByteWriter.readString(buffer));
+    release.setNumRatings((int) ByteWriter.readLong(buffer));
+    release.setVideoRating(buffer.getDouble());
+    release.setAudioRating(buffer.getDouble());
+    release.setTvSeason((int) ByteWriter.readLong(buffer));
+    release.setTvEpisode((int) ByteWriter.readLong(buffer));
+    release.setComments((int) ByteWriter.readLong(buffer));
+    release.setExtInfo(readExtInfo(buffer));
+
+    if (type == TYPE_P2P_RELEASE) {
+      P2pRelease p2pRelease = (P2pRelease) release;
+      if (buffer.get() != 0) {
+        P2pCategory category = new P2pCategory();
+        category.setMetaCat(ByteWriter.readString(buffer));
+        category.setSubCat(ByteWriter.readString(buffer));
+        category.setId(ByteWriter.readString(buffer));
+        p2pRelease.setCategory(category);
+      }
+      p2pRelease.setMainLang(ByteWriter.readString(buffer));
+      p2pRelease.setPubTime(ByteWriter.readLong(buffer));
+      p2pRelease.setPostTime(ByteWriter.readLong(buffer));
+      p2pRelease.setSizeMb(ByteWriter.readLong(buffer));
+      if (buffer.get() != 0) {
+        P2pGroup group = new P2pGroup();
+        group.setId(ByteWriter.readString(buffer));
+        group.setName(ByteWriter.readString(buffer));
+        p2pRelease.setGroup(group);
+      }
+    } else {
+      Release sceneRelease = (Release) release;
+      sceneRelease.setTime(ByteWriter.readLong(buffer));
+      sceneRelease.setGroupName(ByteWriter.readString(buffer));
+      sceneRelease.setNukeReason(ByteWriter.readString(buffer));
+      if (buffer.get() != 0) {
+        Size size = new Size();
+        size.setNumber((int) ByteWriter.readLong(buffer));
+        size.setUnit(ByteWriter.readString(buffer));
+        sceneRelease.setSize(size);
+      }
+      sceneRelease.setVideoType(ByteWriter.readString(buffer));
+      sceneRelease.setAudioType(ByteWriter.readString(buffer));
+      sceneRelease.setProofUrl(ByteWriter.readString(buffer));
+      int flagCount = (int) ByteWriter.readLong(buffer);
+      if (flagCount >= 0) {
+        Map<String, Boolean> flags = new LinkedHashMap<>();
+        for (int i = 0; i < flagCount; i++) {
+          flags.put(ByteWriter.readString(buffer), buffer.get() != 0);
+        }
+        sceneRelease.setFlags(flags);
+      }
+    }
+    return release;
+  }
+
+  private void writeExtInfo(ExtInfo extInfo) {
+    writer.writeByte(extInfo == null ? 0 : 1);
+    if (extInfo == null) {
+      return;
+    }
+    writer.writeString(extInfo.getType());
+    writer.writeString(extInfo.getId());
+    writer.writeString(extInfo.getTitle());
+    writer.writeString(extInfo.getLinkHref());
+    writer.writeString(extInfo.getGenre());
+    writer.writeString(extInfo.getAltTitle());
+    writer.writeString(extInfo.getCoverUrl());
+    writer.writeDouble(extInfo.getRating());
+    writer.writeLong(extInfo.getNumRatings());
+    writer.writeLong(extInfo.getOwnRating());
+    List<String> uris = extInfo.getUris();
+    writer.writeLong(uris == null ? -1 : uris.size());
+    if (uris != null) {
+      for (String uri : uris) {
+        writer.writeString(uri);
+      }
+    }
+  }
+
+  private static ExtInfo readExtInfo(ByteBuffer buffer) {
+    if (buffer.get() == 0) {
+      return null;
+    }
+    ExtInfo extInfo = new ExtInfo();
+    extInfo.setType(ByteWriter.readString(buffer));
+    extInfo.setId(ByteWriter.readString(buffer));
+    extInfo.setTitle(ByteWriter.readString(buffer));
+    extInfo.setLinkHref(ByteWriter.readString(buffer));
+    extInfo.setGenre(ByteWriter.readString(buffer));
+    extInfo.setAltTitle(ByteWriter.readString(buffer));
+    extInfo.setCoverUrl(ByteWriter.readString(buffer));
+    extInfo.setRating(buffer.getDouble());
+    extInfo.setNumRatings(ByteWriter.readLong(buffer));
+    extInfo.setOwnRating((int) ByteWriter.readLong(buffer));
+    int uriCount = (int) ByteWriter.readLong(buffer);
+    if (uriCount >= 0) {
+      List<String> uris = new ArrayList<>(uriCount);
+      for (int i = 0; i < uriCount; i++) {
+        uris.add(ByteWriter.readString(buffer));
+      }
+      extInfo.setUris(uris);
+    }
+    return extInfo;
+  }
+
+}
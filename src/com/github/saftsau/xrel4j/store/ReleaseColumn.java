@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pCategory;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * The columns written by {@link ColumnarExporter} and read by {@link ColumnarScanner}. Columns
+ * that do not apply to a type of release are {@code null} or {@code 0}.
+ */
+public enum ReleaseColumn {
+
+  /**
+   * {@code release} for a {@link Release}, {@code p2p_rls} for a {@link P2pRelease}.
+   */
+  TYPE(Kind.DICTIONARY, release -> release instanceof P2pRelease ? "p2p_rls" : "release"),
+  /**
+   * The ID of the release.
+   */
+  ID(Kind.STRING, ReleaseBase::getId),
+  /**
+   * The dirname of the release.
+   */
+  DIRNAME(Kind.STRING, ReleaseBase::getDirname),
+  /**
+   * The group name of a {@link Release} or the group name of a {@link P2pRelease}.
+   */
+  GROUP(Kind.DICTIONARY, ReleaseColumn::getGroup),
+  /**
+   * The meta category of a {@link P2pRelease}.
+   */
+  CATEGORY(Kind.DICTIONARY, release -> {
+    P2pCategory category = release instanceof P2pRelease
+        ? ((P2pRelease) release).getCategory() : null;
+    return category == null ? null : category.getMetaCat();
+  }),
+  /**
+   * The sub category of a {@link P2pRelease}.
+   */
+  SUB_CATEGORY(Kind.DICTIONARY, release -> {
+    P2pCategory category = release instanceof P2pRelease
+        ? ((P2pRelease) release).getCategory() : null;
+    return category == null ? null : category.getSubCat();
+  }),
+  /**
+   * The type of the ext info of the release, for example {@code movie}.
+   */
+  EXT_INFO_TYPE(Kind.DICTIONARY,
+      release -> release.getExtInfo() == null ? null : release.getExtInfo().getType()),
+  /**
+   * The video type of a {@link Release}.
+   */
+  VIDEO_TYPE(Kind.DICTIONARY,
+      release -> release instanceof Release ? ((Release) release).getVideoType() : null),
+  /**
+   * The audio type of a {@link Release}.
+   */
+  AUDIO_TYPE(Kind.DICTIONARY,
+      release -> release instanceof Release ? ((Release) release).getAudioType() : null),
+  /**
+   * The pre time of a {@link Release} or the publish time of a {@link P2pRelease} as UNIX
+   * timestamp.
+   */
+  TIME(ReleaseBase::getEpochSecond),
+  /**
+   * The size of the release in bytes, {@code 0} if not available so sums only count known sizes.
+   */
+  SIZE_BYTES(ReleaseColumn::getSizeBytes),
+  /**
+   * The number of comments of the release.
+   */
+  COMMENTS(ReleaseBase::getComments),
+  /**
+   * The number of ratings of the release.
+   */
+  NUM_RATINGS(ReleaseBase::getNumRatings);
+
+  /**
+   * How the values of a column are stored.
+   */
+  enum Kind {
+    /**
+     * Numbers, delta encoded.
+     */
+    LONG,
+    /**
+     * Strings with few distinct values, stored once per chunk and referenced by number.
+     */
+    DICTIONARY,
+    /**
+     * Strings stored as they are.
+     */
+    STRING
+  }
+
+  private final Kind kind;
+  private final Function<ReleaseBase, String> stringValue;
+  private final ToLongFunction<ReleaseBase> longValue;
+
+  private ReleaseColumn(Kind kind, Function<ReleaseBase, String> stringValue) {
+    this.kind = kind;
+    this.stringValue = stringValue;
+    this.longValue = null;
+  }
+
+  private ReleaseColumn(ToLongFunction<ReleaseBase> longValue) {
+    this.kind = Kind.LONG;
+    this.stringValue = null;
+    this.longValue = longValue;
+  }
+
+  /**
+   * Checks whether this column contains numbers.
+   * 
+   * @return {@code true} for number columns, {@code false} for text columns
+   */
+  public boolean isNumeric() {
+    return kind == Kind.LONG;
+  }
+
+  Kind getKind() {
+    return kind;
+  }
+
+  String getString(ReleaseBase release) {
+    return stringValue.apply(release);
+  }
+
+  long getLong(ReleaseBase release) {
+    return longValue.applyAsLong(release);
+  }
+
+  private static String getGroup(ReleaseBase release) {
+    if (release instanceof P2pRelease) {
+      P2pRelease p2pRelease = (P2pRelease) release;
+      return p2pRelease.getGroup() == null ? null : p2pRelease.getGroup().getName();
+    }
+    return ((Release) release).getGroupName();
+  }
+
+  private static long getSizeBytes(ReleaseBase release) {
+    return Math.max(0, release.getSizeBytes());
+  }
+
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Embedded, append-only archive of {@link Release}s and {@link P2pRelease}s. Releases are written
+ * with a compact binary encoding into memory-mapped segment files of a fixed size inside a
+ * directory; a new segment is started once the current one is full. Every release is a single
+ * sequential write, storing a release again appends a new version which replaces the old one.
+ * <p>
+ * An index from release ID to file position and an index ordered by time (pre time of a
+ * {@link Release}, publish time of a {@link P2pRelease}) are kept in memory and rebuilt from the
+ * segments when a store is opened again.
+ * <p>
+ * A ReleaseStore is safe to be used by multiple threads, but a directory must only be opened by a
+ * single ReleaseStore at a time.
+ */
+public class ReleaseStore implements AutoCloseable {
+
+  /**
+   * The default size of a segment file in bytes.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final int MAGIC = 0x78524c53;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 8;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".xrs";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final List<MappedByteBuffer> segments = new ArrayList<>();
+  private final Map<String, Entry> index = new HashMap<>();
+  private final TreeMap<Long, List<Long>> timeIndex = new TreeMap<>();
+  private final ReleaseCodec codec = new ReleaseCodec();
+  private boolean closed;
+
+  /**
+   * Opens the ReleaseStore in the given directory with segments of
+   * {@link #DEFAULT_SEGMENT_SIZE}. The directory is created if it does not exist.
+   * 
+   * @param directory The directory containing the segment files
+   * @throws IOException If the segments could not be read or created
+   */
+  public ReleaseStore(Path directory) throws IOException {
+    this(directory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Opens the ReleaseStore in the given directory. The directory is created if it does not exist.
+   * Existing segments keep their size, new segments are created with the given size.
+   * 
+   * @param directory The directory containing the segment files
+   * @param segmentSize The size of new segment files in bytes
+   * @throws IOException If the segments could not be read or created
+   */
+  public ReleaseStore(Path directory, int segmentSize) throws IOException {
+    this.directory = Objects.requireNonNull(directory, "directory missing");
+    if (segmentSize <= HEADER_SIZE + 4) {
+      throw new IllegalArgumentException("segmentSize too small");
+    }
+    this.segmentSize = segmentSize;
+
+    Files.createDirectories(directory);
+    TreeSet<Path> paths = new TreeSet<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        paths.add(path);
+      }
+    }
+    for (Path path : paths) {
+      openSegment(path);
+    }
+    if (segments.isEmpty()) {
+      createSegment();
+    }
+  }
+
+  /**
+   * Gets the directory containing the segment files.
+   * 
+   * @return The directory
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Gets the number of distinct releases in this store.
+   * 
+   * @return The number of releases
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of segment files of this store.
+   * 
+   * @return The number of segments
+   */
+  public int getSegmentCount() {
+    lock.lock();
+    try {
+      return segments.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Appends a single release. If a release with the same ID was stored before, it is replaced.
+   * 
+   * @param release The {@link Release} or {@link P2pRelease} to store
+   * @throws IOException If a new segment could not be created
+   */
+  public void put(ReleaseBase release) throws IOException {
+    Objects.requireNonNull(release, "release missing");
+    Objects.requireNonNull(release.getId(), "release id missing");
+    lock.lock();
+    try {
+      append(release);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Appends all given releases in order, see {@link #put(ReleaseBase)}.
+   * 
+   * @param releases The {@link Release}s or {@link P2pRelease}s to store
+   * @return The number of releases written
+   * @throws IOException If a new segment could not be created
+   */
+  public int putAll(Collection<? extends ReleaseBase> releases) throws IOException {
+    Objects.requireNonNull(releases, "releases missing");
+    lock.lock();
+    try {
+      for (ReleaseBase release : releases) {
+        Objects.requireNonNull(release, "release missing");
+        Objects.requireNonNull(release.getId(), "release id missing");
+        append(release);
+      }
+      return releases.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Appends all releases of a {@link PaginationList} as returned by the listing methods of
+   * {@link com.github.saftsau.xrel4j.Xrel}, see {@link #put(ReleaseBase)}.
+   * 
+   * @param paginationList The {@link PaginationList} to store
+   * @return The number of releases written
+   * @throws IOException If a new segment could not be created
+   */
+  public int putAll(PaginationList<? extends ReleaseBase> paginationList) throws IOException {
+    Objects.requireNonNull(paginationList, "paginationList missing");
+    if (paginationList.getList() == null) {
+      return 0;
+    }
+    return putAll(paginationList.getList());
+  }
+
+  /**
+   * Gets the latest stored version of a {@link Release}.
+   * 
+   * @param id The ID of the {@link Release}
+   * @return The {@link Release} or {@code null} if not stored
+   */
+  public Release getRelease(String id) {
+    return (Release) get(key(ReleaseCodec.TYPE_RELEASE, id));
+  }
+
+  /**
+   * Gets the latest stored version of a {@link P2pRelease}.
+   * 
+   * @param id The ID of the {@link P2pRelease}
+   * @return The {@link P2pRelease} or {@code null} if not stored
+   */
+  public P2pRelease getP2pRelease(String id) {
+    return (P2pRelease) get(key(ReleaseCodec.TYPE_P2P_RELEASE, id));
+  }
+
+  /**
+   * Passes all stored releases to the consumer, ordered by time with the oldest first. Releases
+   * with the same time keep the order they were stored in.
+   * 
+   * @param consumer The consumer receiving the releases
+   */
+  public void scan(Consumer<? super ReleaseBase> consumer) {
+    scan(Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+  }
+
+  /**
+   * Passes all stored releases with {@code fromTime <= time < toTime} to the consumer, ordered by
+   * time with the oldest first. Releases with the same time keep the order they were stored in.
+   * 
+   * @param fromTime The first UNIX timestamp to include
+   * @param toTime The first UNIX timestamp to exclude
+   * @param consumer The consumer receiving the releases
+   */
+  public void scan(long fromTime, long toTime, Consumer<? super ReleaseBase> consumer) {
+    Objects.requireNonNull(consumer, "consumer missing");
+    List<Long> locations = new ArrayList<>();
+    List<MappedByteBuffer> snapshot;
+    lock.lock();
+    try {
+      checkOpen();
+      if (fromTime < toTime) {
+        for (List<Long> sameTime : timeIndex.subMap(fromTime, true, toTime, false).values()) {
+          locations.addAll(sameTime);
+        }
+      }
+      snapshot = new ArrayList<>(segments);
+    } finally {
+      lock.unlock();
+    }
+    // Written records never change, so they can be decoded without holding the lock
+    for (long location : locations) {
+      consumer.accept(read(snapshot.get(segment(location)), offset(location)));
+    }
+  }
+
+  /**
+   * Writes all changes of the memory-mapped segments to disk.
+   */
+  public void flush() {
+    lock.lock();
+    try {
+      for (MappedByteBuffer segment : segments) {
+        segment.force();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Flushes and closes this ReleaseStore. Any further use throws an
+   * {@link IllegalStateException}.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      flush();
+      closed = true;
+      segments.clear();
+      index.clear();
+      timeIndex.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ReleaseBase get(String key) {
+    MappedByteBuffer segment;
+    Entry entry;
+    lock.lock();
+    try {
+      checkOpen();
+      entry = index.get(key);
+      if (entry == null) {
+        return null;
+      }
+      segment = segments.get(segment(entry.location));
+    } finally {
+      lock.unlock();
+    }
+    return read(segment, offset(entry.location));
+  }
+
+  private void append(ReleaseBase release) throws IOException {
+    checkOpen();
+    codec.encode(release);
+    int length = codec.length();
+    if (HEADER_SIZE + 4 + length > segmentSize) {
+      throw new IllegalArgumentException("release " + release.getId() + " larger than segment");
+    }
+    MappedByteBuffer segment = segments.get(segments.size() - 1);
+    if (segment.remaining() < 4 + length) {
+      segment = createSegment();
+    }
+    int offset = segment.position();
+    segment.position(offset + 4);
+    codec.writeTo(segment);
+    // The length is written last, a torn record is therefore never read back
+    segment.putInt(offset, length);
+    index(release, location(segments.size() - 1, offset));
+  }
+
+  private void index(ReleaseBase release, long location) {
+    long time = release.getEpochSecond();
+    byte type =
+        release instanceof P2pRelease ? ReleaseCodec.TYPE_P2P_RELEASE : ReleaseCodec.TYPE_RELEASE;
+    Entry previous = index.put(key(type, release.getId()), new Entry(location, time));
+    if (previous != null) {
+      List<Long> sameTime = timeIndex.get(previous.time);
+      sameTime.remove(Long.valueOf(previous.location));
+      if (sameTime.isEmpty()) {
+        timeIndex.remove(previous.time);
+      }
+    }
+    timeIndex.computeIfAbsent(time, t -> new ArrayList<>(1)).add(location);
+  }
+
+  private void openSegment(Path path) throws IOException {
+    MappedByteBuffer segment;
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    }
+    if (segment.limit() < HEADER_SIZE || segment.getInt(0) != MAGIC
+        || segment.getInt(4) != VERSION) {
+      throw new IOException("Not a release store segment: " + path);
+    }
+    int segmentIndex = segments.size();
+    segments.add(segment);
+
+    int offset = HEADER_SIZE;
+    while (offset + 4 <= segment.limit()) {
+      int length = segment.getInt(offset);
+      if (length <= 0 || offset + 4 + length > segment.limit()) {
+        break;
+      }
+      index(read(segment, offset), location(segmentIndex, offset));
+      offset += 4 + length;
+    }
+    segment.position(offset);
+  }
+
+  private MappedByteBuffer createSegment() throws IOException {
+    Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segments.size(),
+        SEGMENT_SUFFIX));
+    MappedByteBuffer segment;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segment.putInt(MAGIC);
+    segment.putInt(VERSION);
+    segments.add(segment);
+    return segment;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("ReleaseStore closed");
+    }
+  }
+
+  private static ReleaseBase read(MappedByteBuffer segment, int offset) {
+    ByteBuffer buffer = segment.duplicate();
+    int length = buffer.getInt(offset);
+    buffer.limit(offset + 4 + length);
+    buffer.position(offset + 4);
+    return ReleaseCodec.decode(buffer);
+  }
+
+  private static long location(int segment, int offset) {
+    return ((long) segment << 32) | offset;
+  }
+
+  private static int segment(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static int offset(long location) {
+    return (int) location;
+  }
+
+  private static String key(byte type, String id) {
+    return (type == ReleaseCodec.TYPE_P2P_RELEASE ? "p2p_rls:" : "release:") + id;
+  }
+
+  @Override
+  public String toString() {
+    return "ReleaseStore [getDirectory()=" + getDirectory() + ", size()=" + size()
+        + ", getSegmentCount()=" + getSegmentCount() + "]";
+  }
+
+  /**
+   * Position and time of the latest version of a release.
+   */
+  private static final class Entry {
+
+    private final long location;
+    private final long time;
+
+    private Entry(long location, long time) {
+      this.location = location;
+      this.time = time;
+    }
+
+  }
+
+}
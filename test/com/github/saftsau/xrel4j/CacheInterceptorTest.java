@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.saftsau.xrel4j.cache.CachePolicy;
+import com.github.saftsau.xrel4j.cache.LruResponseCache;
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.mock.MockXrelServer;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link CacheInterceptor} with a {@link LruResponseCache} against a {@link MockXrelServer},
+ * counting the requests that actually reach the server.
+ */
+public class CacheInterceptorTest {
+
+  private final RestClientConfiguration previousConfiguration =
+      Xrel.getRestClientConfiguration();
+  private final Xrel xrel = new Xrel("id", "secret");
+  private final LruResponseCache cache = new LruResponseCache(1024 * 1024);
+  private final CachePolicy policy = new CachePolicy();
+  private MockXrelServer server;
+  private Release release;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockXrelServer(new MockData(20, 0, 5, 0, 0));
+    server.start();
+    release = server.getData().getReleases().get(3);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    Xrel.setRestClientConfiguration(previousConfiguration);
+    // The rate limit state is global, don't let it leak into other tests
+    while (xrel.getXRateLimitRemaining() == 0
+        && xrel.getXRateLimitReset() * 1000L > System.currentTimeMillis()) {
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  public void answersRepeatedRequestsFromCache() {
+    configure();
+    assertEquals(release.getDirname(), xrel.getReleaseInfoId(release.getId()).getDirname());
+    long requestCount = server.getRequestCount();
+    assertEquals(release.getDirname(), xrel.getReleaseInfoId(release.getId()).getDirname());
+    assertEquals(requestCount, server.getRequestCount());
+
+    CacheStats stats = Xrel.getCacheStats().get("release/info.json");
+    assertEquals(1, stats.getHits());
+    assertEquals(1, stats.getMisses());
+    assertEquals(1, stats.getStores());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void keysIncludeParameters() {
+    configure();
+    String first = xrel.getReleaseLatest(5, 1).getList().get(0).getId();
+    String second = xrel.getReleaseLatest(5, 2).getList().get(0).getId();
+    assertFalse(first.equals(second));
+    assertEquals(2, server.getRequestCount());
+    assertEquals(first, xrel.getReleaseLatest(5, 1).getList().get(0).getId());
+    assertEquals(second, xrel.getReleaseLatest(5, 2).getList().get(0).getId());
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test
+  public void neverCachesAuthenticatedRequests() {
+    configure();
+    Token token = new Token("a", "Bearer", 3600, "r");
+    xrel.getReleaseLatest(5, 1, token);
+    xrel.getReleaseLatest(5, 1, token);
+    assertEquals(2, server.getRequestCount());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void requestsAgainAfterExpiry() throws Exception {
+    policy.setTtl("release/info.json", 100, TimeUnit.MILLISECONDS);
+    // Not cached at all
+    policy.setTtl("release/latest.json", 0, TimeUnit.MILLISECONDS);
+    configure();
+
+    xrel.getReleaseInfoId(release.getId());
+    Thread.sleep(200);
+    xrel.getReleaseInfoId(release.getId());
+    assertEquals(2, server.getRequestCount());
+    xrel.getReleaseInfoId(release.getId());
+    assertEquals(2, server.getRequestCount());
+
+    xrel.getReleaseLatest(5, 1);
+    xrel.getReleaseLatest(5, 1);
+    assertEquals(4, server.getRequestCount());
+    assertFalse(Xrel.getCacheStats().containsKey("release/latest.json"));
+  }
+
+  @Test
+  public void servesStaleWhileRefreshing() throws Exception {
+    policy.setTtl("release/info.json", 300, TimeUnit.MILLISECONDS);
+    policy.setMaxStale("release/info.json", 1, TimeUnit.MINUTES);
+    configure();
+    String dirname = release.getDirname();
+    xrel.getReleaseInfoId(release.getId());
+    release.setDirname("Changed.Dirname-GRP");
+    server.clearResponseCache();
+    Thread.sleep(400);
+
+    // Answered right away, while a single request refreshes the response
+    for (int i = 0; i < 5; i++) {
+      assertEquals(dirname, xrel.getReleaseInfoId(release.getId()).getDirname());
+    }
+    awaitRequestCount(2);
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!release.getDirname().equals(xrel.getReleaseInfoId(release.getId()).getDirname())
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(release.getDirname(), xrel.getReleaseInfoId(release.getId()).getDirname());
+    assertEquals(2, server.getRequestCount());
+    CacheStats stats = Xrel.getCacheStats().get("release/info.json");
+    assertEquals(1, stats.getMisses());
+    assertTrue(stats.getStaleHits() >= 1);
+    assertEquals(0, stats.getRefreshFailures());
+  }
+
+  @Test
+  public void requestsAgainAfterMaxStale() throws Exception {
+    policy.setTtl("release/info.json", 100, TimeUnit.MILLISECONDS);
+    policy.setMaxStale("release/info.json", 100, TimeUnit.MILLISECONDS);
+    configure();
+    xrel.getReleaseInfoId(release.getId());
+    Thread.sleep(300);
+    xrel.getReleaseInfoId(release.getId());
+    CacheStats stats = Xrel.getCacheStats().get("release/info.json");
+    assertEquals(2, stats.getMisses());
+    assertEquals(0, stats.getStaleHits());
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test
+  public void failedRefreshKeepsStaleResponse() throws Exception {
+    policy.setTtl("release/info.json", 100, TimeUnit.MILLISECONDS);
+    policy.setMaxStale("release/info.json", 1, TimeUnit.MINUTES);
+    configure();
+    String dirname = release.getDirname();
+    xrel.getReleaseInfoId(release.getId());
+    // Every further request fails with 429
+    server.setRateLimit(0, 1, TimeUnit.SECONDS);
+    Thread.sleep(200);
+
+    assertEquals(dirname, xrel.getReleaseInfoId(release.getId()).getDirname());
+    awaitRequestCount(2);
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (Xrel.getCacheStats().get("release/info.json").getRefreshFailures() == 0
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, Xrel.getCacheStats().get("release/info.json").getRefreshFailures());
+    // No further refresh is started until the rate limit is reset
+    assertEquals(dirname, xrel.getReleaseInfoId(release.getId()).getDirname());
+    Thread.sleep(100);
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test
+  public void cachesNotFoundErrors() {
+    configure();
+    assertErrorCode(404, () -> xrel.getReleaseInfoId("missing"));
+    assertErrorCode(404, () -> xrel.getReleaseInfoId("missing"));
+    assertEquals(1, server.getRequestCount());
+    CacheStats stats = Xrel.getCacheStats().get("release/info.json");
+    assertEquals(1, stats.getHits());
+    assertEquals(1, stats.getStores());
+  }
+
+  @Test
+  public void notFoundErrorsAreNeverStale() throws Exception {
+    policy.setNotFoundTtl("release/info.json", 100, TimeUnit.MILLISECONDS);
+    policy.setMaxStale("release/info.json", 1, TimeUnit.MINUTES);
+    configure();
+    assertErrorCode(404, () -> xrel.getReleaseInfoId("missing"));
+    Thread.sleep(200);
+    assertErrorCode(404, () -> xrel.getReleaseInfoId("missing"));
+    assertEquals(2, server.getRequestCount());
+    assertEquals(0, Xrel.getCacheStats().get("release/info.json").getStaleHits());
+  }
+
+  @Test
+  public void otherErrorsAreNotCached() {
+    policy.setNotFoundTtl("p2p/rls_info.json", 0, TimeUnit.MILLISECONDS);
+    configure();
+    assertErrorCode(404, () -> xrel.getP2pRlsInfoId("missing"));
+    assertErrorCode(404, () -> xrel.getP2pRlsInfoId("missing"));
+    assertEquals(2, server.getRequestCount());
+
+    server.setRateLimit(0, 1, TimeUnit.SECONDS);
+    assertErrorCode(429, () -> xrel.getReleaseInfoId(release.getId()));
+    assertErrorCode(429, () -> xrel.getReleaseInfoId(release.getId()));
+    assertEquals(4, server.getRequestCount());
+    assertEquals(0, cache.size());
+  }
+
+  private static void assertErrorCode(int code, Runnable call) {
+    try {
+      call.run();
+      fail("XrelException expected");
+    } catch (XrelException e) {
+      assertEquals(code, e.getResponseCode());
+    }
+  }
+
+  private void awaitRequestCount(long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (server.getRequestCount() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, server.getRequestCount());
+  }
+
+  private void configure() {
+    RestClientConfiguration configuration = server.createRestClientConfiguration();
+    configuration.setResponseCache(cache);
+    configuration.setCachePolicy(policy);
+    Xrel.setRestClientConfiguration(configuration);
+  }
+
+}
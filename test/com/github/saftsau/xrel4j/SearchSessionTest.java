@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.saftsau.xrel4j.extinfo.ExtInfoSearchResult;
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.mock.MockXrelServer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Call;
+
+/**
+ * Tests the debouncing, superseding and caching of {@link SearchSession} against a
+ * {@link MockXrelServer}.
+ */
+public class SearchSessionTest {
+
+  private static final long DEBOUNCE_DELAY = 50;
+
+  private final RestClientConfiguration previousConfiguration =
+      Xrel.getRestClientConfiguration();
+  private final XrelExecutor executor = new XrelExecutor(4);
+  private MockXrelServer server;
+  private SearchSession session;
+
+  @Before
+  public void setUp() throws Exception {
+    // Ext Infos are titled "Title 0" to "Title 99"
+    server = new MockXrelServer(new MockData(0, 0, 100, 0, 0));
+    server.start();
+    Xrel.setRestClientConfiguration(server.createRestClientConfiguration());
+    session = new SearchSession(new Xrel("id", "secret"), DEBOUNCE_DELAY, 16, executor);
+  }
+
+  @After
+  public void tearDown() {
+    session.close();
+    executor.close();
+    server.close();
+    Xrel.setRestClientConfiguration(previousConfiguration);
+  }
+
+  @Test
+  public void sendsOnlyLastSearch() throws Exception {
+    CompletableFuture<ExtInfoSearchResult> first = session.searchExtInfo("T", null);
+    CompletableFuture<ExtInfoSearchResult> second = session.searchExtInfo("Ti", null);
+    CompletableFuture<ExtInfoSearchResult> last = session.searchExtInfo("Title 4", null);
+
+    assertEquals(11, last.get(10, TimeUnit.SECONDS).getTotal());
+    assertTrue(first.isCancelled());
+    assertTrue(second.isCancelled());
+    assertEquals(2, session.getSupersededCount());
+    assertEquals(1, session.getRequestCount());
+    assertEquals(1, server.getRequestCount());
+  }
+
+  @Test
+  public void answersFromCacheAndPrefix() throws Exception {
+    ExtInfoSearchResult result = session.searchExtInfo("Title 4", null).get(10, TimeUnit.SECONDS);
+
+    CompletableFuture<ExtInfoSearchResult> cached = session.searchExtInfo("Title 4", null);
+    assertTrue(cached.isDone());
+    assertSame(result, cached.get());
+    assertEquals(1, session.getCacheHitCount());
+
+    CompletableFuture<ExtInfoSearchResult> prefix = session.searchExtInfo("Title 42", null);
+    assertTrue(prefix.isDone());
+    assertEquals(1, prefix.get().getTotal());
+    assertEquals("Title 42", prefix.get().getResults().get(0).getTitle());
+    assertEquals(1, session.getPrefixHitCount());
+
+    assertEquals(1, session.getRequestCount());
+    assertEquals(1, server.getRequestCount());
+  }
+
+  @Test
+  public void searchFromCallbackIsNotSuperseded() throws Exception {
+    AtomicReference<CompletableFuture<ExtInfoSearchResult>> next = new AtomicReference<>();
+    CompletableFuture<ExtInfoSearchResult> first = session.searchExtInfo("Title 1", null);
+    first.thenRun(() -> next.set(session.searchExtInfo("Title 2", null))).get(10,
+        TimeUnit.SECONDS);
+
+    assertEquals(11, next.get().get(10, TimeUnit.SECONDS).getTotal());
+    assertFalse(first.isCancelled());
+    assertEquals(0, session.getSupersededCount());
+  }
+
+  @Test
+  public void failedSearchIsNotSuperseded() throws Exception {
+    server.close();
+    assertFailure(session.searchExtInfo("Title 1", null), XrelException.class);
+    assertFailure(session.searchExtInfo("Title 2", null), XrelException.class);
+    assertEquals(0, session.getSupersededCount());
+  }
+
+  @Test
+  public void runtimeExceptionCompletesSearch() throws Exception {
+    IllegalStateException exception = new IllegalStateException("test");
+    Xrel xrel = new Xrel("id", "secret") {
+
+      @Override
+      Call<ExtInfoSearchResult> createSearchExtInfoCall(String q, String type, Integer limit) {
+        throw exception;
+      }
+
+    };
+    try (SearchSession failing = new SearchSession(xrel, DEBOUNCE_DELAY, 16, executor)) {
+      assertSame(exception, assertFailure(failing.searchExtInfo("Title 1", null),
+          IllegalStateException.class));
+      assertFailure(failing.searchExtInfo("Title 2", null), IllegalStateException.class);
+      assertEquals(0, failing.getSupersededCount());
+    }
+  }
+
+  private static Throwable assertFailure(CompletableFuture<?> future, Class<?> type)
+      throws Exception {
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail(type.getSimpleName() + " expected");
+      return null;
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause().toString(), type.isInstance(e.getCause()));
+      return e.getCause();
+    }
+  }
+
+}
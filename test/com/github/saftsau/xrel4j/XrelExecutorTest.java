@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/**
+ * Tests {@link XrelExecutor} in both its default mode, which uses virtual threads where available,
+ * and with a pool of platform threads.
+ */
+public class XrelExecutorTest {
+
+  private static final int TASKS = 500;
+  private static final int MAX_CONCURRENCY = 8;
+
+  @Test
+  public void defaultModeBoundsConcurrency() throws Exception {
+    try (XrelExecutor executor = new XrelExecutor(MAX_CONCURRENCY)) {
+      assertConcurrencyBound(executor);
+    }
+  }
+
+  @Test
+  public void platformThreadsBoundConcurrency() throws Exception {
+    try (XrelExecutor executor =
+        new XrelExecutor(Executors.newCachedThreadPool(), MAX_CONCURRENCY)) {
+      assertFalse(executor.isVirtual());
+      assertConcurrencyBound(executor);
+    }
+  }
+
+  @Test
+  public void submitCompletesExceptionally() throws Exception {
+    try (XrelExecutor executor = new XrelExecutor(MAX_CONCURRENCY)) {
+      IllegalStateException exception = new IllegalStateException("test");
+      CompletableFuture<Object> future = executor.submit(() -> {
+        throw exception;
+      });
+      try {
+        future.get(10, TimeUnit.SECONDS);
+        fail("Exception expected");
+      } catch (ExecutionException e) {
+        assertSame(exception, e.getCause());
+      }
+      awaitIdle(executor);
+    }
+  }
+
+  @Test
+  public void scheduleRunsOnExecutor() throws Exception {
+    try (XrelExecutor executor = new XrelExecutor(MAX_CONCURRENCY)) {
+      CountDownLatch ran = new CountDownLatch(1);
+      AtomicInteger active = new AtomicInteger();
+      executor.schedule(() -> {
+        active.set(executor.getActiveCount());
+        ran.countDown();
+      }, 10, TimeUnit.MILLISECONDS);
+      assertTrue(ran.await(10, TimeUnit.SECONDS));
+      assertEquals(1, active.get());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsZeroConcurrency() {
+    new XrelExecutor(0);
+  }
+
+  /**
+   * Submits {@link #TASKS} blocking tasks and checks that exactly {@link #MAX_CONCURRENCY} of them
+   * run at the same time while the others wait for a permit.
+   * 
+   * @param executor The {@link XrelExecutor} to test
+   * @throws Exception If a task failed
+   */
+  private static void assertConcurrencyBound(XrelExecutor executor) throws Exception {
+    CountDownLatch saturated = new CountDownLatch(MAX_CONCURRENCY);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < TASKS; i++) {
+      int index = i;
+      futures.add(executor.submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        saturated.countDown();
+        try {
+          release.await();
+          return index;
+        } finally {
+          running.decrementAndGet();
+        }
+      }));
+    }
+
+    assertTrue(saturated.await(10, TimeUnit.SECONDS));
+    // Give further tasks the chance to exceed the bound if the permits were broken
+    Thread.sleep(100);
+    assertEquals(MAX_CONCURRENCY, running.get());
+    assertEquals(MAX_CONCURRENCY, executor.getActiveCount());
+
+    release.countDown();
+    for (int i = 0; i < TASKS; i++) {
+      assertEquals(i, futures.get(i).get(1, TimeUnit.MINUTES).intValue());
+    }
+    assertEquals(MAX_CONCURRENCY, maxRunning.get());
+    awaitIdle(executor);
+  }
+
+  /**
+   * Waits until all permits of the given {@link XrelExecutor} are released, which happens right
+   * after the futures of the tasks are completed.
+   * 
+   * @param executor The {@link XrelExecutor}
+   * @throws InterruptedException If interrupted while waiting
+   */
+  private static void awaitIdle(XrelExecutor executor) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (executor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, executor.getActiveCount());
+  }
+
+}
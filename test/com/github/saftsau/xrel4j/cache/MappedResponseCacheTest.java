@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests writing a {@link MappedResponseCache}, opening its directory again and reading the entries
+ * back, including entries spread over several segments and the eviction of the oldest segment.
+ */
+public class MappedResponseCacheTest {
+
+  private static final int SEGMENT_SIZE = 4096;
+  private static final long HOUR = 60 * 60 * 1000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final long now = System.currentTimeMillis();
+
+  @Test
+  public void readsBackAfterReopen() throws Exception {
+    Path directory = folder.getRoot().toPath();
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      for (int i = 0; i < 50; i++) {
+        cache.put(key(i), entry(i, now + HOUR));
+      }
+      assertTrue(cache.getSegmentCount() > 1);
+      assertEntries(cache, 50);
+    }
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      assertEntries(cache, 50);
+      // Appends after the entries read back
+      cache.put(key(50), entry(50, now + HOUR));
+    }
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      assertEntries(cache, 51);
+    }
+  }
+
+  @Test
+  public void replacementsAndRemovalsSurviveReopen() throws Exception {
+    Path directory = folder.getRoot().toPath();
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      cache.put(key(0), entry(0, now + HOUR));
+      cache.put(key(1), entry(1, now + HOUR));
+      cache.put(key(0), entry(2, now + HOUR));
+      cache.remove(key(1));
+      assertEquals(body(2).length, cache.getByteSize());
+    }
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      assertEquals(1, cache.size());
+      assertArrayEquals(body(2), cache.get(key(0)).getBody());
+      assertNull(cache.get(key(1)));
+      assertEquals(body(2).length, cache.getByteSize());
+    }
+  }
+
+  @Test
+  public void keepsEntriesForTheirStaleWindow() throws Exception {
+    Path directory = folder.getRoot().toPath();
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      // Expired, but can still be returned as a stale response
+      cache.put(key(0), new CacheEntry(body(0), "application/json", 200, now - 2 * HOUR,
+          now - HOUR, now + HOUR));
+      // Past its stale window
+      cache.put(key(1), new CacheEntry(body(1), "application/json", 200, now - 3 * HOUR,
+          now - 2 * HOUR, now - HOUR));
+      cache.put(key(2), new CacheEntry(body(2), null, 404, now, now + HOUR));
+    }
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 64 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      CacheEntry stale = cache.get(key(0));
+      assertTrue(stale.isExpired(now));
+      assertEquals(now - HOUR, stale.getExpiresAt());
+      assertEquals(now + HOUR, stale.getStaleUntil());
+      assertArrayEquals(body(0), stale.getBody());
+      assertNull(cache.get(key(1)));
+      CacheEntry notFound = cache.get(key(2));
+      assertEquals(404, notFound.getCode());
+      assertNull(notFound.getContentType());
+      assertEquals(2, cache.size());
+    }
+  }
+
+  @Test
+  public void evictsOldestSegment() throws Exception {
+    Path directory = folder.getRoot().toPath();
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 3 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      for (int i = 0; i < 100; i++) {
+        cache.put(key(i), entry(i, now + HOUR));
+      }
+      assertEquals(3, cache.getSegmentCount());
+      assertTrue(cache.getEvictionCount() > 0);
+      assertEquals(100, cache.size() + cache.getEvictionCount());
+      assertNull(cache.get(key(0)));
+      assertArrayEquals(body(99), cache.get(key(99)).getBody());
+    }
+    // Opened with a smaller maximum size
+    try (MappedResponseCache cache = new MappedResponseCache(directory, 2 * SEGMENT_SIZE,
+        SEGMENT_SIZE)) {
+      assertEquals(2, cache.getSegmentCount());
+      assertArrayEquals(body(99), cache.get(key(99)).getBody());
+    }
+  }
+
+  @Test
+  public void dropsEntriesLargerThanSegment() throws Exception {
+    try (MappedResponseCache cache = new MappedResponseCache(folder.getRoot().toPath(),
+        64 * SEGMENT_SIZE, SEGMENT_SIZE)) {
+      cache.put(key(0), entry(0, now + HOUR));
+      cache.put(key(0), new CacheEntry(new byte[SEGMENT_SIZE], null, now, now + HOUR));
+      assertNull(cache.get(key(0)));
+      assertEquals(0, cache.size());
+      assertEquals(0, cache.getWriteErrorCount());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsUseAfterClose() throws Exception {
+    MappedResponseCache cache =
+        new MappedResponseCache(folder.getRoot().toPath(), 64 * SEGMENT_SIZE, SEGMENT_SIZE);
+    cache.close();
+    cache.get(key(0));
+  }
+
+  private void assertEntries(MappedResponseCache cache, int count) {
+    assertEquals(count, cache.size());
+    long byteSize = 0;
+    for (int i = 0; i < count; i++) {
+      CacheEntry entry = cache.get(key(i));
+      assertArrayEquals(body(i), entry.getBody());
+      assertEquals("application/json", entry.getContentType());
+      assertEquals(200, entry.getCode());
+      assertEquals(now + i, entry.getStoredAt());
+      assertEquals(now + HOUR, entry.getExpiresAt());
+      byteSize += body(i).length;
+    }
+    assertEquals(byteSize, cache.getByteSize());
+  }
+
+  private CacheEntry entry(int i, long expiresAt) {
+    return new CacheEntry(body(i), "application/json", 200, now + i, expiresAt);
+  }
+
+  private static CacheKey key(int i) {
+    return CacheKey.of("release/info.json", Collections.singletonMap("id", "id" + i));
+  }
+
+  private static byte[] body(int i) {
+    StringBuilder body = new StringBuilder("{\"id\":\"id").append(i).append("\",\"text\":\"");
+    for (int j = 0; j < 100 + i * 3; j++) {
+      body.append((char) ('a' + (i + j) % 26));
+    }
+    return body.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ReleaseDate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link CalendarService} against in-memory calendars, including the scheduled refreshes
+ * after failures.
+ */
+public class CalendarServiceTest {
+
+  private static final LocalDate DAY = LocalDate.of(2019, 3, 1);
+  private static final long REFRESH_INTERVAL = 50;
+
+  private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+  // Request numbers of the country de that fail, starting at 1
+  private volatile IntPredicate failing = request -> false;
+  private final Xrel xrel = new Xrel() {
+
+    @Override
+    public List<ExtInfo> getCalendarUpcoming(String country) {
+      int request = requests.computeIfAbsent(country, key -> new AtomicInteger()).incrementAndGet();
+      if (country.equals("de") && failing.test(request)) {
+        if (request % 2 == 0) {
+          throw new IllegalStateException("bug");
+        }
+        throw new XrelException(500);
+      }
+      return Arrays.asList(extInfo(country + "-movie", "movie", 0, 3),
+          extInfo(country + "-game", "game", 1),
+          extInfo(country + "-request" + request, "movie", 7));
+    }
+
+  };
+  private final XrelExecutor executor = new XrelExecutor(2);
+
+  @After
+  public void tearDown() {
+    executor.close();
+  }
+
+  @Test
+  public void answersLookupsFromIndex() {
+    CalendarService service = new CalendarService(xrel, 1, TimeUnit.HOURS, executor);
+    assertTrue(service.getUpcoming("de").isEmpty());
+    assertFalse(service.getLastRefresh("de").isPresent());
+
+    service.refresh();
+    assertEquals(1, requests.get("de").get());
+    assertEquals(1, requests.get("us").get());
+    assertTrue(service.getLastRefresh("us").isPresent());
+    assertEquals(3, service.getUpcoming("de").size());
+
+    assertEquals(Arrays.asList("de-movie", "de-game", "de-movie"),
+        ids(service.getEntries("de", DAY, DAY.plusDays(3))));
+    assertEquals(Arrays.asList("us-movie", "us-movie"),
+        ids(service.getEntries("us", DAY, DAY.plusDays(6), "movie")));
+    assertEquals(Arrays.asList("de-request1"),
+        ids(service.getEntries("de", DAY.plusDays(4), DAY.plusDays(30))));
+    assertTrue(service.getEntries("de", DAY, DAY.plusDays(30), "series").isEmpty());
+    assertEquals(1, requests.get("de").get());
+  }
+
+  @Test
+  public void refreshesOnSchedule() throws Exception {
+    try (CalendarService service =
+        new CalendarService(xrel, REFRESH_INTERVAL, TimeUnit.MILLISECONDS, executor)) {
+      service.start();
+      service.start();
+      awaitRequests("de", 3);
+      awaitRequests("us", 3);
+      List<String> ids = ids(service.getEntries("us", DAY.plusDays(7), DAY.plusDays(7)));
+      assertEquals(1, ids.size());
+      assertTrue(ids.get(0).startsWith("us-request"));
+    }
+  }
+
+  @Test
+  public void keepsCalendarAndRetriesAfterFailures() throws Exception {
+    failing = request -> request > 1;
+    try (CalendarService service =
+        new CalendarService(xrel, REFRESH_INTERVAL, TimeUnit.MILLISECONDS, executor)) {
+      service.start();
+      // Both API errors and other exceptions are retried
+      awaitRequests("de", 6);
+      assertEquals(Arrays.asList("de-request1"),
+          ids(service.getEntries("de", DAY.plusDays(7), DAY.plusDays(7))));
+
+      failing = request -> false;
+      int failed = requests.get("de").get();
+      awaitRequests("de", failed + 2);
+      assertFalse(ids(service.getEntries("de", DAY.plusDays(7), DAY.plusDays(7)))
+          .contains("de-request1"));
+    }
+  }
+
+  @Test
+  public void refreshRefreshesOtherCountriesOnFailure() {
+    failing = request -> true;
+    CalendarService service = new CalendarService(xrel, 1, TimeUnit.HOURS, executor);
+    try {
+      service.refresh();
+      fail("XrelException expected");
+    } catch (XrelException e) {
+      assertEquals(500, e.getResponseCode());
+    }
+    assertTrue(service.getUpcoming("de").isEmpty());
+    assertEquals(3, service.getUpcoming("us").size());
+  }
+
+  @Test
+  public void closeStopsRefreshes() throws Exception {
+    CalendarService service =
+        new CalendarService(xrel, REFRESH_INTERVAL, TimeUnit.MILLISECONDS, executor);
+    service.start();
+    awaitRequests("de", 2);
+    service.close();
+    // A refresh running right now may still finish
+    Thread.sleep(REFRESH_INTERVAL * 2);
+    int closed = requests.get("de").get();
+    Thread.sleep(REFRESH_INTERVAL * 4);
+    assertEquals(closed, requests.get("de").get());
+    assertEquals(3, service.getUpcoming("de").size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsUnknownCountry() {
+    new CalendarService(xrel, 1, TimeUnit.HOURS, executor).getUpcoming("fr");
+  }
+
+  private void awaitRequests(String country, int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (System.currentTimeMillis() < deadline) {
+      AtomicInteger current = requests.get(country);
+      if (current != null && current.get() >= count) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Less than " + count + " requests for " + country);
+  }
+
+  private static List<String> ids(List<CalendarEntry> entries) {
+    return entries.stream().map(entry -> entry.getExtInfo().getId())
+        .collect(Collectors.toList());
+  }
+
+  private static ExtInfo extInfo(String id, String type, int... days) {
+    List<ReleaseDate> releaseDates = new ArrayList<>();
+    for (int day : days) {
+      ReleaseDate releaseDate = new ReleaseDate();
+      releaseDate.setType("cinema");
+      releaseDate.setDate(DAY.plusDays(day));
+      releaseDates.add(releaseDate);
+    }
+    ExtInfo extInfo = new ExtInfo();
+    extInfo.setId(id);
+    extInfo.setType(type);
+    extInfo.setReleaseDates(releaseDates);
+    return extInfo;
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.comment;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/**
+ * Tests {@link CommentCrawler} and {@link CommentCheckpoint} against an in-memory comment list.
+ */
+public class CommentCrawlerTest {
+
+  private final Release release = new Release();
+  private final List<Comment> comments = new ArrayList<>();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final Xrel xrel = new Xrel() {
+
+    @Override
+    public PaginationList<Comment> getCommentsGet(Release release, int perPage, int page) {
+      requests.incrementAndGet();
+      PaginationList<Comment> paginationList = new PaginationList<>();
+      paginationList.setList(new ArrayList<>(comments));
+      return paginationList;
+    }
+
+  };
+
+  public CommentCrawlerTest() {
+    release.setId("release");
+  }
+
+  @Test
+  public void emitsOnlyNewComments() {
+    CommentCrawler crawler = new CommentCrawler(xrel, new CommentCheckpoint());
+    post(comment("2", 200), comment("1", 100));
+
+    assertEquals(Arrays.asList("2", "1"), crawl(crawler, release));
+    post(comment("4", 400), comment("3", 300));
+    assertEquals(Arrays.asList("4", "3"), crawl(crawler, release));
+  }
+
+  @Test
+  public void skipsReleasesWithUnchangedCount() {
+    CommentCrawler crawler = new CommentCrawler(xrel, new CommentCheckpoint());
+    post(comment("1", 100));
+
+    crawl(crawler, release);
+    assertEquals(1, requests.get());
+    assertEquals(0, crawl(crawler, release).size());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void deletedNewestCommentDoesNotRepeatSameSecond() {
+    CommentCrawler crawler = new CommentCrawler(xrel, new CommentCheckpoint());
+    post(comment("3", 300), comment("2", 300), comment("1", 100));
+    assertEquals(Arrays.asList("3", "2", "1"), crawl(crawler, release));
+
+    delete("3");
+    assertEquals(0, crawl(crawler, release).size());
+    assertEquals(2, crawler.getCheckpoint().getCommentCount(release));
+
+    // Posted in the same second as the remaining known comment
+    post(comment("4", 300));
+    assertEquals(Arrays.asList("4"), crawl(crawler, release));
+    assertEquals(new HashSet<>(Arrays.asList("2", "3", "4")),
+        crawler.getCheckpoint().getNewestIds(release));
+  }
+
+  @Test
+  public void checkpointSurvivesSaveAndLoad() throws Exception {
+    CommentCrawler crawler = new CommentCrawler(xrel, new CommentCheckpoint());
+    post(comment("3", 300), comment("2", 300), comment("1", 100));
+    crawl(crawler, release);
+
+    Path file = Files.createTempFile("xrel4j-checkpoint", ".json");
+    try {
+      crawler.getCheckpoint().save(file);
+      CommentCheckpoint loaded = CommentCheckpoint.load(file);
+      assertEquals(300, loaded.getNewestTime(release));
+      assertEquals("3", loaded.getNewestId(release));
+      assertEquals(new HashSet<>(Arrays.asList("2", "3")), loaded.getNewestIds(release));
+      assertEquals(3, loaded.getCommentCount(release));
+
+      delete("3");
+      post(comment("5", 500), comment("4", 300));
+      assertEquals(Arrays.asList("5", "4"), crawl(new CommentCrawler(xrel, loaded), release));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private List<String> crawl(CommentCrawler crawler, Release release) {
+    List<String> ids = new ArrayList<>();
+    crawler.crawl(release, (crawled, comment) -> ids.add(comment.getId()));
+    return ids;
+  }
+
+  private void post(Comment... newComments) {
+    comments.addAll(0, Arrays.asList(newComments));
+    release.setComments(comments.size());
+  }
+
+  private void delete(String id) {
+    comments.removeIf(comment -> comment.getId().equals(id));
+    release.setComments(comments.size());
+  }
+
+  private static Comment comment(String id, long time) {
+    Comment comment = new Comment();
+    comment.setId(id);
+    comment.setTime(time);
+    return comment;
+  }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.extinfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link ExtInfoMediaCache} against in-memory media, including concurrent lookups of the same
+ * Ext Info and failing loads.
+ */
+public class ExtInfoMediaCacheTest {
+
+  private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+  private final CountDownLatch loadStarted = new CountDownLatch(1);
+  // Loads wait for this latch if not null
+  private volatile CountDownLatch proceed;
+  private volatile RuntimeException failure;
+  private final Xrel xrel = new Xrel() {
+
+    @Override
+    public List<ExtInfoMedia> getExtInfoMedia(String id) {
+      requests.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+      loadStarted.countDown();
+      CountDownLatch latch = proceed;
+      if (latch != null) {
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new XrelException(e);
+        }
+      }
+      if (id.startsWith("missing") || failure != null) {
+        throw failure != null ? failure : new XrelException(404);
+      }
+      ExtInfoMedia media = new ExtInfoMedia();
+      media.setDescription(id);
+      return new ArrayList<>(Collections.singletonList(media));
+    }
+
+  };
+  private final XrelExecutor executor = new XrelExecutor(4);
+
+  @After
+  public void tearDown() {
+    executor.close();
+  }
+
+  @Test
+  public void loadsOnceAndCaches() {
+    ExtInfoMediaCache cache = new ExtInfoMediaCache(xrel, 10, executor);
+    assertFalse(cache.getIfPresent("a").isPresent());
+    List<ExtInfoMedia> media = cache.get("a");
+    assertEquals("a", media.get(0).getDescription());
+    assertSame(media, cache.get("a"));
+    assertSame(media, cache.getIfPresent("a").get());
+    assertEquals(1, cache.getLoadCount());
+    assertEquals(1, cache.getHitCount());
+    try {
+      media.clear();
+      fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException e) {
+      // Cached lists are shared
+    }
+
+    // Lazy and memoized on the ExtInfo
+    ExtInfo extInfo = new ExtInfo();
+    extInfo.setId("a");
+    assertSame(media, extInfo.getExtInfoMedia(cache));
+    cache.invalidate("a");
+    assertSame(media, extInfo.getExtInfoMedia(cache));
+    assertEquals(1, requests.get("a").get());
+    assertNull(extInfo.getExtInfoMedia());
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() {
+    ExtInfoMediaCache cache = new ExtInfoMediaCache(xrel, 2, executor);
+    cache.get("a");
+    cache.get("b");
+    cache.get("a");
+    cache.get("c");
+    assertEquals(2, cache.size());
+    assertTrue(cache.getIfPresent("a").isPresent());
+    assertFalse(cache.getIfPresent("b").isPresent());
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void concurrentLookupsShareOneLoad() throws Exception {
+    ExtInfoMediaCache cache = new ExtInfoMediaCache(xrel, 10, executor);
+    proceed = new CountDownLatch(1);
+    List<CompletableFuture<List<ExtInfoMedia>>> futures = lookUp(cache, "a", 4);
+    proceed.countDown();
+    for (CompletableFuture<List<ExtInfoMedia>> future : futures) {
+      assertSame(futures.get(0).get(10, TimeUnit.SECONDS), future.get(10, TimeUnit.SECONDS));
+    }
+    assertEquals(1, requests.get("a").get());
+    assertEquals(1, cache.getLoadCount());
+  }
+
+  @Test
+  public void failedLoadReachesAllWaiters() throws Exception {
+    ExtInfoMediaCache cache = new ExtInfoMediaCache(xrel, 10, executor);
+    proceed = new CountDownLatch(1);
+    // Not an XrelException, so it bypasses the usual error handling
+    failure = new IllegalStateException("bug");
+    List<CompletableFuture<List<ExtInfoMedia>>> futures = lookUp(cache, "a", 4);
+    proceed.countDown();
+    for (CompletableFuture<List<ExtInfoMedia>> future : futures) {
+      try {
+        future.get(10, TimeUnit.SECONDS);
+        fail("ExecutionException expected");
+      } catch (ExecutionException e) {
+        assertSame(failure, e.getCause());
+      }
+    }
+    assertFalse(cache.getIfPresent("a").isPresent());
+
+    // Failures are not cached
+    proceed = null;
+    failure = null;
+    assertEquals("a", cache.get("a").get(0).getDescription());
+    assertEquals(2, requests.get("a").get());
+  }
+
+  @Test
+  public void prefetchLoadsMissingOnce() {
+    ExtInfoMediaCache cache = new ExtInfoMediaCache(xrel, 10, executor);
+    cache.get("a");
+    Map<ExtInfo, XrelException> failed =
+        cache.prefetch(Arrays.asList(extInfo("a"), extInfo("b"), extInfo("missing"),
+            extInfo("c"), extInfo("b")));
+    assertEquals(Collections.singleton(extInfo("missing")), failed.keySet());
+    assertEquals(404, failed.get(extInfo("missing")).getResponseCode());
+    assertEquals(3, cache.size());
+    assertEquals(1, requests.get("a").get());
+    assertEquals(1, requests.get("b").get());
+    assertEquals(1, requests.get("c").get());
+  }
+
+  /**
+   * Looks up the same Ext Info from several threads, the first of which is blocked in its load
+   * when this method returns.
+   */
+  private List<CompletableFuture<List<ExtInfoMedia>>> lookUp(ExtInfoMediaCache cache, String id,
+      int count) throws InterruptedException {
+    List<CompletableFuture<List<ExtInfoMedia>>> futures = new ArrayList<>();
+    futures.add(executor.submit(() -> cache.get(id)));
+    assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+    for (int i = 1; i < count; i++) {
+      futures.add(executor.submit(() -> cache.get(id)));
+    }
+    // Give the others the chance to start waiting for the running load
+    Thread.sleep(100);
+    return futures;
+  }
+
+  private static ExtInfo extInfo(String id) {
+    ExtInfo extInfo = new ExtInfo();
+    extInfo.setId(id);
+    return extInfo;
+  }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.extinfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.saftsau.xrel4j.release.Size;
+import com.github.saftsau.xrel4j.release.scene.ImmutableRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ImmutableExtInfo} and the {@link ImmutableRelease}s it contains store their
+ * values once and can't be modified through them.
+ */
+public class ImmutableExtInfoTest {
+
+  private static final String JSON = "{\"type\":\"movie\",\"id\":\"1\",\"title\":\"Title\","
+      + "\"release_dates\":[{\"type\":\"de-cine\",\"date\":\"2019-01-02\"}],"
+      + "\"externals\":[{\"source\":{\"id\":3,\"name\":\"Source\"},\"link_url\":\"url\"}],"
+      + "\"ext_info_media\":[{\"type\":\"image\",\"time\":1546300800}]}";
+
+  @Test
+  public void gettersReturnStoredValues() {
+    ImmutableExtInfo extInfo = ImmutableExtInfo.of(extInfo());
+
+    assertSame(extInfo.getReleaseDates(), extInfo.getReleaseDates());
+    assertSame(extInfo.getExternals(), extInfo.getExternals());
+    assertSame(extInfo.getExtInfoMedia(), extInfo.getExtInfoMedia());
+    ImmutableRelease release = extInfo.getReleases().get(0);
+    assertSame(release.getSize(), release.getSize());
+    assertEquals(700L << 20, release.getSizeBytes());
+  }
+
+  @Test
+  public void valuesCantBeModified() {
+    ImmutableExtInfo extInfo = ImmutableExtInfo.of(extInfo());
+
+    assertUnsupported(() -> extInfo.getReleaseDates().get(0).setType("us-cine"));
+    assertUnsupported(() -> extInfo.getReleaseDates().add(new ReleaseDate()));
+    assertUnsupported(() -> extInfo.getExternals().get(0).setPlot("plot"));
+    assertUnsupported(() -> extInfo.getExternals().get(0).getSource().setName("name"));
+    assertUnsupported(() -> extInfo.getExtInfoMedia().get(0).setTime(0));
+    assertUnsupported(() -> extInfo.getReleases().get(0).getSize().setNumber(1));
+  }
+
+  @Test
+  public void sourceAndConversionAreIndependent() {
+    ExtInfo source = extInfo();
+    ImmutableExtInfo extInfo = ImmutableExtInfo.of(source);
+    source.getReleaseDates().get(0).setType("us-cine");
+    source.getReleases().get(0).getSize().setNumber(1);
+    assertEquals("de-cine", extInfo.getReleaseDates().get(0).getType());
+    assertEquals(700, extInfo.getReleases().get(0).getSize().getNumber());
+
+    ExtInfo converted = extInfo.toExtInfo();
+    assertNotSame(extInfo.getReleaseDates().get(0), converted.getReleaseDates().get(0));
+    converted.getReleaseDates().get(0).setType("r5");
+    converted.getExternals().get(0).getSource().setName("name");
+    converted.getReleases().get(0).getSize().setUnit("GB");
+    assertEquals("de-cine", extInfo.getReleaseDates().get(0).getType());
+    assertEquals("Source", extInfo.getExternals().get(0).getSource().getName());
+    assertEquals("MB", extInfo.getReleases().get(0).getSize().getUnit());
+  }
+
+  @Test
+  public void withersShareUnmodifiableValues() {
+    ImmutableExtInfo extInfo = ImmutableExtInfo.of(extInfo());
+    ImmutableExtInfo copy = extInfo.withTitle("Other");
+    assertSame(extInfo.getReleaseDates(), copy.getReleaseDates());
+
+    copy = extInfo.withReleaseDates(extInfo.getReleaseDates());
+    assertSame(extInfo.getReleaseDates().get(0), copy.getReleaseDates().get(0));
+  }
+
+  @Test
+  public void readsAndWritesJson() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper();
+    ImmutableExtInfo extInfo = objectMapper.readValue(JSON, ImmutableExtInfo.class);
+    assertEquals(LocalDate.of(2019, 1, 2), extInfo.getReleaseDates().get(0).getDate());
+    assertEquals(3, extInfo.getExternals().get(0).getSource().getId());
+    assertEquals(1546300800L, extInfo.getExtInfoMedia().get(0).getTime());
+    assertUnsupported(() -> extInfo.getExtInfoMedia().get(0).setType("video"));
+
+    ExtInfo mutable = objectMapper.readValue(objectMapper.writeValueAsString(extInfo),
+        ExtInfo.class);
+    assertEquals("de-cine", mutable.getReleaseDates().get(0).getType());
+    assertEquals(LocalDate.of(2019, 1, 2), mutable.getReleaseDates().get(0).getDate());
+    assertEquals("Source", mutable.getExternals().get(0).getSource().getName());
+    assertEquals("image", mutable.getExtInfoMedia().get(0).getType());
+  }
+
+  private static ExtInfo extInfo() {
+    ExtInfo extInfo = new ExtInfo();
+    extInfo.setId("1");
+    extInfo.setTitle("Title");
+
+    ReleaseDate releaseDate = new ReleaseDate();
+    releaseDate.setType("de-cine");
+    releaseDate.setDate(LocalDate.of(2019, 1, 2));
+    extInfo.setReleaseDates(Arrays.asList(releaseDate));
+
+    ExternalSource externalSource = new ExternalSource();
+    externalSource.setId(3);
+    externalSource.setName("Source");
+    External external = new External();
+    external.setSource(externalSource);
+    external.setLinkUrl("url");
+    extInfo.setExternals(Arrays.asList(external));
+
+    ExtInfoMedia extInfoMedia = new ExtInfoMedia();
+    extInfoMedia.setType("image");
+    extInfoMedia.setTime(1546300800L);
+    extInfo.setExtInfoMedia(Collections.singletonList(extInfoMedia));
+
+    Size size = new Size();
+    size.setNumber(700);
+    size.setUnit("MB");
+    Release release = new Release();
+    release.setId("r1");
+    release.setSize(size);
+    extInfo.setReleases(Arrays.asList(release));
+    return extInfo;
+  }
+
+  private static void assertUnsupported(Runnable runnable) {
+    try {
+      runnable.run();
+      fail("UnsupportedOperationException expected");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+import com.github.saftsau.xrel4j.Token;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.mock.MockXrelServer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link FavoritesSync} against a {@link MockXrelServer}, including the handling of the rate
+ * limit by {@link FavoritesSync#setFavoriteEntries(Favorite, Set, int)}.
+ */
+public class FavoritesSyncTest {
+
+  private final RestClientConfiguration previousConfiguration =
+      Xrel.getRestClientConfiguration();
+  private final Xrel xrel = new Xrel("id", "secret");
+  private MockXrelServer server;
+  private FavoritesSync favoritesSync;
+  private Favorite favorite;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockXrelServer(new MockData(0, 0, 100, 0, 2));
+    server.start();
+    Xrel.setRestClientConfiguration(server.createRestClientConfiguration());
+    favoritesSync = new FavoritesSync(xrel, new Token("a", "Bearer", 3600, "r"), false);
+    favoritesSync.sync();
+    favorite = favoritesSync.getFavorites().iterator().next();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    Xrel.setRestClientConfiguration(previousConfiguration);
+    // The rate limit state is global, don't let it leak into other tests
+    while (xrel.getXRateLimitRemaining() == 0
+        && xrel.getXRateLimitReset() * 1000L > System.currentTimeMillis()) {
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  public void firstSyncCreatesAllLists() {
+    FavoritesSync other = new FavoritesSync(xrel, favoritesSync.getToken(), false);
+    List<FavoriteChange> changes = other.sync();
+    assertEquals(2, changes.size());
+    for (FavoriteChange change : changes) {
+      assertTrue(change.isCreated());
+      assertEquals(ids(change.getFavorite().getEntries()), ids(change.getAddedEntries()));
+      assertTrue(change.getRemovedEntries().isEmpty());
+    }
+  }
+
+  @Test
+  public void syncReportsOnlyChangedLists() {
+    long requestCount = server.getRequestCount();
+    assertTrue(favoritesSync.sync().isEmpty());
+    // Unchanged lists are detected by their counts, without requesting their entries
+    assertEquals(requestCount + 1, server.getRequestCount());
+
+    Favorite served = server.getData().getFavorites().get(0);
+    List<ExtInfo> removed = served.getEntries().subList(0, 1);
+    List<ExtInfo> added = missing(2);
+    List<ExtInfo> entries = new ArrayList<>(served.getEntries().subList(1,
+        served.getEntries().size()));
+    entries.addAll(added);
+    served.setEntries(entries);
+    served.setEntryCount(entries.size());
+    server.clearResponseCache();
+
+    List<FavoriteChange> notified = new ArrayList<>();
+    favoritesSync.addListener(notified::add);
+    List<FavoriteChange> changes = favoritesSync.sync();
+    assertEquals(1, changes.size());
+    assertEquals(changes, notified);
+    FavoriteChange change = changes.get(0);
+    assertFalse(change.isCreated());
+    assertFalse(change.isDeleted());
+    assertEquals(served.getId(), change.getFavorite().getId());
+    assertEquals(ids(added), ids(change.getAddedEntries()));
+    assertEquals(ids(removed), ids(change.getRemovedEntries()));
+    assertEquals(0, change.getUnreadReleasesDelta());
+    assertEquals(ids(entries), ids(favoritesSync.getFavorite(served.getId()).getEntries()));
+  }
+
+  @Test
+  public void secondCallSendsNoRequests() {
+    List<ExtInfo> current = favorite.getEntries();
+    Set<ExtInfo> entries = new LinkedHashSet<>(current.subList(2, current.size()));
+    List<ExtInfo> missing = missing(3);
+    entries.addAll(missing);
+
+    FavoriteEntriesResult result = favoritesSync.setFavoriteEntries(favorite, entries, 2);
+    assertTrue(result.isSuccessful());
+    assertEquals(ids(missing), ids(result.getAdded()));
+    assertEquals(ids(current.subList(0, 2)), ids(result.getRemoved()));
+    assertEquals(current.size() - 2, result.getUnchanged());
+    assertEquals(new HashSet<>(ids(entries)), new HashSet<>(
+        ids(favoritesSync.getFavorite(favorite.getId()).getEntries())));
+
+    long requestCount = server.getRequestCount();
+    result = favoritesSync.setFavoriteEntries(favorite, entries, 2);
+    assertTrue(result.isSuccessful());
+    assertTrue(result.getAdded().isEmpty());
+    assertTrue(result.getRemoved().isEmpty());
+    assertEquals(requestCount, server.getRequestCount());
+  }
+
+  @Test
+  public void waitsForRateLimitResetWithoutBlocking() throws Exception {
+    server.setRateLimit(3, 1, TimeUnit.SECONDS);
+    Set<ExtInfo> entries = new LinkedHashSet<>(favorite.getEntries());
+    List<ExtInfo> missing = missing(6);
+    entries.addAll(missing);
+
+    long requestCount = server.getRequestCount();
+    CompletableFuture<FavoriteEntriesResult> future =
+        favoritesSync.setFavoriteEntriesAsync(favorite, entries, 1);
+    assertFalse(future.isDone());
+    FavoriteEntriesResult result = future.get(30, TimeUnit.SECONDS);
+    assertTrue(result.getFailed().toString(), result.isSuccessful());
+    assertEquals(ids(missing), ids(result.getAdded()));
+    // Requests wait for the reset instead of running into 429
+    assertEquals(requestCount + missing.size(), server.getRequestCount());
+  }
+
+  @Test
+  public void retriesTooManyRequests() throws Exception {
+    server.setRateLimit(2, 1, TimeUnit.SECONDS);
+    Set<ExtInfo> entries = new LinkedHashSet<>(favorite.getEntries());
+    List<ExtInfo> missing = missing(3);
+    entries.addAll(missing);
+
+    long requestCount = server.getRequestCount();
+    FavoriteEntriesResult result = favoritesSync.setFavoriteEntries(favorite, entries, 3);
+    assertTrue(result.getFailed().toString(), result.isSuccessful());
+    assertEquals(ids(missing), ids(result.getAdded()));
+    // One of the three concurrent requests is rejected and sent again in the next window
+    assertEquals(requestCount + missing.size() + 1, server.getRequestCount());
+  }
+
+  private List<ExtInfo> missing(int count) {
+    Set<String> present = ids(favorite.getEntries()).stream().collect(Collectors.toSet());
+    List<ExtInfo> missing = new ArrayList<>();
+    for (ExtInfo extInfo : server.getData().getExtInfos()) {
+      if (missing.size() < count && !present.contains(extInfo.getId())) {
+        missing.add(extInfo);
+      }
+    }
+    return missing;
+  }
+
+  private static List<String> ids(Iterable<ExtInfo> extInfos) {
+    List<String> ids = new ArrayList<>();
+    extInfos.forEach(extInfo -> ids.add(extInfo.getId()));
+    return ids;
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.favorite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+import com.github.saftsau.xrel4j.Token;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.mock.MockXrelServer;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the batching and rate limit handling of {@link MarkReadQueue} against a
+ * {@link MockXrelServer}.
+ */
+public class MarkReadQueueTest {
+
+  private final RestClientConfiguration previousConfiguration =
+      Xrel.getRestClientConfiguration();
+  private final Xrel xrel = new Xrel("id", "secret");
+  private final Token token = new Token("a", "Bearer", 3600, "r");
+  private final AtomicInteger scheduleCount = new AtomicInteger();
+  private final XrelExecutor executor = new XrelExecutor(8) {
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+      scheduleCount.incrementAndGet();
+      return super.schedule(task, delay, unit);
+    }
+
+  };
+  private MockXrelServer server;
+  private Favorite favorite;
+  private List<Release> releases;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockXrelServer(new MockData(20, 0, 10, 0, 1));
+    server.start();
+    Xrel.setRestClientConfiguration(server.createRestClientConfiguration());
+    favorite = server.getData().getFavorites().get(0);
+    releases = server.getData().getReleases();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.close();
+    server.close();
+    Xrel.setRestClientConfiguration(previousConfiguration);
+    // The rate limit state is global, don't let it leak into other tests
+    while (xrel.getXRateLimitRemaining() == 0
+        && xrel.getXRateLimitReset() * 1000L > System.currentTimeMillis()) {
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  public void sendsDuplicatesOnce() throws Exception {
+    MarkReadQueue queue = new MarkReadQueue(xrel, token, 50, 60000, 2, executor);
+    CompletableFuture<FavoriteMarkRead> first = queue.markRead(favorite, releases.get(0));
+    assertSame(first, queue.markRead(favorite, releases.get(0)));
+    queue.markRead(favorite, releases.get(1));
+    assertEquals(2, queue.getPendingCount());
+
+    long requestCount = server.getRequestCount();
+    queue.flush().get(10, TimeUnit.SECONDS);
+    assertEquals(favorite.getId(), first.get().getFavList().getId());
+    assertEquals(0, queue.getPendingCount());
+    assertEquals(requestCount + 2, server.getRequestCount());
+  }
+
+  @Test
+  public void sendsFullBatchAndAfterDelay() throws Exception {
+    MarkReadQueue queue = new MarkReadQueue(xrel, token, 3, 100, 2, executor);
+    List<CompletableFuture<FavoriteMarkRead>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(queue.markRead(favorite, releases.get(i)));
+    }
+    // The full batch is sent right away
+    assertTrue(queue.getPendingCount() < 3);
+    CompletableFuture<FavoriteMarkRead> late = queue.markRead(favorite, releases.get(3));
+    for (CompletableFuture<FavoriteMarkRead> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    // Sent by the scheduled flush
+    late.get(10, TimeUnit.SECONDS);
+    assertEquals(0, queue.getPendingCount());
+  }
+
+  @Test
+  public void pausesUntilRateLimitReset() throws Exception {
+    server.setRateLimit(2, 1, TimeUnit.SECONDS);
+    MarkReadQueue queue = new MarkReadQueue(xrel, token, 50, 60000, 6, executor);
+    List<CompletableFuture<FavoriteMarkRead>> futures = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      futures.add(queue.markRead(favorite, releases.get(i)));
+    }
+    // The scheduled flush
+    assertEquals(1, scheduleCount.get());
+
+    queue.flush().get(30, TimeUnit.SECONDS);
+    for (CompletableFuture<FavoriteMarkRead> future : futures) {
+      // Rejected requests are sent again once the window resets instead of failing
+      future.get();
+    }
+    // Six requests at two per window need two resumes, not one per rejected request
+    int resumes = scheduleCount.get() - 1;
+    assertTrue(String.valueOf(resumes), resumes >= 2 && resumes <= 3);
+  }
+
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.mock;
+
+import com.github.saftsau.xrel4j.comment.Author;
+import com.github.saftsau.xrel4j.comment.Comment;
+import com.github.saftsau.xrel4j.comment.Edits;
+import com.github.saftsau.xrel4j.comment.Rating;
+import com.github.saftsau.xrel4j.comment.Votes;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ReleaseDate;
+import com.github.saftsau.xrel4j.favorite.Favorite;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.Size;
+import com.github.saftsau.xrel4j.release.p2p.P2pCategory;
+import com.github.saftsau.xrel4j.release.p2p.P2pGroup;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic data served by {@link MockXrelServer}. The data is generated from a seed, so the same
+ * parameters always produce the same data. Releases are ordered newest first like the xREL API
+ * returns them. Comments are not stored but generated when requested.
+ */
+public class MockData {
+
+  /**
+   * The number of {@link ExtInfo}s, starting with the first, that have release dates and are
+   * returned as the upcoming calendar.
+   */
+  public static final int CALENDAR_SIZE = 20;
+  private static final String[] EXT_INFO_TYPES = {"movie", "tv", "game", "console", "software",
+      "xxx"};
+  private static final String[] VIDEO_TYPES = {"x264", "x265", "XviD", "MPEG2", null};
+  private static final String[] AUDIO_TYPES = {"AC3", "DTS", "AAC", "MP3", null};
+  private static final String[] META_CATEGORIES = {"movies", "tv", "games", "apps"};
+  private static final String[] SUB_CATEGORIES = {"hd", "sd", "uhd", "pc"};
+  private static final int GROUP_COUNT = 200;
+
+  private final long startTime;
+  private final int commentsPerRelease;
+  private final List<ExtInfo> extInfos;
+  private final List<Release> releases;
+  private final List<P2pRelease> p2pReleases;
+  private final List<Favorite> favorites;
+  private final List<P2pCategory> p2pCategories;
+  private final Map<String, ExtInfo> extInfosById = new HashMap<>();
+  private final Map<String, Release> releasesById = new HashMap<>();
+  private final Map<String, Release> releasesByDirname = new HashMap<>();
+  private final Map<String, P2pRelease> p2pReleasesById = new HashMap<>();
+  private final Map<String, P2pRelease> p2pReleasesByDirname = new HashMap<>();
+  private final Map<String, List<Release>> releasesByExtInfo = new HashMap<>();
+  private final Map<Long, Favorite> favoritesById = new LinkedHashMap<>();
+
+  /**
+   * Generates new MockData with the seed {@code 0}.
+   * 
+   * @param releaseCount The number of {@link Release}s
+   * @param p2pReleaseCount The number of {@link P2pRelease}s
+   * @param extInfoCount The number of {@link ExtInfo}s, at least {@code 1}
+   * @param commentsPerRelease The number of {@link Comment}s of every release
+   * @param favoriteCount The number of {@link Favorite} lists
+   */
+  public MockData(int releaseCount, int p2pReleaseCount, int extInfoCount,
+      int commentsPerRelease, int favoriteCount) {
+    this(releaseCount, p2pReleaseCount, extInfoCount, commentsPerRelease, favoriteCount, 0);
+  }
+
+  /**
+   * Generates new MockData.
+   * 
+   * @param releaseCount The number of {@link Release}s
+   * @param p2pReleaseCount The number of {@link P2pRelease}s
+   * @param extInfoCount The number of {@link ExtInfo}s, at least {@code 1}
+   * @param commentsPerRelease The number of {@link Comment}s of every release
+   * @param favoriteCount The number of {@link Favorite} lists
+   * @param seed The seed of the random values
+   */
+  public MockData(int releaseCount, int p2pReleaseCount, int extInfoCount,
+      int commentsPerRelease, int favoriteCount, long seed) {
+    if (releaseCount < 0 || p2pReleaseCount < 0 || extInfoCount < 1 || commentsPerRelease < 0
+        || favoriteCount < 0) {
+      throw new IllegalArgumentException("Invalid size");
+    }
+    this.startTime = 1546300800L;
+    this.commentsPerRelease = commentsPerRelease;
+    Random random = new Random(seed);
+
+    List<ExtInfo> extInfos = new ArrayList<>(extInfoCount);
+    for (int i = 0; i < extInfoCount; i++) {
+      ExtInfo extInfo = new ExtInfo();
+      extInfo.setType(EXT_INFO_TYPES[i % EXT_INFO_TYPES.length]);
+      extInfo.setId(String.format("%08x", 0x10000000 + i));
+      extInfo.setTitle("Title " + i);
+      extInfo.setLinkHref("https://www.xrel.to/" + extInfo.getType() + "/" + i + "/.html");
+      extInfo.setRating(Math.round(random.nextDouble() * 100) / 10.0);
+      extInfo.setNumRatings(random.nextInt(1000));
+      extInfo.setUris(Collections.singletonList("mock:" + extInfo.getId()));
+      if (i < CALENDAR_SIZE) {
+        // Upcoming releases of the calendar, spread over the weeks after the start time
+        LocalDate cinema = LocalDate.ofEpochDay(startTime / 86400 + 3 * i);
+        extInfo.setReleaseDates(Arrays.asList(releaseDate("cinema", cinema),
+            releaseDate("retail", cinema.plusMonths(4))));
+      }
+      extInfos.add(extInfo);
+      extInfosById.put(extInfo.getId(), extInfo);
+    }
+    this.extInfos = Collections.unmodifiableList(extInfos);
+
+    List<Release> releases = new ArrayList<>(releaseCount);
+    for (int i = 0; i < releaseCount; i++) {
+      Release release = new Release();
+      ExtInfo extInfo = extInfos.get(random.nextInt(extInfoCount));
+      String group = "GRP" + random.nextInt(GROUP_COUNT);
+      fill(release, String.format("%012x", 0x100000000L + i),
+          extInfo.getTitle().replace(' ', '.') + "." + i + "-" + group, extInfo, random);
+      release.setTime(startTime - i * 60L);
+      release.setGroupName(group);
+      release.setNukeReason("");
+      Size size = new Size();
+      size.setNumber(50 + random.nextInt(20000));
+      size.setUnit("MB");
+      release.setSize(size);
+      release.setVideoType(VIDEO_TYPES[random.nextInt(VIDEO_TYPES.length)]);
+      release.setAudioType(AUDIO_TYPES[random.nextInt(AUDIO_TYPES.length)]);
+      Map<String, Boolean> flags = new HashMap<>();
+      if (random.nextInt(10) == 0) {
+        flags.put("top_rls", true);
+      }
+      release.setFlags(flags);
+      releases.add(release);
+      releasesById.put(release.getId(), release);
+      releasesByDirname.put(release.getDirname(), release);
+      releasesByExtInfo.computeIfAbsent(extInfo.getId(), id -> new ArrayList<>()).add(release);
+    }
+    this.releases = Collections.unmodifiableList(releases);
+
+    List<P2pCategory> p2pCategories = new ArrayList<>();
+    for (String metaCategory : META_CATEGORIES) {
+      for (String subCategory : SUB_CATEGORIES) {
+        P2pCategory category = new P2pCategory();
+        category.setMetaCat(metaCategory);
+        category.setSubCat(subCategory);
+        category.setId(String.format("%08x", 0x20000000 + p2pCategories.size()));
+        p2pCategories.add(category);
+      }
+    }
+    this.p2pCategories = Collections.unmodifiableList(p2pCategories);
+
+    List<P2pRelease> p2pReleases = new ArrayList<>(p2pReleaseCount);
+    for (int i = 0; i < p2pReleaseCount; i++) {
+      P2pRelease p2pRelease = new P2pRelease();
+      ExtInfo extInfo = extInfos.get(random.nextInt(extInfoCount));
+      int groupNumber = random.nextInt(GROUP_COUNT);
+      fill(p2pRelease, String.format("%012x", 0x800000000000L + i),
+          extInfo.getTitle().replace(' ', '.') + "." + i + ".WEB-P2P" + groupNumber, extInfo,
+          random);
+      p2pRelease.setCategory(p2pCategories.get(random.nextInt(p2pCategories.size())));
+      p2pRelease.setMainLang("de");
+      p2pRelease.setPubTime(startTime - i * 90L);
+      p2pRelease.setPostTime(p2pRelease.getPubTime() + random.nextInt(600));
+      p2pRelease.setSizeMb(50 + random.nextInt(20000));
+      P2pGroup group = new P2pGroup();
+      group.setId(String.format("%08x", 0x30000000 + groupNumber));
+      group.setName("P2P" + groupNumber);
+      p2pRelease.setGroup(group);
+      p2pReleases.add(p2pRelease);
+      p2pReleasesById.put(p2pRelease.getId(), p2pRelease);
+      p2pReleasesByDirname.put(p2pRelease.getDirname(), p2pRelease);
+    }
+    this.p2pReleases = Collections.unmodifiableList(p2pReleases);
+
+    List<Favorite> favorites = new ArrayList<>(favoriteCount);
+    for (int i = 0; i < favoriteCount; i++) {
+      Favorite favorite = new Favorite();
+      favorite.setId(1000 + i);
+      favorite.setName("List " + i);
+      favorite.setDescription("");
+      List<ExtInfo> entries = new ArrayList<>();
+      for (int j = i; j < extInfoCount && entries.size() < 25; j += favoriteCount) {
+        entries.add(extInfos.get(j));
+      }
+      favorite.setEntries(entries);
+      favorite.setEntryCount(entries.size());
+      favorites.add(favorite);
+      favoritesById.put(favorite.getId(), favorite);
+    }
+    this.favorites = Collections.unmodifiableList(favorites);
+  }
+
+  private void fill(ReleaseBase release, String id, String dirname, ExtInfo extInfo,
+      Random random) {
+    release.setId(id);
+    release.setDirname(dirname);
+    release.setLinkHref("https://www.xrel.to/release/" + id + ".html");
+    release.setNumRatings(random.nextInt(50));
+    release.setVideoRating(Math.round(random.nextDouble() * 100) / 10.0);
+    release.setAudioRating(Math.round(random.nextDouble() * 100) / 10.0);
+    release.setExtInfo(extInfo);
+    release.setComments(commentsPerRelease);
+  }
+
+  private static ReleaseDate releaseDate(String type, LocalDate date) {
+    ReleaseDate releaseDate = new ReleaseDate();
+    releaseDate.setType(type);
+    releaseDate.setDate(date);
+    return releaseDate;
+  }
+
+  /**
+   * Gets all {@link ExtInfo}s.
+   * 
+   * @return The {@link ExtInfo}s
+   */
+  public List<ExtInfo> getExtInfos() {
+    return extInfos;
+  }
+
+  /**
+   * Gets all {@link Release}s, newest first.
+   * 
+   * @return The {@link Release}s
+   */
+  public List<Release> getReleases() {
+    return releases;
+  }
+
+  /**
+   * Gets all {@link P2pRelease}s, newest first.
+   * 
+   * @return The {@link P2pRelease}s
+   */
+  public List<P2pRelease> getP2pReleases() {
+    return p2pReleases;
+  }
+
+  /**
+   * Gets all {@link Favorite} lists including their entries.
+   * 
+   * @return The {@link Favorite} lists
+   */
+  public List<Favorite> getFavorites() {
+    return favorites;
+  }
+
+  /**
+   * Gets all {@link P2pCategory}s.
+   * 
+   * @return The {@link P2pCategory}s
+   */
+  public List<P2pCategory> getP2pCategories() {
+    return p2pCategories;
+  }
+
+  /**
+   * Gets the number of {@link Comment}s of every release.
+   * 
+   * @return The number of {@link Comment}s
+   */
+  public int getCommentsPerRelease() {
+    return commentsPerRelease;
+  }
+
+  ExtInfo getExtInfo(String id) {
+    return extInfosById.get(id);
+  }
+
+  Release getRelease(String id, String dirname) {
+    return id != null ? releasesById.get(id) : releasesByDirname.get(dirname);
+  }
+
+  P2pRelease getP2pRelease(String id, String dirname) {
+    return id != null ? p2pReleasesById.get(id) : p2pReleasesByDirname.get(dirname);
+  }
+
+  List<Release> getReleasesByExtInfo(String id) {
+    return releasesByExtInfo.getOrDefault(id, Collections.emptyList());
+  }
+
+  Favorite getFavorite(long id) {
+    return favoritesById.get(id);
+  }
+
+  /**
+   * Generates a {@link Comment} of a release. Comment {@code 0} is the newest one.
+   * 
+   * @param releaseId The ID of the release
+   * @param index The index of the {@link Comment}
+   * @return The {@link Comment}
+   */
+  Comment getComment(String releaseId, int index) {
+    Comment comment = new Comment();
+    comment.setId(releaseId + "-" + (commentsPerRelease - index));
+    comment.setTime(startTime + (commentsPerRelease - index) * 300L);
+    Author author = new Author();
+    author.setId(String.valueOf(index % 97));
+    author.setName("user" + index % 97);
+    comment.setAuthor(author);
+    comment.setText("Comment " + (commentsPerRelease - index) + " on " + releaseId);
+    comment.setLinkHref("https://www.xrel.to/comments/" + comment.getId() + ".html");
+    Rating rating = new Rating();
+    rating.setVideo(index % 11);
+    rating.setAudio((index * 7) % 11);
+    comment.setRating(rating);
+    Votes votes = new Votes();
+    votes.setPositive(index % 5);
+    votes.setNegative(index % 3);
+    comment.setVotes(votes);
+    Edits edits = new Edits();
+    comment.setEdits(edits);
+    return comment;
+  }
+
+  @Override
+  public String toString() {
+    return "MockData [getReleases().size()=" + getReleases().size() + ", getP2pReleases().size()="
+        + getP2pReleases().size() + ", getExtInfos().size()=" + getExtInfos().size()
+        + ", getFavorites().size()=" + getFavorites().size() + ", getCommentsPerRelease()="
+        + getCommentsPerRelease() + "]";
+  }
+
+}
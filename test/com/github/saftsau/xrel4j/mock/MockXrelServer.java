@@ -0,0 +1,654 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.mock;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.saftsau.xrel4j.Pagination;
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+import com.github.saftsau.xrel4j.User;
+import com.github.saftsau.xrel4j.XrelExecutor;
+import com.github.saftsau.xrel4j.XrelService;
+import com.github.saftsau.xrel4j.comment.Comment;
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.extinfo.ExtInfoSearchResult;
+import com.github.saftsau.xrel4j.favorite.Favorite;
+import com.github.saftsau.xrel4j.favorite.FavoriteAddDelEntry;
+import com.github.saftsau.xrel4j.favorite.FavoriteMarkRead;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.ReleaseSearchResult;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import com.github.saftsau.xrel4j.release.scene.ReleaseAddProof;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+
+/**
+ * Lightweight in-process HTTP server emulating the xREL API v2 for load and soak tests. The routes
+ * are taken from the {@link XrelService} annotations, the responses are generated from
+ * {@link MockData}. Pagination, missing or invalid authorization, unknown IDs and rate limiting
+ * (X-RateLimit-* headers and {@code 429}) behave like the xREL API. As the xREL API sometimes
+ * returns errors with a {@code 2xx} status code, errors can be sent with {@code 200} as well, see
+ * {@link #setErrorsAsSuccess(boolean)}.
+ * <p>
+ * Write requests are answered but do not change the data. Responses of read requests are
+ * serialized once and then served from memory, so the server itself stays out of the way when
+ * measuring the client. The JDK server writes headers and body separately, so run it with
+ * {@code -Dsun.net.httpserver.nodelay=true} to keep every response from waiting for the delayed
+ * ACK of the client, as the test configuration of this project does.
+ */
+public class MockXrelServer implements AutoCloseable {
+
+  private static final String BASE_PATH = "/v2/";
+  // Both can be called with or without a token
+  private static final Set<String> OPTIONAL_AUTHORIZATION =
+      new HashSet<>(Arrays.asList("release/latest", "ext_info/info"));
+  private static final byte[] NFO_IMAGE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+  // Like most servers, small bodies are sent uncompressed if the client accepts gzip
+  private static final int MIN_COMPRESSION_SIZE = 256;
+
+  private final MockData data;
+  private final Map<String, Route> routes = new HashMap<>();
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+  private final Map<String, byte[]> responseCache = new ConcurrentHashMap<>();
+  private final LongAdder requestCount = new LongAdder();
+  private final ReentrantLock rateLimitLock = new ReentrantLock();
+  private final HttpServer server;
+  private final XrelExecutor executor;
+  private volatile boolean errorsAsSuccess;
+  private int rateLimit = -1;
+  private long rateLimitWindowMillis;
+  private long windowStart;
+  private int windowCount;
+
+  /**
+   * Constructs a new MockXrelServer listening on a free port of the loopback address. Call
+   * {@link #start()} to start serving requests.
+   * 
+   * @param data The {@link MockData} to serve
+   * @throws IOException If the server could not be bound
+   */
+  public MockXrelServer(MockData data) throws IOException {
+    this(data, 0);
+  }
+
+  /**
+   * Constructs a new MockXrelServer listening on the given port of the loopback address. Call
+   * {@link #start()} to start serving requests.
+   * 
+   * @param data The {@link MockData} to serve
+   * @param port The port, {@code 0} for any free port
+   * @throws IOException If the server could not be bound
+   */
+  public MockXrelServer(MockData data, int port) throws IOException {
+    this.data = Objects.requireNonNull(data, "data missing");
+    for (Method method : XrelService.class.getMethods()) {
+      GET get = method.getAnnotation(GET.class);
+      POST post = method.getAnnotation(POST.class);
+      if (get == null && post == null) {
+        continue;
+      }
+      String path = get != null ? get.value() : post.value();
+      String name = path.substring(0, path.length() - XrelService.FORMAT.length());
+      boolean authorization = false;
+      for (Annotation[] annotations : method.getParameterAnnotations()) {
+        for (Annotation annotation : annotations) {
+          authorization |= annotation instanceof Header;
+        }
+      }
+      routes.put(path, new Route(name, get != null ? "GET" : "POST",
+          authorization && !OPTIONAL_AUTHORIZATION.contains(name)));
+    }
+
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+        1024);
+    this.executor = new XrelExecutor(XrelExecutor.DEFAULT_MAX_CONCURRENCY * 4);
+    server.setExecutor(executor);
+    server.createContext(BASE_PATH, this::handle);
+  }
+
+  /**
+   * Starts serving requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Gets the port the server is listening on.
+   * 
+   * @return The port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Gets the base URL of the emulated API.
+   * 
+   * @return The base URL
+   */
+  public String getBaseUrl() {
+    return "http://" + server.getAddress().getHostString() + ":" + getPort() + BASE_PATH;
+  }
+
+  /**
+   * Creates a {@link RestClientConfiguration} using this server, to be applied with
+   * {@link com.github.saftsau.xrel4j.Xrel#setRestClientConfiguration(RestClientConfiguration)}.
+   * 
+   * @return The {@link RestClientConfiguration}
+   */
+  public RestClientConfiguration createRestClientConfiguration() {
+    RestClientConfiguration configuration = new RestClientConfiguration();
+    configuration.setBaseUrl(getBaseUrl());
+    return configuration;
+  }
+
+  /**
+   * Gets the {@link MockData} served.
+   * 
+   * @return The {@link MockData}
+   */
+  public MockData getData() {
+    return data;
+  }
+
+  /**
+   * Gets the number of requests received so far.
+   * 
+   * @return The number of requests
+   */
+  public long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  /**
+   * Drops all serialized responses, so the next requests see changes made to the {@link MockData}.
+   */
+  public void clearResponseCache() {
+    responseCache.clear();
+  }
+
+  /**
+   * Sets whether xREL API errors are sent with status {@code 200} instead of a {@code 4xx} status.
+   * Rate limit errors are always sent with {@code 429}.
+   * 
+   * @param errorsAsSuccess {@code true} to send errors with {@code 200}
+   */
+  public void setErrorsAsSuccess(boolean errorsAsSuccess) {
+    this.errorsAsSuccess = errorsAsSuccess;
+  }
+
+  /**
+   * Limits the requests to {@code limit} per window. Use a limit of {@code -1} to disable the rate
+   * limit, which is the default. No X-RateLimit-* headers are sent while it is disabled.
+   * 
+   * @param limit The number of requests allowed per window
+   * @param window The length of a window
+   * @param unit The unit of the window
+   */
+  public void setRateLimit(int limit, long window, TimeUnit unit) {
+    rateLimitLock.lock();
+    try {
+      this.rateLimit = limit;
+      this.rateLimitWindowMillis = unit.toMillis(window);
+      this.windowStart = 0;
+      this.windowCount = 0;
+    } finally {
+      rateLimitLock.unlock();
+    }
+  }
+
+  /**
+   * Stops the server, waiting for running requests for at most one second.
+   */
+  @Override
+  public void close() {
+    server.stop(1);
+    executor.close();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requestCount.increment();
+    try {
+      if (!checkRateLimit(exchange.getResponseHeaders())) {
+        send(exchange, 429, error("rate_limit_exceeded", "Rate limit exceeded."));
+        return;
+      }
+      Route route = routes.get(exchange.getRequestURI().getRawPath().substring(BASE_PATH.length()));
+      if (route == null || !route.method.equals(exchange.getRequestMethod())) {
+        sendError(exchange, 404, "invalid_method", "This method does not exist.");
+        return;
+      }
+      String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+      if ((authorization == null && route.authorization)
+          || (authorization != null && !authorization.startsWith("Bearer "))) {
+        sendError(exchange, 401, "invalid_token", "A valid access token is required.");
+        return;
+      }
+
+      String query = exchange.getRequestURI().getRawQuery();
+      String cacheKey = route.method.equals("GET") ? route.name + "?" + query : null;
+      byte[] body = cacheKey == null ? null : responseCache.get(cacheKey);
+      if (body == null) {
+        Map<String, List<String>> parameters = parse(query);
+        if (route.method.equals("POST")) {
+          parse(readBody(exchange)).forEach(
+              (key, values) -> parameters.computeIfAbsent(key, k -> new ArrayList<>())
+                  .addAll(values));
+        }
+        Object response = dispatch(route.name, parameters);
+        body = response instanceof byte[] ? (byte[]) response
+            : objectMapper.writeValueAsBytes(response);
+        if (cacheKey != null) {
+          responseCache.put(cacheKey, body);
+        }
+      }
+      if (route.name.startsWith("nfo/")) {
+        exchange.getResponseHeaders().set("Content-Type", "image/png");
+      }
+      send(exchange, 200, body);
+    } catch (ApiException e) {
+      sendError(exchange, e.status, e.error, e.getMessage());
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private Object dispatch(String name, Map<String, List<String>> parameters)
+      throws ApiException {
+    switch (name) {
+      case "release/info":
+        return found(data.getRelease(first(parameters, "id"), first(parameters, "dirname")));
+      case "release/latest":
+      case "release/browse_category":
+        return page(data.getReleases(), parameters);
+      case "release/categories":
+      case "release/filters":
+      case "ext_info/media":
+        return Collections.emptyList();
+      case "release/ext_info":
+        found(data.getExtInfo(first(parameters, "id")));
+        return page(data.getReleasesByExtInfo(first(parameters, "id")), parameters);
+      case "release/addproof": {
+        ReleaseAddProof addProof = new ReleaseAddProof();
+        addProof.setProofUrl("https://www.xrel.to/proof/mock.html");
+        addProof.setReleases(parameters.getOrDefault("id", Collections.emptyList()));
+        return addProof;
+      }
+      case "p2p/releases":
+        return page(filter(data.getP2pReleases(), parameters), parameters);
+      case "p2p/categories":
+        return data.getP2pCategories();
+      case "p2p/rls_info":
+        return found(data.getP2pRelease(first(parameters, "id"), first(parameters, "dirname")));
+      case "nfo/release":
+        found(data.getRelease(first(parameters, "id"), null));
+        return NFO_IMAGE;
+      case "nfo/p2p_rls":
+        found(data.getP2pRelease(first(parameters, "id"), null));
+        return NFO_IMAGE;
+      case "calendar/upcoming":
+        return data.getExtInfos()
+            .subList(0, Math.min(MockData.CALENDAR_SIZE, data.getExtInfos().size()));
+      case "ext_info/info":
+      case "ext_info/rate":
+        return found(data.getExtInfo(first(parameters, "id")));
+      case "search/releases":
+        return searchReleases(parameters);
+      case "search/ext_info": {
+        ExtInfoSearchResult result = new ExtInfoSearchResult();
+        List<ExtInfo> results = search(data.getExtInfos(), ExtInfo::getTitle, parameters);
+        result.setTotal(results.size());
+        result.setResults(limit(results, parameters));
+        return result;
+      }
+      case "favs/lists":
+        return data.getFavorites();
+      case "favs/list_entries":
+        return found(data.getFavorite(number(parameters, "id", 0))).getEntries();
+      case "favs/list_addentry":
+      case "favs/list_delentry": {
+        FavoriteAddDelEntry addDelEntry = new FavoriteAddDelEntry();
+        addDelEntry.setFavList(found(data.getFavorite(number(parameters, "id", 0))));
+        addDelEntry.setExtInfo(found(data.getExtInfo(first(parameters, "ext_info_id"))));
+        return addDelEntry;
+      }
+      case "favs/list_markread": {
+        FavoriteMarkRead markRead = new FavoriteMarkRead();
+        markRead.setFavList(found(data.getFavorite(number(parameters, "id", 0))));
+        return markRead;
+      }
+      case "comments/get":
+        return comments(parameters);
+      case "comments/add": {
+        Comment comment = data.getComment(found(release(parameters)).getId(), 0);
+        comment.setText(first(parameters, "text"));
+        return comment;
+      }
+      case "user/info": {
+        User user = new User();
+        user.setId("1");
+        user.setName("mock");
+        user.setLocale("de_DE");
+        return user;
+      }
+      case "oauth2/token": {
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("token_type", "Bearer");
+        token.put("expires_in", 3600);
+        token.put("access_token", "mock-access-" + System.nanoTime());
+        token.put("refresh_token", "mock-refresh-" + System.nanoTime());
+        return token;
+      }
+      default:
+        throw new ApiException(404, "invalid_method", "This method does not exist.");
+    }
+  }
+
+  private ReleaseSearchResult searchReleases(Map<String, List<String>> parameters) {
+    ReleaseSearchResult result = new ReleaseSearchResult();
+    List<Release> releases = Collections.emptyList();
+    List<P2pRelease> p2pReleases = Collections.emptyList();
+    if (!"false".equals(first(parameters, "scene"))) {
+      releases = search(data.getReleases(), Release::getDirname, parameters);
+    }
+    if ("true".equals(first(parameters, "p2p"))) {
+      p2pReleases = search(data.getP2pReleases(), P2pRelease::getDirname, parameters);
+    }
+    result.setTotal(releases.size() + p2pReleases.size());
+    result.setResults(limit(releases, parameters));
+    result.setP2pResults(limit(p2pReleases, parameters));
+    return result;
+  }
+
+  private PaginationList<Comment> comments(Map<String, List<String>> parameters)
+      throws ApiException {
+    ReleaseBase release = found(release(parameters));
+    int perPage = perPage(parameters);
+    int page = (int) Math.max(1, number(parameters, "page", 1));
+    List<Comment> list = new ArrayList<>(perPage);
+    for (int i = (page - 1) * perPage; i < data.getCommentsPerRelease() && list.size() < perPage;
+        i++) {
+      list.add(data.getComment(release.getId(), i));
+    }
+    return paginationList(list, data.getCommentsPerRelease(), perPage, page);
+  }
+
+  private ReleaseBase release(Map<String, List<String>> parameters) {
+    String id = first(parameters, "id");
+    return "p2p_rls".equals(first(parameters, "type")) ? data.getP2pRelease(id, null)
+        : data.getRelease(id, null);
+  }
+
+  private List<P2pRelease> filter(List<P2pRelease> p2pReleases,
+      Map<String, List<String>> parameters) {
+    String categoryId = first(parameters, "category_id");
+    String groupId = first(parameters, "group_id");
+    String extInfoId = first(parameters, "ext_info_id");
+    if (categoryId == null && groupId == null && extInfoId == null) {
+      return p2pReleases;
+    }
+    List<P2pRelease> result = new ArrayList<>();
+    for (P2pRelease p2pRelease : p2pReleases) {
+      if ((categoryId == null || categoryId.equals(p2pRelease.getCategory().getId()))
+          && (groupId == null || groupId.equals(p2pRelease.getGroup().getId()))
+          && (extInfoId == null || extInfoId.equals(p2pRelease.getExtInfo().getId()))) {
+        result.add(p2pRelease);
+      }
+    }
+    return result;
+  }
+
+  private <T> List<T> search(List<T> list, Function<T, String> text,
+      Map<String, List<String>> parameters) {
+    String q = first(parameters, "q");
+    String needle = q == null ? "" : q.toLowerCase(Locale.ROOT);
+    Predicate<T> matches = element -> text.apply(element).toLowerCase(Locale.ROOT)
+        .contains(needle);
+    List<T> result = new ArrayList<>();
+    for (T element : list) {
+      if (matches.test(element)) {
+        result.add(element);
+      }
+    }
+    return result;
+  }
+
+  // The total of a search counts all matches, only the returned lists are limited
+  private static <T> List<T> limit(List<T> list, Map<String, List<String>> parameters) {
+    int limit = (int) Math.min(100, Math.max(1, number(parameters, "limit", 25)));
+    return list.size() <= limit ? list : new ArrayList<>(list.subList(0, limit));
+  }
+
+  private <T> PaginationList<T> page(List<T> list, Map<String, List<String>> parameters) {
+    int perPage = perPage(parameters);
+    int page = (int) Math.max(1, number(parameters, "page", 1));
+    int from = (int) Math.min(list.size(), (long) (page - 1) * perPage);
+    int to = Math.min(list.size(), from + perPage);
+    return paginationList(new ArrayList<>(list.subList(from, to)), list.size(), perPage, page);
+  }
+
+  private static <T> PaginationList<T> paginationList(List<T> list, long totalCount,
+      int perPage, int page) {
+    Pagination pagination = new Pagination();
+    pagination.setCurrentPage(page);
+    pagination.setPerPage(perPage);
+    pagination.setTotalPages(Math.max(1, (totalCount + perPage - 1) / perPage));
+    PaginationList<T> paginationList = new PaginationList<>();
+    paginationList.setTotalCount(totalCount);
+    paginationList.setPagination(pagination);
+    paginationList.setList(list);
+    return paginationList;
+  }
+
+  private static int perPage(Map<String, List<String>> parameters) {
+    return (int) Math.min(100, Math.max(5, number(parameters, "per_page", 25)));
+  }
+
+  private boolean checkRateLimit(Headers headers) {
+    rateLimitLock.lock();
+    try {
+      if (rateLimit < 0) {
+        return true;
+      }
+      long now = System.currentTimeMillis();
+      if (windowStart == 0 || now >= windowStart + rateLimitWindowMillis) {
+        windowStart = now;
+        windowCount = 0;
+      }
+      boolean allowed = windowCount < rateLimit;
+      if (allowed) {
+        windowCount++;
+      }
+      headers.set("X-RateLimit-Limit", String.valueOf(rateLimit));
+      headers.set("X-RateLimit-Remaining", String.valueOf(rateLimit - windowCount));
+      headers.set("X-RateLimit-Reset",
+          String.valueOf((windowStart + rateLimitWindowMillis + 999) / 1000));
+      return allowed;
+    } finally {
+      rateLimitLock.unlock();
+    }
+  }
+
+  private void sendError(HttpExchange exchange, int status, String error, String description)
+      throws IOException {
+    send(exchange, errorsAsSuccess ? 200 : status, error(error, description));
+  }
+
+  private byte[] error(String error, String description) throws JsonProcessingException {
+    Map<String, String> body = new LinkedHashMap<>();
+    body.put("error", error);
+    body.put("error_type", "api_error");
+    body.put("error_description", description);
+    return objectMapper.writeValueAsBytes(body);
+  }
+
+  private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+    Headers headers = exchange.getResponseHeaders();
+    if (!headers.containsKey("Content-Type")) {
+      headers.set("Content-Type", "application/json; charset=utf-8");
+    }
+    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    if (acceptEncoding != null && acceptEncoding.contains("gzip")
+        && body.length >= MIN_COMPRESSION_SIZE) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+      try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+        outputStream.write(body);
+      }
+      body = compressed.toByteArray();
+      headers.set("Content-Encoding", "gzip");
+    }
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(body);
+    }
+  }
+
+  private static String readBody(HttpExchange exchange) throws IOException {
+    try (InputStream inputStream = exchange.getRequestBody()) {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        body.write(buffer, 0, read);
+      }
+      return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static Map<String, List<String>> parse(String query) {
+    Map<String, List<String>> parameters = new HashMap<>();
+    if (query == null || query.isEmpty()) {
+      return parameters;
+    }
+    try {
+      for (String pair : query.split("&")) {
+        int separator = pair.indexOf('=');
+        String key = separator < 0 ? pair : pair.substring(0, separator);
+        String value = separator < 0 ? "" : pair.substring(separator + 1);
+        parameters.computeIfAbsent(URLDecoder.decode(key, "UTF-8"), k -> new ArrayList<>())
+            .add(URLDecoder.decode(value, "UTF-8"));
+      }
+    } catch (UnsupportedEncodingException e) {
+      // Every JVM supports UTF-8
+      throw new IllegalStateException(e);
+    }
+    return parameters;
+  }
+
+  private static String first(Map<String, List<String>> parameters, String key) {
+    List<String> values = parameters.get(key);
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+
+  private static long number(Map<String, List<String>> parameters, String key,
+      long defaultValue) {
+    String value = first(parameters, key);
+    try {
+      return value == null ? defaultValue : Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  private static <T> T found(T value) throws ApiException {
+    if (value == null) {
+      throw new ApiException(404, "not_found", "The requested item could not be found.");
+    }
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "MockXrelServer [getBaseUrl()=" + getBaseUrl() + ", getRequestCount()="
+        + getRequestCount() + ", getData()=" + getData() + "]";
+  }
+
+  /**
+   * A route of the xREL API as defined in {@link XrelService}.
+   */
+  private static final class Route {
+
+    private final String name;
+    private final String method;
+    private final boolean authorization;
+
+    private Route(String name, String method, boolean authorization) {
+      this.name = name;
+      this.method = method;
+      this.authorization = authorization;
+    }
+
+  }
+
+  /**
+   * An error returned in the format of the xREL API.
+   */
+  private static final class ApiException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final String error;
+
+    private ApiException(int status, String error, String description) {
+      super(description, null, false, false);
+      this.status = status;
+      this.error = error;
+    }
+
+  }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.github.saftsau.xrel4j.PaginationList;
+import com.github.saftsau.xrel4j.RestClientConfiguration;
+import com.github.saftsau.xrel4j.Xrel;
+import com.github.saftsau.xrel4j.XrelException;
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.mock.MockXrelServer;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import okhttp3.Headers;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests recording responses of a {@link MockXrelServer} into a {@link Cassette}, saving and loading
+ * it and replaying it after the server is gone.
+ */
+public class CassetteTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final RestClientConfiguration previousConfiguration =
+      Xrel.getRestClientConfiguration();
+  private final Xrel xrel = new Xrel("id", "secret");
+
+  @After
+  public void tearDown() throws Exception {
+    Xrel.setRestClientConfiguration(previousConfiguration);
+    // The rate limit state is global, don't let it leak into other tests
+    while (xrel.getXRateLimitRemaining() == 0
+        && xrel.getXRateLimitReset() * 1000L > System.currentTimeMillis()) {
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  public void replaysOfflineAfterLoad() throws Exception {
+    Path path = folder.getRoot().toPath().resolve("cassette");
+    List<String> page1;
+    List<String> page2;
+    String baseUrl;
+    String id;
+    String dirname;
+    try (MockXrelServer server = new MockXrelServer(new MockData(50, 0, 5, 0, 0))) {
+      server.start();
+      baseUrl = server.getBaseUrl();
+      Cassette cassette = new Cassette();
+      RestClientConfiguration configuration = server.createRestClientConfiguration();
+      configuration.addInterceptor(new RecordingInterceptor(cassette));
+      Xrel.setRestClientConfiguration(configuration);
+
+      page1 = dirnames(xrel.getReleaseLatest(20, 1));
+      page2 = dirnames(xrel.getReleaseLatest(20, 2));
+      id = server.getData().getReleases().get(7).getId();
+      dirname = xrel.getReleaseInfoId(id).getDirname();
+      assertNotFound(() -> xrel.getReleaseInfoId("missing"));
+      assertEquals(server.getRequestCount(), cassette.size());
+      cassette.save(path);
+    }
+
+    RestClientConfiguration configuration = new RestClientConfiguration();
+    // Nothing listens there any more, so every response has to come from the cassette
+    configuration.setBaseUrl(baseUrl);
+    Cassette cassette = Cassette.load(path);
+    assertEquals(4, cassette.size());
+    configuration.addInterceptor(new ReplayInterceptor(cassette));
+    Xrel.setRestClientConfiguration(configuration);
+
+    assertEquals(page2, dirnames(xrel.getReleaseLatest(20, 2)));
+    assertEquals(page1, dirnames(xrel.getReleaseLatest(20, 1)));
+    assertEquals(dirname, xrel.getReleaseInfoId(id).getDirname());
+    assertNotFound(() -> xrel.getReleaseInfoId("missing"));
+    try {
+      xrel.getReleaseLatest(20, 3);
+      fail("XrelException expected");
+    } catch (XrelException e) {
+      // Never recorded
+    }
+  }
+
+  @Test
+  public void savesAndLoadsInteractions() throws Exception {
+    Cassette cassette = new Cassette();
+    Headers headers = new Headers.Builder().add("Content-Type", "application/json")
+        .add("X-RateLimit-Remaining", "7").build();
+    cassette.add(new Interaction("GET /a", 200, "OK", headers, bytes("first"), 12));
+    cassette.add(new Interaction("GET /b", 404, "Not Found", new Headers.Builder().build(),
+        new byte[0], 3));
+    cassette.add(new Interaction("GET /a", 200, "OK", headers, bytes("second"), 5));
+
+    Path path = folder.getRoot().toPath().resolve("cassette");
+    cassette.save(path);
+    Cassette loaded = Cassette.load(path);
+    assertEquals(cassette.size(), loaded.size());
+    for (int i = 0; i < cassette.size(); i++) {
+      Interaction expected = cassette.getInteractions().get(i);
+      Interaction actual = loaded.getInteractions().get(i);
+      assertEquals(expected.getKey(), actual.getKey());
+      assertEquals(expected.getCode(), actual.getCode());
+      assertEquals(expected.getMessage(), actual.getMessage());
+      assertEquals(expected.getHeaders(), actual.getHeaders());
+      assertArrayEquals(expected.getBody(), actual.getBody());
+      assertEquals(expected.getLatencyMillis(), actual.getLatencyMillis());
+    }
+
+    // Repeated requests get their responses in recorded order, then start over
+    assertArrayEquals(bytes("first"), loaded.next("GET /a").getBody());
+    assertArrayEquals(bytes("second"), loaded.next("GET /a").getBody());
+    assertArrayEquals(bytes("first"), loaded.next("GET /a").getBody());
+    loaded.next("GET /b");
+    loaded.rewind();
+    assertArrayEquals(bytes("first"), loaded.next("GET /a").getBody());
+    assertNull(loaded.next("GET /c"));
+  }
+
+  @Test
+  public void replaySimulatesRateLimit() throws Exception {
+    Cassette cassette = new Cassette();
+    String baseUrl;
+    try (MockXrelServer server = new MockXrelServer(new MockData(10, 0, 1, 0, 0))) {
+      server.start();
+      baseUrl = server.getBaseUrl();
+      RestClientConfiguration configuration = server.createRestClientConfiguration();
+      configuration.addInterceptor(new RecordingInterceptor(cassette));
+      Xrel.setRestClientConfiguration(configuration);
+      xrel.getReleaseLatest(5, 1);
+    }
+
+    RestClientConfiguration configuration = new RestClientConfiguration();
+    configuration.setBaseUrl(baseUrl);
+    ReplayInterceptor replay = new ReplayInterceptor(cassette);
+    replay.setRateLimit(2, 1, TimeUnit.SECONDS);
+    configuration.addInterceptor(replay);
+    Xrel.setRestClientConfiguration(configuration);
+
+    xrel.getReleaseLatest(5, 1);
+    assertEquals(1, xrel.getXRateLimitRemaining());
+    xrel.getReleaseLatest(5, 1);
+    assertEquals(0, xrel.getXRateLimitRemaining());
+    try {
+      xrel.getReleaseLatest(5, 1);
+      fail("XrelException expected");
+    } catch (XrelException e) {
+      assertEquals(429, e.getResponseCode());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void loadRejectsOtherFiles() throws Exception {
+    Path path = folder.newFile().toPath();
+    Files.write(path, bytes("not a cassette"));
+    Cassette.load(path);
+  }
+
+  private static List<String> dirnames(PaginationList<Release> releases) {
+    return releases.getList().stream().map(Release::getDirname).collect(Collectors.toList());
+  }
+
+  private static void assertNotFound(Runnable call) {
+    try {
+      call.run();
+      fail("XrelException expected");
+    } catch (XrelException e) {
+      assertEquals(404, e.getResponseCode());
+    }
+  }
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the aggregates of {@link ColumnarQuery} over a file written by
+ * {@link ColumnarExporter} match the same aggregates computed over the releases themselves.
+ */
+public class ColumnarScannerTest {
+
+  private static final int ROWS_PER_CHUNK = 32;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final List<ReleaseBase> releases = new ArrayList<>();
+
+  public ColumnarScannerTest() {
+    MockData data = new MockData(200, 50, 20, 0, 0);
+    releases.addAll(data.getReleases());
+    releases.addAll(data.getP2pReleases());
+    // Without group, size and ext info
+    Release empty = new Release();
+    empty.setId("empty");
+    empty.setTime(data.getReleases().get(0).getTime());
+    releases.add(empty);
+  }
+
+  @Test
+  public void readsBackAggregates() throws Exception {
+    try (ColumnarScanner scanner = new ColumnarScanner(export())) {
+      assertEquals(releases.size(), scanner.getRowCount());
+      assertEquals((releases.size() + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK,
+          scanner.getChunkCount());
+      assertTrue(scanner.hasColumn(ReleaseColumn.SIZE_BYTES));
+
+      assertEquals(releases.size(), scanner.query().count());
+      assertEquals(sum(ReleaseColumn.SIZE_BYTES, release -> true),
+          scanner.query().sum(ReleaseColumn.SIZE_BYTES));
+      assertEquals(sumBy(ReleaseColumn.GROUP, null, release -> true),
+          scanner.query().countBy(ReleaseColumn.GROUP));
+      assertEquals(sumBy(ReleaseColumn.TYPE, ReleaseColumn.COMMENTS, release -> true),
+          scanner.query().sumBy(ReleaseColumn.TYPE, ReleaseColumn.COMMENTS));
+      assertEquals(sumBy(ReleaseColumn.TIME, null, release -> true),
+          scanner.query().countBy(ReleaseColumn.TIME));
+    }
+  }
+
+  @Test
+  public void filtersRows() throws Exception {
+    long from = releases.get(50).getEpochSecond();
+    long to = releases.get(150).getEpochSecond();
+    Predicate<ReleaseBase> between = release -> ReleaseColumn.TIME.getLong(release) >= from
+        && ReleaseColumn.TIME.getLong(release) < to;
+    Predicate<ReleaseBase> p2p =
+        release -> "p2p_rls".equals(ReleaseColumn.TYPE.getString(release));
+    Predicate<ReleaseBase> dirname = release -> release.getDirname() != null
+        && release.getDirname().contains("1");
+
+    try (ColumnarScanner scanner = new ColumnarScanner(export())) {
+      assertEquals(count(p2p), scanner.query().whereEquals(ReleaseColumn.TYPE, "p2p_rls").count());
+      assertEquals(sum(ReleaseColumn.SIZE_BYTES, between), scanner.query()
+          .whereBetween(ReleaseColumn.TIME, from, to).sum(ReleaseColumn.SIZE_BYTES));
+      assertEquals(sumBy(ReleaseColumn.GROUP, null, between.and(dirname)),
+          scanner.query().whereBetween(ReleaseColumn.TIME, from, to)
+              .whereText(ReleaseColumn.DIRNAME, text -> text != null && text.contains("1"))
+              .countBy(ReleaseColumn.GROUP));
+      assertEquals(count(release -> release.getComments() == 0 && !p2p.test(release)),
+          scanner.query().whereNumber(ReleaseColumn.COMMENTS, comments -> comments == 0)
+              .whereEquals(ReleaseColumn.TYPE, "release").count());
+      assertEquals(0, scanner.query().whereBetween(ReleaseColumn.TIME, 0, 1).count());
+    }
+  }
+
+  @Test
+  public void exportsStoreOrderedByTime() throws Exception {
+    Path path = folder.newFile().toPath();
+    try (ReleaseStore store = new ReleaseStore(folder.newFolder().toPath(), 64 * 1024)) {
+      store.putAll(releases);
+      assertEquals(releases.size(), ColumnarExporter.export(store, path));
+    }
+    try (ColumnarScanner scanner = new ColumnarScanner(path)) {
+      assertEquals(releases.size(), scanner.getRowCount());
+      assertEquals(sum(ReleaseColumn.SIZE_BYTES, release -> true),
+          scanner.query().sum(ReleaseColumn.SIZE_BYTES));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void rejectsIncompleteFile() throws Exception {
+    Path path = folder.newFile().toPath();
+    ColumnarExporter exporter = new ColumnarExporter(path, ROWS_PER_CHUNK);
+    exporter.addAll(releases);
+    // Not closed, so the footer is missing
+    Files.copy(path, folder.getRoot().toPath().resolve("copy"));
+    exporter.close();
+    new ColumnarScanner(folder.getRoot().toPath().resolve("copy")).close();
+  }
+
+  private Path export() throws IOException {
+    Path path = folder.newFile().toPath();
+    try (ColumnarExporter exporter = new ColumnarExporter(path, ROWS_PER_CHUNK)) {
+      exporter.addAll(releases);
+      assertEquals(releases.size(), exporter.getRowCount());
+    }
+    return path;
+  }
+
+  private long count(Predicate<ReleaseBase> filter) {
+    return releases.stream().filter(filter).count();
+  }
+
+  private long sum(ReleaseColumn column, Predicate<ReleaseBase> filter) {
+    return releases.stream().filter(filter).mapToLong(column::getLong).sum();
+  }
+
+  /**
+   * Computes {@link ColumnarQuery#sumBy(ReleaseColumn, ReleaseColumn)}, or
+   * {@link ColumnarQuery#countBy(ReleaseColumn)} if {@code column} is {@code null}.
+   */
+  private Map<String, Long> sumBy(ReleaseColumn groupColumn, ReleaseColumn column,
+      Predicate<ReleaseBase> filter) {
+    Map<String, Long> result = new HashMap<>();
+    for (ReleaseBase release : releases) {
+      if (filter.test(release)) {
+        String key = groupColumn.isNumeric() ? String.valueOf(groupColumn.getLong(release))
+            : groupColumn.getString(release);
+        result.merge(key, column == null ? 1 : column.getLong(release), Long::sum);
+      }
+    }
+    return result;
+  }
+
+}
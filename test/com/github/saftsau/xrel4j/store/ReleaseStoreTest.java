@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 saftsau
+ *
+ * This file is part of xREL4J.
+ *
+ * xREL4J is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * xREL4J is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with xREL4J. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.saftsau.xrel4j.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.saftsau.xrel4j.extinfo.ExtInfo;
+import com.github.saftsau.xrel4j.mock.MockData;
+import com.github.saftsau.xrel4j.release.ReleaseBase;
+import com.github.saftsau.xrel4j.release.p2p.P2pRelease;
+import com.github.saftsau.xrel4j.release.scene.Release;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link ReleaseCodec} and that a {@link ReleaseStore} reads back what it wrote after it was
+ * opened again.
+ */
+public class ReleaseStoreTest {
+
+  private static final int SEGMENT_SIZE = 16 * 1024;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final MockData data = new MockData(200, 50, 20, 0, 0);
+
+  @Test
+  public void codecRoundTrip() {
+    ReleaseCodec codec = new ReleaseCodec();
+    for (ReleaseBase release : releases()) {
+      assertSameRelease(release, decode(codec.encode(release)));
+    }
+    // Missing values are kept as null
+    Release empty = new Release();
+    empty.setId("empty");
+    Release decoded = (Release) decode(codec.encode(empty));
+    assertSameRelease(empty, decoded);
+    assertNull(decoded.getSize());
+    assertNull(decoded.getExtInfo());
+    assertNull(decoded.getFlags());
+  }
+
+  @Test
+  public void readsBackAfterReopen() throws Exception {
+    Path directory = folder.newFolder().toPath();
+    List<ReleaseBase> releases = releases();
+    try (ReleaseStore store = new ReleaseStore(directory, SEGMENT_SIZE)) {
+      assertEquals(releases.size(), store.putAll(releases));
+    }
+
+    try (ReleaseStore store = new ReleaseStore(directory, SEGMENT_SIZE)) {
+      assertEquals(releases.size(), store.size());
+      assertTrue(store.getSegmentCount() > 1);
+      for (ReleaseBase release : releases) {
+        ReleaseBase stored = release instanceof P2pRelease ? store.getP2pRelease(release.getId())
+            : store.getRelease(release.getId());
+        assertSameRelease(release, stored);
+      }
+      assertNull(store.getRelease(data.getP2pReleases().get(0).getId()));
+
+      // Appends continue after the records read on open
+      Release release = data.getReleases().get(0);
+      Release renamed = (Release) decode(new ReleaseCodec().encode(release));
+      renamed.setDirname("Renamed-GRP");
+      store.put(renamed);
+    }
+
+    try (ReleaseStore store = new ReleaseStore(directory, SEGMENT_SIZE)) {
+      assertEquals(releases.size(), store.size());
+      assertEquals("Renamed-GRP", store.getRelease(data.getReleases().get(0).getId()).getDirname());
+      assertSameRelease(data.getReleases().get(1), store.getRelease(data.getReleases().get(1)
+          .getId()));
+    }
+  }
+
+  @Test
+  public void scansByTime() throws Exception {
+    List<ReleaseBase> releases = releases();
+    try (ReleaseStore store = new ReleaseStore(folder.newFolder().toPath(), SEGMENT_SIZE)) {
+      store.putAll(releases);
+
+      List<ReleaseBase> scanned = new ArrayList<>();
+      store.scan(scanned::add);
+      assertEquals(releases.size(), scanned.size());
+      for (int i = 1; i < scanned.size(); i++) {
+        assertTrue(scanned.get(i - 1).getEpochSecond() <= scanned.get(i).getEpochSecond());
+      }
+
+      long from = scanned.get(10).getEpochSecond();
+      long to = scanned.get(40).getEpochSecond();
+      List<ReleaseBase> range = new ArrayList<>();
+      store.scan(from, to, range::add);
+      long expected = releases.stream()
+          .filter(release -> release.getEpochSecond() >= from && release.getEpochSecond() < to)
+          .count();
+      assertEquals(expected, range.size());
+      for (ReleaseBase release : range) {
+        assertTrue(release.getEpochSecond() >= from && release.getEpochSecond() < to);
+      }
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsUseAfterClose() throws Exception {
+    ReleaseStore store = new ReleaseStore(folder.newFolder().toPath(), SEGMENT_SIZE);
+    store.close();
+    store.getRelease("1");
+  }
+
+  private List<ReleaseBase> releases() {
+    List<ReleaseBase> releases = new ArrayList<>(data.getReleases());
+    releases.addAll(data.getP2pReleases());
+    return releases;
+  }
+
+  private static ReleaseBase decode(ReleaseCodec codec) {
+    ByteBuffer buffer = ByteBuffer.allocate(codec.length());
+    codec.writeTo(buffer);
+    buffer.flip();
+    return ReleaseCodec.decode(buffer);
+  }
+
+  private static void assertSameRelease(ReleaseBase expected, ReleaseBase actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getDirname(), actual.getDirname());
+    assertEquals(expected.getLinkHref(), actual.getLinkHref());
+    assertEquals(expected.getNumRatings(), actual.getNumRatings());
+    assertEquals(expected.getVideoRating(), actual.getVideoRating(), 0);
+    assertEquals(expected.getAudioRating(), actual.getAudioRating(), 0);
+    assertEquals(expected.getTvSeason(), actual.getTvSeason());
+    assertEquals(expected.getTvEpisode(), actual.getTvEpisode());
+    assertEquals(expected.getComments(), actual.getComments());
+    assertEquals(expected.getEpochSecond(), actual.getEpochSecond());
+    assertEquals(expected.getSizeBytes(), actual.getSizeBytes());
+    assertSameExtInfo(expected.getExtInfo(), actual.getExtInfo());
+    if (expected instanceof P2pRelease) {
+      P2pRelease expectedP2p = (P2pRelease) expected;
+      P2pRelease actualP2p = (P2pRelease) actual;
+      assertEquals(expectedP2p.getCategory().getId(), actualP2p.getCategory().getId());
+      assertEquals(expectedP2p.getCategory().getMetaCat(), actualP2p.getCategory().getMetaCat());
+      assertEquals(expectedP2p.getMainLang(), actualP2p.getMainLang());
+      assertEquals(expectedP2p.getPostTime(), actualP2p.getPostTime());
+      assertEquals(expectedP2p.getGroup().getName(), actualP2p.getGroup().getName());
+    } else {
+      Release expectedRelease = (Release) expected;
+      Release actualRelease = (Release) actual;
+      assertEquals(expectedRelease.getGroupName(), actualRelease.getGroupName());
+      assertEquals(expectedRelease.getNukeReason(), actualRelease.getNukeReason());
+      assertEquals(expectedRelease.getVideoType(), actualRelease.getVideoType());
+      assertEquals(expectedRelease.getAudioType(), actualRelease.getAudioType());
+      assertEquals(expectedRelease.getProofUrl(), actualRelease.getProofUrl());
+      assertEquals(expectedRelease.getFlags(), actualRelease.getFlags());
+    }
+  }
+
+  private static void assertSameExtInfo(ExtInfo expected, ExtInfo actual) {
+    if (expected == null) {
+      assertNull(actual);
+      return;
+    }
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getType(), actual.getType());
+    assertEquals(expected.getTitle(), actual.getTitle());
+    assertEquals(expected.getRating(), actual.getRating(), 0);
+    assertEquals(expected.getUris(), actual.getUris());
+  }
+
+}